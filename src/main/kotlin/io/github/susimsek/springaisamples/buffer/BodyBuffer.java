@@ -0,0 +1,165 @@
+package io.github.susimsek.springaisamples.buffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+public final class BodyBuffer implements Closeable {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final byte[] content;
+    private final Path file;
+    private final long size;
+    private final BodyBufferPool pool;
+    private List<ByteBuffer> slabs;
+
+    private BodyBuffer(byte[] content, List<ByteBuffer> slabs, BodyBufferPool pool, Path file, long size) {
+        this.content = content;
+        this.slabs = slabs;
+        this.pool = pool;
+        this.file = file;
+        this.size = size;
+    }
+
+    public static BodyBuffer of(byte[] content) {
+        return new BodyBuffer(content, List.of(), null, null, content.length);
+    }
+
+    static BodyBuffer empty() {
+        return of(EMPTY);
+    }
+
+    static BodyBuffer pooled(List<ByteBuffer> slabs, long size, BodyBufferPool pool) {
+        return new BodyBuffer(null, slabs, pool, null, size);
+    }
+
+    static BodyBuffer spilled(Path file, long size) {
+        return new BodyBuffer(null, List.of(), null, file, size);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    public InputStream openStream() throws IOException {
+        if (content != null) {
+            return new ByteArrayInputStream(content);
+        }
+        if (file != null) {
+            return Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ));
+        }
+        return new SlabInputStream(slabs, size);
+    }
+
+    public byte[] toByteArray() {
+        if (content != null) {
+            return content;
+        }
+        return file != null ? readFile() : copySlabs();
+    }
+
+    private byte[] copySlabs() {
+        byte[] bytes = new byte[Math.toIntExact(size)];
+        int offset = 0;
+        for (ByteBuffer slab : slabs) {
+            int length = slab.limit();
+            slab.get(0, bytes, offset, length);
+            offset += length;
+        }
+        return bytes;
+    }
+
+    private byte[] readFile() {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            return buffer.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (pool != null) {
+            slabs.forEach(pool::release);
+            slabs = List.of();
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static final class SlabInputStream extends InputStream {
+
+        private final Iterator<ByteBuffer> slabs;
+        private ByteBuffer current = ByteBuffer.allocate(0);
+        private long remaining;
+
+        private SlabInputStream(List<ByteBuffer> slabs, long size) {
+            this.slabs = slabs.iterator();
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer slab = readableSlab();
+            if (slab == null) {
+                return -1;
+            }
+            remaining--;
+            return slab.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer slab = readableSlab();
+            if (slab == null) {
+                return -1;
+            }
+            int length = Math.min(len, slab.remaining());
+            slab.get(b, off, length);
+            remaining -= length;
+            return length;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+
+        private ByteBuffer readableSlab() {
+            while (!current.hasRemaining()) {
+                if (!slabs.hasNext()) {
+                    return null;
+                }
+                current = slabs.next().duplicate();
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package io.github.susimsek.springaisamples.buffer;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.exception.buffer.BodyBufferExceptionHandler;
+import io.github.susimsek.springaisamples.exception.buffer.PayloadTooLargeException;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.Assert;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+@RequiredArgsConstructor
+public class BodyBufferFilter extends OncePerRequestFilter implements Ordered {
+
+    private final BodyBufferPool bodyBufferPool;
+    private final BodyBufferExceptionHandler bodyBufferExceptionHandler;
+    private final RoutePolicyRegistry routePolicyRegistry;
+    private final int order;
+
+    private static final String PAYLOAD_TOO_LARGE_MESSAGE = "Request body exceeds %d bytes";
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !routePolicyRegistry.resolve(request).isBodyLimited();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+        long maxBodySize = routePolicyRegistry.resolve(request).getMaxBodySize();
+        if (request.getContentLengthLong() > maxBodySize) {
+            bodyBufferPool.recordRejection();
+            handlePayloadTooLarge(request, response, new PayloadTooLargeException(
+                PAYLOAD_TOO_LARGE_MESSAGE.formatted(maxBodySize), maxBodySize));
+            return;
+        }
+
+        try (RequestBodyReader bodyReader = bodyBufferPool.newReader(maxBodySize)) {
+            request.setAttribute(RequestBodyReader.ATTRIBUTE_NAME, bodyReader);
+            FilterStageRecorder.proceed(FilterOrder.BODY_BUFFER, filterChain, request, response);
+        } catch (PayloadTooLargeException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            handlePayloadTooLarge(request, response, e);
+        } finally {
+            request.removeAttribute(RequestBodyReader.ATTRIBUTE_NAME);
+        }
+    }
+
+    private void handlePayloadTooLarge(HttpServletRequest request, HttpServletResponse response,
+                                       PayloadTooLargeException e) throws IOException, ServletException {
+        bodyBufferExceptionHandler.handle(request, response, e);
+    }
+
+    @AllArgsConstructor
+    private static class RequestMatcherConfig {
+        private final RequestMatcher requestMatcher;
+        private boolean limited;
+        private long maxSize;
+
+        private RouteRule toRouteRule() {
+            boolean ruleLimited = limited;
+            long ruleMaxSize = maxSize;
+            return new RouteRule(requestMatcher, policy -> policy
+                .bodyLimited(ruleLimited)
+                .maxBodySize(ruleMaxSize));
+        }
+    }
+
+    public interface InitialBuilder {
+        InitialBuilder order(int order);
+
+        AfterRequestMatchersBuilder anyRequest();
+
+        AfterRequestMatchersBuilder requestMatchers(HttpMethod method, String... patterns);
+
+        AfterRequestMatchersBuilder requestMatchers(String... patterns);
+
+        AfterRequestMatchersBuilder requestMatchers(RequestMatcher... requestMatchers);
+
+        BodyBufferFilter build();
+    }
+
+    public interface AfterRequestMatchersBuilder {
+        InitialBuilder permitAll();
+
+        InitialBuilder maxSize(DataSize maxSize);
+    }
+
+    public static InitialBuilder builder(BodyBufferPool bodyBufferPool,
+                                         BodyBufferExceptionHandler bodyBufferExceptionHandler,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(bodyBufferPool, bodyBufferExceptionHandler, routePolicyRegistry);
+    }
+
+    private static class Builder extends AbstractRequestMatcherRegistry<Builder>
+        implements InitialBuilder, AfterRequestMatchersBuilder {
+
+        private final BodyBufferPool bodyBufferPool;
+        private final BodyBufferExceptionHandler bodyBufferExceptionHandler;
+        private final RoutePolicyRegistry routePolicyRegistry;
+        private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
+        private boolean anyRequestConfigured = false;
+        private boolean defaultLimited = false;
+        private long defaultMaxSize = Long.MAX_VALUE;
+        private int order = FilterOrder.BODY_BUFFER.order();
+        private int lastIndex = 0;
+
+        private Builder(BodyBufferPool bodyBufferPool,
+                        BodyBufferExceptionHandler bodyBufferExceptionHandler,
+                        RoutePolicyRegistry routePolicyRegistry) {
+            this.bodyBufferPool = bodyBufferPool;
+            this.bodyBufferExceptionHandler = bodyBufferExceptionHandler;
+            this.routePolicyRegistry = routePolicyRegistry;
+        }
+
+        @Override
+        public Builder requestMatchers(HttpMethod method, String... patterns) {
+            lastIndex = requestMatcherConfigs.size();
+            for (String pattern : patterns) {
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(
+                    RouteRequestMatcher.antMatcher(method, pattern), false, Long.MAX_VALUE));
+            }
+            return this;
+        }
+
+        @Override
+        public Builder requestMatchers(String... patterns) {
+            lastIndex = requestMatcherConfigs.size();
+            for (String pattern : patterns) {
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(
+                    RouteRequestMatcher.antMatcher(pattern), false, Long.MAX_VALUE));
+            }
+            return this;
+        }
+
+        @Override
+        public Builder requestMatchers(RequestMatcher... requestMatchers) {
+            lastIndex = requestMatcherConfigs.size();
+            for (RequestMatcher requestMatcher : requestMatchers) {
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(requestMatcher, false, Long.MAX_VALUE));
+            }
+            return this;
+        }
+
+        @Override
+        public Builder anyRequest() {
+            Assert.state(!this.anyRequestConfigured, "anyRequest() can only be called once");
+            this.anyRequestConfigured = true;
+            return this;
+        }
+
+        @Override
+        public Builder permitAll() {
+            Assert.state(anyRequestConfigured || !requestMatcherConfigs.isEmpty(),
+                "permitAll() can only be called after requestMatchers() or anyRequest()");
+            if (anyRequestConfigured) {
+                this.defaultLimited = false;
+            } else {
+                requestMatcherConfigs.stream()
+                    .skip(lastIndex)
+                    .forEach(config -> config.limited = false);
+            }
+            return this;
+        }
+
+        @Override
+        public Builder maxSize(DataSize maxSize) {
+            Assert.state(anyRequestConfigured || !requestMatcherConfigs.isEmpty(),
+                "maxSize() can only be called after requestMatchers() or anyRequest()");
+            long maxBytes = maxSize.toBytes();
+            if (anyRequestConfigured) {
+                this.defaultLimited = true;
+                this.defaultMaxSize = maxBytes;
+            } else {
+                requestMatcherConfigs.stream()
+                    .skip(lastIndex)
+                    .forEach(config -> {
+                        config.limited = true;
+                        config.maxSize = maxBytes;
+                    });
+            }
+            return this;
+        }
+
+        @Override
+        public Builder order(int order) {
+            this.order = order;
+            return this;
+        }
+
+        @Override
+        public BodyBufferFilter build() {
+            boolean defaultLimited = this.defaultLimited;
+            long defaultMaxSize = this.defaultMaxSize;
+            routePolicyRegistry.register(FilterOrder.BODY_BUFFER, policy -> policy
+                    .bodyLimited(defaultLimited)
+                    .maxBodySize(defaultMaxSize),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
+            return new BodyBufferFilter(bodyBufferPool, bodyBufferExceptionHandler,
+                routePolicyRegistry, order);
+        }
+
+        @Override
+        protected Builder chainRequestMatchers(List<RequestMatcher> requestMatchers) {
+            this.requestMatchers(requestMatchers.toArray(new RequestMatcher[0]));
+            return this;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.susimsek.springaisamples.buffer;
+
+import io.github.susimsek.springaisamples.exception.buffer.PayloadTooLargeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class BodyBufferPool {
+
+    private static final String SPILL_FILE_PREFIX = "body-";
+    private static final String SPILL_FILE_SUFFIX = ".buf";
+
+    private final int slabSize;
+    private final boolean direct;
+    private final long spillThreshold;
+    private final Path spillDirectory;
+    private final BlockingQueue<ByteBuffer> slabs;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter spills;
+    private final Counter rejections;
+
+    public BodyBufferPool(BodyBufferProperties properties, MeterRegistry meterRegistry) {
+        this.slabSize = Math.toIntExact(properties.getSlabSize().toBytes());
+        this.direct = properties.getDirect();
+        this.spillThreshold = properties.getSpillThreshold().toBytes();
+        this.spillDirectory = properties.getSpillDirectory() != null
+            ? Path.of(properties.getSpillDirectory())
+            : Path.of(System.getProperty("java.io.tmpdir"));
+        this.slabs = new ArrayBlockingQueue<>(properties.getMaxPooledSlabs());
+        this.hits = Counter.builder("body.buffer.pool.acquire")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("body.buffer.pool.acquire")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        this.spills = Counter.builder("body.buffer.spills")
+            .register(meterRegistry);
+        this.rejections = Counter.builder("body.buffer.rejections")
+            .register(meterRegistry);
+        Gauge.builder("body.buffer.pool.available", slabs, BlockingQueue::size)
+            .register(meterRegistry);
+    }
+
+    public RequestBodyReader newReader(long maxSize) {
+        return new RequestBodyReader(this, maxSize);
+    }
+
+    public void recordRejection() {
+        rejections.increment();
+    }
+
+    BodyBuffer read(InputStream inputStream, long maxSize) throws IOException {
+        ReadableByteChannel source = Channels.newChannel(inputStream);
+        List<ByteBuffer> filled = new ArrayList<>();
+        ByteBuffer slab = acquire();
+        FileChannel spillChannel = null;
+        Path spillFile = null;
+        long total = 0;
+        try {
+            int read;
+            while ((read = source.read(slab)) >= 0) {
+                total += read;
+                if (total > maxSize) {
+                    rejections.increment();
+                    throw new PayloadTooLargeException("Request body exceeds " + maxSize + " bytes", maxSize);
+                }
+                if (slab.hasRemaining()) {
+                    continue;
+                }
+                if (spillChannel == null && total > spillThreshold) {
+                    spillFile = Files.createTempFile(spillDirectory, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+                    spillChannel = FileChannel.open(spillFile, StandardOpenOption.WRITE);
+                    spills.increment();
+                    for (ByteBuffer buffer : filled) {
+                        writeFully(spillChannel, buffer.flip());
+                        release(buffer);
+                    }
+                    filled.clear();
+                }
+                if (spillChannel != null) {
+                    writeFully(spillChannel, slab.flip());
+                    slab.clear();
+                } else {
+                    filled.add(slab);
+                    slab = acquire();
+                }
+            }
+            if (spillChannel != null) {
+                writeFully(spillChannel, slab.flip());
+                spillChannel.close();
+                BodyBuffer body = BodyBuffer.spilled(spillFile, total);
+                spillFile = null;
+                return body;
+            }
+            filled.add(slab);
+            slab = null;
+            if (total == 0) {
+                return BodyBuffer.empty();
+            }
+            filled.forEach(ByteBuffer::flip);
+            List<ByteBuffer> bodySlabs = List.copyOf(filled);
+            filled.clear();
+            return BodyBuffer.pooled(bodySlabs, total, this);
+        } finally {
+            if (spillChannel != null && spillChannel.isOpen()) {
+                spillChannel.close();
+            }
+            if (spillFile != null) {
+                Files.deleteIfExists(spillFile);
+            }
+            if (slab != null) {
+                release(slab);
+            }
+            filled.forEach(this::release);
+        }
+    }
+
+    private ByteBuffer acquire() {
+        ByteBuffer slab = slabs.poll();
+        if (slab != null) {
+            hits.increment();
+            return slab;
+        }
+        misses.increment();
+        return direct ? ByteBuffer.allocateDirect(slabSize) : ByteBuffer.allocate(slabSize);
+    }
+
+    void release(ByteBuffer slab) {
+        slab.clear();
+        slabs.offer(slab);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
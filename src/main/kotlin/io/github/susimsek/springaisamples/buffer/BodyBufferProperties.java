@@ -0,0 +1,32 @@
+package io.github.susimsek.springaisamples.buffer;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "body-buffer")
+public class BodyBufferProperties {
+
+    @NotNull(message = "{validation.field.notNull}")
+    private DataSize slabSize = DataSize.ofKilobytes(8);
+
+    @NotNull(message = "{validation.field.notNull}")
+    private Integer maxPooledSlabs = 512;
+
+    @NotNull(message = "{validation.field.notNull}")
+    private Boolean direct = false;
+
+    @NotNull(message = "{validation.field.notNull}")
+    private DataSize spillThreshold = DataSize.ofMegabytes(1);
+
+    @NotNull(message = "{validation.field.notNull}")
+    private DataSize maxRequestSize = DataSize.ofMegabytes(10);
+
+    private String spillDirectory;
+}
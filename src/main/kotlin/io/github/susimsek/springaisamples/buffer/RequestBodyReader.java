@@ -0,0 +1,38 @@
+package io.github.susimsek.springaisamples.buffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RequiredArgsConstructor
+public class RequestBodyReader implements Closeable {
+
+    public static final String ATTRIBUTE_NAME = RequestBodyReader.class.getName();
+
+    private final BodyBufferPool bodyBufferPool;
+    private final long maxSize;
+    private final List<BodyBuffer> buffers = new ArrayList<>();
+
+    public BodyBuffer read(InputStream inputStream) throws IOException {
+        BodyBuffer buffer = bodyBufferPool.read(inputStream, maxSize);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    @Override
+    public void close() {
+        for (BodyBuffer buffer : buffers) {
+            try {
+                buffer.close();
+            } catch (IOException e) {
+                log.warn("Could not release request body buffer", e);
+            }
+        }
+        buffers.clear();
+    }
+}
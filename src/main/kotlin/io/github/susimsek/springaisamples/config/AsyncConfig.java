@@ -1,13 +1,18 @@
 package io.github.susimsek.springaisamples.config;
 
 import io.github.susimsek.springaisamples.exception.async.GlobalAsyncExceptionHandler;
+import io.github.susimsek.springaisamples.task.ContextPropagatingTaskDecorator;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -24,8 +29,14 @@ public class AsyncConfig implements AsyncConfigurer {
     private final GlobalAsyncExceptionHandler globalAsyncExceptionHandler;
 
 
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor taskExecutor(TaskDecorator contextPropagatingTaskDecorator) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
         TaskExecutionProperties.Pool pool = taskExecutionProperties.getPool();
@@ -36,6 +47,7 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix());
 
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
 
         executor.setWaitForTasksToCompleteOnShutdown(taskExecutionProperties.getShutdown().isAwaitTermination());
         executor.setAwaitTerminationSeconds((int) taskExecutionProperties.getShutdown().getAwaitTerminationPeriod().getSeconds());
@@ -43,6 +55,25 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualThreadTaskExecutor(TaskDecorator contextPropagatingTaskDecorator) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(
+            taskExecutionProperties.getThreadNamePrefix());
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
+
+        Integer concurrencyLimit = taskExecutionProperties.getSimple().getConcurrencyLimit();
+        if (concurrencyLimit != null) {
+            executor.setConcurrencyLimit(concurrencyLimit);
+        }
+        if (taskExecutionProperties.getShutdown().isAwaitTermination()) {
+            executor.setTaskTerminationTimeout(
+                taskExecutionProperties.getShutdown().getAwaitTerminationPeriod().toMillis());
+        }
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return globalAsyncExceptionHandler;
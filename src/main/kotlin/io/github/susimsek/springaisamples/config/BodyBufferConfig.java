@@ -0,0 +1,39 @@
+package io.github.susimsek.springaisamples.config;
+
+import io.github.susimsek.springaisamples.buffer.BodyBufferFilter;
+import io.github.susimsek.springaisamples.buffer.BodyBufferPool;
+import io.github.susimsek.springaisamples.buffer.BodyBufferProperties;
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.exception.buffer.BodyBufferProblemSupport;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(BodyBufferProperties.class)
+public class BodyBufferConfig {
+
+    @Bean
+    public BodyBufferPool bodyBufferPool(BodyBufferProperties bodyBufferProperties,
+                                         MeterRegistry meterRegistry) {
+        return new BodyBufferPool(bodyBufferProperties, meterRegistry);
+    }
+
+    @Bean
+    public BodyBufferFilter bodyBufferFilter(
+        BodyBufferPool bodyBufferPool,
+        BodyBufferProblemSupport problemSupport,
+        BodyBufferProperties bodyBufferProperties,
+        RequestMatchersConfig requestMatchersConfig,
+        RoutePolicyRegistry routePolicyRegistry) {
+        return BodyBufferFilter.builder(bodyBufferPool, problemSupport, routePolicyRegistry)
+            .order(FilterOrder.BODY_BUFFER.order())
+            .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
+            .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
+            .requestMatchers(requestMatchersConfig.actuatorPaths()).permitAll()
+            .anyRequest().maxSize(bodyBufferProperties.getMaxRequestSize())
+            .build();
+    }
+}
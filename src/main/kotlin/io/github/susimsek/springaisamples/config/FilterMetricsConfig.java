@@ -0,0 +1,30 @@
+package io.github.susimsek.springaisamples.config;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.metrics.FilterStageEndpoint;
+import io.github.susimsek.springaisamples.metrics.FilterStageMetrics;
+import io.github.susimsek.springaisamples.metrics.FilterStageMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "filter-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class FilterMetricsConfig {
+
+    @Bean
+    public FilterStageMetrics filterStageMetrics(MeterRegistry meterRegistry) {
+        return new FilterStageMetrics(meterRegistry);
+    }
+
+    @Bean
+    public FilterStageMetricsFilter filterStageMetricsFilter(FilterStageMetrics filterStageMetrics) {
+        return new FilterStageMetricsFilter(filterStageMetrics, FilterOrder.FILTER_METRICS.order());
+    }
+
+    @Bean
+    public FilterStageEndpoint filterStageEndpoint(MeterRegistry meterRegistry) {
+        return new FilterStageEndpoint(meterRegistry);
+    }
+}
@@ -3,12 +3,15 @@ package io.github.susimsek.springaisamples.config;
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.idempotency.IdempotencyProblemSupport;
 import io.github.susimsek.springaisamples.idempotency.IdempotencyFilter;
+import io.github.susimsek.springaisamples.idempotency.IdempotencyProperties;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
 import io.github.susimsek.springaisamples.service.IdempotencyService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
 
 @Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
 public class IdempotencyConfig {
 
     @Bean
@@ -16,16 +19,14 @@ public class IdempotencyConfig {
         IdempotencyService idempotencyService,
         IdempotencyProblemSupport problemSupport,
         RequestMatchersConfig requestMatchersConfig,
-        MvcRequestMatcher.Builder mvc) {
-        return IdempotencyFilter.builder(idempotencyService, problemSupport)
+        RoutePolicyRegistry routePolicyRegistry) {
+        return IdempotencyFilter.builder(idempotencyService, problemSupport, routePolicyRegistry)
             .order(FilterOrder.IDEMPOTENCY.order())
             .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
             .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
             .requestMatchers(requestMatchersConfig.actuatorPaths()).permitAll()
             .requestMatchers(requestMatchersConfig.actuatorPaths()).permitAll()
             .requestMatchers(requestMatchersConfig.actuatorPaths()).permitAll()
-            .requestMatchers(mvc.pattern("/api/v{version}/cities/paged")).permitAll()
-            .requestMatchers(requestMatchersConfig.cityPath()).idempotent()
             .anyRequest().permitAll()
             .build();
     }
@@ -13,19 +13,40 @@ import com.github.loki4j.logback.JavaHttpSender;
 import com.github.loki4j.logback.JsonEncoder;
 import com.github.loki4j.logback.Loki4jAppender;
 import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.logging.accesslog.AccessLog;
+import io.github.susimsek.springaisamples.logging.accesslog.AccessLogEndpoint;
 import io.github.susimsek.springaisamples.logging.aspect.LoggingAspect;
 import io.github.susimsek.springaisamples.logging.config.LoggingProperties;
+import io.github.susimsek.springaisamples.logging.enums.LogFormat;
+import io.github.susimsek.springaisamples.logging.event.AsyncLogEventSink;
+import io.github.susimsek.springaisamples.logging.event.LogEventSink;
+import io.github.susimsek.springaisamples.logging.event.LogEventWriter;
 import io.github.susimsek.springaisamples.logging.filter.LoggingFilter;
+import io.github.susimsek.springaisamples.logging.formatter.CompactJsonLogFormatter;
 import io.github.susimsek.springaisamples.logging.formatter.JsonLogFormatter;
 import io.github.susimsek.springaisamples.logging.formatter.LogFormatter;
 import io.github.susimsek.springaisamples.logging.handler.HttpLoggingHandler;
 import io.github.susimsek.springaisamples.logging.handler.LoggingHandler;
+import io.github.susimsek.springaisamples.logging.sampling.HttpLogSampler;
+import io.github.susimsek.springaisamples.logging.spool.LogSpool;
+import io.github.susimsek.springaisamples.logging.spool.LokiSpoolShipper;
+import io.github.susimsek.springaisamples.logging.spool.SpoolingLokiAppender;
 import io.github.susimsek.springaisamples.logging.strategy.DefaultObfuscationStrategy;
 import io.github.susimsek.springaisamples.logging.strategy.NoOpObfuscationStrategy;
 import io.github.susimsek.springaisamples.logging.strategy.ObfuscationStrategy;
+import io.github.susimsek.springaisamples.logging.utils.JsonBodyMasker;
+import io.github.susimsek.springaisamples.logging.utils.ObjectMasker;
 import io.github.susimsek.springaisamples.logging.utils.Obfuscator;
 import io.github.susimsek.springaisamples.logging.wrapper.HttpLoggingWrapper;
+import io.github.susimsek.springaisamples.metrics.MethodTimings;
+import io.github.susimsek.springaisamples.metrics.ResourceUsageMetrics;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.tracing.Tracer;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
@@ -46,6 +67,8 @@ public class LoggingConfig {
 
     private static final String LOKI_APPENDER_NAME = "LOKI";
     private static final String ASYNC_LOKI_APPENDER_NAME = "ASYNC_LOKI";
+    private static final String SPOOLING_LOKI_APPENDER_NAME = "SPOOLING_LOKI";
+    private static final String ASYNC_SPOOLING_LOKI_APPENDER_NAME = "ASYNC_SPOOLING_LOKI";
 
     @Configuration
     @ConditionalOnProperty(name = "logging.http.enabled", havingValue = "true", matchIfMissing = true)
@@ -57,26 +80,60 @@ public class LoggingConfig {
         }
 
         @Bean
-        public LoggingFilter loggingFilter(LoggingHandler loggingHandler) {
-            return new LoggingFilter(loggingHandler);
+        public LoggingFilter loggingFilter(LoggingHandler loggingHandler,
+                                           ObjectProvider<ResourceUsageMetrics> resourceUsageMetrics,
+                                           ObjectProvider<AccessLog> accessLog) {
+            return new LoggingFilter(loggingHandler, resourceUsageMetrics.getIfAvailable(),
+                accessLog.getIfAvailable());
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "logging.http.access-log.enabled", havingValue = "true")
+    @RequiredArgsConstructor
+    static class AccessLogConfig {
+
+        private final LoggingProperties loggingProperties;
+
+        @Bean
+        public AccessLog accessLog() throws IOException {
+            LoggingProperties.Http.AccessLog accessLogProps = loggingProperties.getHttp().getAccessLog();
+            return AccessLog.open(Path.of(accessLogProps.getDirectory()), accessLogProps.getRecordsPerFile(),
+                accessLogProps.getRetention(), accessLogProps.getMaxSize().toBytes());
+        }
+
+        @Bean
+        public AccessLogEndpoint accessLogEndpoint(AccessLog accessLog) {
+            return new AccessLogEndpoint(accessLog);
         }
     }
 
     @Bean
     @ConditionalOnProperty(name = "logging.aspect.enabled", havingValue = "true", matchIfMissing = true)
-    public LoggingAspect loggingAspect(LoggingHandler loggingHandler) {
-        return new LoggingAspect(loggingHandler);
+    public LoggingAspect loggingAspect(LoggingHandler loggingHandler,
+                                       ObjectProvider<ResourceUsageMetrics> resourceUsageMetrics,
+                                       ObjectProvider<MethodTimings> methodTimings) {
+        return new LoggingAspect(loggingHandler, resourceUsageMetrics.getIfAvailable(),
+            methodTimings.getIfAvailable());
     }
 
     @Bean
     public LoggingHandler loggingHandler(LogFormatter logFormatter,
                                          Obfuscator obfuscator,
+                                         LogEventSink logEventSink,
                                          RequestMatchersConfig requestMatchersConfig,
-                                         Tracer tracer) {
-        return HttpLoggingHandler.builder(tracer, logFormatter, obfuscator)
+                                         Tracer tracer,
+                                         RoutePolicyRegistry routePolicyRegistry,
+                                         MeterRegistry meterRegistry) {
+        LoggingProperties.Http.Sampling sampling = loggingProperties.getHttp().getSampling();
+        return HttpLoggingHandler.builder(tracer, logFormatter, obfuscator, routePolicyRegistry)
             .httpLogLevel(loggingProperties.getHttp().getLogLevel())
+            .maxBodySize((int) loggingProperties.getHttp().getMaxBodySize().toBytes())
             .methodLogLevel(loggingProperties.getAspect().getLogLevel())
             .order(FilterOrder.LOGGING.order())
+            .logEventSink(logEventSink)
+            .httpLogSampler(sampling.isEnabled()
+                ? new HttpLogSampler(sampling, logEventSink::utilization, meterRegistry) : null)
             .requestMatchers(requestMatchersConfig.staticResourcePaths()).permitAll()
             .requestMatchers(requestMatchersConfig.swaggerResourcePaths()).permitAll()
             .requestMatchers(requestMatchersConfig.actuatorEndpoints()).permitAll()
@@ -84,18 +141,39 @@ public class LoggingConfig {
             .build();
     }
 
+    @Bean
+    public LogEventSink logEventSink(LogFormatter logFormatter,
+                                     Obfuscator obfuscator,
+                                     MeterRegistry meterRegistry) {
+        LogEventWriter logEventWriter = new LogEventWriter(obfuscator, logFormatter);
+        LoggingProperties.Pipeline pipeline = loggingProperties.getPipeline();
+        if (!pipeline.isEnabled()) {
+            return logEventWriter;
+        }
+        return new AsyncLogEventSink(logEventWriter, pipeline, meterRegistry);
+    }
+
     @Bean
     public LogFormatter logFormatter(ObjectProvider<ObjectMapper> objectMapperProvider) {
         ObjectMapper objectMapper = objectMapperProvider.getIfAvailable(ObjectMapper::new);
+        if (loggingProperties.getFormat() == LogFormat.COMPACT) {
+            return new CompactJsonLogFormatter(objectMapper);
+        }
         return new JsonLogFormatter(objectMapper);
     }
 
     @Bean
     public ObfuscationStrategy obfuscationStrategy(ObjectMapper objectMapper) {
         if (loggingProperties.getObfuscate().isEnabled()) {
-            return new DefaultObfuscationStrategy(loggingProperties, objectMapper);
+            LoggingProperties.Obfuscate obfuscate = loggingProperties.getObfuscate();
+            JsonBodyMasker jsonBodyMasker = JsonBodyMasker.compile(
+                obfuscate.getJsonBodyFields(), obfuscate.getMaskValue(), objectMapper.getFactory());
+            ObjectMasker objectMasker = new ObjectMasker(JsonBodyMasker.compile(
+                obfuscate.getMethodFields(), obfuscate.getMaskValue(), objectMapper.getFactory()), objectMapper);
+            return new DefaultObfuscationStrategy(loggingProperties, jsonBodyMasker, objectMasker);
         } else {
-            return new NoOpObfuscationStrategy();
+            return new NoOpObfuscationStrategy(new ObjectMasker(JsonBodyMasker.compile(
+                List.of(), loggingProperties.getObfuscate().getMaskValue(), objectMapper.getFactory()), objectMapper));
         }
     }
 
@@ -112,11 +190,12 @@ public class LoggingConfig {
         private final LoggingProperties loggingProperties;
 
         @Bean
+        @ConditionalOnProperty(name = "logging.loki.spool.enabled", havingValue = "false", matchIfMissing = true)
         public AsyncAppender asyncLoki4jAppender(Environment environment) {
             LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
             var loki4jAppender = getLoki4jAppender(context, environment);
 
-            AsyncAppender asyncAppender = getLokiAsyncAppender(context);
+            AsyncAppender asyncAppender = getLokiAsyncAppender(context, ASYNC_LOKI_APPENDER_NAME);
             asyncAppender.addAppender(loki4jAppender);
             asyncAppender.start();
 
@@ -125,10 +204,36 @@ public class LoggingConfig {
             return asyncAppender;
         }
 
-        private AsyncAppender getLokiAsyncAppender(LoggerContext context) {
+        @Bean(destroyMethod = "stop")
+        @ConditionalOnProperty(name = "logging.loki.spool.enabled", havingValue = "true")
+        public AsyncAppender spoolingLokiAppender(Environment environment) throws IOException {
+            LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+            LoggingProperties.Loki lokiProps = loggingProperties.getLoki();
+            LoggingProperties.Loki.Spool spoolProps = lokiProps.getSpool();
+            LogSpool spool = LogSpool.open(Path.of(spoolProps.getDirectory()),
+                (int) spoolProps.getSegmentSize().toBytes(), spoolProps.getMaxSize().toBytes());
+            LokiSpoolShipper shipper = new LokiSpoolShipper(spool, lokiProps, HttpClient.newHttpClient());
+
+            SpoolingLokiAppender spoolingAppender = new SpoolingLokiAppender(spool, shipper,
+                getLabelLayout(context, environment), getPatternLayout(context));
+            spoolingAppender.setContext(context);
+            spoolingAppender.setName(SPOOLING_LOKI_APPENDER_NAME);
+            spoolingAppender.start();
+
+            // The spool writes under its own lock, so request threads only hand events to the async queue
+            AsyncAppender asyncAppender = getLokiAsyncAppender(context, ASYNC_SPOOLING_LOKI_APPENDER_NAME);
+            asyncAppender.addAppender(spoolingAppender);
+            asyncAppender.start();
+
+            Logger rootLogger = context.getLogger(ROOT_LOGGER_NAME);
+            rootLogger.addAppender(asyncAppender);
+            return asyncAppender;
+        }
+
+        private AsyncAppender getLokiAsyncAppender(LoggerContext context, String name) {
             AsyncAppender asyncAppender = new AsyncAppender();
             asyncAppender.setContext(context);
-            asyncAppender.setName(ASYNC_LOKI_APPENDER_NAME);
+            asyncAppender.setName(name);
             asyncAppender.setQueueSize(loggingProperties.getAsync().getQueueSize());
             asyncAppender.setDiscardingThreshold(loggingProperties.getAsync().getDiscardingThreshold());
             asyncAppender.setMaxFlushTime(loggingProperties.getAsync().getMaxFlushTime());
@@ -172,20 +277,11 @@ public class LoggingConfig {
         }
 
         private JsonEncoder getJsonEncoder(LoggerContext context, Environment environment) {
-            String applicationName = environment.getProperty("spring.application.name", "my-app");
-            String applicationEnvironment = environment.getProperty("spring.profiles.active", "default");
-            String hostname = environment.getProperty("HOSTNAME", "localhost");
             var encoder = new JsonEncoder();
             encoder.setContext(context);
             var label = new AbstractLoki4jEncoder.LabelCfg();
             label.setReadMarkers(true);
-            String labelPattern = String.format(
-                "app=%s,host=%s,env=%s,level=%%level,"
-                    + "traceId=%%X{traceId:-unknown},spanId=%%X{spanId:-unknown},"
-                    + "requestId=%%X{requestId:-unknown},correlationId=%%X{correlationId:-unknown}",
-                applicationName, hostname, applicationEnvironment
-            );
-            label.setPattern(labelPattern);
+            label.setPattern(getLabelPattern(environment));
             encoder.setLabel(label);
             encoder.setSortByTime(true);
             encoder.setMessage(getPatternLayout(context));
@@ -193,6 +289,26 @@ public class LoggingConfig {
             return encoder;
         }
 
+        private String getLabelPattern(Environment environment) {
+            String applicationName = environment.getProperty("spring.application.name", "my-app");
+            String applicationEnvironment = environment.getProperty("spring.profiles.active", "default");
+            String hostname = environment.getProperty("HOSTNAME", "localhost");
+            return String.format(
+                "app=%s,host=%s,env=%s,level=%%level,"
+                    + "traceId=%%X{traceId:-unknown},spanId=%%X{spanId:-unknown},"
+                    + "requestId=%%X{requestId:-unknown},correlationId=%%X{correlationId:-unknown}",
+                applicationName, hostname, applicationEnvironment
+            );
+        }
+
+        private Layout<ILoggingEvent> getLabelLayout(LoggerContext context, Environment environment) {
+            var layout = new ch.qos.logback.classic.PatternLayout();
+            layout.setContext(context);
+            layout.setPattern(getLabelPattern(environment));
+            layout.start();
+            return layout;
+        }
+
         private Layout<ILoggingEvent> getPatternLayout(LoggerContext context) {
             var layout = new ch.qos.logback.classic.PatternLayout();
             layout.setContext(context);
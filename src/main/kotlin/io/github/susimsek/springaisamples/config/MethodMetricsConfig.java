@@ -0,0 +1,23 @@
+package io.github.susimsek.springaisamples.config;
+
+import io.github.susimsek.springaisamples.metrics.MethodTimings;
+import io.github.susimsek.springaisamples.metrics.SlowestMethodsEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "method-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MethodMetricsConfig {
+
+    @Bean
+    public MethodTimings methodTimings(MeterRegistry meterRegistry) {
+        return new MethodTimings(meterRegistry);
+    }
+
+    @Bean
+    public SlowestMethodsEndpoint slowestMethodsEndpoint(MethodTimings methodTimings) {
+        return new SlowestMethodsEndpoint(methodTimings);
+    }
+}
@@ -3,23 +3,54 @@ package io.github.susimsek.springaisamples.config;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.ratelimit.RateLimitProblemSupport;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.ratelimit.AdaptiveConcurrencyLimiter;
+import io.github.susimsek.springaisamples.ratelimit.ClusterRateLimitSync;
+import io.github.susimsek.springaisamples.ratelimit.KeyedRateLimiter;
+import io.github.susimsek.springaisamples.ratelimit.RateLimitKeyResolver;
+import io.github.susimsek.springaisamples.ratelimit.RateLimitPeerTransport;
+import io.github.susimsek.springaisamples.ratelimit.RateLimitProperties;
+import io.github.susimsek.springaisamples.ratelimit.RateLimitSyncEndpoint;
 import io.github.susimsek.springaisamples.ratelimit.RateLimitingFilter;
+import io.github.susimsek.springaisamples.ratelimit.TokenBudgetAspect;
+import io.github.susimsek.springaisamples.ratelimit.TokenBudgetLimiter;
+import io.github.susimsek.springaisamples.ratelimit.UpstreamLatencyAspect;
+import io.github.susimsek.springaisamples.ratelimit.WeightedFairQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.ClientHttpRequestFactories;
+import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.client.RestClient;
 
 
 @Configuration(proxyBeanMethods = false)
 @EnableAspectJAutoProxy
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class RateLimitConfig {
 
     @Bean
     public RateLimitingFilter rateLimitingFilter(
         RateLimiterRegistry rateLimiterRegistry,
         RateLimitProblemSupport problemSupport,
-        RequestMatchersConfig requestMatchersConfig) {
-        return RateLimitingFilter.builder(rateLimiterRegistry, problemSupport)
+        RequestMatchersConfig requestMatchersConfig,
+        RoutePolicyRegistry routePolicyRegistry,
+        ObjectProvider<KeyedRateLimiter> keyedRateLimiter,
+        ObjectProvider<RateLimitKeyResolver> rateLimitKeyResolver,
+        ObjectProvider<AdaptiveConcurrencyLimiter> adaptiveConcurrencyLimiter,
+        ObjectProvider<WeightedFairQueue> weightedFairQueue) {
+        return RateLimitingFilter.builder(rateLimiterRegistry, problemSupport, routePolicyRegistry)
             .order(FilterOrder.RATE_LIMIT.order())
+            .keyed(keyedRateLimiter.getIfAvailable(), rateLimitKeyResolver.getIfAvailable())
+            .concurrencyLimiter(adaptiveConcurrencyLimiter.getIfAvailable())
+            .queue(weightedFairQueue.getIfAvailable())
             .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
             .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
             .requestMatchers(requestMatchersConfig.actuatorPaths()).permitAll()
@@ -31,4 +62,93 @@ public class RateLimitConfig {
             .build();
     }
 
-}
\ No newline at end of file
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "rate-limit.keyed.enabled", havingValue = "true")
+    static class KeyedRateLimitConfig {
+
+        @Bean
+        public KeyedRateLimiter keyedRateLimiter(RateLimiterRegistry rateLimiterRegistry,
+                                                 RateLimitProperties rateLimitProperties) {
+            return new KeyedRateLimiter(rateLimiterRegistry, rateLimitProperties.getKeyed());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RateLimitKeyResolver rateLimitKeyResolver(RateLimitProperties rateLimitProperties) {
+            return RateLimitKeyResolver.of(rateLimitProperties.getKeyed());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = {"rate-limit.keyed.enabled", "rate-limit.cluster.enabled"}, havingValue = "true")
+    static class ClusterRateLimitConfig {
+
+        @Bean
+        public ClusterRateLimitSync clusterRateLimitSync(KeyedRateLimiter keyedRateLimiter,
+                                                         DiscoveryClient discoveryClient,
+                                                         RateLimitProperties rateLimitProperties,
+                                                         TaskScheduler taskScheduler) {
+            RateLimitProperties.Cluster cluster = rateLimitProperties.getCluster();
+            // Not the shared builder: sync calls run every interval and should not go through HTTP logging
+            ClientHttpRequestFactorySettings settings = ClientHttpRequestFactorySettings.DEFAULTS
+                .withConnectTimeout(cluster.getRequestTimeout())
+                .withReadTimeout(cluster.getRequestTimeout());
+            RestClient restClient = RestClient.builder()
+                .requestFactory(ClientHttpRequestFactories.get(settings))
+                .build();
+            return new ClusterRateLimitSync(keyedRateLimiter, discoveryClient,
+                RateLimitPeerTransport.http(restClient, cluster.getSyncPath(), cluster.getPort()),
+                cluster, taskScheduler);
+        }
+
+        @Bean
+        public RateLimitSyncEndpoint rateLimitSyncEndpoint(ClusterRateLimitSync clusterRateLimitSync) {
+            return new RateLimitSyncEndpoint(clusterRateLimitSync);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "rate-limit.adaptive.enabled", havingValue = "true")
+    static class AdaptiveConcurrencyConfig {
+
+        @Bean
+        public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(RateLimitProperties rateLimitProperties,
+                                                                     MeterRegistry meterRegistry,
+                                                                     RoutePolicyRegistry routePolicyRegistry) {
+            return new AdaptiveConcurrencyLimiter(rateLimitProperties.getAdaptive(), meterRegistry,
+                routePolicyRegistry);
+        }
+
+        @Bean
+        public UpstreamLatencyAspect upstreamLatencyAspect(AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter) {
+            return new UpstreamLatencyAspect(adaptiveConcurrencyLimiter);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "rate-limit.token-budget.enabled", havingValue = "true")
+    static class TokenBudgetConfig {
+
+        @Bean
+        public TokenBudgetLimiter tokenBudgetLimiter(RateLimitProperties rateLimitProperties) {
+            return new TokenBudgetLimiter(rateLimitProperties.getTokenBudget());
+        }
+
+        @Bean
+        public TokenBudgetAspect tokenBudgetAspect(TokenBudgetLimiter tokenBudgetLimiter) {
+            return new TokenBudgetAspect(tokenBudgetLimiter, RateLimitKeyResolver.subject());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "rate-limit.queue.enabled", havingValue = "true")
+    static class QueueConfig {
+
+        @Bean
+        public WeightedFairQueue weightedFairQueue(RateLimitProperties rateLimitProperties,
+                                                   MeterRegistry meterRegistry) {
+            return new WeightedFairQueue(rateLimitProperties.getQueue(),
+                RateLimitKeyResolver.of(rateLimitProperties.getKeyed()), meterRegistry);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.susimsek.springaisamples.config;
 
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
@@ -11,14 +12,14 @@ public class RequestMatchersConfig {
     private final MvcRequestMatcher.Builder mvc;
 
     public RequestMatcher[] staticResources() {
-        return new MvcRequestMatcher[] {
-            mvc.pattern("/webjars/**"),
-            mvc.pattern("/*.js"),
-            mvc.pattern("/*.css"),
-            mvc.pattern("/*.ico"),
-            mvc.pattern("/*.png"),
-            mvc.pattern("/*.svg"),
-            mvc.pattern("/*.webapp")
+        return new RequestMatcher[] {
+            pattern("/webjars/**"),
+            pattern("/*.js"),
+            pattern("/*.css"),
+            pattern("/*.ico"),
+            pattern("/*.png"),
+            pattern("/*.svg"),
+            pattern("/*.webapp")
         };
     }
 
@@ -35,12 +36,12 @@ public class RequestMatchersConfig {
     }
 
     public RequestMatcher[] swaggerPaths() {
-        return new MvcRequestMatcher[] {
-            mvc.pattern("/swagger-ui.html"),
-            mvc.pattern("/swagger-ui/**"),
-            mvc.pattern("/v3/api-docs/**"),
-            mvc.pattern("/api-docs/**"),
-            mvc.pattern("/api/v1/locales")
+        return new RequestMatcher[] {
+            pattern("/swagger-ui.html"),
+            pattern("/swagger-ui/**"),
+            pattern("/v3/api-docs/**"),
+            pattern("/api-docs/**"),
+            pattern("/api/v1/locales")
         };
     }
 
@@ -53,6 +54,12 @@ public class RequestMatchersConfig {
         };
     }
 
+    public RequestMatcher[] adminActuatorPaths() {
+        return new RequestMatcher[] {
+            pattern("/actuator/accesslog/**")
+        };
+    }
+
     public String[] actuatorEndpoints() {
         return new String[] {
             "/actuator/**"
@@ -60,44 +67,56 @@ public class RequestMatchersConfig {
     }
 
     public RequestMatcher[] actuatorPaths() {
-        return new MvcRequestMatcher[] {
-            mvc.pattern("/actuator/**")
+        return new RequestMatcher[] {
+            pattern("/actuator/**")
         };
     }
 
     public RequestMatcher[] nonModifyingMethods() {
-        return new MvcRequestMatcher[] {
-            mvc.pattern(HttpMethod.GET, "/**"),
-            mvc.pattern(HttpMethod.HEAD, "/**"),
-            mvc.pattern(HttpMethod.OPTIONS, "/**"),
-            mvc.pattern(HttpMethod.TRACE, "/**")
+        return new RequestMatcher[] {
+            pattern(HttpMethod.GET, "/**"),
+            pattern(HttpMethod.HEAD, "/**"),
+            pattern(HttpMethod.OPTIONS, "/**"),
+            pattern(HttpMethod.TRACE, "/**")
         };
     }
 
     public RequestMatcher[] encryptionPaths() {
-        return new MvcRequestMatcher[] {
-            mvc.pattern("/api/v{version}/security/encrypt"),
-            mvc.pattern("/api/v{version}/security/decrypt")
+        return new RequestMatcher[] {
+            pattern("/api/v{version}/security/encrypt"),
+            pattern("/api/v{version}/security/decrypt")
         };
     }
 
     public RequestMatcher signPath() {
-        return  mvc.pattern("/api/v{version}/security/sign");
+        return pattern("/api/v{version}/security/sign");
     }
 
     public RequestMatcher tokenPath() {
-        return  mvc.pattern("/api/v{version}/auth/token");
+        return pattern("/api/v{version}/auth/token");
     }
 
     public RequestMatcher cityPaths() {
-        return  mvc.pattern("/api/v{version}/cities/**");
+        return pattern("/api/v{version}/cities/**");
+    }
+
+    public RequestMatcher cityPagedPath() {
+        return pattern("/api/v{version}/cities/paged");
     }
 
     public RequestMatcher cityPath() {
-        return  mvc.pattern(HttpMethod.GET, "/api/v{version}/cities/{id}");
+        return pattern(HttpMethod.GET, "/api/v{version}/cities/{id}");
     }
 
     public RequestMatcher jwksPath() {
-        return  mvc.pattern("/.well-known/jwks.json");
+        return pattern("/.well-known/jwks.json");
+    }
+
+    private RequestMatcher pattern(String pattern) {
+        return RouteRequestMatcher.of(mvc.pattern(pattern), null, pattern);
+    }
+
+    private RequestMatcher pattern(HttpMethod method, String pattern) {
+        return RouteRequestMatcher.of(mvc.pattern(method, pattern), method, pattern);
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package io.github.susimsek.springaisamples.config;
+
+import io.github.susimsek.springaisamples.metrics.HeaviestRequests;
+import io.github.susimsek.springaisamples.metrics.HeaviestRequestsEndpoint;
+import io.github.susimsek.springaisamples.metrics.ResourceUsageMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "resource-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ResourceMetricsConfig {
+
+    @Bean
+    public HeaviestRequests heaviestRequests(@Value("${resource-metrics.top-requests:20}") int topRequests) {
+        return new HeaviestRequests(topRequests);
+    }
+
+    @Bean
+    public ResourceUsageMetrics resourceUsageMetrics(MeterRegistry meterRegistry,
+                                                     HeaviestRequests heaviestRequests) {
+        return new ResourceUsageMetrics(meterRegistry, heaviestRequests);
+    }
+
+    @Bean
+    public HeaviestRequestsEndpoint heaviestRequestsEndpoint(HeaviestRequests heaviestRequests) {
+        return new HeaviestRequestsEndpoint(heaviestRequests);
+    }
+}
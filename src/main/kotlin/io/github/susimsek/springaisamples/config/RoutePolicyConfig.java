@@ -0,0 +1,25 @@
+package io.github.susimsek.springaisamples.config;
+
+import io.github.susimsek.springaisamples.policy.HandlerPolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+@Configuration(proxyBeanMethods = false)
+public class RoutePolicyConfig {
+
+    @Bean
+    public HandlerPolicyRegistry handlerPolicyRegistry(
+        @Qualifier("requestMappingHandlerMapping")
+        ObjectProvider<RequestMappingHandlerMapping> handlerMappingProvider) {
+        return new HandlerPolicyRegistry(handlerMappingProvider);
+    }
+
+    @Bean
+    public RoutePolicyRegistry routePolicyRegistry(HandlerPolicyRegistry handlerPolicyRegistry) {
+        return new RoutePolicyRegistry(handlerPolicyRegistry);
+    }
+}
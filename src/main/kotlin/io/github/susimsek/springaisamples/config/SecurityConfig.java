@@ -10,10 +10,13 @@ import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import io.github.susimsek.springaisamples.buffer.BodyBufferFilter;
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.security.SecurityProblemSupport;
 import io.github.susimsek.springaisamples.idempotency.IdempotencyFilter;
 import io.github.susimsek.springaisamples.logging.filter.LoggingFilter;
+import io.github.susimsek.springaisamples.metrics.FilterStageEntryFilter;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
 import io.github.susimsek.springaisamples.ratelimit.RateLimitingFilter;
 import io.github.susimsek.springaisamples.repository.RefreshTokenRepository;
 import io.github.susimsek.springaisamples.security.AuthoritiesConstants;
@@ -96,7 +99,8 @@ public class SecurityConfig {
         HeaderValidationFilter headerValidationFilter,
         IdempotencyFilter idempotencyFilter,
         RateLimitingFilter rateLimitFilter,
-        LoggingFilter loggingFilter) throws Exception {
+        LoggingFilter loggingFilter,
+        BodyBufferFilter bodyBufferFilter) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .httpBasic(AbstractHttpConfigurer::disable)
@@ -116,6 +120,7 @@ public class SecurityConfig {
                 authz
                     .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
                     .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
+                    .requestMatchers(requestMatchersConfig.adminActuatorPaths()).hasAuthority(ADMIN)
                     .requestMatchers(requestMatchersConfig.actuatorPaths()).permitAll()
                     .requestMatchers(requestMatchersConfig.encryptionPaths()).permitAll()
                     .requestMatchers(requestMatchersConfig.signPath()).permitAll()
@@ -131,11 +136,13 @@ public class SecurityConfig {
                 .accessDeniedHandler(problemSupport)
                 .jwt(withDefaults()))
             .addFilterBefore(signatureVerificationFilter, BearerTokenAuthenticationFilter.class)
+            .addFilterBefore(new FilterStageEntryFilter(FilterOrder.JWT), BearerTokenAuthenticationFilter.class)
             .addFilterBefore(decryptionFilter, SignatureVerificationFilter.class)
             .addFilterBefore(traceFilter, DecryptionFilter.class)
             .addFilterBefore(headerValidationFilter, TracingFilter.class)
             .addFilterBefore(apiVersionFilter, HeaderValidationFilter.class)
             .addFilterBefore(loggingFilter, ApiVersionFilter.class)
+            .addFilterBefore(bodyBufferFilter, LoggingFilter.class)
             .addFilterAfter(xssFilter, BearerTokenAuthenticationFilter.class)
             .addFilterAfter(idempotencyFilter, XssFilter.class)
             .addFilterAfter(rateLimitFilter, IdempotencyFilter.class)
@@ -252,8 +259,9 @@ public class SecurityConfig {
     public SignatureVerificationFilter signatureVerificationFilter(
         RequestMatchersConfig requestMatchersConfig,
         SignatureService signatureService,
-        SecurityProblemSupport problemSupport) {
-        return SignatureVerificationFilter.builder(signatureService, problemSupport)
+        SecurityProblemSupport problemSupport,
+        RoutePolicyRegistry routePolicyRegistry) {
+        return SignatureVerificationFilter.builder(signatureService, problemSupport, routePolicyRegistry)
             .order(FilterOrder.SIGNATURE_VERIFICATION.order())
             .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
             .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
@@ -269,8 +277,9 @@ public class SecurityConfig {
     public SignatureFilter signatureFilter(
         RequestMatchersConfig requestMatchersConfig,
         SignatureService signatureService,
-        SecurityProblemSupport problemSupport) {
-        return SignatureFilter.builder(signatureService, problemSupport)
+        SecurityProblemSupport problemSupport,
+        RoutePolicyRegistry routePolicyRegistry) {
+        return SignatureFilter.builder(signatureService, problemSupport, routePolicyRegistry)
             .order(FilterOrder.SIGNATURE.order())
             .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
             .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
@@ -287,8 +296,9 @@ public class SecurityConfig {
         RequestMatchersConfig requestMatchersConfig,
         EncryptionService encryptionUtil,
         JsonUtil jsonUtil,
-        SecurityProblemSupport problemSupport) {
-        return DecryptionFilter.builder(encryptionUtil, problemSupport, jsonUtil)
+        SecurityProblemSupport problemSupport,
+        RoutePolicyRegistry routePolicyRegistry) {
+        return DecryptionFilter.builder(encryptionUtil, problemSupport, jsonUtil, routePolicyRegistry)
             .order(FilterOrder.DECRYPTION.order())
             .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
             .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
@@ -305,8 +315,9 @@ public class SecurityConfig {
         RequestMatchersConfig requestMatchersConfig,
         EncryptionService encryptionUtil,
         JsonUtil jsonUtil,
-        SecurityProblemSupport problemSupport) {
-        return EncryptionFilter.builder(encryptionUtil, problemSupport, jsonUtil)
+        SecurityProblemSupport problemSupport,
+        RoutePolicyRegistry routePolicyRegistry) {
+        return EncryptionFilter.builder(encryptionUtil, problemSupport, jsonUtil, routePolicyRegistry)
             .order(FilterOrder.ENCRYPTION.order())
             .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
             .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
@@ -321,8 +332,9 @@ public class SecurityConfig {
     @Bean
     public XssFilter xssFilter(
         RequestMatchersConfig requestMatchersConfig,
-        SanitizationUtil sanitizationUtil) {
-        return XssFilter.builder(sanitizationUtil)
+        SanitizationUtil sanitizationUtil,
+        RoutePolicyRegistry routePolicyRegistry) {
+        return XssFilter.builder(sanitizationUtil, routePolicyRegistry)
             .order(FilterOrder.XSS.order())
             .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
             .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
@@ -1,6 +1,7 @@
 package io.github.susimsek.springaisamples.config;
 
 import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
 import io.github.susimsek.springaisamples.trace.TraceArgumentResolver;
 import io.github.susimsek.springaisamples.trace.TracingFilter;
 import io.micrometer.tracing.Tracer;
@@ -13,8 +14,9 @@ public class TraceConfig {
     @Bean
     public TracingFilter traceFilter(
         RequestMatchersConfig requestMatchersConfig,
-        Tracer tracer) {
-        return TracingFilter.builder(tracer)
+        Tracer tracer,
+        RoutePolicyRegistry routePolicyRegistry) {
+        return TracingFilter.builder(tracer, routePolicyRegistry)
             .order(FilterOrder.TRACE.order())
             .requestMatchers(requestMatchersConfig.staticResources()).permitAll()
             .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
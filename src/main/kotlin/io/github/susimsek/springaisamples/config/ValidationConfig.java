@@ -7,12 +7,12 @@ import static io.github.susimsek.springaisamples.trace.TraceConstants.REQUEST_ID
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.header.HeaderValidationProblemSupport;
 import io.github.susimsek.springaisamples.idempotency.IdempotencyConstants;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
 import io.github.susimsek.springaisamples.trace.TraceConstants;
 import io.github.susimsek.springaisamples.validation.HeaderValidationFilter;
 import jakarta.validation.MessageInterpolator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
 
 @Configuration(proxyBeanMethods = false)
 public class ValidationConfig {
@@ -21,15 +21,15 @@ public class ValidationConfig {
     public HeaderValidationFilter headerValidationFilter(
         RequestMatchersConfig requestMatchersConfig,
         HeaderValidationProblemSupport problemSupport,
-        MvcRequestMatcher.Builder mvc,
-        MessageInterpolator messageInterpolator) {
-        return HeaderValidationFilter.builder(messageInterpolator, problemSupport)
+        MessageInterpolator messageInterpolator,
+        RoutePolicyRegistry routePolicyRegistry) {
+        return HeaderValidationFilter.builder(messageInterpolator, problemSupport, routePolicyRegistry)
             .order(FilterOrder.HEADER_VALIDATION.order())
             .requestMatchers(requestMatchersConfig.staticResources())
             .permitAll()
             .requestMatchers(requestMatchersConfig.swaggerPaths()).permitAll()
             .requestMatchers(requestMatchersConfig.actuatorPaths()).permitAll()
-            .requestMatchers(mvc.pattern("/api/v{version}/cities/paged")).validated()
+            .requestMatchers(requestMatchersConfig.cityPagedPath()).validated()
             .requestMatchers(requestMatchersConfig.cityPath())
             .headerName(IdempotencyConstants.IDEMPOTENCY_HEADER_NAME)
             .notBlank().min(8).max(36).regexp(IDEMPOTENCY_PATTERN_REGEX)
@@ -2,6 +2,7 @@ package io.github.susimsek.springaisamples.config;
 
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.versioning.ApiVersionProblemSupport;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
 import io.github.susimsek.springaisamples.versioning.ApiVersion;
 import io.github.susimsek.springaisamples.versioning.ApiVersionFilter;
 import org.springframework.context.annotation.Bean;
@@ -13,8 +14,9 @@ public class VersioningConfig {
     @Bean
     public ApiVersionFilter apiVersionFilter(
         RequestMatchersConfig requestMatchersConfig,
-        ApiVersionProblemSupport problemSupport) {
-        return ApiVersionFilter.builder(problemSupport)
+        ApiVersionProblemSupport problemSupport,
+        RoutePolicyRegistry routePolicyRegistry) {
+        return ApiVersionFilter.builder(problemSupport, routePolicyRegistry)
             .order(FilterOrder.API_VERSION.order())
             .requestMatchers(requestMatchersConfig.staticResources())
             .permitAll()
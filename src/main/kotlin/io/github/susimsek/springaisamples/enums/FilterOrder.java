@@ -11,19 +11,22 @@ import lombok.experimental.Accessors;
 @Accessors(fluent = true)
 @RequiredArgsConstructor
 public enum FilterOrder {
-    LOGGING(HIGHEST_PRECEDENCE + 1),
-    API_VERSION(HIGHEST_PRECEDENCE + 2),
-    HEADER_VALIDATION(HIGHEST_PRECEDENCE + 3),
-    TRACE(HIGHEST_PRECEDENCE + 4),
-    DECRYPTION(HIGHEST_PRECEDENCE + 5),
-    SIGNATURE_VERIFICATION(HIGHEST_PRECEDENCE + 6),
-    JWT(HIGHEST_PRECEDENCE + 7),
-    XSS(HIGHEST_PRECEDENCE + 8),
-    IDEMPOTENCY(HIGHEST_PRECEDENCE + 9),
-    RATE_LIMIT(HIGHEST_PRECEDENCE + 10),
-    SIGNATURE(HIGHEST_PRECEDENCE + 11),
-    ENCRYPTION(HIGHEST_PRECEDENCE + 12),
-    CIRCUIT_BREAKER(HIGHEST_PRECEDENCE + 13);
+    FILTER_METRICS(HIGHEST_PRECEDENCE),
+    BODY_BUFFER(HIGHEST_PRECEDENCE + 1),
+    LOGGING(HIGHEST_PRECEDENCE + 2),
+    API_VERSION(HIGHEST_PRECEDENCE + 3),
+    HEADER_VALIDATION(HIGHEST_PRECEDENCE + 4),
+    TRACE(HIGHEST_PRECEDENCE + 5),
+    DECRYPTION(HIGHEST_PRECEDENCE + 6),
+    SIGNATURE_VERIFICATION(HIGHEST_PRECEDENCE + 7),
+    JWT(HIGHEST_PRECEDENCE + 8),
+    XSS(HIGHEST_PRECEDENCE + 9),
+    IDEMPOTENCY(HIGHEST_PRECEDENCE + 10),
+    RATE_LIMIT(HIGHEST_PRECEDENCE + 11),
+    CONCURRENCY_LIMIT(HIGHEST_PRECEDENCE + 12),
+    SIGNATURE(HIGHEST_PRECEDENCE + 13),
+    ENCRYPTION(HIGHEST_PRECEDENCE + 14),
+    CIRCUIT_BREAKER(HIGHEST_PRECEDENCE + 15);
 
     private final int order;
 }
\ No newline at end of file
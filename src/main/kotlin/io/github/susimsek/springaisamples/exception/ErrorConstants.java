@@ -24,8 +24,10 @@ public final class ErrorConstants {
     public static final String RATE_LIMITING_ERROR = "error.rateLimiting";
     public static final String INTERNAL_SERVER_ERROR = "error.internalServerError";
     public static final String IDEMPOTENCY_KEY_MISSING = "error.idempotencyKey.missing";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "error.idempotencyKey.inProgress";
     public static final String UNSUPPORTED_OPERATION = "error.unsupportedOperation";
     public static final String CIRCUIT_BREAKER_ERROR = "error.circuitBreaker";
     public static final String GATEWAY_TIMEOUT = "error.gatewayTimeout";
     public static final String UNSUPPORTED_API_VERSION = "error.unsupportedApiVersion";
+    public static final String PAYLOAD_TOO_LARGE = "error.payloadTooLarge";
 }
\ No newline at end of file
@@ -8,8 +8,10 @@ import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.core.IntervalFunction;
+import io.github.susimsek.springaisamples.exception.buffer.PayloadTooLargeException;
 import io.github.susimsek.springaisamples.exception.encryption.JweException;
 import io.github.susimsek.springaisamples.exception.header.HeaderConstraintViolationException;
+import io.github.susimsek.springaisamples.exception.idempotency.IdempotencyKeyInProgressException;
 import io.github.susimsek.springaisamples.exception.idempotency.MissingIdempotencyKeyException;
 import io.github.susimsek.springaisamples.exception.ratelimit.RateLimitExceededException;
 import io.github.susimsek.springaisamples.exception.security.JwsException;
@@ -194,6 +196,14 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             ErrorConstants.IDEMPOTENCY_KEY_MISSING, new HttpHeaders(), request);
     }
 
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    protected ResponseEntity<Object> handleIdempotencyKeyInProgressException(
+        @NonNull IdempotencyKeyInProgressException ex,
+        @NonNull WebRequest request) {
+        return createProblemDetailResponse(ex, HttpStatus.CONFLICT,
+            ErrorConstants.IDEMPOTENCY_KEY_IN_PROGRESS, new HttpHeaders(), request);
+    }
+
     @ExceptionHandler(AuthenticationException.class)
     protected ResponseEntity<Object> handleAuthentication(@NonNull AuthenticationException ex,
                                                           @NonNull WebRequest request) {
@@ -239,6 +249,13 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             ErrorConstants.NO_HANDLER_FOUND, headers, request);
     }
 
+    @ExceptionHandler(PayloadTooLargeException.class)
+    protected ResponseEntity<Object> handlePayloadTooLargeException(@NonNull PayloadTooLargeException ex,
+                                                                   @NonNull WebRequest request) {
+        return createProblemDetailResponse(ex, HttpStatus.PAYLOAD_TOO_LARGE,
+            ErrorConstants.PAYLOAD_TOO_LARGE, new HttpHeaders(), request);
+    }
+
     @ExceptionHandler(RateLimitExceededException.class)
     protected ResponseEntity<Object> handleRateLimitExceededException(
         @NonNull RateLimitExceededException ex,
@@ -0,0 +1,12 @@
+package io.github.susimsek.springaisamples.exception.buffer;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+public interface BodyBufferExceptionHandler {
+
+    void handle(HttpServletRequest request, HttpServletResponse response,
+                PayloadTooLargeException exception) throws IOException, ServletException;
+}
@@ -0,0 +1,20 @@
+package io.github.susimsek.springaisamples.exception.buffer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+@Component
+@RequiredArgsConstructor
+public class BodyBufferProblemSupport implements BodyBufferExceptionHandler {
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    @Override
+    public void handle(HttpServletRequest request, HttpServletResponse response,
+                       PayloadTooLargeException ex) {
+        handlerExceptionResolver.resolveException(request, response, null, ex);
+    }
+}
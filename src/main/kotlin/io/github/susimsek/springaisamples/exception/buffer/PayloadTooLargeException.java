@@ -0,0 +1,14 @@
+package io.github.susimsek.springaisamples.exception.buffer;
+
+import lombok.Getter;
+
+@Getter
+public class PayloadTooLargeException extends RuntimeException {
+
+    private final long maxSize;
+
+    public PayloadTooLargeException(String message, long maxSize) {
+        super(message);
+        this.maxSize = maxSize;
+    }
+}
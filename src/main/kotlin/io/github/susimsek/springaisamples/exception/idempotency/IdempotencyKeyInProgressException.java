@@ -0,0 +1,12 @@
+package io.github.susimsek.springaisamples.exception.idempotency;
+
+public class IdempotencyKeyInProgressException extends IdempotencyException {
+
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+
+    public IdempotencyKeyInProgressException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,9 +1,113 @@
 package io.github.susimsek.springaisamples.idempotency;
 
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
 
+/**
+ * A response kept for replay under its idempotency key. Bodies of at least {@value #COMPRESSION_THRESHOLD}
+ * bytes are kept gzip-compressed, unless the response already carries a content encoding of its own.
+ */
 public record CachedResponse(
     int status,
     HttpHeaders headers,
-    String body) {
-}
\ No newline at end of file
+    @Nullable String contentType,
+    @Nullable String characterEncoding,
+    byte[] body,
+    int contentLength,
+    boolean compressed) {
+
+    static final int COMPRESSION_THRESHOLD = 1024;
+    private static final String GZIP = "gzip";
+    private static final int ENTRY_OVERHEAD = 128;
+
+    public static CachedResponse of(int status, HttpHeaders headers, @Nullable String contentType,
+                                    @Nullable String characterEncoding, byte[] body) {
+        if (body.length < COMPRESSION_THRESHOLD || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return new CachedResponse(status, headers, contentType, characterEncoding, body, body.length, false);
+        }
+        byte[] compressedBody = compress(body);
+        if (compressedBody.length >= body.length) {
+            return new CachedResponse(status, headers, contentType, characterEncoding, body, body.length, false);
+        }
+        return new CachedResponse(status, headers, contentType, characterEncoding, compressedBody, body.length,
+            true);
+    }
+
+    /**
+     * Approximate bytes the response holds on to.
+     */
+    public int weight() {
+        long weight = ENTRY_OVERHEAD + (long) body.length;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            weight += header.getKey().length();
+            for (String value : header.getValue()) {
+                weight += value.length();
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Replays the response. A compressed body is sent as it is stored when the client accepts gzip, and
+     * inflated while it is written otherwise.
+     */
+    public void writeTo(HttpServletResponse response, boolean gzipAccepted) throws IOException {
+        response.setStatus(status);
+        headers.forEach((headerName, headerValues) -> {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(headerName)) {
+                return;
+            }
+            // Replaces what the current request has set so far, such as its rate limit headers
+            for (int i = 0; i < headerValues.size(); i++) {
+                if (i == 0) {
+                    response.setHeader(headerName, headerValues.get(i));
+                } else {
+                    response.addHeader(headerName, headerValues.get(i));
+                }
+            }
+        });
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        if (characterEncoding != null) {
+            response.setCharacterEncoding(characterEncoding);
+        }
+        ServletOutputStream outputStream = response.getOutputStream();
+        if (!compressed) {
+            response.setContentLength(body.length);
+            outputStream.write(body);
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipAccepted) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            response.setContentLength(body.length);
+            outputStream.write(body);
+        } else {
+            response.setContentLength(contentLength);
+            try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                inputStream.transferTo(outputStream);
+            }
+        }
+    }
+
+    private static byte[] compress(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+            outputStream.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -4,16 +4,21 @@ import static io.github.susimsek.springaisamples.idempotency.IdempotencyConstant
 
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.idempotency.IdempotencyExceptionHandler;
+import io.github.susimsek.springaisamples.exception.idempotency.IdempotencyKeyInProgressException;
 import io.github.susimsek.springaisamples.exception.idempotency.MissingIdempotencyKeyException;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import io.github.susimsek.springaisamples.service.IdempotencyService;
 import io.github.susimsek.springaisamples.utils.HttpHeadersUtil;
+import io.github.susimsek.springaisamples.utils.ResponseCapture;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
@@ -21,10 +26,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -35,10 +38,11 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
 
     private final IdempotencyService idempotencyService;
     private final IdempotencyExceptionHandler idempotencyExceptionHandler;
-    private final List<IdempotencyFilter.RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultIdempotent;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
 
+    private static final String GZIP = "gzip";
+
     @Override
     public int getOrder() {
         return order;
@@ -46,11 +50,7 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.idempotent)
-            .findFirst()
-            .orElse(!defaultIdempotent);
+        return !routePolicyRegistry.resolve(request).isIdempotent();
     }
 
     @Override
@@ -66,27 +66,49 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
 
         String idempotencyKey = optionalJwsToken.get();
 
-        if (idempotencyService.containsKey(idempotencyKey)) {
-            CachedResponse cachedResponse = idempotencyService.getResponse(idempotencyKey);
-            response.setStatus(cachedResponse.status());
-            HttpHeadersUtil.setHttpHeadersToResponse(cachedResponse.headers(), response);
-            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            response.getWriter().write(cachedResponse.body());
+        IdempotencyService.Execution execution;
+        try {
+            execution = idempotencyService.begin(idempotencyKey, idempotencyService.resolveTtl(request));
+        } catch (IdempotencyKeyInProgressException e) {
+            idempotencyExceptionHandler.handle(request, response, e);
+            return;
+        }
+        CachedResponse cachedResponse = execution.getResponse();
+        if (cachedResponse != null) {
+            cachedResponse.writeTo(response, acceptsGzip(request));
             response.flushBuffer();
             return;
         }
 
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
-        filterChain.doFilter(request, responseWrapper);
+        try {
+            ResponseCapture.begin(request, response)
+                .addProcessor(FilterOrder.IDEMPOTENCY,
+                    (capturedRequest, responseWrapper) -> execution.complete(toCachedResponse(responseWrapper)))
+                .proceed(FilterOrder.IDEMPOTENCY, filterChain, request, response);
+        } finally {
+            execution.release();
+        }
+    }
 
-        String responseBody = new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8);
+    private static CachedResponse toCachedResponse(ContentCachingResponseWrapper responseWrapper) {
+        HttpHeaders headers = HttpHeadersUtil.snapshot(HttpHeadersUtil.responseHeaders(responseWrapper));
+        return CachedResponse.of(responseWrapper.getStatus(), headers,
+            responseWrapper.getContentType(), responseWrapper.getCharacterEncoding(),
+            responseWrapper.getContentAsByteArray());
+    }
 
-        HttpHeaders headers = HttpHeadersUtil.convertToHttpHeaders(responseWrapper);
-        CachedResponse cachedResponse = new CachedResponse(responseWrapper.getStatus(),
-            headers, responseBody);
-        idempotencyService.saveResponse(idempotencyKey, cachedResponse);
-        responseWrapper.copyBodyToResponse();
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> acceptEncodings = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (acceptEncodings != null && acceptEncodings.hasMoreElements()) {
+            for (String coding : acceptEncodings.nextElement().split(",")) {
+                String[] parts = coding.split(";");
+                if (GZIP.equalsIgnoreCase(parts[0].trim())
+                    && (parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     private void handleMissingIdempotencyKey(HttpServletRequest request, HttpServletResponse response)
@@ -99,6 +121,11 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
     private static class RequestMatcherConfig {
         private final RequestMatcher requestMatcher;
         private boolean idempotent;
+
+        private RouteRule toRouteRule() {
+            boolean ruleIdempotent = idempotent;
+            return new RouteRule(requestMatcher, policy -> policy.idempotent(ruleIdempotent));
+        }
     }
 
     public interface InitialBuilder {
@@ -122,8 +149,9 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
     }
 
     public static InitialBuilder builder(IdempotencyService idempotencyService,
-                                         IdempotencyExceptionHandler idempotencyExceptionHandler) {
-        return new Builder(idempotencyService, idempotencyExceptionHandler);
+                                         IdempotencyExceptionHandler idempotencyExceptionHandler,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(idempotencyService, idempotencyExceptionHandler, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<IdempotencyFilter.Builder>
@@ -131,6 +159,7 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
 
         private final IdempotencyService idempotencyService;
         private final IdempotencyExceptionHandler idempotencyExceptionHandler;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<IdempotencyFilter.RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultIdempotent = true;
@@ -138,9 +167,11 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
         private int lastIndex = 0;
 
         private Builder(IdempotencyService idempotencyService,
-                        IdempotencyExceptionHandler idempotencyExceptionHandler) {
+                        IdempotencyExceptionHandler idempotencyExceptionHandler,
+                        RoutePolicyRegistry routePolicyRegistry) {
             this.idempotencyService = idempotencyService;
             this.idempotencyExceptionHandler = idempotencyExceptionHandler;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -148,7 +179,7 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), true));
+                    RouteRequestMatcher.antMatcher(method, pattern), true));
             }
             return this;
         }
@@ -157,7 +188,7 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
         public Builder requestMatchers(String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(new AntPathRequestMatcher(pattern), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(RouteRequestMatcher.antMatcher(pattern), true));
             }
             return this;
         }
@@ -210,9 +241,12 @@ public class IdempotencyFilter extends OncePerRequestFilter implements Ordered {
         }
 
         public IdempotencyFilter build() {
+            boolean defaultIdempotent = this.defaultIdempotent;
+            routePolicyRegistry.register(FilterOrder.IDEMPOTENCY, policy -> policy.idempotent(defaultIdempotent),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
             return new IdempotencyFilter(idempotencyService,
                 idempotencyExceptionHandler,
-                requestMatcherConfigs, defaultIdempotent, order);
+                routePolicyRegistry, order);
         }
 
         @Override
@@ -0,0 +1,53 @@
+package io.github.susimsek.springaisamples.idempotency;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Memory the stored responses may take, counted from their compressed bodies and headers.
+     */
+    @NotNull(message = "{validation.field.notNull}")
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    @NotNull(message = "{validation.field.notNull}")
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a request waits for the response of a concurrent request with the same key before it is refused.
+     */
+    @NotNull(message = "{validation.field.notNull}")
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Time to live of the responses of individual routes; the first matching pattern wins.
+     */
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        @NotBlank(message = "{validation.field.notBlank}")
+        private String pattern;
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.susimsek.springaisamples.logging.accesslog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Binary access log made of rotating memory-mapped files of fixed-width records. Writers reserve a slot with
+ * a single atomic increment and write the timestamp last, so a slot with a zero timestamp is either free or
+ * still being written and is skipped by readers. A file is named after the time its first slot was reserved,
+ * which lets a scan skip files outside the requested window; files past the retention period or beyond the
+ * size cap are deleted when a new file is started.
+ */
+public class AccessLog implements Closeable {
+
+    static final int RECORD_SIZE = 64;
+
+    private static final String FILE_PREFIX = "access-";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final String DICTIONARY_FILE = "dictionary.txt";
+    private static final int SCAN_CHUNK_RECORDS = 64 * 1024;
+    private static final long FILE_START_SKEW_MILLIS = 60_000;
+
+    private static final int TIMESTAMP = 0;
+    private static final int ROUTE = 8;
+    private static final int DURATION = 12;
+    private static final int REQUEST_BYTES = 16;
+    private static final int RESPONSE_BYTES = 24;
+    private static final int SUBJECT_HASH = 32;
+    private static final int TRACE_ID_HIGH = 40;
+    private static final int TRACE_ID_LOW = 48;
+    private static final int STATUS = 56;
+    private static final int METHOD = 58;
+    private static final int RATE_LIMITER = 60;
+
+    private final Path directory;
+    private final int recordsPerFile;
+    private final long retentionMillis;
+    private final int maxFiles;
+    private final Clock clock;
+    private final AccessLogDictionary dictionary;
+    private volatile Segment current;
+    private volatile boolean closed;
+
+    AccessLog(Path directory, int recordsPerFile, Duration retention, long maxSize, Clock clock)
+        throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.recordsPerFile = recordsPerFile;
+        this.retentionMillis = retention.toMillis();
+        this.maxFiles = (int) Math.min(Integer.MAX_VALUE,
+            Math.max(2, maxSize / ((long) recordsPerFile * RECORD_SIZE)));
+        this.clock = clock;
+        this.dictionary = new AccessLogDictionary(directory.resolve(DICTIONARY_FILE));
+        // A restart always starts a new file, so slots of the previous run are never handed out again
+        List<Path> files = files();
+        this.current = newSegment(files.isEmpty() ? 0 : startOf(files.get(files.size() - 1)));
+    }
+
+    public static AccessLog open(Path directory, int recordsPerFile, Duration retention, long maxSize)
+        throws IOException {
+        return new AccessLog(directory, recordsPerFile, retention, maxSize, Clock.systemUTC());
+    }
+
+    public void append(AccessLogEntry entry) {
+        while (!closed) {
+            Segment segment = current;
+            int slot = segment.nextSlot().getAndIncrement();
+            if (slot < recordsPerFile) {
+                write(segment.buffer(), slot * RECORD_SIZE, entry);
+                return;
+            }
+            roll(segment);
+        }
+    }
+
+    /**
+     * Streams the entries whose timestamp falls in {@code [from, to)} in parallel, in chunks of each file.
+     */
+    public Stream<AccessLogEntry> scan(long from, long to) {
+        List<Path> files = files();
+        List<Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            long fileStart = startOf(files.get(i));
+            long fileEnd = i + 1 < files.size() ? startOf(files.get(i + 1)) : Long.MAX_VALUE;
+            // Entries are stamped before their slot is reserved, so they can slightly predate their file
+            if (fileStart - FILE_START_SKEW_MILLIS >= to || fileEnd < from - FILE_START_SKEW_MILLIS) {
+                continue;
+            }
+            MappedByteBuffer buffer = mapForRead(files.get(i));
+            if (buffer == null) {
+                continue;
+            }
+            int records = buffer.capacity() / RECORD_SIZE;
+            for (int start = 0; start < records; start += SCAN_CHUNK_RECORDS) {
+                chunks.add(new Chunk(buffer, start, Math.min(records, start + SCAN_CHUNK_RECORDS)));
+            }
+        }
+        return chunks.parallelStream()
+            .flatMap(chunk -> IntStream.range(chunk.start(), chunk.end())
+                .mapToObj(slot -> read(chunk.buffer(), slot * RECORD_SIZE, from, to))
+                .filter(Objects::nonNull));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        current.buffer().force();
+        dictionary.close();
+    }
+
+    private void write(MappedByteBuffer buffer, int offset, AccessLogEntry entry) {
+        buffer.putInt(offset + ROUTE, dictionary.idOf(entry.route()));
+        buffer.putInt(offset + DURATION, (int) Math.min(Integer.MAX_VALUE, entry.durationMicros()));
+        buffer.putLong(offset + REQUEST_BYTES, entry.requestBytes());
+        buffer.putLong(offset + RESPONSE_BYTES, entry.responseBytes());
+        buffer.putLong(offset + SUBJECT_HASH, entry.subjectHash());
+        buffer.putLong(offset + TRACE_ID_HIGH, entry.traceIdHigh());
+        buffer.putLong(offset + TRACE_ID_LOW, entry.traceIdLow());
+        buffer.putShort(offset + STATUS, (short) entry.status());
+        buffer.putShort(offset + METHOD, (short) dictionary.idOf(entry.method()));
+        buffer.putInt(offset + RATE_LIMITER, dictionary.idOf(entry.rateLimiter()));
+        // Orders the fields before the timestamp that publishes them
+        VarHandle.releaseFence();
+        buffer.putLong(offset + TIMESTAMP, entry.timestamp());
+    }
+
+    private AccessLogEntry read(MappedByteBuffer buffer, int offset, long from, long to) {
+        long timestamp = buffer.getLong(offset + TIMESTAMP);
+        if (timestamp == 0 || timestamp < from || timestamp >= to) {
+            return null;
+        }
+        // Pairs with the release fence of the writer, so the fields are read after the timestamp
+        VarHandle.acquireFence();
+        return new AccessLogEntry(
+            timestamp,
+            dictionary.valueOf(buffer.getShort(offset + METHOD)),
+            dictionary.valueOf(buffer.getInt(offset + ROUTE)),
+            buffer.getShort(offset + STATUS),
+            buffer.getInt(offset + DURATION),
+            buffer.getLong(offset + REQUEST_BYTES),
+            buffer.getLong(offset + RESPONSE_BYTES),
+            dictionary.valueOf(buffer.getInt(offset + RATE_LIMITER)),
+            buffer.getLong(offset + SUBJECT_HASH),
+            buffer.getLong(offset + TRACE_ID_HIGH),
+            buffer.getLong(offset + TRACE_ID_LOW));
+    }
+
+    private synchronized void roll(Segment full) {
+        if (closed || current != full) {
+            return;
+        }
+        full.buffer().force();
+        current = newSegment(startOf(full.path()));
+        enforceRetention();
+    }
+
+    private Segment newSegment(long previousStart) {
+        long start = Math.max(clock.millis(), previousStart + 1);
+        Path path = directory.resolve(FILE_PREFIX + start + FILE_SUFFIX);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                (long) recordsPerFile * RECORD_SIZE), new AtomicInteger());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void enforceRetention() {
+        List<Path> files = files();
+        long cutoff = clock.millis() - retentionMillis;
+        for (int i = 0; i < files.size() - 1; i++) {
+            // A file only holds records older than the cutoff once the file after it started before the cutoff
+            boolean expired = startOf(files.get(i + 1)) < cutoff;
+            if (expired || files.size() - i > maxFiles) {
+                delete(files.get(i));
+            }
+        }
+    }
+
+    private List<Path> files() {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                })
+                .sorted((left, right) -> Long.compare(startOf(left), startOf(right)))
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer mapForRead(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            // Deleted by retention between listing and mapping
+            return null;
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long startOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    private record Segment(Path path, MappedByteBuffer buffer, AtomicInteger nextSlot) {
+    }
+
+    private record Chunk(MappedByteBuffer buffer, int start, int end) {
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.susimsek.springaisamples.logging.accesslog;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Append-only string table for the access log. Routes, methods and rate limiter names are stored in records
+ * as ids into this table, which is persisted one value per line so the ids survive a restart.
+ */
+class AccessLogDictionary implements Closeable {
+
+    static final int NONE = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> values = new CopyOnWriteArrayList<>();
+    private final BufferedWriter writer;
+
+    AccessLogDictionary(Path file) throws IOException {
+        if (Files.exists(file)) {
+            for (String value : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                ids.put(value, values.size());
+                values.add(value);
+            }
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    int idOf(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer id = ids.get(value);
+        return id != null ? id : register(value);
+    }
+
+    String valueOf(int id) {
+        return id >= 0 && id < values.size() ? values.get(id) : null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private synchronized int register(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        // Values are single-line route patterns and names, so a line per value is enough
+        String line = value.replace('\n', ' ').replace('\r', ' ');
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int newId = values.size();
+        values.add(line);
+        ids.put(value, newId);
+        return newId;
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.susimsek.springaisamples.logging.accesslog;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+@Endpoint(id = "accesslog")
+@RequiredArgsConstructor
+public class AccessLogEndpoint {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofHours(1);
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final AccessLog accessLog;
+    private final Clock clock;
+
+    public AccessLogEndpoint(AccessLog accessLog) {
+        this(accessLog, Clock.systemUTC());
+    }
+
+    @ReadOperation
+    public List<RouteSummary> routes(@Nullable Duration window, @Nullable String sort, @Nullable Integer limit) {
+        long to = clock.millis();
+        long from = to - (window != null ? window : DEFAULT_WINDOW).toMillis();
+        Map<String, RouteStats> stats = accessLog.scan(from, to)
+            .collect(Collectors.groupingBy(entry -> String.valueOf(entry.route()), routeStats()));
+        return stats.entrySet().stream()
+            .map(entry -> entry.getValue().toSummary(entry.getKey()))
+            .sorted(comparator(sort).reversed())
+            .limit(limit != null && limit > 0 ? limit : DEFAULT_LIMIT)
+            .toList();
+    }
+
+    private static Comparator<RouteSummary> comparator(@Nullable String sort) {
+        if ("bytes".equalsIgnoreCase(sort)) {
+            return Comparator.comparingLong(summary -> summary.requestBytes() + summary.responseBytes());
+        }
+        if ("count".equalsIgnoreCase(sort)) {
+            return Comparator.comparingLong(RouteSummary::count);
+        }
+        return Comparator.comparingDouble(RouteSummary::p99Ms);
+    }
+
+    private static Collector<AccessLogEntry, RouteStats, RouteStats> routeStats() {
+        return Collector.of(RouteStats::new, RouteStats::add, RouteStats::merge);
+    }
+
+    private static final class RouteStats {
+        private long count;
+        private long errors;
+        private long rateLimited;
+        private long requestBytes;
+        private long responseBytes;
+        private int[] durations = new int[16];
+        private final Set<Long> subjects = new HashSet<>();
+        private AccessLogEntry slowest;
+
+        private void add(AccessLogEntry entry) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, durations.length * 2);
+            }
+            durations[(int) count++] = (int) entry.durationMicros();
+            errors += entry.status() >= 500 ? 1 : 0;
+            rateLimited += entry.status() == 429 ? 1 : 0;
+            requestBytes += Math.max(0, entry.requestBytes());
+            responseBytes += Math.max(0, entry.responseBytes());
+            if (entry.subjectHash() != 0) {
+                subjects.add(entry.subjectHash());
+            }
+            if (slowest == null || entry.durationMicros() > slowest.durationMicros()) {
+                slowest = entry;
+            }
+        }
+
+        private RouteStats merge(RouteStats other) {
+            for (int i = 0; i < other.count; i++) {
+                if (count == durations.length) {
+                    durations = Arrays.copyOf(durations,
+                        Math.max(durations.length * 2, (int) (count + other.count)));
+                }
+                durations[(int) count++] = other.durations[i];
+            }
+            errors += other.errors;
+            rateLimited += other.rateLimited;
+            requestBytes += other.requestBytes;
+            responseBytes += other.responseBytes;
+            subjects.addAll(other.subjects);
+            if (slowest == null
+                || other.slowest != null && other.slowest.durationMicros() > slowest.durationMicros()) {
+                slowest = other.slowest;
+            }
+            return this;
+        }
+
+        private RouteSummary toSummary(String route) {
+            int[] sorted = Arrays.copyOf(durations, (int) count);
+            Arrays.sort(sorted);
+            return new RouteSummary(route, count, errors, rateLimited, subjects.size(),
+                percentileMs(sorted, 0.5), percentileMs(sorted, 0.99), sorted[sorted.length - 1] / 1000.0,
+                requestBytes, responseBytes, slowest.traceId());
+        }
+
+        private static double percentileMs(int[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1000.0;
+        }
+    }
+
+    public record RouteSummary(String route, long count, long errors, long rateLimited, int subjects,
+                               double p50Ms, double p99Ms, double maxMs, long requestBytes, long responseBytes,
+                               @Nullable String slowestTraceId) {
+    }
+}
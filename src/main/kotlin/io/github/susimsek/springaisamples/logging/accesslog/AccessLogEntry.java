@@ -0,0 +1,63 @@
+package io.github.susimsek.springaisamples.logging.accesslog;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.springframework.lang.Nullable;
+
+/**
+ * Per-request summary kept in the binary access log. The trace id is held as its two 64-bit halves and the
+ * subject only as a hash, so an entry has the same fixed width on disk whatever the request looked like.
+ */
+public record AccessLogEntry(long timestamp, String method, String route, int status, long durationMicros,
+                             long requestBytes, long responseBytes, @Nullable String rateLimiter,
+                             long subjectHash, long traceIdHigh, long traceIdLow) {
+
+    private static final String SUBJECT_HASH_ALGORITHM = "SHA-256";
+    private static final int TRACE_ID_HALF_LENGTH = 16;
+
+    @Nullable
+    public String traceId() {
+        if (traceIdHigh == 0 && traceIdLow == 0) {
+            return null;
+        }
+        return String.format("%016x%016x", traceIdHigh, traceIdLow);
+    }
+
+    public static long subjectHash(@Nullable String subject) {
+        if (subject == null || subject.isEmpty()) {
+            return 0;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance(SUBJECT_HASH_ALGORITHM)
+                .digest(subject.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = hash << 8 | digest[i] & 0xFF;
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(SUBJECT_HASH_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Splits a 32 or 16 hex digit trace id into its high and low halves; anything else maps to zero.
+     */
+    public static long[] traceIdHalves(@Nullable String traceId) {
+        long[] halves = new long[2];
+        if (traceId == null || traceId.length() != 2 * TRACE_ID_HALF_LENGTH
+            && traceId.length() != TRACE_ID_HALF_LENGTH) {
+            return halves;
+        }
+        try {
+            int split = traceId.length() - TRACE_ID_HALF_LENGTH;
+            halves[0] = split > 0 ? Long.parseUnsignedLong(traceId.substring(0, split), 16) : 0;
+            halves[1] = Long.parseUnsignedLong(traceId.substring(split), 16);
+        } catch (NumberFormatException e) {
+            halves[0] = 0;
+            halves[1] = 0;
+        }
+        return halves;
+    }
+}
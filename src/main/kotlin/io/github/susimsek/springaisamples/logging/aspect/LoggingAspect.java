@@ -1,12 +1,18 @@
 package io.github.susimsek.springaisamples.logging.aspect;
 
 import io.github.susimsek.springaisamples.logging.handler.LoggingHandler;
+import io.github.susimsek.springaisamples.metrics.MethodTimings;
+import io.github.susimsek.springaisamples.metrics.ResourceUsage;
+import io.github.susimsek.springaisamples.metrics.ResourceUsageMetrics;
+import io.github.susimsek.springaisamples.metrics.ThreadResourceMeter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.lang.Nullable;
 import org.springframework.util.StopWatch;
 
 @Aspect
@@ -15,6 +21,10 @@ import org.springframework.util.StopWatch;
 public class LoggingAspect {
 
     private final LoggingHandler loggingHandler;
+    @Nullable
+    private final ResourceUsageMetrics resourceUsageMetrics;
+    @Nullable
+    private final MethodTimings methodTimings;
 
     @Pointcut(
         "@within(io.github.susimsek.springaisamples.logging.annotation.Loggable) || "
@@ -38,9 +48,13 @@ public class LoggingAspect {
         if (loggingHandler.shouldNotMethodLog(joinPoint)) {
             return joinPoint.proceed();
         }
+        if (loggingHandler.isMethodMetricsOnly()) {
+            return timeAround(joinPoint);
+        }
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
-        
+        ThreadResourceMeter resourceMeter = ThreadResourceMeter.start();
+
         String className = joinPoint.getSignature().getDeclaringTypeName();
         String methodName = joinPoint.getSignature().getName();
         Object[] args = joinPoint.getArgs();
@@ -52,15 +66,43 @@ public class LoggingAspect {
             Object result = joinPoint.proceed();
             stopWatch.stop();
             long duration = stopWatch.getTotalTimeMillis();
+            ResourceUsage resourceUsage = recordResourceUsage(className, methodName, resourceMeter);
+            recordTiming(joinPoint, stopWatch.getTotalTimeNanos());
 
             // Log method exit
-            loggingHandler.logMethodExit(className, methodName, result, duration);
+            loggingHandler.logMethodExit(className, methodName, result, duration, resourceUsage);
             return result;
         } catch (Throwable e) {
             stopWatch.stop();
             long duration = stopWatch.getTotalTimeMillis();
-            loggingHandler.logException(className, methodName, args, e.getMessage(), duration);
+            ResourceUsage resourceUsage = recordResourceUsage(className, methodName, resourceMeter);
+            recordTiming(joinPoint, stopWatch.getTotalTimeNanos());
+            loggingHandler.logException(className, methodName, args, e.getMessage(), duration, resourceUsage);
             throw e;
         }
     }
+
+    private Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            recordTiming(joinPoint, System.nanoTime() - start);
+        }
+    }
+
+    private void recordTiming(ProceedingJoinPoint joinPoint, long durationNanos) {
+        if (methodTimings != null && joinPoint.getSignature() instanceof MethodSignature signature) {
+            methodTimings.record(signature.getMethod(), durationNanos);
+        }
+    }
+
+    private ResourceUsage recordResourceUsage(String className, String methodName,
+                                              ThreadResourceMeter resourceMeter) {
+        ResourceUsage resourceUsage = resourceMeter.stop();
+        if (resourceUsageMetrics != null) {
+            resourceUsageMetrics.recordMethod(className, methodName, resourceUsage);
+        }
+        return resourceUsage;
+    }
 }
\ No newline at end of file
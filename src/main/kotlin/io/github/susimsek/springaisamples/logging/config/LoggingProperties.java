@@ -1,11 +1,14 @@
 package io.github.susimsek.springaisamples.logging.config;
 
 import io.github.susimsek.springaisamples.logging.enums.HttpLogLevel;
+import io.github.susimsek.springaisamples.logging.enums.LogFormat;
 import io.github.susimsek.springaisamples.logging.enums.MethodLogLevel;
+import io.github.susimsek.springaisamples.logging.enums.OverflowPolicy;
 import io.github.susimsek.springaisamples.validation.DataSizeMax;
 import io.github.susimsek.springaisamples.validation.DataSizeMin;
 import io.github.susimsek.springaisamples.validation.Enum;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -31,6 +34,10 @@ public class LoggingProperties {
         + "%X{requestId:-},%X{correlationId:-}] [%clr(%t){faint}] %clr(%-40.40logger{39}){cyan} "
         + "%clr(:){faint} %m%n%clr(%wEx){red}";
 
+    @NotNull(message = "{validation.field.notNull}")
+    @Enum(enumClass = LogFormat.class, message = "{validation.field.enum}")
+    private LogFormat format = LogFormat.COMPACT;
+
     @Valid
     @NotNull(message = "{validation.field.notNull}")
     private Http http = new Http();
@@ -47,6 +54,10 @@ public class LoggingProperties {
     @NotNull(message = "{validation.field.notNull}")
     private Async async = new Async();
 
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private Pipeline pipeline = new Pipeline();
+
     @Valid
     @NotNull(message = "{validation.field.notNull}")
     private Loki loki = new Loki();
@@ -59,6 +70,66 @@ public class LoggingProperties {
         @NotNull(message = "{validation.field.notNull}")
         @Enum(enumClass = HttpLogLevel.class, message = "{validation.field.enum}")
         private HttpLogLevel logLevel = HttpLogLevel.BASIC;
+
+        @NotNull(message = "{validation.field.notNull}")
+        @DataSizeMin(value = "1KB", message = "{validation.field.min}")
+        @DataSizeMax(value = "10MB", message = "{validation.field.max}")
+        private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+        @Valid
+        @NotNull(message = "{validation.field.notNull}")
+        private Sampling sampling = new Sampling();
+
+        @Valid
+        @NotNull(message = "{validation.field.notNull}")
+        private AccessLog accessLog = new AccessLog();
+
+        @Getter
+        @Setter
+        public static class Sampling {
+            private boolean enabled = true;
+
+            @NotNull(message = "{validation.field.notNull}")
+            private Duration slowThreshold = Duration.ofSeconds(1);
+
+            @Min(value = 1, message = "{validation.field.min}")
+            private int bodiesPerSecond = 5;
+
+            @Min(value = 1, message = "{validation.field.min}")
+            private int burst = 10;
+
+            @Min(value = 1, message = "{validation.field.min}")
+            @Max(value = 100, message = "{validation.field.max}")
+            private int queueThresholdPercent = 80;
+
+            @Min(value = 1, message = "{validation.field.min}")
+            @Max(value = 100, message = "{validation.field.max}")
+            private int cpuThresholdPercent = 90;
+
+            @NotNull(message = "{validation.field.notNull}")
+            @Enum(enumClass = HttpLogLevel.class, message = "{validation.field.enum}")
+            private HttpLogLevel degradedLogLevel = HttpLogLevel.HEADERS;
+        }
+
+        @Getter
+        @Setter
+        public static class AccessLog {
+            private boolean enabled = false;
+
+            @NotBlank(message = "{validation.field.notBlank}")
+            private String directory = "logs/access";
+
+            @Min(value = 1024, message = "{validation.field.min}")
+            private int recordsPerFile = 1024 * 1024;
+
+            @NotNull(message = "{validation.field.notNull}")
+            private Duration retention = Duration.ofDays(7);
+
+            @NotNull(message = "{validation.field.notNull}")
+            @DataSizeMin(value = "1MB", message = "{validation.field.min}")
+            @DataSizeMax(value = "100GB", message = "{validation.field.max}")
+            private DataSize maxSize = DataSize.ofGigabytes(2);
+        }
     }
 
     @Getter
@@ -103,6 +174,35 @@ public class LoggingProperties {
         private boolean includeCallerData = false;
     }
 
+    @Getter
+    @Setter
+    public static class Pipeline {
+        private boolean enabled = true;
+
+        @Min(value = 2, message = "{validation.field.min}")
+        private int bufferSize = 8192;
+
+        @Min(value = 1, message = "{validation.field.min}")
+        private int consumers = 1;
+
+        @Min(value = 1, message = "{validation.field.min}")
+        private int batchSize = 256;
+
+        @NotNull(message = "{validation.field.notNull}")
+        @Enum(enumClass = OverflowPolicy.class, message = "{validation.field.enum}")
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        @Min(value = 1, message = "{validation.field.min}")
+        @Max(value = 100, message = "{validation.field.max}")
+        private int sampleThresholdPercent = 75;
+
+        @Min(value = 1, message = "{validation.field.min}")
+        private int sampleRate = 10;
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration blockTimeout = Duration.ofMillis(100);
+    }
+
     @Getter
     @Setter
     public static class Loki {
@@ -130,6 +230,10 @@ public class LoggingProperties {
         @NotNull(message = "{validation.field.notNull}")
         private Retry retry = new Retry();
 
+        @Valid
+        @NotNull(message = "{validation.field.notNull}")
+        private Spool spool = new Spool();
+
         private boolean useDirectBuffers = true;
         private boolean drainOnStop = true;
         private boolean metricsEnabled = false;
@@ -154,5 +258,27 @@ public class LoggingProperties {
             @NotNull(message = "{validation.field.notNull}")
             private Duration maxRetryJitter = Duration.ofMillis(500);
         }
+
+        @Getter
+        @Setter
+        public static class Spool {
+            private boolean enabled = false;
+
+            @NotBlank(message = "{validation.field.notBlank}")
+            private String directory = "logs/loki-spool";
+
+            @NotNull(message = "{validation.field.notNull}")
+            @DataSizeMin(value = "64KB", message = "{validation.field.min}")
+            @DataSizeMax(value = "1GB", message = "{validation.field.max}")
+            private DataSize segmentSize = DataSize.ofMegabytes(8);
+
+            @NotNull(message = "{validation.field.notNull}")
+            @DataSizeMin(value = "1MB", message = "{validation.field.min}")
+            @DataSizeMax(value = "10GB", message = "{validation.field.max}")
+            private DataSize maxSize = DataSize.ofMegabytes(256);
+
+            @NotNull(message = "{validation.field.notNull}")
+            private Duration requestTimeout = Duration.ofSeconds(10);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package io.github.susimsek.springaisamples.logging.enums;
+
+public enum LogFormat {
+    PRETTY,
+    COMPACT
+}
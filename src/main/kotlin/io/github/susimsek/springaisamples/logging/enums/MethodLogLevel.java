@@ -1,5 +1,5 @@
 package io.github.susimsek.springaisamples.logging.enums;
 
 public enum MethodLogLevel {
-    NONE, EXCEPTION, BASIC, FULL
+    NONE, METRICS, EXCEPTION, BASIC, FULL
 }
\ No newline at end of file
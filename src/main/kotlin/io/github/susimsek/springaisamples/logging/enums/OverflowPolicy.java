@@ -0,0 +1,7 @@
+package io.github.susimsek.springaisamples.logging.enums;
+
+public enum OverflowPolicy {
+    DROP,
+    SAMPLE,
+    BLOCK
+}
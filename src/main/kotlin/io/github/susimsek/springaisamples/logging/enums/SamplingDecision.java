@@ -0,0 +1,17 @@
+package io.github.susimsek.springaisamples.logging.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum SamplingDecision {
+    ERROR("error"),
+    SLOW("slow"),
+    SAMPLED("sampled"),
+    BUDGET_EXCEEDED("budget_exceeded"),
+    QUEUE_SATURATED("queue_saturated"),
+    CPU_SATURATED("cpu_saturated");
+
+    private final String tag;
+}
@@ -0,0 +1,191 @@
+package io.github.susimsek.springaisamples.logging.event;
+
+import io.github.susimsek.springaisamples.logging.config.LoggingProperties;
+import io.github.susimsek.springaisamples.logging.enums.OverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+@Slf4j
+public class AsyncLogEventSink implements LogEventSink, AutoCloseable {
+
+    private static final int IDLE_SPINS = 100;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final LogEventSink delegate;
+    private final LogEventRingBuffer<LogEvent> ringBuffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleThreshold;
+    private final int sampleRate;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicInteger idleConsumers = new AtomicInteger();
+    private final List<Thread> consumers = new ArrayList<>();
+    private final Counter overflowDrops;
+    private final Counter sampledDrops;
+    private final Counter writtenEvents;
+    private final Counter failedEvents;
+    private volatile boolean running = true;
+
+    public AsyncLogEventSink(LogEventSink delegate, LoggingProperties.Pipeline pipeline,
+                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.ringBuffer = new LogEventRingBuffer<>(pipeline.getBufferSize());
+        this.overflowPolicy = pipeline.getOverflowPolicy();
+        this.sampleThreshold = ringBuffer.capacity() * pipeline.getSampleThresholdPercent() / 100;
+        this.sampleRate = pipeline.getSampleRate();
+        this.blockTimeoutNanos = pipeline.getBlockTimeout().toNanos();
+        this.batchSize = pipeline.getBatchSize();
+
+        Gauge.builder("logging.pipeline.queue.depth", ringBuffer, LogEventRingBuffer::size)
+            .register(meterRegistry);
+        Gauge.builder("logging.pipeline.queue.capacity", ringBuffer, LogEventRingBuffer::capacity)
+            .register(meterRegistry);
+        this.overflowDrops = Counter.builder("logging.pipeline.events.dropped")
+            .tag("reason", "overflow")
+            .register(meterRegistry);
+        this.sampledDrops = Counter.builder("logging.pipeline.events.dropped")
+            .tag("reason", "sampled")
+            .register(meterRegistry);
+        this.writtenEvents = Counter.builder("logging.pipeline.events.written").register(meterRegistry);
+        this.failedEvents = Counter.builder("logging.pipeline.events.failed").register(meterRegistry);
+
+        for (int i = 0; i < pipeline.getConsumers(); i++) {
+            Thread consumer = new Thread(this::consume, "log-pipeline-" + i);
+            consumer.setDaemon(true);
+            consumer.start();
+            consumers.add(consumer);
+        }
+    }
+
+    @Override
+    public void accept(LogEvent event) {
+        if (!running) {
+            delegate.accept(event);
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.SAMPLE && ringBuffer.size() >= sampleThreshold
+            && sampleCounter.getAndIncrement() % sampleRate != 0) {
+            sampledDrops.increment();
+            return;
+        }
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        event.setContext(context != null ? context : Map.of());
+        // Method arguments and results may change once the caller returns, so they are copied here
+        delegate.prepare(event);
+        if (ringBuffer.offer(event)
+            || (overflowPolicy == OverflowPolicy.BLOCK && offerBlocking(event))) {
+            wakeConsumers();
+            return;
+        }
+        overflowDrops.increment();
+    }
+
+    @Override
+    public double utilization() {
+        return (double) ringBuffer.size() / ringBuffer.capacity();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+        for (Thread consumer : consumers) {
+            try {
+                consumer.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<LogEvent> batch = new ArrayList<>(batchSize);
+        while (drainTo(batch) > 0) {
+            write(batch);
+        }
+    }
+
+    private boolean offerBlocking(LogEvent event) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (ringBuffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void consume() {
+        List<LogEvent> batch = new ArrayList<>(batchSize);
+        int spins = 0;
+        while (running) {
+            if (drainTo(batch) > 0) {
+                write(batch);
+                spins = 0;
+            } else if (spins < IDLE_SPINS) {
+                spins++;
+                Thread.onSpinWait();
+            } else {
+                awaitEvents();
+            }
+        }
+    }
+
+    /**
+     * Parks until a producer hands over an event. The buffer is checked again after registering as idle, so an
+     * event offered in between is either seen here or followed by an unpark.
+     */
+    private void awaitEvents() {
+        idleConsumers.incrementAndGet();
+        try {
+            if (running && ringBuffer.size() == 0) {
+                LockSupport.park(this);
+            }
+        } finally {
+            idleConsumers.decrementAndGet();
+        }
+    }
+
+    private void wakeConsumers() {
+        if (idleConsumers.get() == 0) {
+            return;
+        }
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private int drainTo(List<LogEvent> batch) {
+        LogEvent event;
+        while (batch.size() < batchSize && (event = ringBuffer.poll()) != null) {
+            batch.add(event);
+        }
+        return batch.size();
+    }
+
+    private void write(List<LogEvent> batch) {
+        for (LogEvent event : batch) {
+            try {
+                delegate.accept(event);
+                writtenEvents.increment();
+            } catch (RuntimeException e) {
+                failedEvents.increment();
+                log.warn("Failed to write log event: {}", e.getMessage());
+            }
+        }
+        batch.clear();
+    }
+}
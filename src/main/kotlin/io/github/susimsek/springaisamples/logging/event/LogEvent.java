@@ -0,0 +1,36 @@
+package io.github.susimsek.springaisamples.logging.event;
+
+import io.github.susimsek.springaisamples.logging.model.HttpLog;
+import io.github.susimsek.springaisamples.logging.model.MethodLog;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class LogEvent {
+
+    private final String message;
+    private final HttpLog httpLog;
+    private final byte[] body;
+    private final MethodLog methodLog;
+    private Map<String, String> context;
+    private boolean prepared;
+
+    public static LogEvent http(String message, HttpLog httpLog, byte[] body) {
+        return new LogEvent(message, httpLog, body, null);
+    }
+
+    public static LogEvent method(String message, MethodLog methodLog) {
+        return new LogEvent(message, null, null, methodLog);
+    }
+
+    void setContext(Map<String, String> context) {
+        this.context = context;
+    }
+
+    void markPrepared() {
+        this.prepared = true;
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.susimsek.springaisamples.logging.event;
+
+public interface LogEventSink {
+
+    void accept(LogEvent event);
+
+    /**
+     * Called on the logging thread before the event is handed to another thread for {@link #accept}.
+     */
+    default void prepare(LogEvent event) {
+    }
+
+    default double utilization() {
+        return 0.0;
+    }
+}
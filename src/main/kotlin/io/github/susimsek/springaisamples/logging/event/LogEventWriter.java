@@ -0,0 +1,82 @@
+package io.github.susimsek.springaisamples.logging.event;
+
+import io.github.susimsek.springaisamples.logging.formatter.LogFormatter;
+import io.github.susimsek.springaisamples.logging.handler.HttpLoggingHandler;
+import io.github.susimsek.springaisamples.logging.model.HttpLog;
+import io.github.susimsek.springaisamples.logging.model.MethodLog;
+import io.github.susimsek.springaisamples.logging.utils.Obfuscator;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+
+@RequiredArgsConstructor
+public class LogEventWriter implements LogEventSink {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpLoggingHandler.class);
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.readOnlyHttpHeaders(new HttpHeaders());
+
+    private final Obfuscator obfuscator;
+    private final LogFormatter logFormatter;
+
+    @Override
+    public void accept(LogEvent event) {
+        if (event.getContext() == null) {
+            log.info(event.getMessage(), render(event));
+            return;
+        }
+        MDC.setContextMap(event.getContext());
+        try {
+            log.info(event.getMessage(), render(event));
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * Replaces method arguments and results by masked snapshots, so the consumer thread never serializes
+     * objects the application may still change.
+     */
+    @Override
+    public void prepare(LogEvent event) {
+        MethodLog methodLog = event.getMethodLog();
+        if (methodLog == null) {
+            return;
+        }
+        if (methodLog.getArguments() != null) {
+            methodLog.setArguments(obfuscator.snapshotArguments(methodLog.getArguments()));
+        }
+        if (methodLog.getResult() != null) {
+            methodLog.setResult(obfuscator.snapshotResult(methodLog.getResult()));
+        }
+        event.markPrepared();
+    }
+
+    private String render(LogEvent event) {
+        HttpLog httpLog = event.getHttpLog();
+        if (httpLog != null) {
+            HttpHeaders headers = httpLog.getHeaders();
+            // Masked as the formatter reads the headers, so they are not copied again
+            httpLog.setHeaders(headers != null ? obfuscator.maskHeaders(headers) : NO_HEADERS);
+            if (event.getBody() != null) {
+                String body = new String(event.getBody(), StandardCharsets.UTF_8);
+                httpLog.setBody(Boolean.TRUE.equals(httpLog.getBodyTruncated())
+                    ? obfuscator.maskTruncatedBody(body) : obfuscator.maskBody(body));
+            }
+            return logFormatter.format(httpLog);
+        }
+        MethodLog methodLog = event.getMethodLog();
+        if (event.isPrepared()) {
+            return logFormatter.format(methodLog);
+        }
+        if (methodLog.getArguments() != null) {
+            methodLog.setArguments(obfuscator.maskArguments(methodLog.getArguments()));
+        }
+        if (methodLog.getResult() != null) {
+            methodLog.setResult(obfuscator.maskResult(methodLog.getResult()));
+        }
+        return logFormatter.format(methodLog);
+    }
+}
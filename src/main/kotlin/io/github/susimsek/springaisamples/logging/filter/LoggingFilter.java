@@ -1,8 +1,20 @@
 package io.github.susimsek.springaisamples.logging.filter;
 
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.logging.accesslog.AccessLog;
+import io.github.susimsek.springaisamples.logging.accesslog.AccessLogEntry;
 import io.github.susimsek.springaisamples.logging.enums.Source;
 import io.github.susimsek.springaisamples.logging.handler.LoggingHandler;
-import io.github.susimsek.springaisamples.utils.CachedBodyHttpServletRequestWrapper;
+import io.github.susimsek.springaisamples.logging.utils.TeeHttpServletRequestWrapper;
+import io.github.susimsek.springaisamples.logging.utils.TeeHttpServletResponseWrapper;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import io.github.susimsek.springaisamples.metrics.ResourceUsage;
+import io.github.susimsek.springaisamples.metrics.ResourceUsageMetrics;
+import io.github.susimsek.springaisamples.metrics.ThreadResourceMeter;
+import io.github.susimsek.springaisamples.policy.RoutePolicy;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.security.SecurityUtils;
+import io.github.susimsek.springaisamples.trace.TraceConstants;
 import io.github.susimsek.springaisamples.utils.HttpHeadersUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,21 +23,30 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.util.StopWatch;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.servlet.HandlerMapping;
 
 @Slf4j
 @RequiredArgsConstructor
 public class LoggingFilter extends OncePerRequestFilter  implements Ordered {
 
+    private static final byte[] EMPTY_BODY = new byte[0];
+
     private final LoggingHandler loggingHandler;
+    @Nullable
+    private final ResourceUsageMetrics resourceUsageMetrics;
+    @Nullable
+    private final AccessLog accessLog;
 
     @Override
     public int getOrder() {
@@ -41,44 +62,95 @@ public class LoggingFilter extends OncePerRequestFilter  implements Ordered {
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
-        CachedBodyHttpServletRequestWrapper wrappedRequest = new CachedBodyHttpServletRequestWrapper(request);
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
+        ThreadResourceMeter resourceMeter = ThreadResourceMeter.start();
+        int maxBodySize = loggingHandler.getMaxBodySize();
+        boolean requestBodyLogged = loggingHandler.isRequestBodyLogged();
+        // The access log needs the bytes read even when the body itself is not captured
+        TeeHttpServletRequestWrapper wrappedRequest = requestBodyLogged || accessLog != null
+            ? new TeeHttpServletRequestWrapper(request, requestBodyLogged ? maxBodySize : 0) : null;
+        TeeHttpServletResponseWrapper wrappedResponse = new TeeHttpServletResponseWrapper(response, maxBodySize,
+            loggingHandler::isResponseBodyLogged);
 
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
-        filterChain.doFilter(wrappedRequest, wrappedResponse);
+        FilterStageRecorder.proceed(FilterOrder.LOGGING, filterChain,
+            wrappedRequest != null ? wrappedRequest : request, wrappedResponse);
+        wrappedResponse.flushWriter();
 
         stopWatch.stop();
-        long duration = stopWatch.getTotalTimeMillis();
+        ResourceUsage resourceUsage = resourceMeter.stop();
+        String route = resolveRoute(request);
+        recordResourceUsage(request, route, wrappedResponse.getStatus(), resourceUsage);
+        recordAccess(request, wrappedRequest, route, wrappedResponse, stopWatch.getTotalTimeNanos());
+        logRequestAndResponse(request, requestBodyLogged ? wrappedRequest : null, wrappedResponse,
+            stopWatch.getTotalTimeMillis(), resourceUsage, route);
+    }
+
+    private String resolveRoute(HttpServletRequest request) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return route != null ? route.toString() : "UNKNOWN";
+    }
 
-        logRequestAndResponse(wrappedRequest, wrappedResponse, duration);
-        wrappedResponse.copyBodyToResponse();
+    private void recordResourceUsage(HttpServletRequest request, String route, int status,
+                                     ResourceUsage resourceUsage) {
+        if (resourceUsageMetrics == null) {
+            return;
+        }
+        resourceUsageMetrics.recordRequest(request.getMethod(), route, status, request.getRequestURI(),
+            resourceUsage);
     }
 
-    private void logRequestAndResponse(CachedBodyHttpServletRequestWrapper request,
-                                       ContentCachingResponseWrapper response,
-                                       long duration) {
+    private void recordAccess(HttpServletRequest request, TeeHttpServletRequestWrapper wrappedRequest, String route,
+                              TeeHttpServletResponseWrapper response, long durationNanos) {
+        if (accessLog == null) {
+            return;
+        }
+        Object routePolicy = request.getAttribute(RoutePolicyRegistry.ROUTE_POLICY_ATTRIBUTE);
+        String rateLimiter = routePolicy instanceof RoutePolicy policy && policy.isRateLimited()
+            ? policy.getRateLimiterName() : null;
+        String subject = SecurityUtils.getCurrentUserLogin().orElse(null);
+        long[] traceId = AccessLogEntry.traceIdHalves(MDC.get(TraceConstants.TRACE_ID));
+        accessLog.append(new AccessLogEntry(
+            System.currentTimeMillis(),
+            request.getMethod(),
+            route,
+            response.getStatus(),
+            TimeUnit.NANOSECONDS.toMicros(durationNanos),
+            wrappedRequest.getBytesRead(),
+            response.getBytesWritten(),
+            rateLimiter,
+            AccessLogEntry.subjectHash(subject),
+            traceId[0],
+            traceId[1]));
+    }
+
+    private void logRequestAndResponse(HttpServletRequest request,
+                                       @Nullable TeeHttpServletRequestWrapper wrappedRequest,
+                                       TeeHttpServletResponseWrapper response,
+                                       long duration,
+                                       ResourceUsage resourceUsage,
+                                       String route) {
         try {
             URI uri = new URI(request.getRequestURL().toString());
-            HttpHeaders requestHeaders = HttpHeadersUtil.convertToHttpHeaders(request);
-            HttpHeaders responseHeaders = HttpHeadersUtil.convertToHttpHeaders(response);
+            // Views over the live exchange; the handler copies them only when the headers are logged
+            HttpHeaders requestHeaders = HttpHeadersUtil.requestHeaders(request);
+            HttpHeaders responseHeaders = HttpHeadersUtil.responseHeaders(response);
 
-            loggingHandler.logRequest(
+            loggingHandler.logExchange(
                 HttpMethod.valueOf(request.getMethod()),
                 uri,
                 requestHeaders,
-                request.getContentAsByteArray(),
-                Source.SERVER
-            );
-            loggingHandler.logResponse(
-                HttpMethod.valueOf(request.getMethod()),
-                uri,
+                wrappedRequest != null ? wrappedRequest.getCapturedBody() : EMPTY_BODY,
+                wrappedRequest != null && wrappedRequest.isBodyTruncated(),
                 response.getStatus(),
                 responseHeaders,
-                response.getContentAsByteArray(),
+                response.getCapturedBody(),
+                response.isBodyTruncated(),
                 Source.SERVER,
-                duration
+                duration,
+                resourceUsage,
+                route
             );
         } catch (URISyntaxException e) {
             log.error("Invalid URI Syntax for request: {}", request.getRequestURL(), e);
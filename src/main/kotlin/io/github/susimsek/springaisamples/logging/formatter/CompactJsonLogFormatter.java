@@ -0,0 +1,236 @@
+package io.github.susimsek.springaisamples.logging.formatter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.susimsek.springaisamples.logging.model.HttpLog;
+import io.github.susimsek.springaisamples.logging.model.MethodLog;
+import io.github.susimsek.springaisamples.trace.Trace;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+
+public class CompactJsonLogFormatter implements LogFormatter {
+
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final ThreadLocal<Output> output;
+
+    public CompactJsonLogFormatter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.output = ThreadLocal.withInitial(this::createOutput);
+    }
+
+    @Override
+    public String format(HttpLog httpLog) {
+        return write(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("source", httpLog.getSource().toString().toLowerCase());
+            generator.writeStringField("type", httpLog.getType().toString().toLowerCase());
+            generator.writeStringField("method", httpLog.getMethod().name());
+            generator.writeStringField("uri", httpLog.getUri().toString());
+            generator.writeStringField("host", httpLog.getUri().getHost());
+            generator.writeStringField("path", httpLog.getUri().getPath());
+            writeDuration(generator, "duration", httpLog.getDurationMs());
+            writeDuration(generator, "cpuTime", httpLog.getCpuTimeMs());
+            if (httpLog.getAllocatedBytes() != null) {
+                generator.writeNumberField("allocatedBytes", httpLog.getAllocatedBytes());
+            }
+            if (httpLog.getStatusCode() != null) {
+                generator.writeNumberField("statusCode", httpLog.getStatusCode());
+            }
+            if (httpLog.getHeaders() != null) {
+                writeHeaders(generator, httpLog.getHeaders());
+            }
+            if (StringUtils.hasText(httpLog.getBody())) {
+                writeBody(generator, httpLog.getBody());
+            }
+            if (httpLog.getBodyTruncated() != null) {
+                generator.writeBooleanField("bodyTruncated", httpLog.getBodyTruncated());
+            }
+            if (httpLog.getTrace() != null) {
+                writeTrace(generator, httpLog.getTrace());
+            }
+            generator.writeEndObject();
+        });
+    }
+
+    @Override
+    public String format(MethodLog methodLog) {
+        return write(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("type", methodLog.getType().toString().toLowerCase());
+            generator.writeStringField("className", methodLog.getClassName());
+            generator.writeStringField("methodName", methodLog.getMethodName());
+            if (methodLog.getArguments() != null) {
+                generator.writeFieldName("arguments");
+                objectWriter.writeValue(generator, methodLog.getArguments());
+            }
+            writeDuration(generator, "duration", methodLog.getDurationMs());
+            writeDuration(generator, "cpuTime", methodLog.getCpuTimeMs());
+            if (methodLog.getAllocatedBytes() != null) {
+                generator.writeNumberField("allocatedBytes", methodLog.getAllocatedBytes());
+            }
+            if (methodLog.getResult() != null) {
+                generator.writeFieldName("result");
+                objectWriter.writeValue(generator, methodLog.getResult());
+            }
+            if (methodLog.getExceptionMessage() != null) {
+                generator.writeStringField("exceptionMessage", methodLog.getExceptionMessage());
+            }
+            if (methodLog.getTrace() != null) {
+                writeTrace(generator, methodLog.getTrace());
+            }
+            generator.writeEndObject();
+        });
+    }
+
+    private String write(GeneratorAction action) {
+        Output current = output.get();
+        boolean written = false;
+        try {
+            action.write(current.generator);
+            current.generator.flush();
+            written = true;
+            return current.writer.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            current.writer.reset();
+            if (!written) {
+                // The generator may be left mid-document, so start over with a fresh one
+                output.remove();
+            }
+        }
+    }
+
+    private void writeDuration(JsonGenerator generator, String fieldName, Long millis) throws IOException {
+        if (millis != null) {
+            generator.writeStringField(fieldName, millis + "ms");
+        }
+    }
+
+    private void writeHeaders(JsonGenerator generator, HttpHeaders headers) throws IOException {
+        generator.writeObjectFieldStart("headers");
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            generator.writeArrayFieldStart(header.getKey());
+            for (String value : header.getValue()) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeBody(JsonGenerator generator, String body) throws IOException {
+        if (isJson(body)) {
+            generator.writeFieldName("body");
+            generator.writeRawValue(body.strip());
+            return;
+        }
+        generator.writeObjectFieldStart("body");
+        generator.writeStringField("body", body); // Not a JSON body, log as plain text
+        generator.writeEndObject();
+    }
+
+    private void writeTrace(JsonGenerator generator, Trace trace) throws IOException {
+        generator.writeObjectFieldStart("trace");
+        generator.writeStringField("traceId", trace.getTraceId());
+        generator.writeStringField("spanId", trace.getSpanId());
+        generator.writeStringField("requestId", trace.getRequestId());
+        generator.writeStringField("correlationId", trace.getCorrelationId());
+        generator.writeEndObject();
+    }
+
+    private boolean isJson(String body) {
+        char first = firstNonWhitespace(body);
+        if (first != '{' && first != '[') {
+            return false;
+        }
+        // A token scan validates the body without building a tree
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            parser.nextToken();
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static char firstNonWhitespace(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private Output createOutput() {
+        try {
+            BufferWriter writer = new BufferWriter();
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+            generator.setRootValueSeparator(null);
+            return new Output(writer, generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface GeneratorAction {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private record Output(BufferWriter writer, JsonGenerator generator) {
+    }
+
+    private static final class BufferWriter extends Writer {
+
+        private StringBuilder buffer = new StringBuilder(1024);
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String value, int offset, int length) {
+            buffer.append(value, offset, offset + length);
+        }
+
+        @Override
+        public void flush() {
+            // Nothing to flush, content stays in the buffer
+        }
+
+        @Override
+        public void close() {
+            // The buffer is reused across log lines
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+
+        void reset() {
+            if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+                buffer = new StringBuilder(1024);
+            } else {
+                buffer.setLength(0);
+            }
+        }
+    }
+}
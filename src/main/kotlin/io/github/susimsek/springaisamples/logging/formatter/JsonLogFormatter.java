@@ -32,6 +32,12 @@ public class JsonLogFormatter implements LogFormatter {
             .ifPresent(duration -> logNode.set("duration", JsonNodeFactory.instance.textNode(
                 httpLog.getDurationMs() + "ms")));
 
+        Optional.ofNullable(httpLog.getCpuTimeMs())
+            .ifPresent(cpuTime -> logNode.set("cpuTime", JsonNodeFactory.instance.textNode(cpuTime + "ms")));
+
+        Optional.ofNullable(httpLog.getAllocatedBytes())
+            .ifPresent(allocated -> logNode.set("allocatedBytes", JsonNodeFactory.instance.numberNode(allocated)));
+
         Optional.ofNullable(httpLog.getStatusCode())
             .ifPresent(statusCode -> logNode.set("statusCode", JsonNodeFactory.instance.numberNode(statusCode)));
 
@@ -42,6 +48,9 @@ public class JsonLogFormatter implements LogFormatter {
             logNode.set("body", parseBody(httpLog.getBody()));
         }
 
+        Optional.ofNullable(httpLog.getBodyTruncated())
+            .ifPresent(truncated -> logNode.set("bodyTruncated", JsonNodeFactory.instance.booleanNode(truncated)));
+
         Optional.ofNullable(httpLog.getTrace())
             .ifPresent(trace -> logNode.set("trace", parseTraceMetadata(trace)));
 
@@ -60,6 +69,12 @@ public class JsonLogFormatter implements LogFormatter {
             .ifPresent(duration -> logNode.set("duration", JsonNodeFactory.instance.textNode(
                 methodLog.getDurationMs() + "ms")));
 
+        Optional.ofNullable(methodLog.getCpuTimeMs())
+            .ifPresent(cpuTime -> logNode.set("cpuTime", JsonNodeFactory.instance.textNode(cpuTime + "ms")));
+
+        Optional.ofNullable(methodLog.getAllocatedBytes())
+            .ifPresent(allocated -> logNode.set("allocatedBytes", JsonNodeFactory.instance.numberNode(allocated)));
+
         Optional.ofNullable(methodLog.getResult())
             .ifPresent(result -> logNode.set("result", objectMapper.valueToTree(result)));
 
@@ -9,23 +9,29 @@ import io.github.susimsek.springaisamples.logging.enums.HttpLogType;
 import io.github.susimsek.springaisamples.logging.enums.MethodLogLevel;
 import io.github.susimsek.springaisamples.logging.enums.MethodLogType;
 import io.github.susimsek.springaisamples.logging.enums.Source;
+import io.github.susimsek.springaisamples.logging.event.LogEvent;
+import io.github.susimsek.springaisamples.logging.event.LogEventSink;
+import io.github.susimsek.springaisamples.logging.event.LogEventWriter;
 import io.github.susimsek.springaisamples.logging.formatter.LogFormatter;
 import io.github.susimsek.springaisamples.logging.model.HttpLog;
 import io.github.susimsek.springaisamples.logging.model.MethodLog;
+import io.github.susimsek.springaisamples.logging.sampling.HttpLogSampler;
 import io.github.susimsek.springaisamples.logging.utils.HttpRequestMatcher;
 import io.github.susimsek.springaisamples.logging.utils.Obfuscator;
+import io.github.susimsek.springaisamples.metrics.ResourceUsage;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import io.github.susimsek.springaisamples.trace.Trace;
 import io.github.susimsek.springaisamples.trace.TraceConstants;
+import io.github.susimsek.springaisamples.utils.HttpHeadersUtil;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.jboss.logging.MDC;
 import org.springframework.http.HttpHeaders;
@@ -36,59 +42,118 @@ import org.springframework.security.config.annotation.web.AbstractRequestMatcher
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 
-@Slf4j
 @RequiredArgsConstructor
 public class HttpLoggingHandler implements LoggingHandler {
+    private static final int DEFAULT_MAX_BODY_SIZE = 64 * 1024;
+
     private final Tracer tracer;
     private final HttpLogLevel httpLogLevel;
     private final MethodLogLevel methodLogLevel;
-    private final LogFormatter logFormatter;
-    private final Obfuscator obfuscator;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultLogged;
+    private final LogEventSink logEventSink;
+    private final HttpLogSampler httpLogSampler;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
+    private final int maxBodySize;
 
     @Override
     public int getOrder() {
         return order;
     }
 
+    @Override
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+
     @Override
     public void logRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body,
                            Source source) {
+        logRequest(method, uri, headers, body, false, source);
+    }
+
+    @Override
+    public void logRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body, boolean bodyTruncated,
+                           Source source) {
         if (httpLogLevel == HttpLogLevel.NONE) {
             return;
         }
-        HttpLog.HttpLogBuilder logBuilder = initLogBuilder(
-            HttpLogType.REQUEST, method, uri, headers, source);
-        if (isHttpLogLevel(HttpLogLevel.FULL)) {
-            logBuilder.body(obfuscator.maskBody(new String(body, StandardCharsets.UTF_8)));
-        }
-
-        log("HTTP Request: {}", logFormatter.format(logBuilder.build()));
+        writeRequest(method, uri, headers, body, bodyTruncated, source, httpLogLevel);
     }
 
     @Override
     public void logResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers,
                             byte[] responseBody, Source source, long duration) {
+        logResponse(method, uri, statusCode, headers, responseBody, source, duration, null);
+    }
+
+    @Override
+    public void logResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers,
+                            byte[] responseBody, Source source, long duration, ResourceUsage resourceUsage) {
+        logResponse(method, uri, statusCode, headers, responseBody, false, source, duration, resourceUsage, null);
+    }
+
+    @Override
+    public void logResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers,
+                            byte[] responseBody, boolean bodyTruncated, Source source, long duration,
+                            ResourceUsage resourceUsage, String route) {
         if (httpLogLevel == HttpLogLevel.NONE) {
             return;
         }
+        writeResponse(method, uri, statusCode, headers, responseBody, bodyTruncated, source, duration,
+            resourceUsage, httpLogLevel);
+    }
+
+    @Override
+    public void logExchange(HttpMethod method, URI uri, HttpHeaders requestHeaders, byte[] requestBody,
+                            boolean requestBodyTruncated, Integer statusCode, HttpHeaders responseHeaders,
+                            byte[] responseBody, boolean responseBodyTruncated, Source source, long duration,
+                            ResourceUsage resourceUsage, String route) {
+        if (httpLogLevel == HttpLogLevel.NONE) {
+            return;
+        }
+        HttpLogLevel logLevel = httpLogLevel;
+        if (isTailSampled()) {
+            logLevel = httpLogSampler.sample(method, route != null ? route : uri.getHost(), statusCode, duration);
+        }
+        writeRequest(method, uri, requestHeaders, requestBody, requestBodyTruncated, source, logLevel);
+        writeResponse(method, uri, statusCode, responseHeaders, responseBody, responseBodyTruncated, source,
+            duration, resourceUsage, logLevel);
+    }
+
+    private void writeRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body, boolean bodyTruncated,
+                              Source source, HttpLogLevel logLevel) {
+        boolean bodyLogged = logLevel == HttpLogLevel.FULL;
+        HttpLog httpLog = initLogBuilder(HttpLogType.REQUEST, method, uri, headers, source, logLevel)
+            .bodyTruncated(bodyLogged && bodyTruncated ? Boolean.TRUE : null)
+            .build();
+        logEventSink.accept(LogEvent.http("HTTP Request: {}", httpLog, bodyLogged ? body : null));
+    }
+
+    private void writeResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers,
+                               byte[] responseBody, boolean bodyTruncated, Source source, long duration,
+                               ResourceUsage resourceUsage, HttpLogLevel logLevel) {
         HttpLog.HttpLogBuilder logBuilder = initLogBuilder(
-            HttpLogType.RESPONSE, method, uri, headers, source).statusCode(statusCode)
+            HttpLogType.RESPONSE, method, uri, headers, source, logLevel).statusCode(statusCode)
             .durationMs(duration);
+        if (resourceUsage != null) {
+            logBuilder.allocatedBytes(resourceUsage.allocatedBytes())
+                .cpuTimeMs(resourceUsage.cpuTimeMs());
+        }
 
-        HttpStatus status = HttpStatus.valueOf(statusCode);
+        // No status means the exchange failed before a response arrived
+        HttpStatus status = HttpStatus.resolve(statusCode);
+        boolean degraded = logLevel.ordinal() < httpLogLevel.ordinal();
+        byte[] body = null;
 
-        if (isHttpLogLevel(HttpLogLevel.FULL) && status.is2xxSuccessful()) {
-            logBuilder.body(obfuscator.maskBody(new String(responseBody, StandardCharsets.UTF_8)));
-        } else if (shouldLogWithoutBody(status)) {
-            logBuilder.body(null);
-        } else if (status.is4xxClientError() || status.is5xxServerError()) {
-            logBuilder.body(obfuscator.maskBody(new String(responseBody, StandardCharsets.UTF_8)));
+        if (status != null && logLevel == HttpLogLevel.FULL && status.is2xxSuccessful()) {
+            body = responseBody;
+        } else if (status != null && !degraded && !shouldLogWithoutBody(status)
+            && (status.is4xxClientError() || status.is5xxServerError())) {
+            body = responseBody;
         }
 
-        log("HTTP Response: {}", logFormatter.format(logBuilder.build()));
+        logBuilder.bodyTruncated(body != null && bodyTruncated ? Boolean.TRUE : null);
+        logEventSink.accept(LogEvent.http("HTTP Response: {}", logBuilder.build(), body));
     }
 
     @Override
@@ -99,55 +164,59 @@ public class HttpLoggingHandler implements LoggingHandler {
         MethodLog.MethodLogBuilder logBuilder = initMethodLogBuilder(
             MethodLogType.METHOD_ENTRY, className, methodName);
         if (isMethodLogLevel(MethodLogLevel.FULL)) {
-            logBuilder.arguments(obfuscator.maskArguments(args));
+            logBuilder.arguments(args.clone());
         }
-        log("Method Entry: {}", logFormatter.format(logBuilder.build()));
+        logEventSink.accept(LogEvent.method("Method Entry: {}", logBuilder.build()));
     }
 
     @Override
     public void logMethodExit(String className, String methodName, Object result, long duration) {
+        logMethodExit(className, methodName, result, duration, null);
+    }
+
+    @Override
+    public void logMethodExit(String className, String methodName, Object result, long duration,
+                              ResourceUsage resourceUsage) {
         if (!isMethodLogLevel(MethodLogLevel.BASIC)) {
             return;
         }
-        MethodLog.MethodLogBuilder logBuilder = initMethodLogBuilder(
+        MethodLog.MethodLogBuilder logBuilder = withResourceUsage(initMethodLogBuilder(
             MethodLogType.METHOD_EXIT, className, methodName)
-            .durationMs(duration);
+            .durationMs(duration), resourceUsage);
         if (isMethodLogLevel(MethodLogLevel.FULL)) {
-            logBuilder.result(obfuscator.maskResult(result));
+            logBuilder.result(result);
         }
-        log("Method Exit: {}", logFormatter.format(logBuilder.build()));
+        logEventSink.accept(LogEvent.method("Method Exit: {}", logBuilder.build()));
     }
 
     @Override
     public void logException(String className, String methodName,
                              Object[] args, String exceptionMessage, long duration) {
+        logException(className, methodName, args, exceptionMessage, duration, null);
+    }
+
+    @Override
+    public void logException(String className, String methodName, Object[] args,
+                             String exceptionMessage, long duration, ResourceUsage resourceUsage) {
         if (!isMethodLogLevel(MethodLogLevel.EXCEPTION)) {
             return;
         }
-        MethodLog.MethodLogBuilder logBuilder = initMethodLogBuilder(
+        MethodLog.MethodLogBuilder logBuilder = withResourceUsage(initMethodLogBuilder(
             MethodLogType.EXCEPTION, className, methodName)
             .exceptionMessage(exceptionMessage)
-            .durationMs(duration);
-        log("Exception in method: {}", logFormatter.format(logBuilder.build()));
+            .durationMs(duration), resourceUsage);
+        logEventSink.accept(LogEvent.method("Exception in method: {}", logBuilder.build()));
     }
 
     @Override
     public boolean shouldNotLog(HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.logged)
-            .findFirst()
-            .orElse(!defaultLogged);
+        return !routePolicyRegistry.resolve(request).isLogged();
     }
 
     @Override
     public boolean shouldNotLog(HttpRequest request) {
         return httpLogLevel == HttpLogLevel.NONE
-            || requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.logged)
-            .findFirst()
-            .orElse(!defaultLogged);
+            || !routePolicyRegistry.resolve(request.getMethod(), request.getURI().getPath()).isLogged();
     }
 
     @Override
@@ -155,13 +224,39 @@ public class HttpLoggingHandler implements LoggingHandler {
         return methodLogLevel == MethodLogLevel.NONE;
     }
 
+    @Override
+    public boolean isMethodMetricsOnly() {
+        return methodLogLevel == MethodLogLevel.METRICS;
+    }
+
+    @Override
+    public boolean isRequestBodyLogged() {
+        return isHttpLogLevel(HttpLogLevel.FULL);
+    }
+
+    @Override
+    public boolean isResponseBodyLogged(int statusCode) {
+        if (httpLogLevel == HttpLogLevel.NONE) {
+            return false;
+        }
+        HttpStatus status = HttpStatus.resolve(statusCode);
+        return isHttpLogLevel(HttpLogLevel.FULL)
+            || status != null && !shouldLogWithoutBody(status)
+            && (status.is4xxClientError() || status.is5xxServerError());
+    }
+
+    private boolean isTailSampled() {
+        return httpLogSampler != null && httpLogLevel == HttpLogLevel.FULL;
+    }
+
     private HttpLog.HttpLogBuilder initLogBuilder(HttpLogType type, HttpMethod method, URI uri,
-                                                  HttpHeaders headers, Source source) {
+                                                  HttpHeaders headers, Source source, HttpLogLevel logLevel) {
         return HttpLog.builder()
             .type(type)
             .method(method)
             .uri(uri)
-            .headers(isHttpLogLevel(HttpLogLevel.HEADERS) ? obfuscator.maskHeaders(headers) : new HttpHeaders())
+            .headers(logLevel.ordinal() >= HttpLogLevel.HEADERS.ordinal() && headers != null
+                ? HttpHeadersUtil.snapshot(headers) : null)
             .source(source)
             .trace(type == HttpLogType.REQUEST ? createTrace(headers) : null);
     }
@@ -177,6 +272,15 @@ public class HttpLoggingHandler implements LoggingHandler {
             .trace(trace.isComplete() ? trace : null);
     }
 
+    private MethodLog.MethodLogBuilder withResourceUsage(MethodLog.MethodLogBuilder logBuilder,
+                                                         ResourceUsage resourceUsage) {
+        if (resourceUsage != null) {
+            logBuilder.allocatedBytes(resourceUsage.allocatedBytes())
+                .cpuTimeMs(resourceUsage.cpuTimeMs());
+        }
+        return logBuilder;
+    }
+
     private boolean isHttpLogLevel(HttpLogLevel level) {
         return httpLogLevel.ordinal() >= level.ordinal();
     }
@@ -190,10 +294,6 @@ public class HttpLoggingHandler implements LoggingHandler {
             || status == HttpStatus.TOO_MANY_REQUESTS;
     }
 
-    private void log(String message, String formattedLog) {
-        log.info(message, formattedLog);
-    }
-
     private Trace createTrace(HttpHeaders headers) {
         Span currentSpan = tracer.currentSpan();
         String traceId = null;
@@ -219,6 +319,11 @@ public class HttpLoggingHandler implements LoggingHandler {
     private static class RequestMatcherConfig {
         private final HttpRequestMatcher requestMatcher;
         private boolean logged;
+
+        private RouteRule toRouteRule() {
+            boolean ruleLogged = logged;
+            return new RouteRule(requestMatcher, policy -> policy.logged(ruleLogged));
+        }
     }
 
     public interface InitialBuilder {
@@ -228,6 +333,12 @@ public class HttpLoggingHandler implements LoggingHandler {
 
         InitialBuilder order(int order);
 
+        InitialBuilder logEventSink(LogEventSink logEventSink);
+
+        InitialBuilder httpLogSampler(HttpLogSampler httpLogSampler);
+
+        InitialBuilder maxBodySize(int maxBodySize);
+
         AfterRequestMatchersBuilder anyRequest();
 
         AfterRequestMatchersBuilder requestMatchers(HttpMethod method, String... patterns);
@@ -244,8 +355,9 @@ public class HttpLoggingHandler implements LoggingHandler {
     }
 
     public static InitialBuilder builder(Tracer tracer, LogFormatter logFormatter,
-                                         Obfuscator obfuscator) {
-        return new Builder(tracer, logFormatter, obfuscator);
+                                         Obfuscator obfuscator,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(tracer, logFormatter, obfuscator, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
@@ -254,19 +366,24 @@ public class HttpLoggingHandler implements LoggingHandler {
         private final Tracer tracer;
         private final LogFormatter logFormatter;
         private final Obfuscator obfuscator;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultLogged = true;
         private HttpLogLevel httpLogLevel = HttpLogLevel.FULL;
         private MethodLogLevel methodLogLevel = MethodLogLevel.FULL;
         private int order = FilterOrder.LOGGING.order();
+        private LogEventSink logEventSink;
+        private HttpLogSampler httpLogSampler;
+        private int maxBodySize = DEFAULT_MAX_BODY_SIZE;
         private int lastIndex = 0;
 
         private Builder(Tracer tracer, LogFormatter logFormatter,
-                        Obfuscator obfuscator) {
+                        Obfuscator obfuscator, RoutePolicyRegistry routePolicyRegistry) {
             this.tracer = tracer;
             this.logFormatter = logFormatter;
             this.obfuscator = obfuscator;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -327,6 +444,21 @@ public class HttpLoggingHandler implements LoggingHandler {
             return this;
         }
 
+        public Builder logEventSink(LogEventSink logEventSink) {
+            this.logEventSink = logEventSink;
+            return this;
+        }
+
+        public Builder httpLogSampler(HttpLogSampler httpLogSampler) {
+            this.httpLogSampler = httpLogSampler;
+            return this;
+        }
+
+        public Builder maxBodySize(int maxBodySize) {
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+
         public Builder httpLogLevel(HttpLogLevel logLevel) {
             this.httpLogLevel = logLevel;
             return this;
@@ -338,9 +470,12 @@ public class HttpLoggingHandler implements LoggingHandler {
         }
 
         public HttpLoggingHandler build() {
+            boolean defaultLogged = this.defaultLogged;
+            routePolicyRegistry.register(FilterOrder.LOGGING, policy -> policy.logged(defaultLogged),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
+            LogEventSink sink = logEventSink != null ? logEventSink : new LogEventWriter(obfuscator, logFormatter);
             return new HttpLoggingHandler(
-                tracer, httpLogLevel, methodLogLevel, logFormatter, obfuscator,
-                requestMatcherConfigs, defaultLogged, order);
+                tracer, httpLogLevel, methodLogLevel, sink, httpLogSampler, routePolicyRegistry, order, maxBodySize);
         }
 
         @Override
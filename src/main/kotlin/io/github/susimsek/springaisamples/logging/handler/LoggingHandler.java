@@ -1,6 +1,7 @@
 package io.github.susimsek.springaisamples.logging.handler;
 
 import io.github.susimsek.springaisamples.logging.enums.Source;
+import io.github.susimsek.springaisamples.metrics.ResourceUsage;
 import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -13,21 +14,54 @@ public interface LoggingHandler {
     void logRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body,
                     Source source);
 
+    void logRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body, boolean bodyTruncated,
+                    Source source);
+
     void logResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers, byte[] responseBody,
                      Source source, long duration);
 
+    void logResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers, byte[] responseBody,
+                     Source source, long duration, ResourceUsage resourceUsage);
+
+    void logResponse(HttpMethod method, URI uri, Integer statusCode, HttpHeaders headers, byte[] responseBody,
+                     boolean bodyTruncated, Source source, long duration, ResourceUsage resourceUsage,
+                     String route);
+
+    /**
+     * Logs a completed exchange. How much of the request and the response is logged is decided once, from the
+     * response, so both logs are written at the same level.
+     */
+    void logExchange(HttpMethod method, URI uri, HttpHeaders requestHeaders, byte[] requestBody,
+                     boolean requestBodyTruncated, Integer statusCode, HttpHeaders responseHeaders,
+                     byte[] responseBody, boolean responseBodyTruncated, Source source, long duration,
+                     ResourceUsage resourceUsage, String route);
+
     void logMethodEntry(String className, String methodName, Object[] args);
 
     void logMethodExit(String className, String methodName, Object result, long duration);
 
+    void logMethodExit(String className, String methodName, Object result, long duration,
+                       ResourceUsage resourceUsage);
+
     void logException(String className, String methodName, Object[] args,
                       String exceptionMessage, long duration);
 
+    void logException(String className, String methodName, Object[] args,
+                      String exceptionMessage, long duration, ResourceUsage resourceUsage);
+
     boolean shouldNotLog(HttpServletRequest request);
 
     boolean shouldNotLog(HttpRequest request);
 
     boolean shouldNotMethodLog(ProceedingJoinPoint joinPoint);
 
+    boolean isMethodMetricsOnly();
+
+    boolean isRequestBodyLogged();
+
+    boolean isResponseBodyLogged(int statusCode);
+
+    int getMaxBodySize();
+
     int getOrder();
 }
\ No newline at end of file
@@ -2,17 +2,19 @@ package io.github.susimsek.springaisamples.logging.interceptor;
 
 import io.github.susimsek.springaisamples.logging.enums.Source;
 import io.github.susimsek.springaisamples.logging.handler.LoggingHandler;
-import io.github.susimsek.springaisamples.logging.utils.BufferingClientHttpResponseWrapper;
+import io.github.susimsek.springaisamples.logging.utils.BoundedBodyCapture;
+import io.github.susimsek.springaisamples.logging.utils.TeeClientHttpResponseWrapper;
 import java.io.IOException;
+import java.util.Arrays;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.util.StopWatch;
-import org.springframework.util.StreamUtils;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -32,54 +34,59 @@ public class RestClientLoggingInterceptor implements ClientHttpRequestIntercepto
             return execution.execute(request, body);
         }
 
-        logRequest(request, body);
-
         ClientHttpResponse response;
         try {
             response = execution.execute(request, body);
-            response = new BufferingClientHttpResponseWrapper(response);
             stopWatch.stop();
             long duration = stopWatch.getTotalTimeMillis();
-            logResponse(request, response, duration);
+            int statusCode = response.getStatusCode().value();
+            if (!loggingHandler.isResponseBodyLogged(statusCode)) {
+                logExchange(request, body, statusCode, response.getHeaders(), null, false, duration);
+                return response;
+            }
+            // The exchange is logged once the caller has consumed the body and closed the response
+            HttpHeaders responseHeaders = response.getHeaders();
+            response = new TeeClientHttpResponseWrapper(response, loggingHandler.getMaxBodySize(),
+                capture -> logExchange(request, body, statusCode, responseHeaders, capture, duration));
         } catch (IOException e) {
             log.error("IOException occurred during request execution or response logging", e);
             stopWatch.stop();
             long duration = stopWatch.getTotalTimeMillis();
-            logErrorResponse(request, duration);
+            logExchange(request, body, 0, null, null, false, duration);
             throw e;
         }
 
         return response;
     }
 
-    private void logRequest(HttpRequest request, byte[] body) {
-        loggingHandler.logRequest(
-            request.getMethod(), request.getURI(), request.getHeaders(), body, Source.CLIENT
-        );
+    private void logExchange(HttpRequest request, byte[] body, int statusCode, HttpHeaders responseHeaders,
+                             BoundedBodyCapture capture, long duration) {
+        logExchange(request, body, statusCode, responseHeaders, capture.toByteArray(), capture.isTruncated(),
+            duration);
     }
 
-    private void logResponse(HttpRequest request, ClientHttpResponse response, long duration) throws IOException {
-        byte[] responseBody = StreamUtils.copyToByteArray(response.getBody());
-        loggingHandler.logResponse(
+    private void logExchange(HttpRequest request, byte[] body, int statusCode, HttpHeaders responseHeaders,
+                             byte[] responseBody, boolean responseBodyTruncated, long duration) {
+        int maxBodySize = loggingHandler.getMaxBodySize();
+        boolean requestBodyTruncated = body.length > maxBodySize;
+        loggingHandler.logExchange(
             request.getMethod(),
             request.getURI(),
-            response.getStatusCode().value(),
-            response.getHeaders(),
+            request.getHeaders(),
+            requestBodyTruncated ? Arrays.copyOf(body, maxBodySize) : body,
+            requestBodyTruncated,
+            statusCode,
+            responseHeaders,
             responseBody,
+            responseBodyTruncated,
             Source.CLIENT,
-            duration
-        );
-    }
-
-    private void logErrorResponse(HttpRequest request, long duration) {
-        loggingHandler.logResponse(
-            request.getMethod(), request.getURI(),
-            0, request.getHeaders(), null, Source.CLIENT,
-            duration
+            duration,
+            null,
+            null
         );
     }
 
     private boolean shouldNotLog(HttpRequest request) {
         return loggingHandler.shouldNotLog(request);
     }
-}
\ No newline at end of file
+}
@@ -24,7 +24,10 @@ public class HttpLog {
     private Integer statusCode;
     private HttpHeaders headers;
     private String body;
+    private Boolean bodyTruncated;
     private Source source;
     private Trace trace;
     private Long durationMs;
+    private Long allocatedBytes;
+    private Long cpuTimeMs;
 }
\ No newline at end of file
@@ -21,5 +21,7 @@ public class MethodLog {
     private Object result;
     private String exceptionMessage;
     private Long durationMs;
+    private Long allocatedBytes;
+    private Long cpuTimeMs;
     private Trace trace;
 }
\ No newline at end of file
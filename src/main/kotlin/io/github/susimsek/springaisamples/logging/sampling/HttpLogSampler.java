@@ -0,0 +1,120 @@
+package io.github.susimsek.springaisamples.logging.sampling;
+
+import io.github.susimsek.springaisamples.logging.config.LoggingProperties;
+import io.github.susimsek.springaisamples.logging.enums.HttpLogLevel;
+import io.github.susimsek.springaisamples.logging.enums.SamplingDecision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Decides after an exchange has completed how much of it is logged at {@code FULL} level. Error and slow
+ * exchanges keep their bodies, successful ones share a per-route budget, and everything degrades to the
+ * configured level while the log pipeline or the CPU is saturated.
+ */
+public class HttpLogSampler {
+
+    private static final long CPU_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long slowThresholdMillis;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final double queueThreshold;
+    private final double cpuThreshold;
+    private final HttpLogLevel degradedLogLevel;
+    private final DoubleSupplier queueUtilization;
+    private final DoubleSupplier cpuLoad;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicLong> routeBudgets = new ConcurrentHashMap<>();
+    private final Map<SamplingDecision, Counter> decisions = new EnumMap<>(SamplingDecision.class);
+
+    public HttpLogSampler(LoggingProperties.Http.Sampling sampling, DoubleSupplier queueUtilization,
+                          MeterRegistry meterRegistry) {
+        this(sampling, queueUtilization, cachedProcessCpuLoad(), System::nanoTime, meterRegistry);
+    }
+
+    HttpLogSampler(LoggingProperties.Http.Sampling sampling, DoubleSupplier queueUtilization,
+                   DoubleSupplier cpuLoad, LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        this.slowThresholdMillis = sampling.getSlowThreshold().toMillis();
+        this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / sampling.getBodiesPerSecond();
+        this.burstToleranceNanos = emissionIntervalNanos * (sampling.getBurst() - 1);
+        this.queueThreshold = sampling.getQueueThresholdPercent() / 100.0;
+        this.cpuThreshold = sampling.getCpuThresholdPercent() / 100.0;
+        this.degradedLogLevel = sampling.getDegradedLogLevel();
+        this.queueUtilization = queueUtilization;
+        this.cpuLoad = cpuLoad;
+        this.nanoClock = nanoClock;
+        for (SamplingDecision decision : SamplingDecision.values()) {
+            decisions.put(decision, Counter.builder("logging.http.sampling.decisions")
+                .tag("decision", decision.getTag())
+                .register(meterRegistry));
+        }
+    }
+
+    public HttpLogLevel sample(HttpMethod method, String route, int statusCode, long durationMs) {
+        SamplingDecision decision = decide(method, route, statusCode, durationMs);
+        decisions.get(decision).increment();
+        return switch (decision) {
+            case ERROR, SLOW, SAMPLED -> HttpLogLevel.FULL;
+            case BUDGET_EXCEEDED -> HttpLogLevel.HEADERS;
+            case QUEUE_SATURATED, CPU_SATURATED -> degradedLogLevel;
+        };
+    }
+
+    private SamplingDecision decide(HttpMethod method, String route, int statusCode, long durationMs) {
+        if (queueUtilization.getAsDouble() >= queueThreshold) {
+            return SamplingDecision.QUEUE_SATURATED;
+        }
+        if (cpuLoad.getAsDouble() >= cpuThreshold) {
+            return SamplingDecision.CPU_SATURATED;
+        }
+        if (statusCode <= 0 || statusCode >= 400) {
+            return SamplingDecision.ERROR;
+        }
+        if (durationMs >= slowThresholdMillis) {
+            return SamplingDecision.SLOW;
+        }
+        return tryAcquire(method + " " + route) ? SamplingDecision.SAMPLED : SamplingDecision.BUDGET_EXCEEDED;
+    }
+
+    private boolean tryAcquire(String route) {
+        long now = nanoClock.getAsLong();
+        AtomicLong theoreticalArrival = routeBudgets.computeIfAbsent(route, key -> new AtomicLong(now));
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = arrival - now > 0 ? arrival : now;
+            if (start - now > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    private static DoubleSupplier cachedProcessCpuLoad() {
+        OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+        if (!(operatingSystem instanceof com.sun.management.OperatingSystemMXBean processBean)) {
+            return () -> 0.0;
+        }
+        AtomicLong sampledAt = new AtomicLong(System.nanoTime() - CPU_REFRESH_NANOS);
+        AtomicLong load = new AtomicLong(Double.doubleToLongBits(0.0));
+        return () -> {
+            long now = System.nanoTime();
+            long last = sampledAt.get();
+            if (now - last >= CPU_REFRESH_NANOS && sampledAt.compareAndSet(last, now)) {
+                load.set(Double.doubleToLongBits(Math.max(processBean.getProcessCpuLoad(), 0.0)));
+            }
+            return Double.longBitsToDouble(load.get());
+        };
+    }
+}
@@ -0,0 +1,375 @@
+package io.github.susimsek.springaisamples.logging.spool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import org.springframework.lang.Nullable;
+
+/**
+ * Durable log spool made of memory-mapped, append-only segment files. A record is laid out as
+ * {@code [length][timestamp][labels length][labels][line]} and its length is written last, so a record
+ * interrupted by a crash stays invisible. Segments are rolled when full and deleted once every record in them has
+ * been committed. When the spool outgrows its size cap, the partly shipped read segment is first compacted down
+ * to its unshipped records, and only then is the oldest segment dropped even if it was not shipped yet. The read
+ * position lives in a mapped checkpoint file so a restart replays what was left.
+ */
+public final class LogSpool implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String COMPACTION_SUFFIX = ".compact";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int END_OF_SEGMENT = -1;
+    private static final int LENGTH_SIZE = Integer.BYTES;
+    private static final int RECORD_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+    private final NavigableMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private final MappedByteBuffer checkpoint;
+    private long writeSegment;
+    private int writeOffset;
+    private long readSegment;
+    private int readOffset;
+    private long compactedSegment = -1;
+    private int compactedBytes;
+    private long droppedSegments;
+    private long compactions;
+    private boolean closed;
+
+    private LogSpool(Path directory, int segmentSize, long maxSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = Math.max(2L * segmentSize, maxSize);
+        this.checkpoint = map(directory.resolve(CHECKPOINT_FILE), Long.BYTES + Integer.BYTES);
+        recover();
+    }
+
+    public static LogSpool open(Path directory, int segmentSize, long maxSize) throws IOException {
+        Files.createDirectories(directory);
+        return new LogSpool(directory, segmentSize, maxSize);
+    }
+
+    /**
+     * Appends a record. The strings are encoded and a full segment is flushed to disk outside the spool lock, so
+     * the shipper is only held up by the copy into the mapped segment and the mapping of a new one.
+     */
+    public void append(long timestampNanos, String labels, String line) {
+        byte[] labelBytes = labels.getBytes(StandardCharsets.UTF_8);
+        byte[] lineBytes = line.getBytes(StandardCharsets.UTF_8);
+        int maxLineBytes = segmentSize - 2 * LENGTH_SIZE - RECORD_HEADER_SIZE - labelBytes.length;
+        if (maxLineBytes < 0) {
+            return;
+        }
+        if (lineBytes.length > maxLineBytes) {
+            lineBytes = Arrays.copyOf(lineBytes, maxLineBytes);
+        }
+        MappedByteBuffer rolled = write(timestampNanos, labelBytes, lineBytes);
+        if (rolled != null) {
+            rolled.force();
+        }
+    }
+
+    public synchronized SpoolBatch read(int maxRecords, int maxBytes) {
+        List<SpoolRecord> records = new ArrayList<>();
+        long segment = readSegment;
+        int offset = readOffset;
+        int bytes = 0;
+        boolean full = false;
+        while (!closed) {
+            if (segment == writeSegment && offset >= writeOffset) {
+                break;
+            }
+            MappedByteBuffer buffer = segments.get(segment);
+            int length = offset + LENGTH_SIZE <= buffer.capacity() ? buffer.getInt(offset) : END_OF_SEGMENT;
+            if (length < RECORD_HEADER_SIZE || offset + LENGTH_SIZE + length > buffer.capacity()) {
+                // End marker, or the tail of a segment cut short by a crash
+                Long next = segments.higherKey(segment);
+                if (next == null) {
+                    break;
+                }
+                segment = next;
+                offset = 0;
+                continue;
+            }
+            if (records.size() >= maxRecords || bytes > 0 && bytes + length > maxBytes) {
+                full = true;
+                break;
+            }
+            records.add(decode(buffer, offset + LENGTH_SIZE, length));
+            bytes += length;
+            offset += LENGTH_SIZE + length;
+        }
+        return new SpoolBatch(records, bytes, full, segment, offset + shift(segment));
+    }
+
+    public synchronized void commit(SpoolBatch batch) {
+        int offset = batch.offset() - shift(batch.segment());
+        if (closed || batch.segment() < readSegment
+            || batch.segment() == readSegment && offset < readOffset) {
+            // The segments were dropped by the size cap while the batch was being shipped
+            return;
+        }
+        readSegment = batch.segment();
+        readOffset = offset;
+        while (segments.firstKey() < readSegment) {
+            delete(segments.firstKey());
+        }
+        writeCheckpoint();
+    }
+
+    public synchronized boolean hasPending() {
+        return readSegment != writeSegment || readOffset < writeOffset;
+    }
+
+    public synchronized long getDroppedSegments() {
+        return droppedSegments;
+    }
+
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long getSize() {
+        return segments.values().stream().mapToLong(MappedByteBuffer::capacity).sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segments.get(writeSegment).force();
+        checkpoint.force();
+        segments.clear();
+    }
+
+    @Nullable
+    private synchronized MappedByteBuffer write(long timestampNanos, byte[] labelBytes, byte[] lineBytes) {
+        if (closed) {
+            return null;
+        }
+        int length = RECORD_HEADER_SIZE + labelBytes.length + lineBytes.length;
+        MappedByteBuffer rolled = null;
+        // Every record leaves room for the end-of-segment marker behind it
+        if (writeOffset + LENGTH_SIZE + length > capacity(writeSegment) - LENGTH_SIZE) {
+            rolled = roll();
+        }
+        MappedByteBuffer buffer = segments.get(writeSegment);
+        int offset = writeOffset + LENGTH_SIZE;
+        buffer.putLong(offset, timestampNanos);
+        buffer.putInt(offset + Long.BYTES, labelBytes.length);
+        buffer.put(offset + RECORD_HEADER_SIZE, labelBytes);
+        buffer.put(offset + RECORD_HEADER_SIZE + labelBytes.length, lineBytes);
+        buffer.putInt(writeOffset, length);
+        writeOffset += LENGTH_SIZE + length;
+        return rolled;
+    }
+
+    /**
+     * Closes the write segment and starts the next one; returns the closed segment for the caller to flush.
+     */
+    private MappedByteBuffer roll() {
+        MappedByteBuffer buffer = segments.get(writeSegment);
+        if (writeOffset + LENGTH_SIZE <= buffer.capacity()) {
+            buffer.putInt(writeOffset, END_OF_SEGMENT);
+        }
+        writeSegment++;
+        writeOffset = 0;
+        segments.put(writeSegment, mapSegment(writeSegment));
+        while (getSize() > maxSize) {
+            if (readOffset > 0 && readSegment == segments.firstKey() && readSegment != writeSegment) {
+                compact();
+                continue;
+            }
+            long oldest = segments.firstKey();
+            delete(oldest);
+            droppedSegments++;
+            if (readSegment <= oldest) {
+                readSegment = segments.firstKey();
+                readOffset = 0;
+            }
+        }
+        writeCheckpoint();
+        return buffer;
+    }
+
+    /**
+     * Rewrites the read segment without its shipped prefix, so committed records stop holding space that the
+     * size cap would otherwise reclaim by dropping unshipped ones. The checkpoint is moved to the start of the
+     * segment before the compacted file replaces it: a crash in between replays the prefix instead of losing
+     * records. Offsets handed out before the compaction are translated back in {@link #commit}.
+     */
+    private void compact() {
+        MappedByteBuffer buffer = segments.get(readSegment);
+        int end = readOffset;
+        int length;
+        while (end + LENGTH_SIZE <= buffer.capacity()
+            && (length = buffer.getInt(end)) >= RECORD_HEADER_SIZE
+            && end + LENGTH_SIZE + length <= buffer.capacity()) {
+            end += LENGTH_SIZE + length;
+        }
+        if (end == readOffset) {
+            delete(readSegment);
+            readSegment = segments.firstKey();
+            readOffset = 0;
+            writeCheckpoint();
+            return;
+        }
+        Path segmentFile = segmentPath(readSegment);
+        Path compactionFile = segmentFile.resolveSibling(segmentFile.getFileName() + COMPACTION_SUFFIX);
+        try {
+            MappedByteBuffer compacted = map(compactionFile, end - readOffset + LENGTH_SIZE);
+            compacted.put(0, buffer, readOffset, end - readOffset);
+            compacted.putInt(end - readOffset, END_OF_SEGMENT);
+            compacted.force();
+            if (compactedSegment != readSegment) {
+                compactedSegment = readSegment;
+                compactedBytes = 0;
+            }
+            compactedBytes += readOffset;
+            readOffset = 0;
+            writeCheckpoint();
+            checkpoint.force();
+            Files.move(compactionFile, segmentFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            segments.put(readSegment, compacted);
+            compactions++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int shift(long segment) {
+        return segment == compactedSegment ? compactedBytes : 0;
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACTION_SUFFIX)) {
+                    // Left behind by a crash before the compacted segment replaced the original
+                    Files.delete(file);
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    long segment = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    long size = Files.size(file);
+                    segments.put(segment, map(file, size == 0 ? segmentSize : (int) size));
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, mapSegment(0));
+        }
+        readSegment = checkpoint.getLong(0);
+        readOffset = checkpoint.getInt(Long.BYTES);
+        writeSegment = segments.lastKey();
+        MappedByteBuffer buffer = segments.get(writeSegment);
+        int length;
+        while (writeOffset + LENGTH_SIZE <= buffer.capacity()
+            && (length = buffer.getInt(writeOffset)) >= RECORD_HEADER_SIZE
+            && writeOffset + LENGTH_SIZE + length <= buffer.capacity()) {
+            writeOffset += LENGTH_SIZE + length;
+        }
+        if (writeOffset + LENGTH_SIZE > buffer.capacity() - LENGTH_SIZE
+            || buffer.getInt(writeOffset) == END_OF_SEGMENT) {
+            roll().force();
+        }
+        if (!segments.containsKey(readSegment) || readSegment == writeSegment && readOffset > writeOffset) {
+            readSegment = segments.firstKey();
+            readOffset = 0;
+            writeCheckpoint();
+        }
+    }
+
+    private void writeCheckpoint() {
+        checkpoint.putLong(0, readSegment);
+        checkpoint.putInt(Long.BYTES, readOffset);
+    }
+
+    private int capacity(long segment) {
+        return segments.get(segment).capacity();
+    }
+
+    private MappedByteBuffer mapSegment(long segment) {
+        try {
+            return map(segmentPath(segment), segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void delete(long segment) {
+        // Deleting a mapped file is fine; its pages are released once the buffer is collected
+        segments.remove(segment);
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static SpoolRecord decode(MappedByteBuffer buffer, int offset, int length) {
+        long timestampNanos = buffer.getLong(offset);
+        int labelsLength = buffer.getInt(offset + Long.BYTES);
+        byte[] labels = new byte[labelsLength];
+        byte[] line = new byte[length - RECORD_HEADER_SIZE - labelsLength];
+        buffer.get(offset + RECORD_HEADER_SIZE, labels);
+        buffer.get(offset + RECORD_HEADER_SIZE + labelsLength, line);
+        return new SpoolRecord(timestampNanos, new String(labels, StandardCharsets.UTF_8),
+            new String(line, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records read from the spool together with the position right after them, to be passed to
+     * {@link LogSpool#commit} once they were shipped.
+     */
+    public record SpoolBatch(List<SpoolRecord> records, int bytes, boolean full, long segment, int offset) {
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+
+        public Map<String, List<SpoolRecord>> byLabels() {
+            Map<String, List<SpoolRecord>> streams = new LinkedHashMap<>();
+            for (SpoolRecord spoolRecord : records) {
+                streams.computeIfAbsent(spoolRecord.labels(), labels -> new ArrayList<>()).add(spoolRecord);
+            }
+            return streams;
+        }
+    }
+
+    public record SpoolRecord(long timestampNanos, String labels, String line) {
+    }
+}
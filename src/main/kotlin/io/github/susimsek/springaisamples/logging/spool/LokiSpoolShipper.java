@@ -0,0 +1,220 @@
+package io.github.susimsek.springaisamples.logging.spool;
+
+import ch.qos.logback.core.spi.ContextAwareBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.github.susimsek.springaisamples.logging.config.LoggingProperties;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background thread draining a {@link LogSpool} into the Loki push API. One batch is in flight at a time and
+ * a batch is committed only after Loki accepted it, so while Loki is slow or down the backlog stays in the
+ * spool and is shipped, or replayed after a restart, once Loki is back. Status is reported through the logback
+ * status manager because logging through SLF4J here would feed the spool it is draining.
+ */
+public class LokiSpoolShipper extends ContextAwareBase implements Runnable {
+
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final LogSpool spool;
+    private final HttpClient httpClient;
+    private final URI url;
+    private final int batchMaxItems;
+    private final int batchMaxBytes;
+    private final long batchTimeoutNanos;
+    private final long checkIntervalMillis;
+    private final Duration requestTimeout;
+    private final long minRetryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+    private final long maxRetryJitterMillis;
+    private final boolean dropRateLimitedBatches;
+    private final boolean drainOnStop;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private volatile boolean running;
+    private Thread thread;
+
+    public LokiSpoolShipper(LogSpool spool, LoggingProperties.Loki loki, HttpClient httpClient) {
+        this.spool = spool;
+        this.httpClient = httpClient;
+        this.url = URI.create(loki.getUrl());
+        this.batchMaxItems = loki.getBatchMaxItems();
+        this.batchMaxBytes = (int) loki.getBatchMaxBytes().toBytes();
+        this.batchTimeoutNanos = loki.getBatchTimeout().toNanos();
+        this.checkIntervalMillis = Math.max(1, loki.getInternalQueuesCheckTimeout().toMillis());
+        this.requestTimeout = loki.getSpool().getRequestTimeout();
+        this.minRetryBackoffMillis = loki.getRetry().getMinRetryBackoff().toMillis();
+        this.maxRetryBackoffMillis = loki.getRetry().getMaxRetryBackoff().toMillis();
+        this.maxRetryJitterMillis = loki.getRetry().getMaxRetryJitter().toMillis();
+        this.dropRateLimitedBatches = loki.isDropRateLimitedBatches();
+        this.drainOnStop = loki.isDrainOnStop();
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "loki-spool-shipper");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(STOP_TIMEOUT_MILLIS);
+            if (drainOnStop) {
+                drain(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_TIMEOUT_MILLIS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        long pendingSince = 0;
+        int failures = 0;
+        while (running) {
+            try {
+                LogSpool.SpoolBatch batch = spool.read(batchMaxItems, batchMaxBytes);
+                if (batch.isEmpty()) {
+                    pendingSince = 0;
+                    TimeUnit.MILLISECONDS.sleep(checkIntervalMillis);
+                    continue;
+                }
+                long now = System.nanoTime();
+                pendingSince = pendingSince != 0 ? pendingSince : now;
+                if (!batch.full() && now - pendingSince < batchTimeoutNanos) {
+                    TimeUnit.MILLISECONDS.sleep(checkIntervalMillis);
+                    continue;
+                }
+                if (ship(batch)) {
+                    spool.commit(batch);
+                    pendingSince = 0;
+                    failures = 0;
+                } else {
+                    TimeUnit.MILLISECONDS.sleep(backoffMillis(++failures));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                addError("Failed to ship spooled logs to Loki", e);
+                if (!pause(backoffMillis(++failures))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    void drain(long deadlineNanos) throws InterruptedException {
+        while (spool.hasPending() && System.nanoTime() < deadlineNanos) {
+            LogSpool.SpoolBatch batch = spool.read(batchMaxItems, batchMaxBytes);
+            if (batch.isEmpty() || !ship(batch)) {
+                return;
+            }
+            spool.commit(batch);
+        }
+    }
+
+    /**
+     * Pushes a batch to Loki and returns whether it can be removed from the spool: either Loki accepted it or
+     * it was rejected in a way a retry would not fix.
+     */
+    boolean ship(LogSpool.SpoolBatch batch) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(encode(batch)))
+            .build();
+        int status;
+        try {
+            status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            addWarn("Loki push failed, keeping " + batch.records().size() + " records spooled: " + e.getMessage());
+            return false;
+        }
+        if (status >= 200 && status < 300) {
+            return true;
+        }
+        if (status == STATUS_TOO_MANY_REQUESTS) {
+            addWarn("Loki rate limited a batch of " + batch.records().size() + " records");
+            return dropRateLimitedBatches;
+        }
+        if (status >= 400 && status < 500) {
+            addWarn("Loki rejected a batch of " + batch.records().size() + " records with status " + status);
+            return true;
+        }
+        addWarn("Loki push failed with status " + status + ", keeping records spooled");
+        return false;
+    }
+
+    private byte[] encode(LogSpool.SpoolBatch batch) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(batch.bytes() + 256);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("streams");
+            for (Map.Entry<String, List<LogSpool.SpoolRecord>> stream : batch.byLabels().entrySet()) {
+                generator.writeStartObject();
+                generator.writeObjectFieldStart("stream");
+                writeLabels(generator, stream.getKey());
+                generator.writeEndObject();
+                generator.writeArrayFieldStart("values");
+                for (LogSpool.SpoolRecord spoolRecord : stream.getValue()) {
+                    generator.writeStartArray();
+                    generator.writeString(Long.toString(spoolRecord.timestampNanos()));
+                    generator.writeString(spoolRecord.line());
+                    generator.writeEndArray();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode Loki push request", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeLabels(JsonGenerator generator, String labels) throws IOException {
+        for (String label : labels.split(",")) {
+            int separator = label.indexOf('=');
+            if (separator > 0) {
+                generator.writeStringField(label.substring(0, separator).trim(), label.substring(separator + 1));
+            }
+        }
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private long backoffMillis(int failures) {
+        long backoff = minRetryBackoffMillis << Math.min(failures - 1, 20);
+        long jitter = maxRetryJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(maxRetryJitterMillis) : 0;
+        return Math.min(backoff, maxRetryBackoffMillis) + jitter;
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.susimsek.springaisamples.logging.spool;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Layout;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Loki appender that only writes to the local {@link LogSpool}; delivery is left to the
+ * {@link LokiSpoolShipper}, so the logging thread never waits on the network.
+ */
+@RequiredArgsConstructor
+public class SpoolingLokiAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private final LogSpool spool;
+    private final LokiSpoolShipper shipper;
+    private final Layout<ILoggingEvent> labelLayout;
+    private final Layout<ILoggingEvent> messageLayout;
+
+    @Override
+    public void start() {
+        shipper.setContext(getContext());
+        shipper.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        shipper.stop();
+        spool.close();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        Instant instant = event.getInstant();
+        long timestampNanos = TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+        spool.append(timestampNanos, labelLayout.doLayout(event), messageLayout.doLayout(event));
+    }
+}
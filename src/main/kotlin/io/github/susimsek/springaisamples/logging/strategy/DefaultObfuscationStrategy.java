@@ -1,14 +1,14 @@
 package io.github.susimsek.springaisamples.logging.strategy;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.susimsek.springaisamples.logging.config.LoggingProperties;
+import io.github.susimsek.springaisamples.logging.utils.JsonBodyMasker;
+import io.github.susimsek.springaisamples.logging.utils.ObjectMasker;
+import io.github.susimsek.springaisamples.utils.HttpHeadersUtil;
 import java.net.URI;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.util.LinkedMultiValueMap;
@@ -20,16 +20,18 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class DefaultObfuscationStrategy implements ObfuscationStrategy {
 
     private final LoggingProperties loggingProperties;
-    private final ObjectMapper objectMapper;
+    private final JsonBodyMasker jsonBodyMasker;
+    private final ObjectMasker objectMasker;
+
+    private volatile MaskSet headerMask = MaskSet.EMPTY;
+    private volatile MaskSet parameterMask = MaskSet.EMPTY;
 
     @Override
     public HttpHeaders maskHeaders(HttpHeaders headers) {
-        HttpHeaders maskedHeaders = new HttpHeaders();
-        headers.forEach((key, value) -> maskedHeaders.addAll(key,
-            shouldMask(loggingProperties.getObfuscate().getHeaders(), key)
-                ? List.of(loggingProperties.getObfuscate().getMaskValue())
-                : value));
-        return maskedHeaders;
+        LoggingProperties.Obfuscate obfuscate = loggingProperties.getObfuscate();
+        MaskSet mask = headerMask.of(obfuscate.getHeaders());
+        headerMask = mask;
+        return HttpHeadersUtil.maskedHeaders(headers, mask.names(), obfuscate.getMaskValue());
     }
 
     @Override
@@ -37,13 +39,15 @@ public class DefaultObfuscationStrategy implements ObfuscationStrategy {
         if (!StringUtils.hasText(body)) {
             return body;
         }
-        try {
-            JsonNode rootNode = objectMapper.readTree(body);
-            maskJsonPaths(rootNode, loggingProperties.getObfuscate().getJsonBodyFields());
-            return objectMapper.writeValueAsString(rootNode);
-        } catch (Exception e) {
+        return jsonBodyMasker.mask(body);
+    }
+
+    @Override
+    public String maskTruncatedBody(String body) {
+        if (!StringUtils.hasText(body)) {
             return body;
         }
+        return jsonBodyMasker.maskPrefix(body);
     }
 
     @Override
@@ -52,8 +56,10 @@ public class DefaultObfuscationStrategy implements ObfuscationStrategy {
         MultiValueMap<String, String> queryParams = builder.build().getQueryParams();
         MultiValueMap<String, String> maskedParams = new LinkedMultiValueMap<>();
 
+        MaskSet mask = parameterMask.of(loggingProperties.getObfuscate().getParameters());
+        parameterMask = mask;
         queryParams.forEach((key, value) -> maskedParams.addAll(key,
-            shouldMask(loggingProperties.getObfuscate().getParameters(), key)
+            mask.names().contains(key)
                 ? List.of(loggingProperties.getObfuscate().getMaskValue())
                 : value));
 
@@ -68,144 +74,43 @@ public class DefaultObfuscationStrategy implements ObfuscationStrategy {
         }
         Object[] maskedArguments = new Object[arguments.length];
         for (int i = 0; i < arguments.length; i++) {
-            maskedArguments[i] = maskObject(arguments[i]);
+            maskedArguments[i] = objectMasker.mask(arguments[i]);
         }
         return maskedArguments;
     }
 
     @Override
     public Object maskResult(Object result) {
-        return maskObject(result);
-    }
-
-    private void maskJsonPaths(JsonNode rootNode, List<String> jsonPaths) {
-        for (String jsonPath : jsonPaths) {
-            String[] pathParts = splitJsonPath(jsonPath.replace("$.", ""));
-            maskJsonNodeRecursive(rootNode, pathParts, 0);
-        }
+        return objectMasker.mask(result);
     }
 
-    private String[] splitJsonPath(String jsonPath) {
-        List<String> pathParts = new ArrayList<>();
-        StringBuilder currentPart = new StringBuilder();
-        boolean escaped = false;
-
-        for (char c : jsonPath.toCharArray()) {
-            if (c == '\\' && !escaped) {
-                escaped = true;
-            } else if (c == '.' && !escaped) {
-                pathParts.add(currentPart.toString());
-                currentPart.setLength(0);
-            } else {
-                escaped = false;
-                currentPart.append(c);
-            }
-        }
-
-        pathParts.add(currentPart.toString());
-        return pathParts.toArray(new String[0]);
+    @Override
+    public Object[] snapshotArguments(Object[] arguments) {
+        return objectMasker.snapshotAll(arguments);
     }
 
-    private String unescapePart(String part) {
-        return part.replace("\\.", ".");
+    @Override
+    public Object snapshotResult(Object result) {
+        return objectMasker.snapshot(result);
     }
 
-    private void maskJsonNodeRecursive(JsonNode currentNode, String[] pathParts, int index) {
-        if (currentNode == null || index >= pathParts.length) {
-            return;
-        }
+    /**
+     * Case-insensitive set of the configured names, rebuilt only when the configured list is replaced.
+     */
+    private record MaskSet(List<String> source, Set<String> names) {
 
-        String currentPart = unescapePart(pathParts[index]);
+        private static final MaskSet EMPTY = new MaskSet(List.of(), Set.of());
 
-        if (isArraySegment(currentPart)) {
-            processArraySegment(currentNode, pathParts, index, currentPart);
-        } else if (currentPart.equals("*")) {
-            if (index + 1 == pathParts.length) {
-                maskAllFields(currentNode);
-            } else {
-                processWildcardSegment(currentNode, pathParts, index);
+        private MaskSet of(List<String> configured) {
+            if (configured == source) {
+                return this;
             }
-        } else if (currentNode.has(currentPart)) {
-            processObjectSegment(currentNode, pathParts, index, currentPart);
-        }
-    }
-
-    private boolean isArraySegment(String currentPart) {
-        return currentPart.contains("[*]");
-    }
-
-    private void processArraySegment(JsonNode currentNode, String[] pathParts, int index, String currentPart) {
-        String arrayPart = currentPart.split("\\[\\*]")[0];
-        if (currentNode.has(arrayPart) && currentNode.get(arrayPart).isArray()) {
-            for (JsonNode arrayItem : currentNode.get(arrayPart)) {
-                if (index + 1 == pathParts.length) {
-                    maskAllFields(arrayItem);
-                } else {
-                    maskJsonNodeRecursive(arrayItem, pathParts, index + 1);
-                }
+            if (configured == null) {
+                return EMPTY;
             }
+            Set<String> caseInsensitiveNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            caseInsensitiveNames.addAll(configured);
+            return new MaskSet(configured, Collections.unmodifiableSet(caseInsensitiveNames));
         }
     }
-
-    private void processWildcardSegment(JsonNode currentNode, String[] pathParts, int index) {
-        currentNode.fieldNames().forEachRemaining(fieldName ->
-            maskJsonNodeRecursive(currentNode.get(fieldName), pathParts, index + 1)
-        );
-    }
-
-    private void processObjectSegment(JsonNode currentNode, String[] pathParts, int index, String currentPart) {
-        JsonNode nextNode = currentNode.get(currentPart);
-        if (index + 1 == pathParts.length) {
-            maskField((ObjectNode) currentNode, currentPart);
-        } else {
-            maskJsonNodeRecursive(nextNode, pathParts, index + 1);
-        }
-    }
-
-    private void maskField(ObjectNode currentNode, String fieldName) {
-        currentNode.set(
-            fieldName,
-            JsonNodeFactory.instance.textNode(
-                loggingProperties.getObfuscate().getMaskValue()
-            )
-        );
-    }
-
-    private void maskAllFields(JsonNode node) {
-        if (node.isObject()) {
-            ObjectNode objectNode = (ObjectNode) node;
-            objectNode.fieldNames().forEachRemaining(fieldName ->
-                maskField(objectNode, fieldName)
-            );
-        } else if (node.isArray()) {
-            ArrayNode arrayNode = (ArrayNode) node;
-            for (int i = 0; i < arrayNode.size(); i++) {
-                JsonNode arrayItem = arrayNode.get(i);
-                if (arrayItem.isObject()) {
-                    maskAllFields(arrayItem);
-                } else {
-                    arrayNode.set(i, JsonNodeFactory.instance.textNode(
-                        loggingProperties.getObfuscate().getMaskValue()
-                    ));
-                }
-            }
-        }
-    }
-
-    private boolean shouldMask(List<String> list, String key) {
-        return list.stream().anyMatch(item -> item.equalsIgnoreCase(key));
-    }
-
-    private Object maskObject(Object object) {
-        if (object == null) {
-            return null;
-        }
-        try {
-            JsonNode rootNode = objectMapper.valueToTree(object);
-            maskJsonPaths(rootNode, loggingProperties.getObfuscate().getMethodFields());
-            return objectMapper.treeToValue(rootNode, Object.class);
-        } catch (Exception e) {
-            return object;
-        }
-    }
-}
\ No newline at end of file
+}
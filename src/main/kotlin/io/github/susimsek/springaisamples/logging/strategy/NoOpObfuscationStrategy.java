@@ -1,10 +1,26 @@
 package io.github.susimsek.springaisamples.logging.strategy;
 
+import io.github.susimsek.springaisamples.logging.utils.ObjectMasker;
 import java.net.URI;
 import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
 
 public class NoOpObfuscationStrategy implements ObfuscationStrategy {
 
+    @Nullable
+    private final ObjectMasker objectMasker;
+
+    public NoOpObfuscationStrategy() {
+        this(null);
+    }
+
+    /**
+     * Uses the masker, configured without any field, only to copy method arguments and results.
+     */
+    public NoOpObfuscationStrategy(@Nullable ObjectMasker objectMasker) {
+        this.objectMasker = objectMasker;
+    }
+
     @Override
     public HttpHeaders maskHeaders(HttpHeaders headers) {
         return headers;
@@ -15,6 +31,11 @@ public class NoOpObfuscationStrategy implements ObfuscationStrategy {
         return body;
     }
 
+    @Override
+    public String maskTruncatedBody(String body) {
+        return body;
+    }
+
     @Override
     public URI maskUriParameters(URI uri) {
         return uri;
@@ -29,4 +50,14 @@ public class NoOpObfuscationStrategy implements ObfuscationStrategy {
     public Object maskResult(Object result) {
         return result;
     }
+
+    @Override
+    public Object[] snapshotArguments(Object[] arguments) {
+        return objectMasker != null ? objectMasker.snapshotAll(arguments) : arguments;
+    }
+
+    @Override
+    public Object snapshotResult(Object result) {
+        return objectMasker != null ? objectMasker.snapshot(result) : result;
+    }
 }
\ No newline at end of file
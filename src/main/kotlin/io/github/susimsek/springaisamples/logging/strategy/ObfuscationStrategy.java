@@ -8,9 +8,18 @@ public interface ObfuscationStrategy {
 
     String maskBody(String body);
 
+    String maskTruncatedBody(String body);
+
     URI maskUriParameters(URI uri);
 
     Object[] maskArguments(Object[] arguments);
 
     Object maskResult(Object result);
+
+    /**
+     * Masks the arguments and copies the mutable ones, so they can be written later on another thread.
+     */
+    Object[] snapshotArguments(Object[] arguments);
+
+    Object snapshotResult(Object result);
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import java.util.Arrays;
+
+public class BoundedBodyCapture {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int limit;
+    private byte[] buffer;
+    private int count;
+    private long totalBytes;
+
+    public BoundedBodyCapture(int limit) {
+        this.limit = limit;
+        this.buffer = new byte[Math.min(limit, INITIAL_CAPACITY)];
+    }
+
+    public void write(int b) {
+        totalBytes++;
+        if (count < limit) {
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+    }
+
+    public void write(byte[] bytes, int offset, int length) {
+        totalBytes += length;
+        int captured = Math.min(length, limit - count);
+        if (captured > 0) {
+            ensureCapacity(count + captured);
+            System.arraycopy(bytes, offset, buffer, count, captured);
+            count += captured;
+        }
+    }
+
+    public boolean isFull() {
+        return count >= limit;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int remaining() {
+        return limit - count;
+    }
+
+    public boolean isTruncated() {
+        return totalBytes > count;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(capacity, buffer.length * 2)));
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package io.github.susimsek.springaisamples.logging.utils;
 
+import io.github.susimsek.springaisamples.policy.RouteMatcher;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRequest;
-import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 
-public class HttpRequestMatcher implements RequestMatcher {
+public class HttpRequestMatcher implements RouteMatcher {
 
+    @Getter
     private final String pattern;
+    @Getter
     private final HttpMethod httpMethod;
     private final PathMatcher pathMatcher;
 
@@ -0,0 +1,337 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.URL;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JSON body masker built from the configured {@code jsonBodyFields} paths. The paths are compiled once into
+ * a trie of states which is then run as an NFA over a single JsonParser to JsonGenerator pass, so no tree
+ * is built. Matching follows the tree-based masking rules: {@code field} masks a value, {@code *} masks
+ * every field of the current container and {@code field[*]} applies the rest of the path to each element.
+ * {@link #maskPrefix} masks a truncated body up to the point where it was cut off.
+ * {@link #canMatch} answers from Jackson bean metadata whether a type can contain a masked path at all.
+ */
+public final class JsonBodyMasker {
+
+    private static final String ARRAY_SUFFIX = "[*]";
+    private static final String WILDCARD = "*";
+    private static final int MAX_TYPE_DEPTH = 16;
+
+    private final State root;
+    private final String maskValue;
+    private final JsonFactory jsonFactory;
+
+    private JsonBodyMasker(State root, String maskValue, JsonFactory jsonFactory) {
+        this.root = root;
+        this.maskValue = maskValue;
+        this.jsonFactory = jsonFactory;
+    }
+
+    public static JsonBodyMasker compile(List<String> jsonPaths, String maskValue, JsonFactory jsonFactory) {
+        State root = new State();
+        if (jsonPaths != null) {
+            for (String jsonPath : jsonPaths) {
+                addPath(root, splitJsonPath(jsonPath.replace("$.", "")));
+            }
+        }
+        return new JsonBodyMasker(root, maskValue, jsonFactory);
+    }
+
+    public boolean isEmpty() {
+        return root.isEmpty();
+    }
+
+    public String mask(String body) {
+        if (body == null || body.isBlank() || isEmpty()) {
+            return body;
+        }
+        StringWriter writer = new StringWriter(body.length());
+        try (JsonParser parser = jsonFactory.createParser(body);
+             JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            if (parser.nextToken() == null) {
+                return body;
+            }
+            copyValue(parser, generator, List.of(root), false);
+        } catch (IOException | RuntimeException e) {
+            return body;
+        }
+        return writer.toString();
+    }
+
+    public String maskPrefix(String body) {
+        if (body == null || body.isBlank() || isEmpty()) {
+            return body;
+        }
+        StringWriter writer = new StringWriter(body.length());
+        try (JsonParser parser = jsonFactory.createParser(body);
+             JsonGenerator generator = jsonFactory.createGenerator(writer)
+                 .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+            if (parser.nextToken() == null) {
+                return body;
+            }
+            copyValue(parser, generator, List.of(root), false);
+        } catch (IOException | RuntimeException e) {
+            // A cut-off body fails at its end, so everything written up to there is already masked
+            return writer.getBuffer().isEmpty() ? body : writer.toString();
+        }
+        return writer.toString();
+    }
+
+    public void copy(JsonParser parser, JsonGenerator generator) throws IOException {
+        copyValue(parser, generator, List.of(root), false);
+    }
+
+    public boolean canMatch(JavaType type, SerializationConfig config) {
+        return canMatch(type, List.of(root), config, 0);
+    }
+
+    private boolean canMatch(JavaType type, List<State> states, SerializationConfig config, int depth) {
+        if (states.isEmpty() || isScalar(type.getRawClass())) {
+            return false;
+        }
+        if (depth > MAX_TYPE_DEPTH || anyMaskAll(states)) {
+            return true;
+        }
+        if (type.isReferenceType()) {
+            return canMatch(type.getReferencedType(), states, config, depth + 1);
+        }
+        if (type.isArrayType() || type.isCollectionLikeType()) {
+            JavaType contentType = type.getContentType();
+            return anyMaskElements(states) && !isScalar(contentType.getRawClass())
+                || canMatch(contentType, elementStates(states), config, depth + 1);
+        }
+        if (type.isMapLikeType() || type.isAbstract() || type.isJavaLangObject()
+            || JsonNode.class.isAssignableFrom(type.getRawClass())) {
+            // Property names are only known at runtime
+            return true;
+        }
+        BeanDescription beanDescription = config.introspect(type);
+        if (beanDescription.findAnyGetter() != null) {
+            return true;
+        }
+        for (BeanPropertyDefinition property : beanDescription.findProperties()) {
+            if (!property.couldSerialize()) {
+                continue;
+            }
+            String name = property.getName();
+            if (masksField(states, name)
+                || canMatch(property.getPrimaryType(), fieldStates(states, name), config, depth + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isScalar(Class<?> type) {
+        return type.isPrimitive() || CharSequence.class.isAssignableFrom(type)
+            || Number.class.isAssignableFrom(type) || Boolean.class == type || Character.class == type
+            || type.isEnum() || TemporalAccessor.class.isAssignableFrom(type)
+            || Date.class.isAssignableFrom(type) || Calendar.class.isAssignableFrom(type)
+            || UUID.class == type || URI.class == type || URL.class == type;
+    }
+
+    private void copyValue(JsonParser parser, JsonGenerator generator, List<State> states, boolean maskAll)
+        throws IOException {
+        JsonToken token = parser.currentToken();
+        boolean containerMaskAll = maskAll || anyMaskAll(states);
+        if (token == JsonToken.START_OBJECT) {
+            copyObject(parser, generator, states, containerMaskAll);
+        } else if (token == JsonToken.START_ARRAY) {
+            copyArray(parser, generator, states, containerMaskAll);
+        } else {
+            generator.copyCurrentEvent(parser);
+        }
+    }
+
+    private void copyObject(JsonParser parser, JsonGenerator generator, List<State> states, boolean maskAll)
+        throws IOException {
+        if (!maskAll && states.isEmpty()) {
+            generator.copyCurrentStructure(parser);
+            return;
+        }
+        generator.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            generator.writeFieldName(fieldName);
+            parser.nextToken();
+            if (maskAll || masksField(states, fieldName)) {
+                writeMask(parser, generator);
+                continue;
+            }
+            copyValue(parser, generator, fieldStates(states, fieldName), false);
+        }
+        generator.writeEndObject();
+    }
+
+    private void copyArray(JsonParser parser, JsonGenerator generator, List<State> states, boolean maskAll)
+        throws IOException {
+        List<State> elementStates = maskAll ? List.of() : elementStates(states);
+        boolean maskElements = !maskAll && anyMaskElements(states);
+        if (!maskAll && !maskElements && elementStates.isEmpty()) {
+            generator.copyCurrentStructure(parser);
+            return;
+        }
+        generator.writeStartArray();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (maskAll) {
+                if (parser.currentToken() == JsonToken.START_OBJECT) {
+                    copyObject(parser, generator, List.of(), true);
+                } else {
+                    writeMask(parser, generator);
+                }
+            } else if (maskElements && parser.currentToken().isStructStart()) {
+                copyValue(parser, generator, elementStates, true);
+            } else {
+                copyValue(parser, generator, elementStates, false);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeMask(JsonParser parser, JsonGenerator generator) throws IOException {
+        generator.writeString(maskValue);
+        parser.skipChildren();
+    }
+
+    private static boolean anyMaskAll(List<State> states) {
+        for (State state : states) {
+            if (state.maskAll) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyMaskElements(List<State> states) {
+        for (State state : states) {
+            if (state.maskElements) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean masksField(List<State> states, String fieldName) {
+        for (State state : states) {
+            if (state.maskedFields.contains(fieldName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<State> fieldStates(List<State> states, String fieldName) {
+        List<State> next = List.of();
+        for (State state : states) {
+            next = add(next, state.fields.get(fieldName));
+            next = add(next, state.anyField);
+        }
+        return next;
+    }
+
+    private static List<State> elementStates(List<State> states) {
+        List<State> next = List.of();
+        for (State state : states) {
+            next = add(next, state.elements);
+        }
+        return next;
+    }
+
+    private static List<State> add(List<State> states, State state) {
+        if (state == null) {
+            return states;
+        }
+        if (states.isEmpty()) {
+            return List.of(state);
+        }
+        List<State> merged = new ArrayList<>(states.size() + 1);
+        merged.addAll(states);
+        merged.add(state);
+        return merged;
+    }
+
+    private static void addPath(State root, List<String> pathParts) {
+        State current = root;
+        for (int i = 0; i < pathParts.size(); i++) {
+            String part = pathParts.get(i);
+            boolean last = i + 1 == pathParts.size();
+            if (part.contains(ARRAY_SUFFIX)) {
+                State array = current.fields.computeIfAbsent(part.substring(0, part.indexOf(ARRAY_SUFFIX)),
+                    name -> new State());
+                if (last) {
+                    array.maskElements = true;
+                } else {
+                    array.elements = array.elements != null ? array.elements : new State();
+                    current = array.elements;
+                }
+            } else if (WILDCARD.equals(part)) {
+                if (last) {
+                    current.maskAll = true;
+                } else {
+                    current.anyField = current.anyField != null ? current.anyField : new State();
+                    current = current.anyField;
+                }
+            } else if (last) {
+                current.maskedFields.add(part);
+            } else {
+                current = current.fields.computeIfAbsent(part, name -> new State());
+            }
+        }
+    }
+
+    private static List<String> splitJsonPath(String jsonPath) {
+        List<String> pathParts = new ArrayList<>();
+        StringBuilder currentPart = new StringBuilder();
+        boolean escaped = false;
+
+        for (char c : jsonPath.toCharArray()) {
+            if (c == '\\' && !escaped) {
+                escaped = true;
+            } else if (c == '.' && !escaped) {
+                pathParts.add(currentPart.toString());
+                currentPart.setLength(0);
+            } else {
+                escaped = false;
+                currentPart.append(c);
+            }
+        }
+
+        pathParts.add(currentPart.toString());
+        return pathParts;
+    }
+
+    private static final class State {
+        private final Map<String, State> fields = new HashMap<>();
+        private final Set<String> maskedFields = new HashSet<>();
+        private State anyField;
+        private State elements;
+        private boolean maskAll;
+        private boolean maskElements;
+
+        private boolean isEmpty() {
+            return fields.isEmpty() && maskedFields.isEmpty() && anyField == null && elements == null
+                && !maskAll && !maskElements;
+        }
+    }
+}
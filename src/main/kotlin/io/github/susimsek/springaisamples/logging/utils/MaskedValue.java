@@ -0,0 +1,28 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+
+public record MaskedValue(Object value, JsonBodyMasker masker) implements JsonSerializable {
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(generator.getCodec(), false);
+        serializers.defaultSerializeValue(value, buffer);
+        try (JsonParser parser = buffer.asParser()) {
+            parser.nextToken();
+            masker.copy(parser, generator);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers,
+                                  TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, serializers);
+    }
+}
@@ -18,6 +18,10 @@ public class Obfuscator {
         return obfuscationStrategy.maskBody(body);
     }
 
+    public String maskTruncatedBody(String body) {
+        return obfuscationStrategy.maskTruncatedBody(body);
+    }
+
     public URI maskUriParameters(URI uri) {
         return obfuscationStrategy.maskUriParameters(uri);
     }
@@ -29,4 +33,12 @@ public class Obfuscator {
     public Object maskResult(Object result) {
         return obfuscationStrategy.maskResult(result);
     }
+
+    public Object[] snapshotArguments(Object[] arguments) {
+        return obfuscationStrategy.snapshotArguments(arguments);
+    }
+
+    public Object snapshotResult(Object result) {
+        return obfuscationStrategy.snapshotResult(result);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+
+public class ObjectMasker {
+
+    private static final String UNSERIALIZABLE = "[unserializable %s]";
+
+    private final JsonBodyMasker masker;
+    private final ObjectMapper objectMapper;
+    private final ClassValue<Boolean> sensitiveTypes;
+
+    public ObjectMasker(JsonBodyMasker masker, ObjectMapper objectMapper) {
+        this.masker = masker;
+        this.objectMapper = objectMapper;
+        this.sensitiveTypes = new ClassValue<>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                return masker.canMatch(objectMapper.constructType(type), objectMapper.getSerializationConfig());
+            }
+        };
+    }
+
+    public Object mask(Object value) {
+        if (value == null || masker.isEmpty() || !sensitiveTypes.get(value.getClass())) {
+            return value;
+        }
+        return new MaskedValue(value, masker);
+    }
+
+    /**
+     * Masks the value and copies its JSON tokens, so it can be written after the caller changed the object.
+     * Scalars are immutable and returned as they are.
+     */
+    public Object snapshot(Object value) {
+        if (value == null || JsonBodyMasker.isScalar(value.getClass())) {
+            return value;
+        }
+        TokenBuffer tokens = new TokenBuffer(objectMapper, false);
+        try {
+            objectMapper.writeValue(tokens, mask(value));
+        } catch (IOException | RuntimeException e) {
+            return String.format(UNSERIALIZABLE, value.getClass().getName());
+        }
+        return new JsonSnapshot(tokens);
+    }
+
+    public Object[] snapshotAll(Object[] values) {
+        if (values == null) {
+            return null;
+        }
+        Object[] snapshots = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            snapshots[i] = snapshot(values[i]);
+        }
+        return snapshots;
+    }
+}
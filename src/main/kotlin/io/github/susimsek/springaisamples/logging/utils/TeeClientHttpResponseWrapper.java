@@ -0,0 +1,125 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.NonNull;
+
+/**
+ * Client response wrapper that copies the first {@code limit} bytes of the body into a
+ * {@link BoundedBodyCapture} as the caller reads it, and hands the capture over once the response is closed.
+ */
+public class TeeClientHttpResponseWrapper implements ClientHttpResponse {
+
+    private final ClientHttpResponse response;
+    private final BoundedBodyCapture capture;
+    private final Consumer<BoundedBodyCapture> onClose;
+    private InputStream body;
+    private boolean closed;
+
+    public TeeClientHttpResponseWrapper(ClientHttpResponse response, int limit,
+                                        Consumer<BoundedBodyCapture> onClose) {
+        this.response = response;
+        this.capture = new BoundedBodyCapture(limit);
+        this.onClose = onClose;
+    }
+
+    @Override
+    public @NonNull HttpStatus getStatusCode() throws IOException {
+        return HttpStatus.valueOf(this.response.getStatusCode().value());
+    }
+
+    @Override
+    public @NonNull String getStatusText() throws IOException {
+        return this.response.getStatusText();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            captureUnread();
+            onClose.accept(capture);
+        } finally {
+            this.response.close();
+        }
+    }
+
+    @Override
+    public @NonNull InputStream getBody() throws IOException {
+        if (this.body == null) {
+            this.body = new TeeInputStream(this.response.getBody());
+        }
+        return this.body;
+    }
+
+    @Override
+    public @NonNull HttpHeaders getHeaders() {
+        return this.response.getHeaders();
+    }
+
+    private void captureUnread() {
+        if (capture.isFull()) {
+            return;
+        }
+        try {
+            InputStream stream = getBody();
+            byte[] chunk = new byte[Math.min(capture.remaining(), 8192)];
+            int read = 0;
+            while (read != -1 && !capture.isFull()) {
+                read = stream.read(chunk, 0, Math.min(chunk.length, capture.remaining()));
+            }
+        } catch (IOException e) {
+            // The body is no longer readable
+        }
+    }
+
+    private class TeeInputStream extends FilterInputStream {
+
+        TeeInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                capture.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                capture.write(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+            byte[] skipped = new byte[(int) Math.min(n, 8192)];
+            long remaining = n;
+            while (remaining > 0) {
+                int read = read(skipped, 0, (int) Math.min(remaining, skipped.length));
+                if (read == -1) {
+                    break;
+                }
+                remaining -= read;
+            }
+            return n - remaining;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request wrapper that copies the first {@code limit} bytes of the body into a {@link BoundedBodyCapture}
+ * as the application reads it; the rest streams through untouched.
+ */
+public class TeeHttpServletRequestWrapper extends HttpServletRequestWrapper {
+
+    private final BoundedBodyCapture capture;
+    private TeeServletInputStream inputStream;
+    private BufferedReader reader;
+
+    public TeeHttpServletRequestWrapper(HttpServletRequest request, int limit) {
+        super(request);
+        this.capture = new BoundedBodyCapture(limit);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new TeeServletInputStream(super.getInputStream(), capture);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), getCharset()));
+        }
+        return reader;
+    }
+
+    public byte[] getCapturedBody() {
+        captureUnread();
+        return capture.toByteArray();
+    }
+
+    /**
+     * Returns the number of body bytes read so far, which is known even for chunked requests.
+     */
+    public long getBytesRead() {
+        return capture.getTotalBytes();
+    }
+
+    public boolean isBodyTruncated() {
+        return capture.isTruncated() || getContentLengthLong() > capture.size();
+    }
+
+    private void captureUnread() {
+        // The body was not consumed by the application, so only read as much as will be logged
+        if (capture.isFull() || (inputStream != null && inputStream.isFinished())) {
+            return;
+        }
+        try {
+            ServletInputStream stream = getInputStream();
+            byte[] chunk = new byte[Math.min(capture.remaining(), 8192)];
+            int read = 0;
+            while (read != -1 && !capture.isFull()) {
+                read = stream.read(chunk, 0, Math.min(chunk.length, capture.remaining()));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The request body is no longer readable
+        }
+    }
+
+    private Charset getCharset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    private static class TeeServletInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private final BoundedBodyCapture capture;
+        private boolean finished;
+
+        TeeServletInputStream(ServletInputStream delegate, BoundedBodyCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b == -1) {
+                finished = true;
+            } else {
+                capture.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = delegate.read(b, off, len);
+            if (read == -1) {
+                finished = true;
+            } else {
+                capture.write(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished || delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntPredicate;
+
+/**
+ * Response wrapper that copies the first {@code limit} bytes written into a {@link BoundedBodyCapture}
+ * while the body streams straight to the client. Whether to capture at all is decided from the status
+ * code when the first byte is written.
+ */
+public class TeeHttpServletResponseWrapper extends HttpServletResponseWrapper {
+
+    private final BoundedBodyCapture capture;
+    private final IntPredicate captureCondition;
+    private TeeServletOutputStream outputStream;
+    private PrintWriter writer;
+    private Boolean capturing;
+    private long bytesWritten;
+
+    public TeeHttpServletResponseWrapper(HttpServletResponse response, int limit, IntPredicate captureCondition) {
+        super(response);
+        this.capture = new BoundedBodyCapture(limit);
+        this.captureCondition = captureCondition;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called on this response");
+        }
+        return teeOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (outputStream != null && writer == null) {
+            throw new IllegalStateException("getOutputStream() has already been called on this response");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(teeOutputStream(), getCharset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        super.flushBuffer();
+    }
+
+    public void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    public byte[] getCapturedBody() {
+        return capture.toByteArray();
+    }
+
+    public boolean isBodyTruncated() {
+        return capture.isTruncated();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private TeeServletOutputStream teeOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeServletOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    private boolean isCapturing() {
+        if (capturing == null) {
+            capturing = captureCondition.test(getStatus());
+        }
+        return capturing;
+    }
+
+    private Charset getCharset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    private class TeeServletOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        TeeServletOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bytesWritten++;
+            if (isCapturing()) {
+                capture.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            bytesWritten += len;
+            if (isCapturing()) {
+                capture.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+@Endpoint(id = "filterstages")
+@RequiredArgsConstructor
+public class FilterStageEndpoint {
+
+    private static final double TAIL_PERCENTILE = 0.99;
+
+    private final MeterRegistry meterRegistry;
+
+    @ReadOperation
+    public List<StageBreakdown> breakdown(@Nullable String route) {
+        return meterRegistry.find(FilterStageMetrics.TIMER_NAME).timers().stream()
+            .filter(timer -> route == null || route.equals(timer.getId().getTag(FilterStageMetrics.ROUTE_TAG)))
+            .map(this::toBreakdown)
+            .sorted(Comparator.comparingDouble(StageBreakdown::p99Ms).reversed())
+            .toList();
+    }
+
+    private StageBreakdown toBreakdown(Timer timer) {
+        String stage = timer.getId().getTag(FilterStageMetrics.STAGE_TAG);
+        String route = timer.getId().getTag(FilterStageMetrics.ROUTE_TAG);
+        DistributionSummary allocation = meterRegistry.find(FilterStageMetrics.ALLOCATION_NAME)
+            .tag(FilterStageMetrics.STAGE_TAG, stage)
+            .tag(FilterStageMetrics.ROUTE_TAG, route)
+            .summary();
+        return new StageBreakdown(
+            stage,
+            route,
+            timer.count(),
+            timer.mean(TimeUnit.MILLISECONDS),
+            tailLatency(timer),
+            timer.max(TimeUnit.MILLISECONDS),
+            allocation != null ? allocation.mean() : 0);
+    }
+
+    private static double tailLatency(Timer timer) {
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == TAIL_PERCENTILE) {
+                return percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return timer.max(TimeUnit.MILLISECONDS);
+    }
+
+    public record StageBreakdown(String stage, String route, long count, double meanMs,
+                                 double p99Ms, double maxMs, double meanAllocatedBytes) {
+    }
+}
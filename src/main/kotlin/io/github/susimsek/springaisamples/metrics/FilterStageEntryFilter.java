@@ -0,0 +1,39 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Charges the filters that follow it to a stage that has no filter of its own, such as the JWT stage of the
+ * {@code BearerTokenAuthenticationFilter}, including the requests those filters reject.
+ */
+@RequiredArgsConstructor
+public class FilterStageEntryFilter extends OncePerRequestFilter {
+
+    private final FilterOrder stage;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+        FilterStageRecorder recorder = FilterStageRecorder.get(request);
+        if (recorder == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        recorder.switchTo(stage);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recorder.switchTo(stage);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class FilterStageMetrics {
+
+    static final String TIMER_NAME = "http.server.filter.stage";
+    static final String ALLOCATION_NAME = "http.server.filter.stage.allocated";
+    static final String STAGE_TAG = "stage";
+    static final String ROUTE_TAG = "route";
+    static final String DOWNSTREAM_STAGE = "downstream";
+
+    private static final String[] STAGE_NAMES = stageNames();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteMeters> routes = new ConcurrentHashMap<>();
+
+    public void record(FilterStageRecorder recorder, String route) {
+        RouteMeters meters = routes.get(route);
+        if (meters == null) {
+            meters = routes.computeIfAbsent(route, RouteMeters::new);
+        }
+        for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+            if (!recorder.participated(stage)) {
+                continue;
+            }
+            meters.timer(stage).record(recorder.nanos(stage), TimeUnit.NANOSECONDS);
+            long allocatedBytes = recorder.allocatedBytes(stage);
+            if (allocatedBytes > 0) {
+                meters.allocation(stage).record(allocatedBytes);
+            }
+        }
+    }
+
+    private static String[] stageNames() {
+        FilterOrder[] stages = FilterOrder.values();
+        String[] names = new String[stages.length + 1];
+        for (FilterOrder stage : stages) {
+            names[stage.ordinal()] = stage.name().toLowerCase(Locale.ROOT);
+        }
+        names[FilterStageRecorder.DOWNSTREAM] = DOWNSTREAM_STAGE;
+        return names;
+    }
+
+    /**
+     * Meters of one route, registered the first time a stage records on it. Registering is idempotent, so a
+     * racing thread that registers the same meter again gets the same instance back.
+     */
+    private final class RouteMeters {
+        private final String route;
+        private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(STAGE_NAMES.length);
+        private final AtomicReferenceArray<DistributionSummary> allocations =
+            new AtomicReferenceArray<>(STAGE_NAMES.length);
+
+        private RouteMeters(String route) {
+            this.route = route;
+        }
+
+        private Timer timer(int stage) {
+            Timer timer = timers.get(stage);
+            if (timer == null) {
+                timer = Timer.builder(TIMER_NAME)
+                    .tag(STAGE_TAG, STAGE_NAMES[stage])
+                    .tag(ROUTE_TAG, route)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+                timers.set(stage, timer);
+            }
+            return timer;
+        }
+
+        private DistributionSummary allocation(int stage) {
+            DistributionSummary allocation = allocations.get(stage);
+            if (allocation == null) {
+                allocation = DistributionSummary.builder(ALLOCATION_NAME)
+                    .baseUnit("bytes")
+                    .tag(STAGE_TAG, STAGE_NAMES[stage])
+                    .tag(ROUTE_TAG, route)
+                    .register(meterRegistry);
+                allocations.set(stage, allocation);
+            }
+            return allocation;
+        }
+    }
+}
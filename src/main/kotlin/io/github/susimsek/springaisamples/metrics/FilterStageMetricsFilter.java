@@ -0,0 +1,47 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+@RequiredArgsConstructor
+public class FilterStageMetricsFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final FilterStageMetrics filterStageMetrics;
+    private final int order;
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+        FilterStageRecorder recorder = new FilterStageRecorder();
+        request.setAttribute(FilterStageRecorder.ATTRIBUTE_NAME, recorder);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recorder.finish();
+            request.removeAttribute(FilterStageRecorder.ATTRIBUTE_NAME);
+            filterStageMetrics.record(recorder, route(request));
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN_ROUTE;
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.io.IOException;
+
+public class FilterStageRecorder {
+
+    public static final String ATTRIBUTE_NAME = FilterStageRecorder.class.getName();
+
+    static final int DOWNSTREAM = FilterOrder.values().length;
+
+    private final long[] nanos = new long[DOWNSTREAM + 1];
+    private final long[] allocatedBytes = new long[DOWNSTREAM + 1];
+    private final boolean[] participated = new boolean[DOWNSTREAM + 1];
+    private long markNanos;
+    private long markBytes;
+    private int owner = DOWNSTREAM;
+
+    FilterStageRecorder() {
+        this.markNanos = System.nanoTime();
+        this.markBytes = ThreadResourceMeter.currentThreadAllocatedBytes();
+    }
+
+    public static void proceed(FilterOrder stage, FilterChain filterChain,
+                               ServletRequest request, ServletResponse response)
+        throws IOException, ServletException {
+        FilterStageRecorder recorder = (FilterStageRecorder) request.getAttribute(ATTRIBUTE_NAME);
+        if (recorder == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        recorder.chargeTo(stage.ordinal());
+        recorder.owner = DOWNSTREAM;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recorder.chargeTo(recorder.owner);
+            recorder.owner = stage.ordinal();
+        }
+    }
+
+    /**
+     * Charges the time since the last switch to the current stage and makes the given stage the owner, for stages
+     * that are entered after filters the recorder does not see, such as the Spring Security filters.
+     */
+    public static void enter(FilterOrder stage, ServletRequest request) {
+        FilterStageRecorder recorder = get(request);
+        if (recorder != null) {
+            recorder.switchTo(stage);
+        }
+    }
+
+    public static FilterStageRecorder get(ServletRequest request) {
+        return (FilterStageRecorder) request.getAttribute(ATTRIBUTE_NAME);
+    }
+
+    public int switchTo(FilterOrder stage) {
+        return switchTo(stage.ordinal());
+    }
+
+    public int switchTo(int stage) {
+        int previous = owner;
+        chargeTo(previous);
+        owner = stage;
+        return previous;
+    }
+
+    void finish() {
+        chargeTo(owner);
+    }
+
+    long nanos(int stage) {
+        return nanos[stage];
+    }
+
+    long allocatedBytes(int stage) {
+        return allocatedBytes[stage];
+    }
+
+    boolean participated(int stage) {
+        return participated[stage];
+    }
+
+    private void chargeTo(int stage) {
+        long now = System.nanoTime();
+        long bytes = ThreadResourceMeter.currentThreadAllocatedBytes();
+        nanos[stage] += now - markNanos;
+        if (bytes >= 0 && markBytes >= 0) {
+            allocatedBytes[stage] += bytes - markBytes;
+        }
+        participated[stage] = true;
+        markNanos = now;
+        markBytes = bytes;
+    }
+}
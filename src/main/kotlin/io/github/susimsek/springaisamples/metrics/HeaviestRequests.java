@@ -0,0 +1,51 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class HeaviestRequests {
+
+    public static final Comparator<HeavyRequest> BY_ALLOCATION =
+        Comparator.comparingLong(HeavyRequest::allocatedBytes);
+    public static final Comparator<HeavyRequest> BY_CPU =
+        Comparator.comparingLong(HeavyRequest::cpuTimeMs);
+
+    private final int capacity;
+    private final PriorityQueue<HeavyRequest> byAllocation;
+    private final PriorityQueue<HeavyRequest> byCpu;
+
+    public HeaviestRequests(int capacity) {
+        this.capacity = capacity;
+        this.byAllocation = new PriorityQueue<>(capacity + 1, BY_ALLOCATION);
+        this.byCpu = new PriorityQueue<>(capacity + 1, BY_CPU);
+    }
+
+    public synchronized void offer(HeavyRequest request) {
+        offer(byAllocation, BY_ALLOCATION, request);
+        offer(byCpu, BY_CPU, request);
+    }
+
+    public synchronized List<HeavyRequest> byAllocation() {
+        return byAllocation.stream().sorted(BY_ALLOCATION.reversed()).toList();
+    }
+
+    public synchronized List<HeavyRequest> byCpu() {
+        return byCpu.stream().sorted(BY_CPU.reversed()).toList();
+    }
+
+    private void offer(PriorityQueue<HeavyRequest> heap, Comparator<HeavyRequest> comparator,
+                       HeavyRequest request) {
+        if (heap.size() < capacity) {
+            heap.add(request);
+        } else if (capacity > 0 && comparator.compare(request, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(request);
+        }
+    }
+
+    public record HeavyRequest(String method, String route, String path, int status,
+                               long allocatedBytes, long cpuTimeMs, Instant timestamp) {
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+@Endpoint(id = "heaviestrequests")
+@RequiredArgsConstructor
+public class HeaviestRequestsEndpoint {
+
+    private final HeaviestRequests heaviestRequests;
+
+    @ReadOperation
+    public List<HeaviestRequests.HeavyRequest> heaviest(@Nullable String by) {
+        return "cpu".equalsIgnoreCase(by) ? heaviestRequests.byCpu() : heaviestRequests.byAllocation();
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import io.github.susimsek.springaisamples.trace.TraceConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+
+/**
+ * Per-method latency timers for the logging aspect. Timers are resolved once per {@link Method} and the
+ * percentiles come from Micrometer's HdrHistogram-backed distribution, so recording an invocation is a map
+ * lookup and a histogram update. The slowest invocation seen keeps its trace id as an exemplar.
+ */
+@RequiredArgsConstructor
+public class MethodTimings {
+
+    static final String TIMER_NAME = "method.invocation.duration";
+    static final String CLASS_TAG = "class";
+    static final String METHOD_TAG = "method";
+
+    private static final double TAIL_PERCENTILE = 0.99;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodTimer> timers = new ConcurrentHashMap<>();
+
+    public void record(Method method, long durationNanos) {
+        MethodTimer methodTimer = timers.get(method);
+        if (methodTimer == null) {
+            methodTimer = timers.computeIfAbsent(method, this::register);
+        }
+        methodTimer.record(durationNanos);
+    }
+
+    public List<MethodTiming> slowest(int limit) {
+        return timers.values().stream()
+            .map(MethodTimer::snapshot)
+            .sorted(Comparator.comparingDouble(MethodTiming::p99Ms).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    private MethodTimer register(Method method) {
+        String className = method.getDeclaringClass().getName();
+        Timer timer = Timer.builder(TIMER_NAME)
+            .tag(CLASS_TAG, className)
+            .tag(METHOD_TAG, method.getName())
+            .publishPercentiles(0.5, 0.95, TAIL_PERCENTILE)
+            .register(meterRegistry);
+        return new MethodTimer(className, method.getName(), timer);
+    }
+
+    @RequiredArgsConstructor
+    private static final class MethodTimer {
+        private final String className;
+        private final String methodName;
+        private final Timer timer;
+        private final AtomicReference<Exemplar> slowest = new AtomicReference<>(new Exemplar(0, null));
+
+        private void record(long durationNanos) {
+            timer.record(durationNanos, TimeUnit.NANOSECONDS);
+            Exemplar current = slowest.get();
+            if (durationNanos > current.durationNanos()) {
+                // Only a new maximum pays for the MDC lookup
+                Exemplar candidate = new Exemplar(durationNanos, MDC.get(TraceConstants.TRACE_ID));
+                while (durationNanos > current.durationNanos() && !slowest.compareAndSet(current, candidate)) {
+                    current = slowest.get();
+                }
+            }
+        }
+
+        private MethodTiming snapshot() {
+            Exemplar exemplar = slowest.get();
+            return new MethodTiming(
+                className,
+                methodName,
+                timer.count(),
+                timer.mean(TimeUnit.MILLISECONDS),
+                tailLatency(),
+                timer.max(TimeUnit.MILLISECONDS),
+                exemplar.durationNanos() / 1_000_000.0,
+                exemplar.traceId());
+        }
+
+        private double tailLatency() {
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == TAIL_PERCENTILE) {
+                    return percentile.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return timer.max(TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private record Exemplar(long durationNanos, String traceId) {
+    }
+
+    public record MethodTiming(String className, String methodName, long count, double meanMs, double p99Ms,
+                               double maxMs, double slowestMs, String slowestTraceId) {
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+public record ResourceUsage(long cpuTimeNanos, long allocatedBytes) {
+
+    public long cpuTimeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(cpuTimeNanos);
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ResourceUsageMetrics {
+
+    static final String REQUEST_ALLOCATION_NAME = "http.server.requests.allocated";
+    static final String REQUEST_CPU_NAME = "http.server.requests.cpu";
+    static final String METHOD_ALLOCATION_NAME = "method.invocation.allocated";
+    static final String METHOD_CPU_NAME = "method.invocation.cpu";
+
+    private final MeterRegistry meterRegistry;
+    private final HeaviestRequests heaviestRequests;
+    private final Map<RequestKey, UsageMeters> requestMeters = new ConcurrentHashMap<>();
+    private final Map<MethodKey, UsageMeters> methodMeters = new ConcurrentHashMap<>();
+
+    public void recordRequest(String method, String route, int status, String path, ResourceUsage usage) {
+        RequestKey key = new RequestKey(method, route);
+        UsageMeters meters = requestMeters.get(key);
+        if (meters == null) {
+            meters = requestMeters.computeIfAbsent(key, this::registerRequest);
+        }
+        meters.record(usage);
+        heaviestRequests.offer(new HeaviestRequests.HeavyRequest(
+            method, route, path, status, usage.allocatedBytes(), usage.cpuTimeMs(), Instant.now()));
+    }
+
+    public void recordMethod(String className, String methodName, ResourceUsage usage) {
+        MethodKey key = new MethodKey(className, methodName);
+        UsageMeters meters = methodMeters.get(key);
+        if (meters == null) {
+            meters = methodMeters.computeIfAbsent(key, this::registerMethod);
+        }
+        meters.record(usage);
+    }
+
+    private UsageMeters registerRequest(RequestKey key) {
+        return new UsageMeters(
+            DistributionSummary.builder(REQUEST_ALLOCATION_NAME)
+                .baseUnit("bytes")
+                .tag("method", key.method())
+                .tag("uri", key.route())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry),
+            Timer.builder(REQUEST_CPU_NAME)
+                .tag("method", key.method())
+                .tag("uri", key.route())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+
+    private UsageMeters registerMethod(MethodKey key) {
+        return new UsageMeters(
+            DistributionSummary.builder(METHOD_ALLOCATION_NAME)
+                .baseUnit("bytes")
+                .tag("class", key.className())
+                .tag("method", key.methodName())
+                .register(meterRegistry),
+            Timer.builder(METHOD_CPU_NAME)
+                .tag("class", key.className())
+                .tag("method", key.methodName())
+                .register(meterRegistry));
+    }
+
+    private record RequestKey(String method, String route) {
+    }
+
+    private record MethodKey(String className, String methodName) {
+    }
+
+    private record UsageMeters(DistributionSummary allocation, Timer cpu) {
+
+        private void record(ResourceUsage usage) {
+            allocation.record(usage.allocatedBytes());
+            cpu.record(usage.cpuTimeNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+@Endpoint(id = "slowestmethods")
+@RequiredArgsConstructor
+public class SlowestMethodsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final MethodTimings methodTimings;
+
+    @ReadOperation
+    public List<MethodTimings.MethodTiming> slowest(@Nullable Integer limit) {
+        return methodTimings.slowest(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import java.lang.management.ManagementFactory;
+
+public final class ThreadResourceMeter {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMxBean();
+    private static final boolean CPU_TIME_SUPPORTED = cpuTimeSupported();
+
+    private final long startCpuTime;
+    private final long startAllocatedBytes;
+
+    private ThreadResourceMeter() {
+        this.startCpuTime = currentThreadCpuTime();
+        this.startAllocatedBytes = currentThreadAllocatedBytes();
+    }
+
+    public static ThreadResourceMeter start() {
+        return new ThreadResourceMeter();
+    }
+
+    public ResourceUsage stop() {
+        return new ResourceUsage(delta(startCpuTime, currentThreadCpuTime()),
+            delta(startAllocatedBytes, currentThreadAllocatedBytes()));
+    }
+
+    public static long currentThreadAllocatedBytes() {
+        return THREAD_MX_BEAN != null ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    public static long currentThreadCpuTime() {
+        return CPU_TIME_SUPPORTED ? ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long delta(long start, long end) {
+        return start >= 0 && end >= start ? end - start : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMxBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMxBean
+            && threadMxBean.isThreadAllocatedMemorySupported()) {
+            threadMxBean.setThreadAllocatedMemoryEnabled(true);
+            return threadMxBean;
+        }
+        return null;
+    }
+
+    private static boolean cpuTimeSupported() {
+        var threadMxBean = ManagementFactory.getThreadMXBean();
+        if (!threadMxBean.isCurrentThreadCpuTimeSupported()) {
+            return false;
+        }
+        threadMxBean.setThreadCpuTimeEnabled(true);
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.susimsek.springaisamples.policy;
+
+import io.github.susimsek.springaisamples.openapi.annotation.Idempotent;
+import io.github.susimsek.springaisamples.policy.annotation.Encrypted;
+import io.github.susimsek.springaisamples.policy.annotation.RateLimited;
+import io.github.susimsek.springaisamples.policy.annotation.Sanitized;
+import io.github.susimsek.springaisamples.policy.annotation.SignResponse;
+import io.github.susimsek.springaisamples.policy.annotation.SupportedVersions;
+import io.github.susimsek.springaisamples.versioning.ApiVersion;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+
+public record HandlerPolicy(
+    boolean idempotent,
+    String rateLimiterName,
+    boolean signed,
+    boolean encrypted,
+    Boolean sanitized,
+    List<String> supportedVersions) {
+
+    public static Optional<HandlerPolicy> of(HandlerMethod handlerMethod) {
+        RateLimited rateLimited = findAnnotation(handlerMethod, RateLimited.class);
+        Sanitized sanitized = findAnnotation(handlerMethod, Sanitized.class);
+        SupportedVersions supportedVersions = findAnnotation(handlerMethod, SupportedVersions.class);
+        HandlerPolicy policy = new HandlerPolicy(
+            findAnnotation(handlerMethod, Idempotent.class) != null,
+            rateLimited != null ? rateLimited.value() : null,
+            findAnnotation(handlerMethod, SignResponse.class) != null,
+            findAnnotation(handlerMethod, Encrypted.class) != null,
+            sanitized != null ? sanitized.value() : null,
+            supportedVersions != null
+                ? Arrays.stream(supportedVersions.value()).map(ApiVersion::version).toList()
+                : null);
+        return policy.isEmpty() ? Optional.empty() : Optional.of(policy);
+    }
+
+    public RoutePolicy applyTo(RoutePolicy routePolicy) {
+        RoutePolicy.RoutePolicyBuilder builder = routePolicy.toBuilder();
+        if (idempotent) {
+            builder.idempotent(true);
+        }
+        if (rateLimiterName != null) {
+            builder.rateLimited(true).rateLimiterName(rateLimiterName);
+        }
+        if (signed) {
+            builder.signed(true);
+        }
+        if (encrypted) {
+            builder.decrypted(true).encrypted(true);
+        }
+        if (sanitized != null) {
+            builder.sanitized(sanitized);
+        }
+        if (supportedVersions != null) {
+            builder.versioned(true).supportedVersions(supportedVersions);
+        }
+        return builder.build();
+    }
+
+    private boolean isEmpty() {
+        return !idempotent && rateLimiterName == null && !signed
+            && !encrypted && sanitized == null && supportedVersions == null;
+    }
+
+    private static <A extends Annotation> A findAnnotation(HandlerMethod handlerMethod, Class<A> annotationType) {
+        A annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), annotationType);
+        return annotation != null ? annotation
+            : AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), annotationType);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.susimsek.springaisamples.policy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Collects the request mappings and the annotation policies of their handler methods once, so that
+ * {@link RoutePolicyIndex} matches them together with the route rules instead of looking up the handler for
+ * every request.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class HandlerPolicyRegistry {
+
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMappingProvider;
+
+    private List<HandlerRoute> routes;
+
+    public synchronized List<HandlerRoute> getRoutes() {
+        if (routes == null) {
+            RequestMappingHandlerMapping mapping = handlerMappingProvider.getIfAvailable();
+            routes = mapping != null ? compile(mapping.getHandlerMethods()) : List.of();
+            log.debug("Compiled {} handler routes, {} with annotation policies", routes.size(),
+                routes.stream().filter(route -> route.policy() != null).count());
+        }
+        return routes;
+    }
+
+    static List<HandlerRoute> compile(Map<RequestMappingInfo, HandlerMethod> handlerMethods) {
+        List<HandlerRoute> compiledRoutes = new ArrayList<>();
+        handlerMethods.forEach((info, handlerMethod) -> {
+            // Mappings without a policy are kept too, so that they still win over less specific patterns
+            HandlerPolicy policy = HandlerPolicy.of(handlerMethod).orElse(null);
+            Set<HttpMethod> methods = info.getMethodsCondition().getMethods().stream()
+                .map(RequestMethod::asHttpMethod)
+                .collect(Collectors.toUnmodifiableSet());
+            for (String pattern : info.getPatternValues()) {
+                compiledRoutes.add(new HandlerRoute(pattern, methods, policy));
+            }
+        });
+        return List.copyOf(compiledRoutes);
+    }
+
+    public record HandlerRoute(String pattern, Set<HttpMethod> methods, @Nullable HandlerPolicy policy) {
+
+        boolean matchesMethod(String method) {
+            if (methods.isEmpty()) {
+                return true;
+            }
+            HttpMethod httpMethod = HttpMethod.valueOf(method);
+            // HEAD requests are served by the GET mappings
+            return methods.contains(httpMethod) || HttpMethod.HEAD.equals(httpMethod)
+                && methods.contains(HttpMethod.GET);
+        }
+    }
+}
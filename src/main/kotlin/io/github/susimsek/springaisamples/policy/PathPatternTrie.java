@@ -0,0 +1,147 @@
+package io.github.susimsek.springaisamples.policy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+public class PathPatternTrie<T> {
+
+    private static final String PATH_SEPARATOR = "/";
+    private static final String DOUBLE_WILDCARD = "**";
+
+    private final Node<T> root = new Node<>();
+
+    public void add(String pattern, T value) {
+        Node<T> node = root;
+        for (String segment : tokenize(pattern)) {
+            node = node.child(segment);
+        }
+        node.values.add(value);
+    }
+
+    public void match(String path, Consumer<T> consumer) {
+        match(root, tokenize(path), 0, consumer);
+    }
+
+    private void match(Node<T> node, String[] segments, int index, Consumer<T> consumer) {
+        if (index == segments.length) {
+            node.values.forEach(consumer);
+        } else {
+            String segment = segments[index];
+            Node<T> literalChild = node.literalChildren.get(segment);
+            if (literalChild != null) {
+                match(literalChild, segments, index + 1, consumer);
+            }
+            for (PatternChild<T> patternChild : node.patternChildren) {
+                if (patternChild.pattern.matcher(segment).matches()) {
+                    match(patternChild.node, segments, index + 1, consumer);
+                }
+            }
+        }
+        if (node.wildcardChild != null) {
+            for (int next = index; next <= segments.length; next++) {
+                match(node.wildcardChild, segments, next, consumer);
+            }
+        }
+    }
+
+    private static String[] tokenize(String path) {
+        if (path == null || path.isEmpty()) {
+            return new String[0];
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split(PATH_SEPARATOR)) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    private static boolean isPatternSegment(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+    }
+
+    private static Pattern compileSegment(String segment) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < segment.length()) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                appendLiteral(regex, literal);
+            }
+            if (c == '*') {
+                regex.append(".*");
+                i++;
+            } else if (c == '?') {
+                regex.append('.');
+                i++;
+            } else if (c == '{') {
+                int end = findClosingBrace(segment, i);
+                String variable = segment.substring(i + 1, end);
+                int colon = variable.indexOf(':');
+                regex.append('(').append(colon >= 0 ? variable.substring(colon + 1) : ".*").append(')');
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        appendLiteral(regex, literal);
+        return Pattern.compile(regex.toString());
+    }
+
+    private static void appendLiteral(StringBuilder regex, StringBuilder literal) {
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+
+    private static int findClosingBrace(String segment, int start) {
+        int depth = 0;
+        for (int i = start; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unclosed variable in path segment: " + segment);
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> literalChildren = new HashMap<>();
+        private final List<PatternChild<T>> patternChildren = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+        private Node<T> wildcardChild;
+
+        private Node<T> child(String segment) {
+            if (DOUBLE_WILDCARD.equals(segment)) {
+                if (wildcardChild == null) {
+                    wildcardChild = new Node<>();
+                }
+                return wildcardChild;
+            }
+            if (isPatternSegment(segment)) {
+                for (PatternChild<T> patternChild : patternChildren) {
+                    if (patternChild.source.equals(segment)) {
+                        return patternChild.node;
+                    }
+                }
+                PatternChild<T> patternChild = new PatternChild<>(segment, compileSegment(segment), new Node<>());
+                patternChildren.add(patternChild);
+                return patternChild.node;
+            }
+            return literalChildren.computeIfAbsent(segment, key -> new Node<>());
+        }
+    }
+
+    private record PatternChild<T>(String source, Pattern pattern, Node<T> node) {
+    }
+}
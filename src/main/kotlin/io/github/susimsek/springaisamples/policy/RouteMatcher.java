@@ -0,0 +1,11 @@
+package io.github.susimsek.springaisamples.policy;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+public interface RouteMatcher extends RequestMatcher {
+
+    String getPattern();
+
+    HttpMethod getHttpMethod();
+}
@@ -0,0 +1,32 @@
+package io.github.susimsek.springaisamples.policy;
+
+import io.github.susimsek.springaisamples.validation.HeaderConfig;
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder(toBuilder = true)
+public class RoutePolicy {
+
+    private final boolean bodyLimited;
+    private final long maxBodySize;
+    private final boolean logged;
+    private final boolean versioned;
+    @Builder.Default
+    private final List<String> supportedVersions = List.of();
+    private final boolean headerValidated;
+    @Builder.Default
+    private final Map<String, HeaderConfig> headerConfigs = Map.of();
+    private final boolean traced;
+    private final boolean decrypted;
+    private final boolean signatureVerified;
+    private final boolean sanitized;
+    private final boolean idempotent;
+    private final boolean rateLimited;
+    private final String rateLimiterName;
+    private final String concurrencyGroup;
+    private final boolean signed;
+    private final boolean encrypted;
+}
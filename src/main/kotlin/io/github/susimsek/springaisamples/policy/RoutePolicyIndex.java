@@ -0,0 +1,125 @@
+package io.github.susimsek.springaisamples.policy;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.UrlPathHelper;
+
+public class RoutePolicyIndex {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final PathPatternTrie<CompiledRule> trie = new PathPatternTrie<>();
+    private final List<CompiledRule> fallbackRules = new ArrayList<>();
+    private final PathPatternTrie<HandlerPolicyRegistry.HandlerRoute> handlerRoutes = new PathPatternTrie<>();
+    private final RoutePolicy defaultPolicy;
+
+    RoutePolicyIndex(Map<FilterOrder, RoutePolicyRegistry.StageRegistration> stages,
+                     List<HandlerPolicyRegistry.HandlerRoute> handlerRoutes) {
+        RoutePolicy.RoutePolicyBuilder defaults = RoutePolicy.builder();
+        stages.forEach((stage, registration) -> {
+            registration.defaults().accept(defaults);
+            List<RouteRule> rules = registration.rules();
+            for (int priority = 0; priority < rules.size(); priority++) {
+                add(stage, priority, rules.get(priority));
+            }
+        });
+        this.defaultPolicy = defaults.build();
+        handlerRoutes.forEach(route -> this.handlerRoutes.add(route.pattern(), route));
+    }
+
+    public RoutePolicy resolve(HttpServletRequest request) {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        String method = request.getMethod();
+        RoutePolicy policy = resolve(path, method, request);
+        HandlerPolicyRegistry.HandlerRoute handlerRoute = findHandlerRoute(path, method);
+        // Annotations on the handler override the route rules
+        return handlerRoute != null && handlerRoute.policy() != null ? handlerRoute.policy().applyTo(policy) : policy;
+    }
+
+    /**
+     * Resolves the route rules for a request that is not served by this application, such as an outgoing
+     * client request; handler annotations and rules that need the servlet request do not apply.
+     */
+    public RoutePolicy resolve(HttpMethod method, String path) {
+        return resolve(path, method.name(), null);
+    }
+
+    private RoutePolicy resolve(String path, String method, @Nullable HttpServletRequest request) {
+        CompiledRule[] winners = new CompiledRule[FilterOrder.values().length];
+
+        trie.match(path, rule -> {
+            if (rule.matchesMethod(method)) {
+                offer(winners, rule);
+            }
+        });
+        for (CompiledRule rule : request != null ? fallbackRules : List.<CompiledRule>of()) {
+            if (rule.beats(winners[rule.stage]) && rule.requestMatcher.matches(request)) {
+                winners[rule.stage] = rule;
+            }
+        }
+
+        RoutePolicy.RoutePolicyBuilder builder = null;
+        for (CompiledRule winner : winners) {
+            if (winner != null) {
+                if (builder == null) {
+                    builder = defaultPolicy.toBuilder();
+                }
+                winner.policy.accept(builder);
+            }
+        }
+        return builder != null ? builder.build() : defaultPolicy;
+    }
+
+    private HandlerPolicyRegistry.HandlerRoute findHandlerRoute(String path, String method) {
+        List<HandlerPolicyRegistry.HandlerRoute> matches = new ArrayList<>(2);
+        handlerRoutes.match(path, route -> {
+            if (route.matchesMethod(method)) {
+                matches.add(route);
+            }
+        });
+        if (matches.size() > 1) {
+            // The most specific pattern wins, as it does when the dispatcher picks the handler
+            Comparator<String> specificity = PATH_MATCHER.getPatternComparator(path);
+            matches.sort(Comparator.comparing(HandlerPolicyRegistry.HandlerRoute::pattern, specificity));
+        }
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    private void add(FilterOrder stage, int priority, RouteRule rule) {
+        RequestMatcher requestMatcher = rule.requestMatcher();
+        if (requestMatcher instanceof RouteMatcher routeMatcher && routeMatcher.getPattern() != null) {
+            trie.add(routeMatcher.getPattern(), new CompiledRule(stage.ordinal(), priority,
+                routeMatcher.getHttpMethod(), requestMatcher, rule.policy()));
+        } else {
+            fallbackRules.add(new CompiledRule(stage.ordinal(), priority, null, requestMatcher, rule.policy()));
+        }
+    }
+
+    private static void offer(CompiledRule[] winners, CompiledRule rule) {
+        if (rule.beats(winners[rule.stage])) {
+            winners[rule.stage] = rule;
+        }
+    }
+
+    private record CompiledRule(int stage, int priority, HttpMethod httpMethod,
+                                RequestMatcher requestMatcher,
+                                Consumer<RoutePolicy.RoutePolicyBuilder> policy) {
+
+        private boolean matchesMethod(String method) {
+            return httpMethod == null || httpMethod.matches(method);
+        }
+
+        private boolean beats(CompiledRule current) {
+            return current == null || priority < current.priority;
+        }
+    }
+}
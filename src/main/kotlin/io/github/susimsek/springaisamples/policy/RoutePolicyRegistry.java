@@ -0,0 +1,63 @@
+package io.github.susimsek.springaisamples.policy;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.http.HttpMethod;
+
+@RequiredArgsConstructor
+public class RoutePolicyRegistry implements SmartInitializingSingleton {
+
+    public static final String ROUTE_POLICY_ATTRIBUTE = RoutePolicyRegistry.class.getName() + ".ROUTE_POLICY";
+
+    private final HandlerPolicyRegistry handlerPolicyRegistry;
+    private final Map<FilterOrder, StageRegistration> stages = new EnumMap<>(FilterOrder.class);
+    private volatile RoutePolicyIndex index;
+
+    public synchronized void register(FilterOrder stage,
+                                      Consumer<RoutePolicy.RoutePolicyBuilder> defaults,
+                                      List<RouteRule> rules) {
+        stages.put(stage, new StageRegistration(defaults, List.copyOf(rules)));
+        index = null;
+    }
+
+    public RoutePolicy resolve(HttpServletRequest request) {
+        if (request.getAttribute(ROUTE_POLICY_ATTRIBUTE) instanceof RoutePolicy policy) {
+            return policy;
+        }
+        RoutePolicy policy = getIndex().resolve(request);
+        request.setAttribute(ROUTE_POLICY_ATTRIBUTE, policy);
+        return policy;
+    }
+
+    public RoutePolicy resolve(HttpMethod method, String path) {
+        return getIndex().resolve(method, path);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        getIndex();
+    }
+
+    private RoutePolicyIndex getIndex() {
+        RoutePolicyIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new RoutePolicyIndex(new EnumMap<>(stages), handlerPolicyRegistry.getRoutes());
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    record StageRegistration(Consumer<RoutePolicy.RoutePolicyBuilder> defaults, List<RouteRule> rules) {
+    }
+}
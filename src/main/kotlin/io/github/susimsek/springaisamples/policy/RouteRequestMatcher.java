@@ -0,0 +1,35 @@
+package io.github.susimsek.springaisamples.policy;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class RouteRequestMatcher implements RouteMatcher {
+
+    private final RequestMatcher delegate;
+    private final HttpMethod httpMethod;
+    private final String pattern;
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return delegate.matches(request);
+    }
+
+    public static RouteRequestMatcher antMatcher(String pattern) {
+        return new RouteRequestMatcher(new AntPathRequestMatcher(pattern), null, pattern);
+    }
+
+    public static RouteRequestMatcher antMatcher(HttpMethod method, String pattern) {
+        return new RouteRequestMatcher(new AntPathRequestMatcher(pattern, method.name()), method, pattern);
+    }
+
+    public static RouteRequestMatcher of(RequestMatcher delegate, HttpMethod method, String pattern) {
+        return new RouteRequestMatcher(delegate, method, pattern);
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.susimsek.springaisamples.policy;
+
+import java.util.function.Consumer;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+public record RouteRule(RequestMatcher requestMatcher, Consumer<RoutePolicy.RoutePolicyBuilder> policy) {
+}
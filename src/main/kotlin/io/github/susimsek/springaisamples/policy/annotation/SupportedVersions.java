@@ -0,0 +1,13 @@
+package io.github.susimsek.springaisamples.policy.annotation;
+
+import io.github.susimsek.springaisamples.versioning.ApiVersion;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SupportedVersions {
+    ApiVersion[] value();
+}
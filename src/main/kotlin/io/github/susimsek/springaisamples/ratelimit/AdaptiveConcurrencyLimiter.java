@@ -0,0 +1,202 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.lang.Nullable;
+
+/**
+ * Concurrency limits per route group that follow the latency of the upstream AI calls made while serving the
+ * group's requests. Each latency sample moves the limit by the gradient between the long-term average latency
+ * and the sample, so the limit shrinks as the upstream slows down and grows again, by about the square root
+ * of the limit per sample, while latency stays near its average. A failed upstream call cuts the limit by the
+ * backoff ratio. The group patterns are registered as route rules, so a request's group comes from its
+ * resolved {@link io.github.susimsek.springaisamples.policy.RoutePolicy}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final ThreadLocal<Group> CURRENT_GROUP = new ThreadLocal<>();
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private final RoutePolicyRegistry routePolicyRegistry;
+
+    public AdaptiveConcurrencyLimiter(RateLimitProperties.Adaptive properties, MeterRegistry meterRegistry,
+                                      RoutePolicyRegistry routePolicyRegistry) {
+        this(properties, meterRegistry, routePolicyRegistry, System::currentTimeMillis);
+    }
+
+    AdaptiveConcurrencyLimiter(RateLimitProperties.Adaptive properties, MeterRegistry meterRegistry,
+                               RoutePolicyRegistry routePolicyRegistry, LongSupplier clock) {
+        this.routePolicyRegistry = routePolicyRegistry;
+        List<RouteRule> rules = new ArrayList<>();
+        properties.getGroups().forEach((name, patterns) -> {
+            groups.put(name, new Group(name, properties, meterRegistry, clock));
+            patterns.forEach(pattern -> rules.add(new RouteRule(RouteRequestMatcher.antMatcher(pattern),
+                policy -> policy.concurrencyGroup(name))));
+        });
+        routePolicyRegistry.register(FilterOrder.CONCURRENCY_LIMIT, policy -> policy.concurrencyGroup(null), rules);
+    }
+
+    @Nullable
+    public Group resolve(HttpServletRequest request) {
+        String group = routePolicyRegistry.resolve(request).getConcurrencyGroup();
+        return group != null ? groups.get(group) : null;
+    }
+
+    /**
+     * Attributes the upstream calls made by the current thread to the group until {@link #exit(Group)}.
+     */
+    public void enter(Group group) {
+        CURRENT_GROUP.set(group);
+    }
+
+    public void exit(Group group) {
+        CURRENT_GROUP.remove();
+        group.release();
+    }
+
+    /**
+     * Records an upstream call made by the current thread; calls made outside a limited request are ignored.
+     */
+    public void record(long rttNanos, boolean failed) {
+        Group group = CURRENT_GROUP.get();
+        if (group == null) {
+            return;
+        }
+        if (failed) {
+            group.onFailure();
+        } else {
+            group.onSample(rttNanos);
+        }
+    }
+
+    public static final class Group {
+
+        private final String name;
+        private final int minLimit;
+        private final int maxLimit;
+        private final double rttTolerance;
+        private final double smoothing;
+        private final int longWindow;
+        private final double backoffRatio;
+        private final LongSupplier clock;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder shedInWindow = new LongAdder();
+        private final AtomicLong shedWindow;
+        private volatile long shedPerSecond;
+        private volatile int limit;
+        private double estimatedLimit;
+        private double longRttNanos;
+
+        private Group(String name, RateLimitProperties.Adaptive properties, MeterRegistry meterRegistry,
+                      LongSupplier clock) {
+            this.name = name;
+            this.minLimit = properties.getMinLimit();
+            this.maxLimit = Math.max(properties.getMaxLimit(), minLimit);
+            this.rttTolerance = properties.getRttTolerance();
+            this.smoothing = properties.getSmoothing();
+            this.longWindow = properties.getLongWindow();
+            this.backoffRatio = properties.getBackoffRatio();
+            this.clock = clock;
+            this.shedWindow = new AtomicLong(currentSecond());
+            this.estimatedLimit = Math.min(Math.max(properties.getInitialLimit(), minLimit), maxLimit);
+            this.limit = (int) estimatedLimit;
+            Gauge.builder("concurrency.limit", this, Group::getLimit)
+                .tag("group", name)
+                .register(meterRegistry);
+            Gauge.builder("concurrency.in.flight", this, Group::getInFlight)
+                .tag("group", name)
+                .register(meterRegistry);
+            Gauge.builder("concurrency.shed.rate", this, Group::getShedRate)
+                .tag("group", name)
+                .baseUnit("requests/s")
+                .register(meterRegistry);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * Requests shed during the last full second.
+         */
+        public double getShedRate() {
+            rollShedWindow();
+            return shedPerSecond;
+        }
+
+        public boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= limit) {
+                    rollShedWindow();
+                    shedInWindow.increment();
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            inFlight.decrementAndGet();
+        }
+
+        private synchronized void onSample(long rttNanos) {
+            double rtt = Math.max(rttNanos, 1);
+            longRttNanos = longRttNanos == 0 ? rtt : longRttNanos + (rtt - longRttNanos) / longWindow;
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / rtt));
+            // A limit the traffic never reaches says nothing about the upstream, so it is not grown further
+            if (gradient == 1.0 && inFlight.get() < estimatedLimit / 2) {
+                return;
+            }
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            update(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+        }
+
+        private synchronized void onFailure() {
+            update(estimatedLimit * backoffRatio);
+        }
+
+        private void update(double newLimit) {
+            estimatedLimit = Math.min(Math.max(newLimit, minLimit), maxLimit);
+            limit = (int) estimatedLimit;
+        }
+
+        private void rollShedWindow() {
+            long second = currentSecond();
+            long windowStart = shedWindow.get();
+            if (second != windowStart && shedWindow.compareAndSet(windowStart, second)) {
+                long shed = shedInWindow.sumThenReset();
+                shedPerSecond = second - windowStart == 1 ? shed : 0;
+            }
+        }
+
+        private long currentSecond() {
+            return TimeUnit.MILLISECONDS.toSeconds(clock.getAsLong());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * Shares the keyed rate limits across the replicas found through discovery. Every sync interval a replica
+ * pushes the permits it granted per key to all peers, which take them from their own buckets, so each key gets
+ * one budget across the cluster. Between syncs a replica decides on its own buckets alone, which lets the
+ * cluster overshoot by at most what the other replicas granted during one interval. Consumption that cannot be
+ * delivered to a peer is dropped, so a replica that cannot be reached is limited, and limits, locally.
+ */
+@Slf4j
+public class ClusterRateLimitSync implements SmartLifecycle {
+
+    private static final char KEY_SEPARATOR = '\n';
+
+    private final KeyedRateLimiter keyedRateLimiter;
+    private final DiscoveryClient discoveryClient;
+    private final RateLimitPeerTransport transport;
+    private final RateLimitProperties.Cluster properties;
+    private final TaskScheduler taskScheduler;
+    private final String node = UUID.randomUUID().toString();
+
+    private volatile List<ServiceInstance> peers = List.of();
+    private volatile long peersRefreshedAt;
+    private volatile boolean peersResolved;
+    private volatile ScheduledFuture<?> schedule;
+
+    public ClusterRateLimitSync(KeyedRateLimiter keyedRateLimiter,
+                                DiscoveryClient discoveryClient,
+                                RateLimitPeerTransport transport,
+                                RateLimitProperties.Cluster properties,
+                                TaskScheduler taskScheduler) {
+        Assert.hasText(properties.getSecret(), "rate-limit.cluster.secret is required in cluster mode");
+        this.keyedRateLimiter = keyedRateLimiter;
+        this.discoveryClient = discoveryClient;
+        this.transport = transport;
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+        keyedRateLimiter.trackGrants();
+    }
+
+    public void sync() {
+        List<KeyedRateLimiter.Grant> grants = keyedRateLimiter.drainGrants();
+        List<ServiceInstance> currentPeers = peers();
+        if (grants.isEmpty() || currentPeers.isEmpty()) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>(grants.size() * 2);
+        for (KeyedRateLimiter.Grant grant : grants) {
+            deltas.put(grant.rateLimiterName() + KEY_SEPARATOR + grant.key(), grant.permits());
+        }
+        RateLimitSyncMessage message = new RateLimitSyncMessage(node, properties.getSecret(), deltas);
+        for (ServiceInstance peer : currentPeers) {
+            try {
+                transport.send(peer, message);
+            } catch (RuntimeException e) {
+                log.debug("Could not send rate limit consumption to {}:{}", peer.getHost(), peer.getPort(), e);
+            }
+        }
+    }
+
+    /**
+     * Applies the consumption a peer reported.
+     *
+     * @return {@code false} if the message does not carry the shared secret
+     */
+    public boolean accept(RateLimitSyncMessage message) {
+        if (message.token() == null || !MessageDigest.isEqual(
+            properties.getSecret().getBytes(StandardCharsets.UTF_8),
+            message.token().getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        // Discovery lists this replica as well, and its own grants are already in its buckets
+        if (node.equals(message.node()) || message.deltas() == null) {
+            return true;
+        }
+        message.deltas().forEach((encodedKey, permits) -> {
+            int separator = encodedKey.indexOf(KEY_SEPARATOR);
+            if (separator > 0 && permits != null && permits > 0) {
+                keyedRateLimiter.consume(encodedKey.substring(0, separator),
+                    encodedKey.substring(separator + 1), permits);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void start() {
+        schedule = taskScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                log.warn("Rate limit sync failed", e);
+            }
+        }, properties.getSyncInterval());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledFuture<?> current = schedule;
+        if (current != null) {
+            current.cancel(false);
+            schedule = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return schedule != null;
+    }
+
+    private List<ServiceInstance> peers() {
+        long now = System.nanoTime();
+        if (!peersResolved || now - peersRefreshedAt >= properties.getPeerRefreshInterval().toNanos()) {
+            try {
+                peers = List.copyOf(discoveryClient.getInstances(properties.getServiceId()));
+            } catch (RuntimeException e) {
+                log.debug("Could not look up rate limit peers of {}", properties.getServiceId(), e);
+            }
+            peersRefreshedAt = now;
+            peersResolved = true;
+        }
+        return peers;
+    }
+}
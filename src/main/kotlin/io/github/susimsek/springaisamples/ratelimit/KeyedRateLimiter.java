@@ -0,0 +1,153 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.lang.Nullable;
+
+/**
+ * Rate limiter with a token bucket per client key and rate limiter name. Buckets live in a bounded Caffeine
+ * cache and expire once unused; a bucket that was idle for a full refill period is full again, so expiring it
+ * loses no state. A key's limit is its configured override, the configured per-key limit, or else the limit of
+ * the named Resilience4j rate limiter.
+ */
+public class KeyedRateLimiter {
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final Map<String, RateLimitProperties.Limit> overrides;
+    @Nullable
+    private final RateLimitProperties.Limit defaultLimit;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final LongSupplier nanoClock;
+    private final Map<BucketKey, LongAdder> pendingGrants = new ConcurrentHashMap<>();
+    private volatile boolean trackingGrants;
+
+    public KeyedRateLimiter(RateLimiterRegistry rateLimiterRegistry, RateLimitProperties.Keyed properties) {
+        this(rateLimiterRegistry, properties, System::nanoTime);
+    }
+
+    KeyedRateLimiter(RateLimiterRegistry rateLimiterRegistry, RateLimitProperties.Keyed properties,
+                     LongSupplier nanoClock) {
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.overrides = Map.copyOf(properties.getOverrides());
+        this.defaultLimit = properties.getLimit();
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumKeys())
+            .expireAfterAccess(properties.getExpireAfterAccess())
+            .build();
+        this.nanoClock = nanoClock;
+    }
+
+    public Decision tryAcquire(String rateLimiterName, String key) {
+        long now = nanoClock.getAsLong();
+        BucketKey bucketKey = new BucketKey(rateLimiterName, key);
+        TokenBucket bucket = buckets.get(bucketKey, newKey -> newBucket(newKey, now));
+        boolean allowed = bucket.tryAcquire(now);
+        if (allowed && trackingGrants) {
+            pendingGrants.computeIfAbsent(bucketKey, newKey -> new LongAdder()).increment();
+        }
+        return new Decision(allowed, bucket.capacity(), bucket.available(now),
+            bucket.nanosUntilFull(now), bucket.nanosUntilNextPermit(now));
+    }
+
+    /**
+     * Returns a permit granted by {@link #tryAcquire} that was not used, and withdraws it from the grants still
+     * to be reported to peers.
+     */
+    public void release(String rateLimiterName, String key) {
+        BucketKey bucketKey = new BucketKey(rateLimiterName, key);
+        TokenBucket bucket = buckets.getIfPresent(bucketKey);
+        if (bucket != null) {
+            bucket.release(nanoClock.getAsLong());
+        }
+        LongAdder grants = pendingGrants.get(bucketKey);
+        if (grants != null) {
+            grants.decrement();
+        }
+    }
+
+    /**
+     * Reports the state of a key's bucket without taking a permit, so the decision is never allowed.
+     */
+    public Decision peek(String rateLimiterName, String key) {
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.get(new BucketKey(rateLimiterName, key), newKey -> newBucket(newKey, now));
+        return new Decision(false, bucket.capacity(), bucket.available(now),
+            bucket.nanosUntilFull(now), bucket.nanosUntilNextPermit(now));
+    }
+
+    /**
+     * Returns how long it takes until the key's bucket holds the given number of permits.
+     */
+    public long nanosUntilPermits(String rateLimiterName, String key, int permits) {
+        long now = nanoClock.getAsLong();
+        return buckets.get(new BucketKey(rateLimiterName, key), newKey -> newBucket(newKey, now))
+            .nanosUntilPermits(permits, now);
+    }
+
+    /**
+     * Takes permits that were granted to a key elsewhere, such as on another replica, from its local bucket.
+     */
+    public void consume(String rateLimiterName, String key, long permits) {
+        long now = nanoClock.getAsLong();
+        buckets.get(new BucketKey(rateLimiterName, key), newKey -> newBucket(newKey, now)).drain(permits, now);
+    }
+
+    /**
+     * Starts counting the permits granted locally so that {@link #drainGrants()} can report them.
+     */
+    public void trackGrants() {
+        trackingGrants = true;
+    }
+
+    /**
+     * Returns the permits granted locally per key since the previous call.
+     */
+    public List<Grant> drainGrants() {
+        List<Grant> grants = new ArrayList<>();
+        pendingGrants.forEach((bucketKey, counter) -> {
+            long permits = counter.sumThenReset();
+            if (permits > 0) {
+                grants.add(new Grant(bucketKey.rateLimiterName(), bucketKey.key(), permits));
+            } else {
+                pendingGrants.remove(bucketKey, counter);
+            }
+        });
+        return grants;
+    }
+
+    public long estimatedSize() {
+        return buckets.estimatedSize();
+    }
+
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+
+    private TokenBucket newBucket(BucketKey bucketKey, long now) {
+        RateLimitProperties.Limit limit = overrides.getOrDefault(bucketKey.key(), defaultLimit);
+        if (limit != null) {
+            return new TokenBucket(limit.getLimitForPeriod(), limit.getLimitRefreshPeriod(), now);
+        }
+        RateLimiterConfig config = rateLimiterRegistry.rateLimiter(bucketKey.rateLimiterName())
+            .getRateLimiterConfig();
+        return new TokenBucket(config.getLimitForPeriod(), config.getLimitRefreshPeriod(), now);
+    }
+
+    private record BucketKey(String rateLimiterName, String key) {
+    }
+
+    public record Grant(String rateLimiterName, String key, long permits) {
+    }
+
+    public record Decision(boolean allowed, int limit, long remaining, long nanosUntilReset,
+                           long nanosUntilNextPermit) {
+    }
+}
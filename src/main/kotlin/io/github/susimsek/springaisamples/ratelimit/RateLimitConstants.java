@@ -9,4 +9,7 @@ public final class RateLimitConstants {
     public static final String RATE_LIMIT_LIMIT_HEADER_NAME = "X-Rate-Limit-Limit";
     public static final String RATE_LIMIT_REMAINING_HEADER_NAME = "X-Rate-Limit-Remaining";
     public static final String RATE_LIMIT_RESET_HEADER_NAME = "X-Rate-Limit-Reset";
+    public static final String TOKEN_BUDGET_LIMIT_HEADER_NAME = "X-Token-Budget-Limit";
+    public static final String TOKEN_BUDGET_REMAINING_HEADER_NAME = "X-Token-Budget-Remaining";
+    public static final String TOKEN_BUDGET_RESET_HEADER_NAME = "X-Token-Budget-Reset";
 }
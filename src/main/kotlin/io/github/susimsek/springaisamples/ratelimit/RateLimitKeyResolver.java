@@ -0,0 +1,79 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolves the client key a request is rate limited under. Keys are prefixed with their source so that, for
+ * example, a subject and an API key with the same value get separate buckets.
+ */
+@FunctionalInterface
+public interface RateLimitKeyResolver {
+
+    @Nullable
+    String resolve(HttpServletRequest request);
+
+    static RateLimitKeyResolver subject() {
+        return request -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+                return null;
+            }
+            return "subject:" + authentication.getName();
+        };
+    }
+
+    /**
+     * Keys on the API key in the header only once authentication has accepted it for the request, so a client
+     * cannot get a fresh bucket by sending a different, unchecked value.
+     */
+    static RateLimitKeyResolver apiKey(String headerName) {
+        return request -> {
+            String apiKey = request.getHeader(headerName);
+            if (!StringUtils.hasText(apiKey)) {
+                return null;
+            }
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+                return null;
+            }
+            // Providers may erase the credentials after authentication, leaving the key as the principal
+            boolean accepted = apiKey.equals(authentication.getCredentials())
+                || apiKey.equals(authentication.getPrincipal());
+            return accepted ? "api-key:" + apiKey : null;
+        };
+    }
+
+    static RateLimitKeyResolver clientIp() {
+        return request -> "ip:" + request.getRemoteAddr();
+    }
+
+    static RateLimitKeyResolver firstOf(List<RateLimitKeyResolver> resolvers) {
+        return request -> {
+            for (RateLimitKeyResolver resolver : resolvers) {
+                String key = resolver.resolve(request);
+                if (key != null) {
+                    return key;
+                }
+            }
+            return null;
+        };
+    }
+
+    static RateLimitKeyResolver of(RateLimitProperties.Keyed properties) {
+        return firstOf(properties.getKeys().stream()
+            .map(keyType -> switch (keyType) {
+                case SUBJECT -> subject();
+                case API_KEY -> apiKey(properties.getApiKeyHeader());
+                case CLIENT_IP -> clientIp();
+            })
+            .toList());
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@FunctionalInterface
+public interface RateLimitPeerTransport {
+
+    void send(ServiceInstance peer, RateLimitSyncMessage message);
+
+    static RateLimitPeerTransport http(RestClient restClient, String path, Integer port) {
+        return (peer, message) -> restClient.post()
+            .uri(UriComponentsBuilder.newInstance()
+                .scheme(peer.isSecure() ? "https" : "http")
+                .host(peer.getHost())
+                .port(port != null ? port : peer.getPort())
+                .path(path)
+                .build()
+                .toUri())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(message)
+            .retrieve()
+            .toBodilessEntity();
+    }
+}
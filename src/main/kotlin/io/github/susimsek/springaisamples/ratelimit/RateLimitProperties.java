@@ -0,0 +1,273 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private Keyed keyed = new Keyed();
+
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private Cluster cluster = new Cluster();
+
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private Adaptive adaptive = new Adaptive();
+
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private TokenBudget tokenBudget = new TokenBudget();
+
+    @Valid
+    @NotNull(message = "{validation.field.notNull}")
+    private Queue queue = new Queue();
+
+    @Getter
+    @Setter
+    public static class Keyed {
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Boolean enabled = false;
+
+        /**
+         * Key sources tried in order; a request none of them yields a key for uses the shared rate limiter.
+         * {@code api-key} only applies to API keys that authentication has accepted.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private List<KeyType> keys = List.of(KeyType.SUBJECT, KeyType.CLIENT_IP);
+
+        @NotBlank(message = "{validation.field.notBlank}")
+        private String apiKeyHeader = "X-API-Key";
+
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Long maximumKeys = 100_000L;
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration expireAfterAccess = Duration.ofMinutes(5);
+
+        /**
+         * Limit of each key without an override. When unset, a key gets the limit of the rate limiter the route
+         * uses; that rate limiter also caps all keys together.
+         */
+        @Valid
+        private Limit limit;
+
+        /**
+         * Limits for individual keys, such as {@code subject:alice} or {@code api-key:abc}, that replace the
+         * limit of the rate limiter the route uses.
+         */
+        @Valid
+        private Map<String, Limit> overrides = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Cluster {
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Boolean enabled = false;
+
+        /**
+         * Discovery service id of the replicas that share the keyed limits.
+         */
+        @NotBlank(message = "{validation.field.notBlank}")
+        private String serviceId = "spring-ai-samples";
+
+        /**
+         * Shared secret that replicas send with their consumption; required while the cluster mode is enabled.
+         */
+        private String secret;
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration syncInterval = Duration.ofMillis(500);
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration peerRefreshInterval = Duration.ofSeconds(30);
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration requestTimeout = Duration.ofMillis(500);
+
+        @NotBlank(message = "{validation.field.notBlank}")
+        private String syncPath = "/actuator/ratelimitsync";
+
+        /**
+         * Port the sync path is served on, when it is not the port the peers are registered with.
+         */
+        private Integer port;
+    }
+
+    @Getter
+    @Setter
+    public static class Adaptive {
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Boolean enabled = false;
+
+        /**
+         * Route groups that get their own concurrency limit, each given as path patterns.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private Map<String, List<String>> groups = new HashMap<>();
+
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer initialLimit = 20;
+
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer minLimit = 2;
+
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer maxLimit = 200;
+
+        /**
+         * How far upstream latency may rise above its long-term average before the limit shrinks.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @DecimalMin(value = "1.0", message = "{validation.field.min}")
+        private Double rttTolerance = 1.5;
+
+        /**
+         * Share of each computed limit that is applied at once; the rest keeps the previous limit.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @DecimalMin(value = "0.01", message = "{validation.field.min}")
+        @DecimalMax(value = "1.0", message = "{validation.field.max}")
+        private Double smoothing = 0.2;
+
+        /**
+         * Number of samples the long-term latency average spans.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer longWindow = 100;
+
+        /**
+         * Factor the limit is multiplied by when an upstream call fails.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @DecimalMin(value = "0.1", message = "{validation.field.min}")
+        @DecimalMax(value = "1.0", message = "{validation.field.max}")
+        private Double backoffRatio = 0.9;
+    }
+
+    @Getter
+    @Setter
+    public static class TokenBudget {
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Boolean enabled = false;
+
+        /**
+         * Prompt and completion tokens each subject may use per window.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Long tokensPerWindow = 100_000L;
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration window = Duration.ofHours(1);
+
+        /**
+         * Characters counted as one token when a call is estimated before it is made.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer charsPerToken = 4;
+
+        /**
+         * Tokens reserved for the completion on top of the prompt estimate until the actual usage is known.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 0, message = "{validation.field.min}")
+        private Long completionReserve = 256L;
+
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Long maximumSubjects = 100_000L;
+
+        /**
+         * Budgets for individual subjects, such as {@code subject:alice}, that replace the tokens per window.
+         */
+        private Map<String, Long> overrides = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Queue {
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Boolean enabled = false;
+
+        /**
+         * Longest a request waits for a permit; a shorter deadline sent by the client takes precedence.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration maxWait = Duration.ofMillis(500);
+
+        /**
+         * Header in which clients send how many milliseconds they are willing to wait for the response.
+         */
+        @NotBlank(message = "{validation.field.notBlank}")
+        private String deadlineHeader = "X-Request-Timeout";
+
+        /**
+         * Requests that may wait at once for the same rate limiter or bucket; each holds a server thread while it
+         * waits.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer maxQueueLength = 100;
+
+        /**
+         * Requests of one client that may wait at once for the same rate limiter or bucket.
+         */
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer maxQueueLengthPerClient = 10;
+
+        /**
+         * Share of the freed permits per client key, such as {@code subject:alice}; clients not listed weigh 1.
+         */
+        private Map<String, Integer> weights = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        @NotNull(message = "{validation.field.notNull}")
+        @Min(value = 1, message = "{validation.field.min}")
+        private Integer limitForPeriod;
+
+        @NotNull(message = "{validation.field.notNull}")
+        private Duration limitRefreshPeriod = Duration.ofSeconds(1);
+    }
+
+    public enum KeyType {
+        SUBJECT,
+        API_KEY,
+        CLIENT_IP
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+
+@Endpoint(id = "ratelimitsync")
+@RequiredArgsConstructor
+public class RateLimitSyncEndpoint {
+
+    private final ClusterRateLimitSync clusterRateLimitSync;
+
+    @WriteOperation
+    public WebEndpointResponse<Void> sync(String node, String token, @Nullable Map<String, Object> deltas) {
+        Map<String, Long> permits = new HashMap<>();
+        if (deltas != null) {
+            deltas.forEach((key, value) -> {
+                if (value instanceof Number number) {
+                    permits.put(key, number.longValue());
+                }
+            });
+        }
+        boolean accepted = clusterRateLimitSync.accept(new RateLimitSyncMessage(node, token, permits));
+        return new WebEndpointResponse<>(accepted
+            ? WebEndpointResponse.STATUS_NO_CONTENT : HttpStatus.UNAUTHORIZED.value());
+    }
+}
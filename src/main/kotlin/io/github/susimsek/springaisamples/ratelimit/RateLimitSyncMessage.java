@@ -0,0 +1,10 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import java.util.Map;
+
+/**
+ * Permits a replica granted per key since its previous sync. Keys are the rate limiter name and the client key
+ * joined by a newline.
+ */
+public record RateLimitSyncMessage(String node, String token, Map<String, Long> deltas) {
+}
@@ -5,10 +5,16 @@ import static io.github.susimsek.springaisamples.ratelimit.RateLimitConstants.RA
 import static io.github.susimsek.springaisamples.ratelimit.RateLimitConstants.RATE_LIMIT_RESET_HEADER_NAME;
 
 import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.internal.AtomicRateLimiter;
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.ratelimit.RateLimitExceededException;
 import io.github.susimsek.springaisamples.exception.ratelimit.RateLimitExceptionHandler;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,13 +24,14 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -34,15 +41,20 @@ public class RateLimitingFilter extends OncePerRequestFilter implements Ordered
 
     private final RateLimiterRegistry rateLimiterRegistry;
     private final RateLimitExceptionHandler rateLimitExceptionHandler;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultRateLimited;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
-    private final String defaultRateLimiterName;
+    @Nullable
+    private final KeyedRateLimiter keyedRateLimiter;
+    @Nullable
+    private final RateLimitKeyResolver keyResolver;
+    @Nullable
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    @Nullable
+    private final WeightedFairQueue requestQueue;
 
     private static final String DEFAULT_RATE_LIMITER_NAME = "default";
     private static final String TOO_MANY_REQUESTS_MESSAGE = "Too many requests";
-
-    private String currentRateLimiterName;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
 
     @Override
     public int getOrder() {
@@ -51,19 +63,7 @@ public class RateLimitingFilter extends OncePerRequestFilter implements Ordered
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        var optionalConfig = requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .findFirst()
-            .map(config -> {
-                currentRateLimiterName = config.rateLimiterName;
-                return !config.rateLimited;
-            });
-        if (optionalConfig.isEmpty()) {
-            currentRateLimiterName = defaultRateLimiterName;
-            return !defaultRateLimited;
-        } else {
-            return optionalConfig.get();
-        }
+        return !routePolicyRegistry.resolve(request).isRateLimited();
     }
 
     @Override
@@ -71,46 +71,164 @@ public class RateLimitingFilter extends OncePerRequestFilter implements Ordered
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain)
         throws ServletException, IOException {
-        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(currentRateLimiterName);
+        String rateLimiterName = routePolicyRegistry.resolve(request).getRateLimiterName();
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(rateLimiterName);
+        String key = keyedRateLimiter != null ? keyResolver.resolve(request) : null;
+        if (key != null) {
+            doFilterKeyed(request, response, filterChain, rateLimiter, key);
+            return;
+        }
         RateLimiter.Metrics metrics = rateLimiter.getMetrics();
         long availablePermissions = metrics.getAvailablePermissions();
         Duration timeUntilReset = rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod();
         int limitForPeriod = rateLimiter.getRateLimiterConfig().getLimitForPeriod();
         Instant nextReset = Instant.now().plus(timeUntilReset);
 
-        if (rateLimiter.acquirePermission()) {
+        if (acquire(request, null, new SharedPermits(rateLimiter))) {
             response.setHeader(RATE_LIMIT_LIMIT_HEADER_NAME, String.valueOf(limitForPeriod));
             response.setHeader(RATE_LIMIT_REMAINING_HEADER_NAME, String.valueOf(availablePermissions));
             response.setHeader(RATE_LIMIT_RESET_HEADER_NAME, String.valueOf(nextReset.getEpochSecond()));
-            filterChain.doFilter(request, response);
+            proceed(request, response, filterChain);
         } else {
-            handleRateLimitingException(request, response, limitForPeriod,
+            handleRateLimitingException(request, response, rateLimiterName, limitForPeriod,
                 availablePermissions, nextReset.getEpochSecond(), timeUntilReset.getSeconds());
         }
     }
 
+    private void doFilterKeyed(HttpServletRequest request,
+                               HttpServletResponse response,
+                               FilterChain filterChain,
+                               RateLimiter rateLimiter,
+                               String key) throws ServletException, IOException {
+        String rateLimiterName = rateLimiter.getName();
+        boolean allowed = acquire(request, key, new KeyedPermits(keyedRateLimiter, rateLimiterName, key));
+        KeyedRateLimiter.Decision decision = keyedRateLimiter.peek(rateLimiterName, key);
+        long resetTime = Instant.now().plusNanos(decision.nanosUntilReset()).getEpochSecond();
+        if (!allowed) {
+            // Rounded up, so a client that waits this long gets a permit
+            long waitTime = TimeUnit.NANOSECONDS.toSeconds(decision.nanosUntilNextPermit() + NANOS_PER_SECOND - 1);
+            handleRateLimitingException(request, response, rateLimiterName, decision.limit(),
+                decision.remaining(), resetTime, waitTime);
+            return;
+        }
+        // The route's rate limiter still caps all clients together on top of their own buckets
+        if (!acquire(request, key, new SharedPermits(rateLimiter))) {
+            // The request was not served, so it does not count against the client's own budget
+            keyedRateLimiter.release(rateLimiterName, key);
+            RateLimiterConfig config = rateLimiter.getRateLimiterConfig();
+            Duration timeUntilReset = config.getLimitRefreshPeriod();
+            handleRateLimitingException(request, response, rateLimiterName, config.getLimitForPeriod(),
+                rateLimiter.getMetrics().getAvailablePermissions(),
+                Instant.now().plus(timeUntilReset).getEpochSecond(), timeUntilReset.getSeconds());
+            return;
+        }
+        response.setHeader(RATE_LIMIT_LIMIT_HEADER_NAME, String.valueOf(decision.limit()));
+        response.setHeader(RATE_LIMIT_REMAINING_HEADER_NAME, String.valueOf(decision.remaining()));
+        response.setHeader(RATE_LIMIT_RESET_HEADER_NAME, String.valueOf(resetTime));
+        proceed(request, response, filterChain);
+    }
+
+    private boolean acquire(HttpServletRequest request, @Nullable String clientKey, WeightedFairQueue.Permits permits) {
+        if (requestQueue == null) {
+            return permits.tryAcquire();
+        }
+        // While requests wait for the same permits, new ones queue behind them instead of taking those permits
+        return !requestQueue.hasWaiters(permits) && permits.tryAcquire()
+            || requestQueue.await(request, clientKey, permits);
+    }
+
+    private void proceed(HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter.Group group = concurrencyLimiter != null
+            ? concurrencyLimiter.resolve(request) : null;
+        if (group == null) {
+            FilterStageRecorder.proceed(FilterOrder.RATE_LIMIT, filterChain, request, response);
+            return;
+        }
+        if (!group.tryAcquire()) {
+            // Shed without waiting: a slot frees up only when an upstream call completes
+            handleRateLimitingException(request, response, group.getName(), group.getLimit(), 0,
+                Instant.now().plusSeconds(1).getEpochSecond(), 1);
+            return;
+        }
+        concurrencyLimiter.enter(group);
+        try {
+            FilterStageRecorder.proceed(FilterOrder.RATE_LIMIT, filterChain, request, response);
+        } finally {
+            concurrencyLimiter.exit(group);
+        }
+    }
+
     private void handleRateLimitingException(HttpServletRequest request,
                                              HttpServletResponse response,
+                                             String rateLimiterName,
                                              int limitForPeriod,
                                              long availablePermissions,
                                              long resetTime,
                                              long waitTime) throws IOException, ServletException {
         RateLimitExceededException exception = new RateLimitExceededException(
-            currentRateLimiterName, TOO_MANY_REQUESTS_MESSAGE,
+            rateLimiterName, TOO_MANY_REQUESTS_MESSAGE,
             limitForPeriod, availablePermissions, resetTime, waitTime);
         rateLimitExceptionHandler.handle(request, response, exception);
     }
 
+    private record SharedPermits(RateLimiter rateLimiter) implements WeightedFairQueue.Permits {
+
+        @Override
+        public boolean tryAcquire() {
+            return rateLimiter.acquirePermission();
+        }
+
+        @Override
+        public long nanosUntilAvailable(int permits) {
+            RateLimiterConfig config = rateLimiter.getRateLimiterConfig();
+            long periodNanos = config.getLimitRefreshPeriod().toNanos();
+            // Permits come back all at once at the start of each refresh period
+            long firstRefresh = rateLimiter instanceof AtomicRateLimiter atomicRateLimiter
+                ? atomicRateLimiter.getDetailedMetrics().getNanosToWait() : periodNanos;
+            return firstRefresh + (long) ((permits - 1) / config.getLimitForPeriod()) * periodNanos;
+        }
+    }
+
+    private record KeyedPermits(KeyedRateLimiter keyedRateLimiter, String rateLimiterName, String key)
+        implements WeightedFairQueue.Permits {
+
+        @Override
+        public boolean tryAcquire() {
+            return keyedRateLimiter.tryAcquire(rateLimiterName, key).allowed();
+        }
+
+        @Override
+        public long nanosUntilAvailable(int permits) {
+            return keyedRateLimiter.nanosUntilPermits(rateLimiterName, key, permits);
+        }
+    }
+
     @AllArgsConstructor
     private static class RequestMatcherConfig {
         private final RequestMatcher requestMatcher;
         private String rateLimiterName;
         private boolean rateLimited;
+
+        private RouteRule toRouteRule() {
+            String ruleRateLimiterName = rateLimiterName;
+            boolean ruleRateLimited = rateLimited;
+            return new RouteRule(requestMatcher, policy -> policy
+                .rateLimited(ruleRateLimited)
+                .rateLimiterName(ruleRateLimiterName));
+        }
     }
 
     public interface InitialBuilder {
         InitialBuilder order(int order);
 
+        InitialBuilder keyed(KeyedRateLimiter keyedRateLimiter, RateLimitKeyResolver keyResolver);
+
+        InitialBuilder concurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter);
+
+        InitialBuilder queue(WeightedFairQueue requestQueue);
+
         AfterRequestMatchersBuilder anyRequest();
 
         AfterRequestMatchersBuilder requestMatchers(HttpMethod method, String... patterns);
@@ -135,8 +253,9 @@ public class RateLimitingFilter extends OncePerRequestFilter implements Ordered
     }
 
     public static InitialBuilder builder(RateLimiterRegistry rateLimiterRegistry,
-                                         RateLimitExceptionHandler rateLimitExceptionHandler) {
-        return new Builder(rateLimiterRegistry, rateLimitExceptionHandler);
+                                         RateLimitExceptionHandler rateLimitExceptionHandler,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(rateLimiterRegistry, rateLimitExceptionHandler, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
@@ -144,17 +263,24 @@ public class RateLimitingFilter extends OncePerRequestFilter implements Ordered
 
         private final RateLimiterRegistry rateLimiterRegistry;
         private final RateLimitExceptionHandler rateLimitExceptionHandler;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultRateLimited = true;
         private int order = FilterOrder.RATE_LIMIT.order();
         private int lastIndex = 0;
         private String defaultRateLimiterName = DEFAULT_RATE_LIMITER_NAME;
+        private KeyedRateLimiter keyedRateLimiter;
+        private RateLimitKeyResolver keyResolver;
+        private AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private WeightedFairQueue requestQueue;
 
         private Builder(RateLimiterRegistry rateLimiterRegistry,
-                        RateLimitExceptionHandler rateLimitExceptionHandler) {
+                        RateLimitExceptionHandler rateLimitExceptionHandler,
+                        RoutePolicyRegistry routePolicyRegistry) {
             this.rateLimiterRegistry = rateLimiterRegistry;
             this.rateLimitExceptionHandler = rateLimitExceptionHandler;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -162,7 +288,7 @@ public class RateLimitingFilter extends OncePerRequestFilter implements Ordered
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), DEFAULT_RATE_LIMITER_NAME, true));
+                    RouteRequestMatcher.antMatcher(method, pattern), DEFAULT_RATE_LIMITER_NAME, true));
             }
             return this;
         }
@@ -172,7 +298,7 @@ public class RateLimitingFilter extends OncePerRequestFilter implements Ordered
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern), DEFAULT_RATE_LIMITER_NAME, true));
+                    RouteRequestMatcher.antMatcher(pattern), DEFAULT_RATE_LIMITER_NAME, true));
             }
             return this;
         }
@@ -242,11 +368,39 @@ public class RateLimitingFilter extends OncePerRequestFilter implements Ordered
             return this;
         }
 
+        @Override
+        public Builder keyed(KeyedRateLimiter keyedRateLimiter, RateLimitKeyResolver keyResolver) {
+            Assert.isTrue(keyedRateLimiter == null || keyResolver != null,
+                "keyResolver is required when keyedRateLimiter is set");
+            this.keyedRateLimiter = keyedRateLimiter;
+            this.keyResolver = keyedRateLimiter != null ? keyResolver : null;
+            return this;
+        }
+
+        @Override
+        public Builder concurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            return this;
+        }
+
+        @Override
+        public Builder queue(WeightedFairQueue requestQueue) {
+            this.requestQueue = requestQueue;
+            return this;
+        }
+
         @Override
         public RateLimitingFilter build() {
+            boolean defaultRateLimited = this.defaultRateLimited;
+            String defaultRateLimiterName = this.defaultRateLimiterName;
+            routePolicyRegistry.register(FilterOrder.RATE_LIMIT, policy -> policy
+                    .rateLimited(defaultRateLimited)
+                    .rateLimiterName(defaultRateLimiterName),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
             return new RateLimitingFilter(rateLimiterRegistry,
                 rateLimitExceptionHandler,
-                requestMatcherConfigs, defaultRateLimited, order, defaultRateLimiterName);
+                routePolicyRegistry, order, keyedRateLimiter, keyResolver, concurrencyLimiter,
+                requestQueue);
         }
 
         @Override
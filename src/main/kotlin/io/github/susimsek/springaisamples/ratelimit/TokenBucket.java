@@ -0,0 +1,86 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single timestamp: the time at which the bucket would be full again if no
+ * more permits were taken. Taking a permit moves that time one refill interval forward with a compare-and-set,
+ * and is refused once it would lie more than a full refill period ahead of now. All times are
+ * {@link System#nanoTime()} values.
+ */
+final class TokenBucket {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long periodNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, Duration refillPeriod, long nowNanos) {
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.periodNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current - nowNanos, 0) + intervalNanos;
+            if (next > periodNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, nowNanos + next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes permits consumed elsewhere without checking them against the limit; the bucket never goes below
+     * empty, so remote consumption cannot lock a key out for longer than one refill period.
+     */
+    void drain(long permits, long nowNanos) {
+        long drained = Math.min(permits, capacity) * intervalNanos;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.min(Math.max(current - nowNanos, 0) + drained, periodNanos);
+            if (fullAt.compareAndSet(current, nowNanos + next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit taken by {@link #tryAcquire} that ended up unused; the bucket never goes above full.
+     */
+    void release(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current - nowNanos - intervalNanos, 0);
+            if (fullAt.compareAndSet(current, nowNanos + next)) {
+                return;
+            }
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long available(long nowNanos) {
+        return (periodNanos - nanosUntilFull(nowNanos)) / intervalNanos;
+    }
+
+    long nanosUntilFull(long nowNanos) {
+        return Math.max(fullAt.get() - nowNanos, 0);
+    }
+
+    long nanosUntilNextPermit(long nowNanos) {
+        return nanosUntilPermits(1, nowNanos);
+    }
+
+    long nanosUntilPermits(int permits, long nowNanos) {
+        return Math.max(nanosUntilFull(nowNanos) + permits * intervalNanos - periodNanos, 0);
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import static io.github.susimsek.springaisamples.ratelimit.RateLimitConstants.TOKEN_BUDGET_LIMIT_HEADER_NAME;
+import static io.github.susimsek.springaisamples.ratelimit.RateLimitConstants.TOKEN_BUDGET_REMAINING_HEADER_NAME;
+import static io.github.susimsek.springaisamples.ratelimit.RateLimitConstants.TOKEN_BUDGET_RESET_HEADER_NAME;
+
+import io.github.susimsek.springaisamples.exception.ratelimit.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Debits the tokens of chat client calls made while serving a request from the budget of the request's
+ * subject. A call is admitted on a local estimate of its prompt and then charged the prompt and completion
+ * tokens from the response metadata, or an estimate of them when the model reports no usage. Runs before the
+ * other advice on the chat client, so a call refused here never reaches the model.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TokenBudgetAspect {
+
+    private static final String TOKEN_BUDGET_NAME = "token-budget";
+    private static final String TOKEN_BUDGET_EXCEEDED_MESSAGE = "Token budget exceeded";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final TokenBudgetLimiter tokenBudgetLimiter;
+    private final RateLimitKeyResolver subjectResolver;
+
+    @Pointcut("execution(* org.springframework.ai.chat.ChatClient.call(..))")
+    public void chatCallPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Around("chatCallPointcut()")
+    public Object debitTokens(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(requestAttributes instanceof ServletRequestAttributes attributes)) {
+            return joinPoint.proceed();
+        }
+        String subject = subjectResolver.resolve(attributes.getRequest());
+        if (subject == null) {
+            return joinPoint.proceed();
+        }
+        String prompt = promptText(joinPoint.getArgs());
+        TokenBudgetLimiter.Reservation reservation = tokenBudgetLimiter.reserve(subject,
+            tokenBudgetLimiter.estimateCall(prompt));
+        TokenBudgetLimiter.Decision decision = reservation.decision();
+        setHeaders(attributes.getResponse(), decision);
+        if (!decision.allowed()) {
+            long resetTime = Instant.now().plusNanos(decision.nanosUntilReset()).getEpochSecond();
+            long waitTime = TimeUnit.NANOSECONDS.toSeconds(decision.nanosUntilReset() + NANOS_PER_SECOND - 1);
+            throw new RateLimitExceededException(TOKEN_BUDGET_NAME, TOKEN_BUDGET_EXCEEDED_MESSAGE,
+                (int) Math.min(decision.limit(), Integer.MAX_VALUE), decision.remaining(), resetTime, waitTime);
+        }
+        // A call that fails may still have been billed upstream, so it keeps its estimate
+        long usedTokens = reservation.tokens();
+        try {
+            Object result = joinPoint.proceed();
+            usedTokens = usedTokens(prompt, result);
+            return result;
+        } finally {
+            setHeaders(attributes.getResponse(), tokenBudgetLimiter.settle(reservation, usedTokens));
+        }
+    }
+
+    private long usedTokens(String prompt, Object result) {
+        if (result instanceof ChatResponse response) {
+            Usage usage = response.getMetadata().getUsage();
+            Long totalTokens = usage != null ? usage.getTotalTokens() : null;
+            if (totalTokens != null && totalTokens > 0) {
+                return totalTokens;
+            }
+            long completionTokens = 0;
+            for (Generation generation : response.getResults()) {
+                completionTokens += tokenBudgetLimiter.estimateTokens(generation.getOutput().getContent());
+            }
+            return tokenBudgetLimiter.estimateTokens(prompt) + completionTokens;
+        }
+        return tokenBudgetLimiter.estimateTokens(prompt)
+            + tokenBudgetLimiter.estimateTokens(result instanceof String text ? text : null);
+    }
+
+    private static String promptText(Object[] args) {
+        if (args.length == 0) {
+            return null;
+        }
+        if (args[0] instanceof Prompt prompt) {
+            StringBuilder text = new StringBuilder();
+            for (Message message : prompt.getInstructions()) {
+                if (message.getContent() != null) {
+                    text.append(message.getContent());
+                }
+            }
+            return text.toString();
+        }
+        return args[0] instanceof String text ? text : null;
+    }
+
+    private static void setHeaders(HttpServletResponse response, TokenBudgetLimiter.Decision decision) {
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        long resetTime = Instant.now().plusNanos(decision.nanosUntilReset()).getEpochSecond();
+        response.setHeader(TOKEN_BUDGET_LIMIT_HEADER_NAME, String.valueOf(decision.limit()));
+        response.setHeader(TOKEN_BUDGET_REMAINING_HEADER_NAME, String.valueOf(decision.remaining()));
+        response.setHeader(TOKEN_BUDGET_RESET_HEADER_NAME, String.valueOf(resetTime));
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * LLM token budgets per subject and fixed window. A call is admitted against an estimate of its tokens, which
+ * is reserved from the budget and replaced by the usage the model reports once the call completes, so
+ * concurrent calls of one subject cannot all pass on the same remaining budget.
+ */
+public class TokenBudgetLimiter {
+
+    private final long tokensPerWindow;
+    private final long windowNanos;
+    private final int charsPerToken;
+    private final long completionReserve;
+    private final Map<String, Long> overrides;
+    private final Cache<String, Budget> budgets;
+    private final LongSupplier nanoClock;
+
+    public TokenBudgetLimiter(RateLimitProperties.TokenBudget properties) {
+        this(properties, System::nanoTime);
+    }
+
+    TokenBudgetLimiter(RateLimitProperties.TokenBudget properties, LongSupplier nanoClock) {
+        this.tokensPerWindow = properties.getTokensPerWindow();
+        this.windowNanos = properties.getWindow().toNanos();
+        this.charsPerToken = properties.getCharsPerToken();
+        this.completionReserve = properties.getCompletionReserve();
+        this.overrides = Map.copyOf(properties.getOverrides());
+        this.budgets = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSubjects())
+            .expireAfterAccess(properties.getWindow())
+            .build();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Counts about one token per {@code charsPerToken} characters of the text.
+     */
+    public long estimateTokens(String text) {
+        return text == null || text.isEmpty() ? 0 : (text.length() + charsPerToken - 1) / charsPerToken;
+    }
+
+    /**
+     * Estimates a call with the prompt: its tokens plus the completion reserve.
+     */
+    public long estimateCall(String prompt) {
+        return estimateTokens(prompt) + completionReserve;
+    }
+
+    public Reservation reserve(String subject, long tokens) {
+        long now = nanoClock.getAsLong();
+        Budget budget = budgets.get(subject, this::newBudget);
+        return budget.reserve(subject, tokens, now, windowNanos);
+    }
+
+    /**
+     * Replaces the reserved tokens with the tokens the call used; zero releases the reservation.
+     */
+    public Decision settle(Reservation reservation, long usedTokens) {
+        long now = nanoClock.getAsLong();
+        Budget budget = budgets.get(reservation.subject(), this::newBudget);
+        return budget.settle(reservation, usedTokens, now, windowNanos);
+    }
+
+    private Budget newBudget(String subject) {
+        return new Budget(overrides.getOrDefault(subject, tokensPerWindow), nanoClock.getAsLong());
+    }
+
+    private static final class Budget {
+
+        private final long limit;
+        private long windowStart;
+        private long used;
+
+        private Budget(long limit, long now) {
+            this.limit = limit;
+            this.windowStart = now;
+        }
+
+        private synchronized Reservation reserve(String subject, long tokens, long now, long windowNanos) {
+            roll(now, windowNanos);
+            boolean allowed = used + tokens <= limit;
+            if (allowed) {
+                used += tokens;
+            }
+            return new Reservation(subject, allowed ? tokens : 0, windowStart, decision(allowed, now, windowNanos));
+        }
+
+        private synchronized Decision settle(Reservation reservation, long usedTokens, long now, long windowNanos) {
+            roll(now, windowNanos);
+            if (reservation.windowStart() == windowStart) {
+                used = Math.max(used - reservation.tokens() + usedTokens, 0);
+            } else {
+                // The reservation was charged to a window that has ended; only what exceeded it is carried over
+                used += Math.max(usedTokens - reservation.tokens(), 0);
+            }
+            return decision(true, now, windowNanos);
+        }
+
+        private void roll(long now, long windowNanos) {
+            if (now - windowStart >= windowNanos) {
+                windowStart = now - (now - windowStart) % windowNanos;
+                used = 0;
+            }
+        }
+
+        private Decision decision(boolean allowed, long now, long windowNanos) {
+            return new Decision(allowed, limit, Math.max(limit - used, 0), windowStart + windowNanos - now);
+        }
+    }
+
+    public record Reservation(String subject, long tokens, long windowStart, Decision decision) {
+    }
+
+    public record Decision(boolean allowed, long limit, long remaining, long nanosUntilReset) {
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Feeds the round-trip time of chat and embedding client calls to the {@link AdaptiveConcurrencyLimiter}.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class UpstreamLatencyAspect {
+
+    private final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+    @Pointcut(
+        "execution(* org.springframework.ai.chat.ChatClient.call(..))"
+            + " || execution(* org.springframework.ai.embedding.EmbeddingClient.call(..))"
+            + " || execution(* org.springframework.ai.embedding.EmbeddingClient.embed*(..))"
+    )
+    public void upstreamCallPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Around("upstreamCallPointcut()")
+    public Object recordLatency(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            adaptiveConcurrencyLimiter.record(System.nanoTime() - start, failed);
+        }
+    }
+}
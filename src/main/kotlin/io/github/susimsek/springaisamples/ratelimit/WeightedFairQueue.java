@@ -0,0 +1,276 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Weighted fair queue for requests that found no free permit. Requests wait per {@link Permits} source, each
+ * source with its own lock and length limit, so a client queued for its own bucket never holds up clients of
+ * other sources. Within a source, each waiting request gets the finish tag
+ * {@code max(virtual time, finish tag of its client's previous request) + 1 / weight}, and permits are handed
+ * out strictly in tag order, so while both wait, a client of weight 2 gets twice the permits of a client of
+ * weight 1 and a burst from one client cannot starve the others. A request is rejected as soon as the permits it
+ * waits behind cannot have refreshed before its deadline, instead of when the deadline passes.
+ */
+public class WeightedFairQueue {
+
+    static final String LENGTH_NAME = "rate.limit.queue.length";
+    static final String WAIT_NAME = "rate.limit.queue.wait";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String ANONYMOUS_CLIENT = "";
+    private static final long MIN_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Comparator<Waiter> TAG_ORDER = Comparator.comparingDouble(Waiter::finishTag)
+        .thenComparingLong(Waiter::sequence);
+
+    private final long maxWaitNanos;
+    private final String deadlineHeader;
+    private final int maxQueueLength;
+    private final int maxQueueLengthPerClient;
+    private final Map<String, Integer> weights;
+    private final RateLimitKeyResolver clientResolver;
+    private final Timer admittedWait;
+    private final Timer rejectedWait;
+    private final Map<Permits, SourceQueue> sources = new ConcurrentHashMap<>();
+    private final AtomicInteger length = new AtomicInteger();
+
+    public WeightedFairQueue(RateLimitProperties.Queue properties, RateLimitKeyResolver clientResolver,
+                             MeterRegistry meterRegistry) {
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.deadlineHeader = properties.getDeadlineHeader();
+        this.maxQueueLength = properties.getMaxQueueLength();
+        this.maxQueueLengthPerClient = properties.getMaxQueueLengthPerClient();
+        this.weights = Map.copyOf(properties.getWeights());
+        this.clientResolver = clientResolver;
+        this.admittedWait = waitTimer("admitted", meterRegistry);
+        this.rejectedWait = waitTimer("rejected", meterRegistry);
+        Gauge.builder(LENGTH_NAME, length, AtomicInteger::get)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns whether requests wait for the source, in which case new requests queue behind them instead of
+     * taking the permits they wait for.
+     */
+    public boolean hasWaiters(Permits permits) {
+        SourceQueue source = sources.get(permits);
+        return source != null && source.queued > 0;
+    }
+
+    /**
+     * Waits until the request is granted a permit from the source, or until its deadline can no longer be met.
+     *
+     * @param clientKey the key the request is rate limited under, or {@code null} to resolve its client here
+     * @return {@code true} if a permit was taken for the request
+     */
+    public boolean await(HttpServletRequest request, @Nullable String clientKey, Permits permits) {
+        long start = System.nanoTime();
+        long deadline = start + maxWaitNanos(request);
+        String client = clientKey != null ? clientKey : clientResolver.resolve(request);
+        boolean granted = await(client != null ? client : ANONYMOUS_CLIENT, permits, deadline);
+        (granted ? admittedWait : rejectedWait).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return granted;
+    }
+
+    private boolean await(String clientKey, Permits permits, long deadline) {
+        while (true) {
+            SourceQueue source = sources.computeIfAbsent(permits, key -> new SourceQueue());
+            source.lock.lock();
+            try {
+                // A source is dropped once its last waiter leaves; start over with a fresh one
+                if (!source.retired) {
+                    return source.await(clientKey, permits, deadline);
+                }
+            } finally {
+                if (!source.retired && source.waiters.isEmpty()) {
+                    source.retired = true;
+                    sources.remove(permits, source);
+                }
+                source.lock.unlock();
+            }
+        }
+    }
+
+    private long maxWaitNanos(HttpServletRequest request) {
+        String deadline = request.getHeader(deadlineHeader);
+        if (StringUtils.hasText(deadline)) {
+            try {
+                long deadlineNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(Long.parseLong(deadline.trim()), 0));
+                return Math.min(deadlineNanos, maxWaitNanos);
+            } catch (NumberFormatException e) {
+                // An unreadable deadline leaves the configured maximum wait
+            }
+        }
+        return maxWaitNanos;
+    }
+
+    private static Timer waitTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder(WAIT_NAME)
+            .tag(OUTCOME_TAG, outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * A source of permits that queued requests wait for. Requests whose sources are equal share the permits, so
+     * implementations should be value types.
+     */
+    public interface Permits {
+
+        boolean tryAcquire();
+
+        /**
+         * Estimates how long it takes until the given number of permits have become available.
+         */
+        long nanosUntilAvailable(int permits);
+    }
+
+    private enum State {
+        WAITING,
+        GRANTED,
+        REJECTED
+    }
+
+    /**
+     * The requests waiting for one source; all fields are guarded by its lock.
+     */
+    private final class SourceQueue {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeSet<Waiter> waiters = new TreeSet<>(TAG_ORDER);
+        private final Map<String, Client> clients = new HashMap<>();
+        // Read without the lock by hasWaiters
+        private volatile int queued;
+        private double virtualTime;
+        private long sequence;
+        private boolean retired;
+
+        private boolean await(String clientKey, Permits permits, long deadline) {
+            Client client = clients.get(clientKey);
+            if (queued >= maxQueueLength || client != null && client.waiting >= maxQueueLengthPerClient) {
+                return false;
+            }
+            Waiter waiter = enqueue(clientKey, permits, deadline);
+            try {
+                while (waiter.state == State.WAITING) {
+                    dispatch(System.nanoTime());
+                    if (waiter.state == State.WAITING) {
+                        long parkNanos = Math.min(waiter.deadline, waiter.nextCheck) - System.nanoTime();
+                        waiter.condition.awaitNanos(Math.max(parkNanos, MIN_PARK_NANOS));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (waiter.state == State.WAITING) {
+                    waiters.remove(waiter);
+                    complete(waiter, State.REJECTED);
+                }
+            }
+            return waiter.state == State.GRANTED;
+        }
+
+        private Waiter enqueue(String clientKey, Permits permits, long deadline) {
+            Client client = clients.computeIfAbsent(clientKey, key -> new Client());
+            double startTag = Math.max(virtualTime, client.lastFinishTag);
+            double finishTag = startTag + 1.0 / Math.max(weights.getOrDefault(clientKey, 1), 1);
+            client.lastFinishTag = finishTag;
+            client.waiting++;
+            Waiter waiter = new Waiter(clientKey, permits, deadline, startTag, finishTag, sequence++,
+                lock.newCondition());
+            waiters.add(waiter);
+            queued++;
+            length.incrementAndGet();
+            return waiter;
+        }
+
+        private void dispatch(long now) {
+            int ahead = 0;
+            Iterator<Waiter> iterator = waiters.iterator();
+            while (iterator.hasNext()) {
+                Waiter waiter = iterator.next();
+                if (ahead == 0 && waiter.permits.tryAcquire()) {
+                    virtualTime = Math.max(virtualTime, waiter.startTag);
+                    iterator.remove();
+                    complete(waiter, State.GRANTED);
+                    continue;
+                }
+                long nextCheck = now + waiter.permits.nanosUntilAvailable(ahead + 1);
+                if (nextCheck > waiter.deadline) {
+                    iterator.remove();
+                    complete(waiter, State.REJECTED);
+                    continue;
+                }
+                if (nextCheck < waiter.nextCheck) {
+                    waiter.condition.signal();
+                }
+                waiter.nextCheck = nextCheck;
+                ahead++;
+            }
+        }
+
+        private void complete(Waiter waiter, State state) {
+            waiter.state = state;
+            waiter.condition.signal();
+            queued--;
+            length.decrementAndGet();
+            Client client = clients.get(waiter.clientKey);
+            if (--client.waiting == 0) {
+                clients.remove(waiter.clientKey);
+            }
+            if (waiters.isEmpty()) {
+                virtualTime = 0;
+            }
+        }
+    }
+
+    private static final class Client {
+        private double lastFinishTag;
+        private int waiting;
+    }
+
+    private static final class Waiter {
+
+        private final String clientKey;
+        private final Permits permits;
+        private final long deadline;
+        private final double startTag;
+        private final double finishTag;
+        private final long sequence;
+        private final Condition condition;
+        private State state = State.WAITING;
+        private long nextCheck = Long.MAX_VALUE;
+
+        private Waiter(String clientKey, Permits permits, long deadline, double startTag, double finishTag,
+                       long sequence, Condition condition) {
+            this.clientKey = clientKey;
+            this.permits = permits;
+            this.deadline = deadline;
+            this.startTag = startTag;
+            this.finishTag = finishTag;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        private double finishTag() {
+            return finishTag;
+        }
+
+        private long sequence() {
+            return sequence;
+        }
+    }
+}
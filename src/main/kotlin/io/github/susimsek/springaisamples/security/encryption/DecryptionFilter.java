@@ -1,10 +1,15 @@
 package io.github.susimsek.springaisamples.security.encryption;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.encryption.EncryptionExceptionHandler;
 import io.github.susimsek.springaisamples.exception.encryption.JweException;
 import io.github.susimsek.springaisamples.exception.encryption.MissingJweException;
 import io.github.susimsek.springaisamples.dto.DecryptRequest;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import io.github.susimsek.springaisamples.service.EncryptionService;
 import io.github.susimsek.springaisamples.utils.CachedBodyHttpServletRequestWrapper;
 import io.github.susimsek.springaisamples.utils.JsonUtil;
@@ -13,7 +18,6 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -22,7 +26,6 @@ import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -34,8 +37,7 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
     private final EncryptionService encryptionService;
     private final EncryptionExceptionHandler encryptionExceptionHandler;
     private final JsonUtil jsonUtil;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultDecrypted;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
 
     @Override
@@ -45,11 +47,7 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.decrypted)
-            .findFirst()
-            .orElse(!defaultDecrypted);
+        return !routePolicyRegistry.resolve(request).isDecrypted();
     }
 
     @Override
@@ -59,12 +57,16 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
         @NonNull FilterChain filterChain)
             throws ServletException, IOException {
         // Request decryption
-        CachedBodyHttpServletRequestWrapper requestWrapper = new CachedBodyHttpServletRequestWrapper(request);
-        String requestBody = requestWrapper.getContentAsString();
+        CachedBodyHttpServletRequestWrapper requestWrapper = CachedBodyHttpServletRequestWrapper.wrap(request);
+        JsonNode requestJson = jsonUtil.convertToJsonNode(requestWrapper);
+        if (requestJson == null) {
+            handleMissingJwe(request, response);
+            return;
+        }
 
         DecryptRequest decryptRequest;
         try {
-            decryptRequest = jsonUtil.convertToObject(requestBody, DecryptRequest.class);
+            decryptRequest = jsonUtil.convertToObject(requestJson, DecryptRequest.class);
         } catch (IOException e) {
             handleMissingJwe(request, response);
             return;
@@ -76,19 +78,16 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
             return;
         }
 
-        String decryptedBody;
         try {
             var data = encryptionService.decryptData(encryptedBody);
-            decryptedBody = jsonUtil.convertObjectToString(data);
-
+            jsonUtil.writeJsonBody(requestWrapper, data);
         } catch (JweException e) {
             handleJweException(request, response, e);
             return;
         }
 
-        requestWrapper.setBody(decryptedBody.getBytes(StandardCharsets.UTF_8));
-
-        filterChain.doFilter(requestWrapper, response);
+        FilterStageRecorder.proceed(FilterOrder.DECRYPTION, filterChain,
+            requestWrapper.chainRequest(request), response);
     }
 
     private void handleJweException(HttpServletRequest request, HttpServletResponse response,
@@ -106,6 +105,11 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
     private static class RequestMatcherConfig {
         private final RequestMatcher requestMatcher;
         private boolean decrypted;
+
+        private RouteRule toRouteRule() {
+            boolean ruleDecrypted = decrypted;
+            return new RouteRule(requestMatcher, policy -> policy.decrypted(ruleDecrypted));
+        }
     }
 
     public interface InitialBuilder {
@@ -130,8 +134,9 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
 
     public static InitialBuilder builder(EncryptionService encryptionService,
                                          EncryptionExceptionHandler encryptionExceptionHandler,
-                                         JsonUtil jsonUtil) {
-        return new Builder(encryptionService, encryptionExceptionHandler, jsonUtil);
+                                         JsonUtil jsonUtil,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(encryptionService, encryptionExceptionHandler, jsonUtil, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
@@ -140,6 +145,7 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
         private final EncryptionService encryptionService;
         private final EncryptionExceptionHandler encryptionExceptionHandler;
         private final JsonUtil jsonUtil;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultDecrypted = true;
@@ -148,10 +154,12 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
 
         private Builder(EncryptionService encryptionService,
                         EncryptionExceptionHandler encryptionExceptionHandler,
-                        JsonUtil jsonUtil) {
+                        JsonUtil jsonUtil,
+                        RoutePolicyRegistry routePolicyRegistry) {
             this.encryptionService = encryptionService;
             this.encryptionExceptionHandler = encryptionExceptionHandler;
             this.jsonUtil = jsonUtil;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -159,7 +167,7 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), true));
+                    RouteRequestMatcher.antMatcher(method, pattern), true));
             }
             return this;
         }
@@ -168,7 +176,7 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
         public Builder requestMatchers(String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(new AntPathRequestMatcher(pattern), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(RouteRequestMatcher.antMatcher(pattern), true));
             }
             return this;
         }
@@ -221,8 +229,11 @@ public class DecryptionFilter extends OncePerRequestFilter implements Ordered {
         }
 
         public DecryptionFilter build() {
+            boolean defaultDecrypted = this.defaultDecrypted;
+            routePolicyRegistry.register(FilterOrder.DECRYPTION, policy -> policy.decrypted(defaultDecrypted),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
             return new DecryptionFilter(encryptionService, encryptionExceptionHandler,
-                jsonUtil, requestMatcherConfigs, defaultDecrypted, order);
+                jsonUtil, routePolicyRegistry, order);
         }
 
         @Override
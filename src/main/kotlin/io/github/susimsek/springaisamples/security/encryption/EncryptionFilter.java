@@ -4,9 +4,13 @@ import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.encryption.EncryptionExceptionHandler;
 import io.github.susimsek.springaisamples.exception.encryption.JweException;
 import io.github.susimsek.springaisamples.dto.EncryptResponse;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import io.github.susimsek.springaisamples.service.EncryptionService;
 import io.github.susimsek.springaisamples.utils.ApiVersionUtil;
 import io.github.susimsek.springaisamples.utils.JsonUtil;
+import io.github.susimsek.springaisamples.utils.ResponseCapture;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,7 +31,6 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -40,8 +43,7 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
     private final EncryptionService encryptionService;
     private final EncryptionExceptionHandler encryptionExceptionHandler;
     private final JsonUtil jsonUtil;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultEncrypted;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
 
     @Override
@@ -51,11 +53,7 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.encrypted)
-            .findFirst()
-            .orElse(!defaultEncrypted);
+        return !routePolicyRegistry.resolve(request).isEncrypted();
     }
 
     @Override
@@ -64,16 +62,21 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
         @NonNull HttpServletResponse response,
         @NonNull FilterChain filterChain)
             throws ServletException, IOException {
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
-        filterChain.doFilter(request, responseWrapper);
+        ResponseCapture.begin(request, response)
+            .addProcessor(FilterOrder.ENCRYPTION, this::encryptResponse)
+            .proceed(FilterOrder.ENCRYPTION, filterChain, request, response);
+    }
 
+    private void encryptResponse(HttpServletRequest request, ContentCachingResponseWrapper responseWrapper)
+        throws IOException, ServletException {
         String responseBody = new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8);
         String encryptedResponseBody;
         try {
             var jsonObject = jsonUtil.convertToJsonObject(responseBody);
             encryptedResponseBody = encryptionService.encryptData(jsonObject);
         } catch (JweException e) {
-            handleJweException(request, response, e);
+            responseWrapper.resetBuffer();
+            handleJweException(request, responseWrapper, e);
             return;
         }
 
@@ -93,11 +96,10 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
         String encryptedResponseJson = jsonUtil.convertObjectToString(encryptResponse);
 
         responseWrapper.resetBuffer();
-        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        responseWrapper.setCharacterEncoding(StandardCharsets.UTF_8.name());
         responseWrapper.setContentLength(encryptedResponseJson.length());
         responseWrapper.setContentType(MediaType.APPLICATION_JSON_VALUE);
         responseWrapper.getWriter().write(encryptedResponseJson);
-        responseWrapper.copyBodyToResponse();
     }
 
     private Optional<URI> getUri(HttpServletRequest request) {
@@ -119,6 +121,11 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
     private static class RequestMatcherConfig {
         private final RequestMatcher requestMatcher;
         private boolean encrypted;
+
+        private RouteRule toRouteRule() {
+            boolean ruleEncrypted = encrypted;
+            return new RouteRule(requestMatcher, policy -> policy.encrypted(ruleEncrypted));
+        }
     }
 
     public interface InitialBuilder {
@@ -143,8 +150,9 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
 
     public static InitialBuilder builder(EncryptionService encryptionService,
                                          EncryptionExceptionHandler encryptionExceptionHandler,
-                                         JsonUtil jsonUtil) {
-        return new Builder(encryptionService, encryptionExceptionHandler, jsonUtil);
+                                         JsonUtil jsonUtil,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(encryptionService, encryptionExceptionHandler, jsonUtil, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
@@ -153,6 +161,7 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
         private final EncryptionService encryptionService;
         private final EncryptionExceptionHandler encryptionExceptionHandler;
         private final JsonUtil jsonUtil;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultEncrypted = true;
@@ -161,10 +170,12 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
 
         private Builder(EncryptionService encryptionService,
                         EncryptionExceptionHandler encryptionExceptionHandler,
-                        JsonUtil jsonUtil) {
+                        JsonUtil jsonUtil,
+                        RoutePolicyRegistry routePolicyRegistry) {
             this.encryptionService = encryptionService;
             this.encryptionExceptionHandler = encryptionExceptionHandler;
             this.jsonUtil = jsonUtil;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -172,7 +183,7 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), true));
+                    RouteRequestMatcher.antMatcher(method, pattern), true));
             }
             return this;
         }
@@ -181,7 +192,7 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
         public Builder requestMatchers(String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(new AntPathRequestMatcher(pattern), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(RouteRequestMatcher.antMatcher(pattern), true));
             }
             return this;
         }
@@ -234,8 +245,11 @@ public class EncryptionFilter extends OncePerRequestFilter implements Ordered {
         }
 
         public EncryptionFilter build() {
+            boolean defaultEncrypted = this.defaultEncrypted;
+            routePolicyRegistry.register(FilterOrder.ENCRYPTION, policy -> policy.encrypted(defaultEncrypted),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
             return new EncryptionFilter(encryptionService, encryptionExceptionHandler,
-                jsonUtil, requestMatcherConfigs, defaultEncrypted, order);
+                jsonUtil, routePolicyRegistry, order);
         }
 
         @Override
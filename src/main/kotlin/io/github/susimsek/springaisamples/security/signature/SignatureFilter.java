@@ -5,7 +5,11 @@ import static io.github.susimsek.springaisamples.security.signature.SignatureCon
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.security.JwsException;
 import io.github.susimsek.springaisamples.exception.security.SignatureExceptionHandler;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import io.github.susimsek.springaisamples.service.SignatureService;
+import io.github.susimsek.springaisamples.utils.ResponseCapture;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,7 +24,6 @@ import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -32,8 +35,7 @@ public class SignatureFilter extends OncePerRequestFilter implements Ordered {
 
     private final SignatureService signatureService;
     private final SignatureExceptionHandler signatureExceptionHandler;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultSigned;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
 
     @Override
@@ -43,11 +45,7 @@ public class SignatureFilter extends OncePerRequestFilter implements Ordered {
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.signed)
-            .findFirst()
-            .orElse(!defaultSigned);
+        return !routePolicyRegistry.resolve(request).isSigned();
     }
 
     @Override
@@ -55,16 +53,22 @@ public class SignatureFilter extends OncePerRequestFilter implements Ordered {
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain)
         throws ServletException, IOException {
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
-        filterChain.doFilter(request, responseWrapper);
-        String responseBody = new String(responseWrapper.getContentAsByteArray(), responseWrapper.getCharacterEncoding());
+        ResponseCapture.begin(request, response)
+            .addProcessor(FilterOrder.SIGNATURE, this::signResponse)
+            .proceed(FilterOrder.SIGNATURE, filterChain, request, response);
+    }
+
+    private void signResponse(HttpServletRequest request, ContentCachingResponseWrapper responseWrapper)
+        throws IOException, ServletException {
+        String responseBody = new String(responseWrapper.getContentAsByteArray(),
+            responseWrapper.getCharacterEncoding());
 
         try {
             String signature = signatureService.createJws(responseBody);
             responseWrapper.setHeader(JWS_SIGNATURE_HEADER_NAME, signature);
-            responseWrapper.copyBodyToResponse();
         } catch (JwsException e) {
-            handleJwsException(request, response, e);
+            responseWrapper.resetBuffer();
+            handleJwsException(request, responseWrapper, e);
         }
     }
 
@@ -77,6 +81,11 @@ public class SignatureFilter extends OncePerRequestFilter implements Ordered {
     private static class RequestMatcherConfig {
         private final RequestMatcher requestMatcher;
         private boolean signed;
+
+        private RouteRule toRouteRule() {
+            boolean ruleSigned = signed;
+            return new RouteRule(requestMatcher, policy -> policy.signed(ruleSigned));
+        }
     }
 
     public interface InitialBuilder {
@@ -100,8 +109,9 @@ public class SignatureFilter extends OncePerRequestFilter implements Ordered {
     }
 
     public static InitialBuilder builder(SignatureService signatureService,
-                                         SignatureExceptionHandler signatureExceptionHandler) {
-        return new Builder(signatureService, signatureExceptionHandler);
+                                         SignatureExceptionHandler signatureExceptionHandler,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(signatureService, signatureExceptionHandler, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
@@ -109,15 +119,18 @@ public class SignatureFilter extends OncePerRequestFilter implements Ordered {
 
         private final SignatureService signatureService;
         private final SignatureExceptionHandler signatureExceptionHandler;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultSigned = true;
         private int order = FilterOrder.SIGNATURE.order();
         private int lastIndex = 0;
 
-        private Builder(SignatureService signatureService, SignatureExceptionHandler signatureExceptionHandler) {
+        private Builder(SignatureService signatureService, SignatureExceptionHandler signatureExceptionHandler,
+                        RoutePolicyRegistry routePolicyRegistry) {
             this.signatureService = signatureService;
             this.signatureExceptionHandler = signatureExceptionHandler;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -125,7 +138,7 @@ public class SignatureFilter extends OncePerRequestFilter implements Ordered {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), true));
+                    RouteRequestMatcher.antMatcher(method, pattern), true));
             }
             return this;
         }
@@ -134,7 +147,7 @@ public class SignatureFilter extends OncePerRequestFilter implements Ordered {
         public Builder requestMatchers(String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(new AntPathRequestMatcher(pattern), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(RouteRequestMatcher.antMatcher(pattern), true));
             }
             return this;
         }
@@ -187,8 +200,11 @@ public class SignatureFilter extends OncePerRequestFilter implements Ordered {
         }
 
         public SignatureFilter build() {
+            boolean defaultSigned = this.defaultSigned;
+            routePolicyRegistry.register(FilterOrder.SIGNATURE, policy -> policy.signed(defaultSigned),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
             return new SignatureFilter(signatureService, signatureExceptionHandler,
-                requestMatcherConfigs, defaultSigned, order);
+                routePolicyRegistry, order);
         }
 
         @Override
@@ -6,6 +6,10 @@ import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.security.JwsException;
 import io.github.susimsek.springaisamples.exception.security.MissingJwsException;
 import io.github.susimsek.springaisamples.exception.security.SignatureExceptionHandler;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import io.github.susimsek.springaisamples.service.SignatureService;
 import io.github.susimsek.springaisamples.utils.CachedBodyHttpServletRequestWrapper;
 import jakarta.servlet.FilterChain;
@@ -23,7 +27,6 @@ import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -34,8 +37,7 @@ public class SignatureVerificationFilter extends OncePerRequestFilter implements
 
     private final SignatureService signatureService;
     private final SignatureExceptionHandler signatureExceptionHandler;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultSigned;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
 
     @Override
@@ -45,11 +47,7 @@ public class SignatureVerificationFilter extends OncePerRequestFilter implements
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.signed)
-            .findFirst()
-            .orElse(!defaultSigned);
+        return !routePolicyRegistry.resolve(request).isSignatureVerified();
     }
 
     @Override
@@ -63,11 +61,11 @@ public class SignatureVerificationFilter extends OncePerRequestFilter implements
             return;
         }
         String jwsToken = optionalJwsToken.get();
-        CachedBodyHttpServletRequestWrapper requestWrapper = new CachedBodyHttpServletRequestWrapper(request);
-        String requestBody = requestWrapper.getContentAsString();
+        CachedBodyHttpServletRequestWrapper requestWrapper = CachedBodyHttpServletRequestWrapper.wrap(request);
         try {
-            signatureService.validateJws(jwsToken, requestBody);
-            filterChain.doFilter(requestWrapper, response);
+            signatureService.validateJws(jwsToken, requestWrapper);
+            FilterStageRecorder.proceed(FilterOrder.SIGNATURE_VERIFICATION, filterChain,
+                requestWrapper.chainRequest(request), response);
         } catch (JwsException e) {
             handleInvalidJws(requestWrapper, response, e);
         }
@@ -87,6 +85,11 @@ public class SignatureVerificationFilter extends OncePerRequestFilter implements
     private static class RequestMatcherConfig {
         private final RequestMatcher requestMatcher;
         private boolean signed;
+
+        private RouteRule toRouteRule() {
+            boolean ruleSigned = signed;
+            return new RouteRule(requestMatcher, policy -> policy.signatureVerified(ruleSigned));
+        }
     }
 
     public interface InitialBuilder {
@@ -110,8 +113,9 @@ public class SignatureVerificationFilter extends OncePerRequestFilter implements
     }
 
     public static InitialBuilder builder(SignatureService signatureService,
-                                         SignatureExceptionHandler signatureExceptionHandler) {
-        return new Builder(signatureService, signatureExceptionHandler);
+                                         SignatureExceptionHandler signatureExceptionHandler,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(signatureService, signatureExceptionHandler, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
@@ -119,15 +123,18 @@ public class SignatureVerificationFilter extends OncePerRequestFilter implements
 
         private final SignatureService signatureService;
         private final SignatureExceptionHandler signatureExceptionHandler;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultSigned = true;
         private int order = FilterOrder.SIGNATURE_VERIFICATION.order();
         private int lastIndex = 0;
 
-        private Builder(SignatureService signatureService, SignatureExceptionHandler signatureExceptionHandler) {
+        private Builder(SignatureService signatureService, SignatureExceptionHandler signatureExceptionHandler,
+                        RoutePolicyRegistry routePolicyRegistry) {
             this.signatureService = signatureService;
             this.signatureExceptionHandler = signatureExceptionHandler;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -135,7 +142,7 @@ public class SignatureVerificationFilter extends OncePerRequestFilter implements
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), true));
+                    RouteRequestMatcher.antMatcher(method, pattern), true));
             }
             return this;
         }
@@ -144,7 +151,7 @@ public class SignatureVerificationFilter extends OncePerRequestFilter implements
         public Builder requestMatchers(String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(new AntPathRequestMatcher(pattern), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(RouteRequestMatcher.antMatcher(pattern), true));
             }
             return this;
         }
@@ -197,8 +204,12 @@ public class SignatureVerificationFilter extends OncePerRequestFilter implements
         }
 
         public SignatureVerificationFilter build() {
+            boolean defaultSigned = this.defaultSigned;
+            routePolicyRegistry.register(FilterOrder.SIGNATURE_VERIFICATION,
+                policy -> policy.signatureVerified(defaultSigned),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
             return new SignatureVerificationFilter(signatureService, signatureExceptionHandler,
-                requestMatcherConfigs, defaultSigned, order);
+                routePolicyRegistry, order);
         }
 
         @Override
@@ -1,6 +1,11 @@
 package io.github.susimsek.springaisamples.security.xss;
 
 import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
+import io.github.susimsek.springaisamples.utils.CachedBodyHttpServletRequestWrapper;
 import io.github.susimsek.springaisamples.utils.SanitizationUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -16,7 +21,6 @@ import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,8 +29,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class XssFilter extends OncePerRequestFilter implements Ordered {
 
     private final SanitizationUtil sanitizationUtil;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultSanitized;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
     private final List<String> nonSanitizedHeaders;
 
@@ -37,11 +40,7 @@ public class XssFilter extends OncePerRequestFilter implements Ordered {
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.sanitized)
-            .findFirst()
-            .orElse(!defaultSanitized);
+        return !routePolicyRegistry.resolve(request).isSanitized();
     }
 
     @Override
@@ -49,15 +48,23 @@ public class XssFilter extends OncePerRequestFilter implements Ordered {
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain)
             throws ServletException, IOException {
+        FilterStageRecorder.enter(FilterOrder.XSS, request);
+        CachedBodyHttpServletRequestWrapper requestWrapper = CachedBodyHttpServletRequestWrapper.wrap(request);
+        sanitizationUtil.sanitizeJsonBody(requestWrapper);
         XssRequestWrapper wrappedRequest = new XssRequestWrapper(
-            request, sanitizationUtil, nonSanitizedHeaders);
-        filterChain.doFilter(wrappedRequest, response);
+            requestWrapper.chainRequest(request), sanitizationUtil, nonSanitizedHeaders);
+        FilterStageRecorder.proceed(FilterOrder.XSS, filterChain, wrappedRequest, response);
     }
 
     @AllArgsConstructor
     private static class RequestMatcherConfig {
         private final RequestMatcher requestMatcher;
         private boolean sanitized;
+
+        private RouteRule toRouteRule() {
+            boolean ruleSanitized = sanitized;
+            return new RouteRule(requestMatcher, policy -> policy.sanitized(ruleSanitized));
+        }
     }
 
     public interface InitialBuilder {
@@ -81,14 +88,16 @@ public class XssFilter extends OncePerRequestFilter implements Ordered {
         InitialBuilder sanitized();
     }
 
-    public static InitialBuilder builder(SanitizationUtil sanitizationUtil) {
-        return new Builder(sanitizationUtil);
+    public static InitialBuilder builder(SanitizationUtil sanitizationUtil,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(sanitizationUtil, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
         implements InitialBuilder, AfterRequestMatchersBuilder {
 
         private final SanitizationUtil sanitizationUtil;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultSanitized = true;
@@ -96,8 +105,9 @@ public class XssFilter extends OncePerRequestFilter implements Ordered {
         private int lastIndex = 0;
         private final List<String> nonSanitizedHeaders = new ArrayList<>();
 
-        private Builder(SanitizationUtil sanitizationUtil) {
+        private Builder(SanitizationUtil sanitizationUtil, RoutePolicyRegistry routePolicyRegistry) {
             this.sanitizationUtil = sanitizationUtil;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -105,7 +115,7 @@ public class XssFilter extends OncePerRequestFilter implements Ordered {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), true));
+                    RouteRequestMatcher.antMatcher(method, pattern), true));
             }
             return this;
         }
@@ -115,7 +125,7 @@ public class XssFilter extends OncePerRequestFilter implements Ordered {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(
-                    new RequestMatcherConfig(new AntPathRequestMatcher(pattern), true));
+                    new RequestMatcherConfig(RouteRequestMatcher.antMatcher(pattern), true));
             }
             return this;
         }
@@ -173,8 +183,11 @@ public class XssFilter extends OncePerRequestFilter implements Ordered {
         }
 
         public XssFilter build() {
+            boolean defaultSanitized = this.defaultSanitized;
+            routePolicyRegistry.register(FilterOrder.XSS, policy -> policy.sanitized(defaultSanitized),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
             return new XssFilter(sanitizationUtil,
-                requestMatcherConfigs, defaultSanitized, order, nonSanitizedHeaders);
+                routePolicyRegistry, order, nonSanitizedHeaders);
         }
 
         @Override
@@ -1,34 +1,24 @@
 package io.github.susimsek.springaisamples.security.xss;
 
-import io.github.susimsek.springaisamples.utils.CachedBodyHttpServletRequestWrapper;
 import io.github.susimsek.springaisamples.utils.SanitizationUtil;
 import jakarta.servlet.http.HttpServletRequest;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
-public class XssRequestWrapper extends CachedBodyHttpServletRequestWrapper {
+public class XssRequestWrapper extends HttpServletRequestWrapper {
 
     private final SanitizationUtil sanitizationUtil;
     private final List<String> nonSanitizedHeaders;
 
     public XssRequestWrapper(HttpServletRequest request, SanitizationUtil sanitizationUtil,
-                             List<String> nonSanitizedHeaders) throws IOException {
+                             List<String> nonSanitizedHeaders) {
         super(request);
         this.sanitizationUtil = sanitizationUtil;
         this.nonSanitizedHeaders = nonSanitizedHeaders;
-        sanitizeBody();
-    }
-
-    private void sanitizeBody() {
-        String body = getContentAsString();
-        String sanitizedBodyString = sanitizationUtil.sanitizeJsonString(body);
-        byte[] sanitizedBody = sanitizedBodyString.getBytes(StandardCharsets.UTF_8);
-        setBody(sanitizedBody);
     }
 
     @Override
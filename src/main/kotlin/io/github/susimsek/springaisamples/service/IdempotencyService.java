@@ -1,24 +1,212 @@
 package io.github.susimsek.springaisamples.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.susimsek.springaisamples.exception.idempotency.IdempotencyKeyInProgressException;
 import io.github.susimsek.springaisamples.idempotency.CachedResponse;
-import java.util.Map;
+import io.github.susimsek.springaisamples.idempotency.IdempotencyProperties;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+/**
+ * Keeps the responses of idempotent requests in a Caffeine cache bounded by the bytes they hold. Each
+ * response expires after the time to live of its route; the cache statistics, including evictions, are
+ * exported under the {@code idempotency} cache name. While the first request with a key is handled, a separate
+ * registry holds an in-flight marker for the key that concurrent duplicates wait on. The markers stay out of the
+ * bounded cache so that eviction can never drop one, and a response is stored before its marker is removed, so a
+ * key is never handled twice at the same time.
+ */
 @Service
 public class IdempotencyService {
 
-    private final Map<String, CachedResponse> idempotencyKeys = new ConcurrentHashMap<>();
+    static final String CACHE_NAME = "idempotency";
+    static final String STORE_SIZE_NAME = "idempotency.store.size";
+    private static final String IN_PROGRESS_MESSAGE = "A request with this idempotency key is still being processed";
 
-    public boolean containsKey(String key) {
-        return idempotencyKeys.containsKey(key);
+    private final Cache<String, Entry> responses;
+    private final ConcurrentMap<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final List<RouteTtl> routeTtls;
+    private final Duration defaultTtl;
+    private final long waitTimeoutNanos;
+
+    public IdempotencyService(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaximumSize().toBytes())
+            .weigher((String key, Entry entry) -> key.length() + entry.response().weight())
+            .expireAfter(new EntryExpiry())
+            .recordStats()
+            .build();
+        this.routeTtls = properties.getRoutes().stream()
+            .map(route -> new RouteTtl(RouteRequestMatcher.antMatcher(route.getPattern()), route.getTtl()))
+            .toList();
+        this.defaultTtl = properties.getTtl();
+        this.waitTimeoutNanos = properties.getWaitTimeout().toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+        Gauge.builder(STORE_SIZE_NAME, this, IdempotencyService::weightedSize)
+            .baseUnit("bytes")
+            .register(meterRegistry);
     }
 
+    @Nullable
     public CachedResponse getResponse(String key) {
-        return idempotencyKeys.get(key);
+        Entry entry = responses.getIfPresent(key);
+        return entry != null ? entry.response() : null;
+    }
+
+    /**
+     * Starts a request with the key. The execution carries the stored response to replay, after waiting for it
+     * while another request with the key is being handled, or else registers this request as the one that
+     * produces the response.
+     *
+     * @throws IdempotencyKeyInProgressException if the other request does not complete within the wait timeout
+     */
+    public Execution begin(String key, Duration ttl) {
+        long deadline = System.nanoTime() + waitTimeoutNanos;
+        while (true) {
+            CachedResponse response = getResponse(key);
+            if (response != null) {
+                return new Execution(key, null, response, 0);
+            }
+            CompletableFuture<CachedResponse> marker = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> current = inFlight.putIfAbsent(key, marker);
+            if (current == null) {
+                // A request that completed between the lookup and the registration has already stored its response
+                response = getResponse(key);
+                if (response != null) {
+                    inFlight.remove(key, marker);
+                    marker.complete(response);
+                    return new Execution(key, null, response, 0);
+                }
+                return new Execution(key, marker, null, ttl.toNanos());
+            }
+            response = await(current, deadline);
+            if (response != null) {
+                return new Execution(key, null, response, 0);
+            }
+            // The request that held the key ended without a response, so this one takes over
+        }
+    }
+
+    public Duration resolveTtl(HttpServletRequest request) {
+        for (RouteTtl routeTtl : routeTtls) {
+            if (routeTtl.matcher().matches(request)) {
+                return routeTtl.ttl();
+            }
+        }
+        return defaultTtl;
+    }
+
+    long weightedSize() {
+        return responses.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0))
+            .orElse(0L);
     }
 
-    public void saveResponse(String key, CachedResponse response) {
-        idempotencyKeys.put(key, response);
+    void cleanUp() {
+        responses.cleanUp();
+    }
+
+    @Nullable
+    private static CachedResponse await(CompletableFuture<CachedResponse> inFlight, long deadline) {
+        try {
+            return inFlight.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(IN_PROGRESS_MESSAGE, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(IN_PROGRESS_MESSAGE, e);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A request started with {@link #begin(String, Duration)}.
+     */
+    public final class Execution {
+
+        private final String key;
+        @Nullable
+        private final CompletableFuture<CachedResponse> marker;
+        @Nullable
+        private final CachedResponse response;
+        private final long ttlNanos;
+
+        private Execution(String key, @Nullable CompletableFuture<CachedResponse> marker,
+                          @Nullable CachedResponse response, long ttlNanos) {
+            this.key = key;
+            this.marker = marker;
+            this.response = response;
+            this.ttlNanos = ttlNanos;
+        }
+
+        /**
+         * Returns the response to replay, or {@code null} if this request has to produce it.
+         */
+        @Nullable
+        public CachedResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * Stores the response, then removes the in-flight marker and hands the response to the waiting duplicates.
+         */
+        public void complete(CachedResponse cachedResponse) {
+            if (marker == null || marker.isDone()) {
+                return;
+            }
+            responses.put(key, new Entry(cachedResponse, ttlNanos));
+            inFlight.remove(key, marker);
+            marker.complete(cachedResponse);
+        }
+
+        /**
+         * Gives up the key if no response was stored, so that a waiting duplicate handles the request instead.
+         */
+        public void release() {
+            if (marker == null || marker.isDone()) {
+                return;
+            }
+            inFlight.remove(key, marker);
+            marker.complete(null);
+        }
+    }
+
+    private record Entry(CachedResponse response, long ttlNanos) {
+    }
+
+    private record RouteTtl(RouteRequestMatcher matcher, Duration ttl) {
+    }
+
+    private static final class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
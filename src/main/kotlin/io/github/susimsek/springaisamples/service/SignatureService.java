@@ -1,6 +1,8 @@
 package io.github.susimsek.springaisamples.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.github.susimsek.springaisamples.security.TokenProvider;
+import io.github.susimsek.springaisamples.utils.CachedBodyHttpServletRequestWrapper;
 import io.github.susimsek.springaisamples.utils.JsonUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -21,4 +23,10 @@ public class SignatureService {
         String data = jsonUtil.convertToJsonString(payload);
         tokenProvider.validateJws(jwsSignature, data);
     }
+
+    public void validateJws(String jwsSignature, CachedBodyHttpServletRequestWrapper request) {
+        JsonNode jsonNode = jsonUtil.convertToJsonNode(request);
+        String data = jsonNode != null ? jsonUtil.convertObjectToString(jsonNode) : request.getContentAsString();
+        tokenProvider.validateJws(jwsSignature, data);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package io.github.susimsek.springaisamples.task;
+
+import io.github.susimsek.springaisamples.trace.Trace;
+import io.github.susimsek.springaisamples.trace.TraceContextHolder;
+import io.github.susimsek.springaisamples.versioning.ApiInfo;
+import io.github.susimsek.springaisamples.versioning.ApiInfoContextHolder;
+import java.util.Map;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.NonNull;
+
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    @Override
+    @NonNull
+    public Runnable decorate(@NonNull Runnable runnable) {
+        Trace trace = TraceContextHolder.getTrace();
+        ApiInfo apiInfo = ApiInfoContextHolder.getApiInfo();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            // The task may run on the submitting thread (CallerRunsPolicy), so restore what was there
+            Trace previousTrace = TraceContextHolder.getTrace();
+            ApiInfo previousApiInfo = ApiInfoContextHolder.getApiInfo();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            apply(trace, apiInfo, mdc);
+            try {
+                runnable.run();
+            } finally {
+                apply(previousTrace, previousApiInfo, previousMdc);
+            }
+        };
+    }
+
+    private static void apply(Trace trace, ApiInfo apiInfo, Map<String, String> mdc) {
+        if (trace != null) {
+            TraceContextHolder.setTrace(trace);
+        } else {
+            TraceContextHolder.clear();
+        }
+        if (apiInfo != null) {
+            ApiInfoContextHolder.setApiInfo(apiInfo);
+        } else {
+            ApiInfoContextHolder.clear();
+        }
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        } else {
+            MDC.clear();
+        }
+    }
+}
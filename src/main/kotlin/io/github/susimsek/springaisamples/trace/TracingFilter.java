@@ -4,6 +4,10 @@ import static io.github.susimsek.springaisamples.trace.TraceConstants.CORRELATIO
 import static io.github.susimsek.springaisamples.trace.TraceConstants.REQUEST_ID_HEADER_NAME;
 
 import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import jakarta.servlet.FilterChain;
@@ -20,7 +24,6 @@ import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -29,8 +32,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class TracingFilter extends OncePerRequestFilter implements Ordered {
 
     private final Tracer tracer;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultTraced;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
 
     @Override
@@ -40,11 +42,7 @@ public class TracingFilter extends OncePerRequestFilter implements Ordered {
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        return requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .map(config -> !config.traced)
-            .findFirst()
-            .orElse(!defaultTraced);
+        return !routePolicyRegistry.resolve(request).isTraced();
     }
 
     @Override
@@ -78,7 +76,7 @@ public class TracingFilter extends OncePerRequestFilter implements Ordered {
         TraceContextHolder.setTrace(trace);
 
         try {
-            filterChain.doFilter(request, response);
+            FilterStageRecorder.proceed(FilterOrder.TRACE, filterChain, request, response);
         } finally {
             TraceContextHolder.clear();
             MDC.clear();
@@ -89,6 +87,11 @@ public class TracingFilter extends OncePerRequestFilter implements Ordered {
     private static class RequestMatcherConfig {
         private final RequestMatcher requestMatcher;
         private boolean traced;
+
+        private RouteRule toRouteRule() {
+            boolean ruleTraced = traced;
+            return new RouteRule(requestMatcher, policy -> policy.traced(ruleTraced));
+        }
     }
 
     public interface InitialBuilder {
@@ -111,22 +114,25 @@ public class TracingFilter extends OncePerRequestFilter implements Ordered {
         InitialBuilder traced();
     }
 
-    public static InitialBuilder builder(Tracer tracer) {
-        return new Builder(tracer);
+    public static InitialBuilder builder(Tracer tracer,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(tracer, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
         implements InitialBuilder, AfterRequestMatchersBuilder {
 
         private final Tracer tracer;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultTraced = true;
         private int order = FilterOrder.TRACE.order();
         private int lastIndex = 0;
 
-        private Builder(Tracer tracer) {
+        private Builder(Tracer tracer, RoutePolicyRegistry routePolicyRegistry) {
             this.tracer = tracer;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -134,7 +140,7 @@ public class TracingFilter extends OncePerRequestFilter implements Ordered {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), true));
+                    RouteRequestMatcher.antMatcher(method, pattern), true));
             }
             return this;
         }
@@ -143,7 +149,7 @@ public class TracingFilter extends OncePerRequestFilter implements Ordered {
         public Builder requestMatchers(String... patterns) {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
-                this.requestMatcherConfigs.add(new RequestMatcherConfig(new AntPathRequestMatcher(pattern), true));
+                this.requestMatcherConfigs.add(new RequestMatcherConfig(RouteRequestMatcher.antMatcher(pattern), true));
             }
             return this;
         }
@@ -196,8 +202,11 @@ public class TracingFilter extends OncePerRequestFilter implements Ordered {
         }
 
         public TracingFilter build() {
+            boolean defaultTraced = this.defaultTraced;
+            routePolicyRegistry.register(FilterOrder.TRACE, policy -> policy.traced(defaultTraced),
+                requestMatcherConfigs.stream().map(RequestMatcherConfig::toRouteRule).toList());
             return new TracingFilter(tracer,
-                requestMatcherConfigs, defaultTraced, order);
+                routePolicyRegistry, order);
         }
 
         @Override
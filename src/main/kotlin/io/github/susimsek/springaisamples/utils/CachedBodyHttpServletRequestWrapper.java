@@ -1,35 +1,66 @@
 package io.github.susimsek.springaisamples.utils;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import io.github.susimsek.springaisamples.buffer.BodyBuffer;
+import io.github.susimsek.springaisamples.buffer.RequestBodyReader;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import org.springframework.util.StreamUtils;
+import org.springframework.web.util.WebUtils;
 
 public class CachedBodyHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
+    private final BodyBuffer originalBody;
     private byte[] cachedBody;
+    private JsonNode jsonNode;
+    private boolean jsonParsed;
 
     public CachedBodyHttpServletRequestWrapper(HttpServletRequest request) throws IOException {
         super(request);
-        cachedBody = StreamUtils.copyToByteArray(request.getInputStream());
+        RequestBodyReader bodyReader = (RequestBodyReader) request.getAttribute(RequestBodyReader.ATTRIBUTE_NAME);
+        originalBody = bodyReader != null
+            ? bodyReader.read(request.getInputStream())
+            : BodyBuffer.of(StreamUtils.copyToByteArray(request.getInputStream()));
+    }
+
+    public static CachedBodyHttpServletRequestWrapper wrap(HttpServletRequest request) throws IOException {
+        CachedBodyHttpServletRequestWrapper existing = find(request);
+        return existing != null ? existing : new CachedBodyHttpServletRequestWrapper(request);
+    }
+
+    public static CachedBodyHttpServletRequestWrapper find(ServletRequest request) {
+        return WebUtils.getNativeRequest(request, CachedBodyHttpServletRequestWrapper.class);
+    }
+
+    public HttpServletRequest chainRequest(HttpServletRequest request) {
+        return getRequest() == request ? this : request;
     }
 
     @Override
-    public ServletInputStream getInputStream() {
-        return new CachedBodyServletInputStream(this.cachedBody);
+    public ServletInputStream getInputStream() throws IOException {
+        return new CachedBodyServletInputStream(cachedBody != null
+            ? new ByteArrayInputStream(cachedBody)
+            : originalBody.openStream());
     }
 
     @Override
-    public BufferedReader getReader() {
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(cachedBody);
-        return new BufferedReader(new InputStreamReader(byteArrayInputStream, StandardCharsets.UTF_8));
+    public BufferedReader getReader() throws IOException {
+        return new BufferedReader(new InputStreamReader(getInputStream(),
+            Charset.forName(this.getCharacterEncoding())));
     }
 
     @Override
@@ -38,29 +69,88 @@ public class CachedBodyHttpServletRequestWrapper extends HttpServletRequestWrapp
         return enc != null ? enc : StandardCharsets.UTF_8.name();
     }
 
+    @Override
+    public int getContentLength() {
+        long contentLength = getContentLengthLong();
+        return contentLength > Integer.MAX_VALUE ? -1 : (int) contentLength;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return cachedBody != null ? cachedBody.length : originalBody.size();
+    }
+
     public byte[] getContentAsByteArray() {
-        return this.cachedBody;
+        return cachedBody != null ? cachedBody : originalBody.toByteArray();
+    }
+
+    public byte[] getOriginalContentAsByteArray() {
+        return originalBody.toByteArray();
     }
 
     public String getContentAsString() {
-        return new String(this.cachedBody, Charset.forName(this.getCharacterEncoding()));
+        return new String(getContentAsByteArray(), Charset.forName(this.getCharacterEncoding()));
+    }
+
+    public JsonNode getContentAsJsonNode(ObjectMapper objectMapper) {
+        if (!jsonParsed) {
+            jsonParsed = true;
+            try {
+                jsonNode = getContentLengthLong() == 0 ? null : readTree(objectMapper);
+            } catch (IOException e) {
+                jsonNode = null;
+            }
+        }
+        return jsonNode;
+    }
+
+    private JsonNode readTree(ObjectMapper objectMapper) throws IOException {
+        ObjectReader reader = treeReader(objectMapper);
+        if (cachedBody != null) {
+            return reader.readTree(cachedBody);
+        }
+        try (InputStream inputStream = originalBody.openStream()) {
+            return reader.readTree(inputStream);
+        }
+    }
+
+    static ObjectReader treeReader(ObjectMapper objectMapper) {
+        return objectMapper.reader()
+            .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .without(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES);
+    }
+
+    public JsonNode getCachedJsonNode() {
+        return this.jsonNode;
     }
 
     public void setBody(byte[] body) {
         this.cachedBody = body;
+        this.jsonNode = null;
+        this.jsonParsed = false;
+    }
+
+    public void setBody(byte[] body, JsonNode jsonNode) {
+        this.cachedBody = body;
+        this.jsonNode = jsonNode;
+        this.jsonParsed = true;
     }
 
     private static class CachedBodyServletInputStream extends ServletInputStream {
 
-        private final ByteArrayInputStream byteArrayInputStream;
+        private final InputStream inputStream;
 
-        public CachedBodyServletInputStream(byte[] cachedBody) {
-            this.byteArrayInputStream = new ByteArrayInputStream(cachedBody);
+        public CachedBodyServletInputStream(InputStream inputStream) {
+            this.inputStream = inputStream;
         }
 
         @Override
         public boolean isFinished() {
-            return byteArrayInputStream.available() == 0;
+            try {
+                return inputStream.available() == 0;
+            } catch (IOException e) {
+                return true;
+            }
         }
 
         @Override
@@ -74,8 +164,18 @@ public class CachedBodyHttpServletRequestWrapper extends HttpServletRequestWrapp
         }
 
         @Override
-        public int read() {
-            return byteArrayInputStream.read();
+        public int read() throws IOException {
+            return inputStream.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return inputStream.read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package io.github.susimsek.springaisamples.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Read-only multi-value map that resolves header names and values from its source on every access instead of
+ * copying them. Lookups are as case-insensitive as the source.
+ */
+final class HeaderView extends AbstractMap<String, List<String>> implements MultiValueMap<String, String> {
+
+    private final Supplier<Collection<String>> names;
+    private final Function<String, List<String>> values;
+
+    HeaderView(Supplier<Collection<String>> names, Function<String, List<String>> values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    @Override
+    public List<String> get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        List<String> headerValues = values.apply(name);
+        return headerValues == null || headerValues.isEmpty() ? null : headerValues;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public String getFirst(String key) {
+        List<String> headerValues = get(key);
+        return headerValues != null ? headerValues.get(0) : null;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                return Collections.unmodifiableCollection(names.get()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return names.get().size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, List<String>>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, List<String>>> iterator() {
+                Iterator<String> iterator = names.get().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, List<String>> next() {
+                        String name = iterator.next();
+                        List<String> headerValues = values.apply(name);
+                        return new SimpleImmutableEntry<>(name, headerValues != null ? headerValues : List.of());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return names.get().size();
+            }
+        };
+    }
+
+    @Override
+    public void add(String key, String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(String key, List<? extends String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(MultiValueMap<String, String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void set(String key, String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAll(Map<String, String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, String> toSingleValueMap() {
+        Map<String, String> singleValueMap = new LinkedHashMap<>();
+        for (String name : names.get()) {
+            singleValueMap.put(name, getFirst(name));
+        }
+        return singleValueMap;
+    }
+}
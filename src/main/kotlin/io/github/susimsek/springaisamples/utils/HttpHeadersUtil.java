@@ -3,10 +3,12 @@ package io.github.susimsek.springaisamples.utils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.List;
+import java.util.Set;
 import lombok.experimental.UtilityClass;
 import org.springframework.http.HttpHeaders;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedCaseInsensitiveMap;
 
 @UtilityClass
 public class HttpHeadersUtil {
@@ -19,26 +21,48 @@ public class HttpHeadersUtil {
         );
     }
 
-    public HttpHeaders convertToHttpHeaders(HttpServletResponse response) {
-        HttpHeaders httpHeaders = new HttpHeaders();
-
-        response.getHeaderNames().forEach(headerName ->
-            httpHeaders.addAll(headerName, List.copyOf(response.getHeaders(headerName)))
-        );
-
-        return httpHeaders;
+    /**
+     * Returns a read-only view of the request headers. It is only valid while the request is being processed;
+     * use {@link #snapshot(HttpHeaders)} to keep the headers beyond that.
+     */
+    public HttpHeaders requestHeaders(HttpServletRequest request) {
+        return new HttpHeaders(new HeaderView(
+            () -> Collections.list(request.getHeaderNames()),
+            name -> Collections.list(request.getHeaders(name))));
     }
 
-    public HttpHeaders convertToHttpHeaders(HttpServletRequest request) {
-        HttpHeaders httpHeaders = new HttpHeaders();
-        Enumeration<String> headerNames = request.getHeaderNames();
+    /**
+     * Returns a read-only view of the response headers. It is only valid while the response is being processed;
+     * use {@link #snapshot(HttpHeaders)} to keep the headers beyond that.
+     */
+    public HttpHeaders responseHeaders(HttpServletResponse response) {
+        return new HttpHeaders(new HeaderView(
+            response::getHeaderNames,
+            name -> List.copyOf(response.getHeaders(name))));
+    }
 
-        while (headerNames.hasMoreElements()) {
-            String headerName = headerNames.nextElement();
-            Enumeration<String> headers = request.getHeaders(headerName);
-            httpHeaders.addAll(headerName, Collections.list(headers));
+    /**
+     * Returns a read-only view of the given headers in which the values of the given headers are replaced by
+     * the mask value as they are read.
+     *
+     * @param maskedNames the header names to mask, which should be case-insensitive
+     */
+    public HttpHeaders maskedHeaders(HttpHeaders headers, Set<String> maskedNames, String maskValue) {
+        if (maskedNames.isEmpty()) {
+            return headers;
         }
+        List<String> masked = List.of(maskValue);
+        return new HttpHeaders(new HeaderView(
+            headers::keySet,
+            name -> maskedNames.contains(name) ? masked : headers.get(name)));
+    }
 
-        return httpHeaders;
+    /**
+     * Copies the given headers into read-only headers that no longer depend on their source.
+     */
+    public HttpHeaders snapshot(HttpHeaders headers) {
+        LinkedCaseInsensitiveMap<List<String>> copy = new LinkedCaseInsensitiveMap<>(8);
+        headers.forEach((name, values) -> copy.put(name, List.copyOf(values)));
+        return HttpHeaders.readOnlyHttpHeaders(new HttpHeaders(CollectionUtils.toMultiValueMap(copy)));
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -18,6 +19,25 @@ public class JsonUtil {
         return objectMapper.readValue(json, valueType);
     }
 
+    public <T> T convertToObject(JsonNode jsonNode, Class<T> valueType) throws JsonProcessingException {
+        return objectMapper.treeToValue(jsonNode, valueType);
+    }
+
+    public JsonNode convertToJsonNode(CachedBodyHttpServletRequestWrapper request) {
+        return request.getContentAsJsonNode(objectMapper);
+    }
+
+    public void writeJsonBody(CachedBodyHttpServletRequestWrapper request, Object value) {
+        try {
+            JsonNode jsonNode = value instanceof String stringValue
+                ? CachedBodyHttpServletRequestWrapper.treeReader(objectMapper).readTree(stringValue)
+                : objectMapper.valueToTree(value);
+            request.setBody(objectMapper.writeValueAsBytes(jsonNode), jsonNode);
+        } catch (IOException | IllegalArgumentException e) {
+            request.setBody(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
     public String convertToJsonString(String value) {
         if (!StringUtils.hasText(value)) {
             return value;
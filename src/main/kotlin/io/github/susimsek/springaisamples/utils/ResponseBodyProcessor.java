@@ -0,0 +1,13 @@
+package io.github.susimsek.springaisamples.utils;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+@FunctionalInterface
+public interface ResponseBodyProcessor {
+
+    void process(HttpServletRequest request, ContentCachingResponseWrapper response)
+        throws IOException, ServletException;
+}
@@ -0,0 +1,88 @@
+package io.github.susimsek.springaisamples.utils;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+public final class ResponseCapture {
+
+    private static final String ATTRIBUTE_NAME = ResponseCapture.class.getName();
+
+    private final ContentCachingResponseWrapper response;
+    private final List<StageProcessor> processors = new ArrayList<>();
+    private int depth;
+
+    private ResponseCapture(ContentCachingResponseWrapper response) {
+        this.response = response;
+    }
+
+    public static ResponseCapture begin(HttpServletRequest request, HttpServletResponse response) {
+        ResponseCapture capture = (ResponseCapture) request.getAttribute(ATTRIBUTE_NAME);
+        if (capture == null) {
+            capture = new ResponseCapture(new ContentCachingResponseWrapper(response));
+            request.setAttribute(ATTRIBUTE_NAME, capture);
+        }
+        capture.depth++;
+        return capture;
+    }
+
+    public ResponseCapture addProcessor(FilterOrder stage, ResponseBodyProcessor processor) {
+        this.processors.add(new StageProcessor(stage, processor));
+        return this;
+    }
+
+    public HttpServletResponse chainResponse(HttpServletResponse response) {
+        return WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == this.response
+            ? response : this.response;
+    }
+
+    public ContentCachingResponseWrapper getResponse() {
+        return this.response;
+    }
+
+    public void proceed(FilterOrder stage, FilterChain filterChain, HttpServletRequest request,
+                        HttpServletResponse response) throws IOException, ServletException {
+        try {
+            FilterStageRecorder.proceed(stage, filterChain, request, chainResponse(response));
+        } catch (IOException | ServletException | RuntimeException | Error e) {
+            abort(request);
+            throw e;
+        }
+        complete(request);
+    }
+
+    public void complete(HttpServletRequest request) throws IOException, ServletException {
+        if (--depth > 0) {
+            return;
+        }
+        request.removeAttribute(ATTRIBUTE_NAME);
+        FilterStageRecorder recorder = FilterStageRecorder.get(request);
+        for (int i = processors.size() - 1; i >= 0; i--) {
+            StageProcessor stageProcessor = processors.get(i);
+            int previous = recorder != null ? recorder.switchTo(stageProcessor.stage()) : 0;
+            stageProcessor.processor().process(request, response);
+            if (recorder != null) {
+                recorder.switchTo(previous);
+            }
+        }
+        response.copyBodyToResponse();
+    }
+
+    private void abort(HttpServletRequest request) {
+        if (--depth > 0) {
+            return;
+        }
+        request.removeAttribute(ATTRIBUTE_NAME);
+    }
+
+    private record StageProcessor(FilterOrder stage, ResponseBodyProcessor processor) {
+    }
+}
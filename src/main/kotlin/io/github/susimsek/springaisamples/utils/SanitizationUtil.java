@@ -43,4 +43,17 @@ public class SanitizationUtil {
             return jsonString; // If it's not a valid JSON, return the original string
         }
     }
+
+    public void sanitizeJsonBody(CachedBodyHttpServletRequestWrapper request) {
+        JsonNode jsonNode = request.getContentAsJsonNode(objectMapper);
+        if (jsonNode == null) {
+            return; // If it's not a valid JSON, keep the original body
+        }
+        try {
+            JsonNode sanitized = sanitizeJsonNode(jsonNode.deepCopy());
+            request.setBody(objectMapper.writeValueAsBytes(sanitized), sanitized);
+        } catch (IOException e) {
+            request.setBody(request.getContentAsByteArray());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package io.github.susimsek.springaisamples.validation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HeaderConfig {
+    private String headerName;
+    private int min = 0;
+    private int max = Integer.MAX_VALUE;
+    private boolean notBlank = false;
+    private String regexp;
+
+    private String notBlankMessage = "{validation.field.notBlank}";
+    private String sizeMessage = "{validation.field.size}";
+    private String patternMessage = "{validation.field.pattern}";
+}
@@ -5,6 +5,10 @@ import io.github.susimsek.springaisamples.exception.Violation;
 import io.github.susimsek.springaisamples.exception.header.HeaderConstraintViolationException;
 import io.github.susimsek.springaisamples.exception.header.HeaderValidationExceptionHandler;
 import io.github.susimsek.springaisamples.i18n.MessageContext;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,21 +16,20 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.MessageInterpolator;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.function.Consumer;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -38,12 +41,8 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
 
     private final MessageInterpolator messageInterpolator;
     private final HeaderValidationExceptionHandler headerValidationExceptionHandler;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultValidated;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
-    private final Map<String, HeaderConfig> defaultHeaderConfigs;
-
-    private Map<String, HeaderConfig> currentHeaderConfigs;
 
     @Override
     public int getOrder() {
@@ -52,23 +51,7 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        var optionalConfig = requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .findFirst()
-            .map(config -> {
-                currentHeaderConfigs = config.headerConfigs;
-                return !config.validated;
-            });
-
-        if (optionalConfig.isEmpty()) {
-            currentHeaderConfigs = defaultHeaderConfigs;
-            return !defaultValidated;
-        } else {
-            defaultHeaderConfigs.forEach((key, value) ->
-                currentHeaderConfigs.putIfAbsent(key, value)
-            );
-            return optionalConfig.get();
-        }
+        return !routePolicyRegistry.resolve(request).isHeaderValidated();
     }
 
     @Override
@@ -78,7 +61,8 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
         @NonNull FilterChain filterChain)
         throws ServletException, IOException {
 
-        List<Violation> violations = currentHeaderConfigs.values().stream()
+        Map<String, HeaderConfig> headerConfigs = routePolicyRegistry.resolve(request).getHeaderConfigs();
+        List<Violation> violations = headerConfigs.values().stream()
             .flatMap(headerConfig -> {
                 String headerValue = request.getHeader(headerConfig.getHeaderName());
                 return validateHeader(headerConfig, headerValue, request.getLocale()).stream();
@@ -88,7 +72,7 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
         if (!violations.isEmpty()) {
             handleHeaderConstraintViolationException(request, response, violations);
         } else {
-            filterChain.doFilter(request, response);
+            FilterStageRecorder.proceed(FilterOrder.HEADER_VALIDATION, filterChain, request, response);
         }
     }
 
@@ -169,23 +153,16 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
         private final RequestMatcher requestMatcher;
         private boolean validated;
         private final Map<String, HeaderConfig> headerConfigs;
-    }
 
-    @Getter
-    @Setter
-    @AllArgsConstructor
-    @NoArgsConstructor
-    @lombok.Builder
-    private static class HeaderConfig {
-        private String headerName;
-        private int min = 0;
-        private int max = Integer.MAX_VALUE;
-        private boolean notBlank = false;
-        private String regexp;
-
-        private String notBlankMessage = "{validation.field.notBlank}";
-        private String sizeMessage = "{validation.field.size}";
-        private String patternMessage = "{validation.field.pattern}";
+        private RouteRule toRouteRule(Map<String, HeaderConfig> defaultHeaderConfigs) {
+            boolean ruleValidated = validated;
+            Map<String, HeaderConfig> ruleHeaderConfigs = new LinkedHashMap<>(headerConfigs);
+            defaultHeaderConfigs.forEach(ruleHeaderConfigs::putIfAbsent);
+            Map<String, HeaderConfig> mergedHeaderConfigs = Collections.unmodifiableMap(ruleHeaderConfigs);
+            return new RouteRule(requestMatcher, policy -> policy
+                .headerValidated(ruleValidated)
+                .headerConfigs(mergedHeaderConfigs));
+        }
     }
 
     public interface InitialBuilder {
@@ -233,8 +210,9 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
     }
 
     public static InitialBuilder builder(MessageInterpolator messageInterpolator,
-                                         HeaderValidationExceptionHandler headerValidationExceptionHandler) {
-        return new Builder(messageInterpolator, headerValidationExceptionHandler);
+                                         HeaderValidationExceptionHandler headerValidationExceptionHandler,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(messageInterpolator, headerValidationExceptionHandler, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
@@ -242,6 +220,7 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
 
         private final MessageInterpolator messageInterpolator;
         private final HeaderValidationExceptionHandler headerValidationExceptionHandler;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultValidated = true;
@@ -251,9 +230,11 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
         private String headerName = null;
 
         private Builder(MessageInterpolator messageInterpolator,
-                        HeaderValidationExceptionHandler headerValidationExceptionHandler) {
+                        HeaderValidationExceptionHandler headerValidationExceptionHandler,
+                        RoutePolicyRegistry routePolicyRegistry) {
             this.messageInterpolator = messageInterpolator;
             this.headerValidationExceptionHandler = headerValidationExceptionHandler;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -261,7 +242,7 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()), true,
+                    RouteRequestMatcher.antMatcher(method, pattern), true,
                     new HashMap<>()));
             }
             return this;
@@ -272,7 +253,7 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern), true, new HashMap<>()));
+                    RouteRequestMatcher.antMatcher(pattern), true, new HashMap<>()));
             }
             return this;
         }
@@ -399,9 +380,18 @@ public class HeaderValidationFilter extends OncePerRequestFilter implements Orde
 
         @Override
         public HeaderValidationFilter build() {
+            boolean defaultValidated = this.defaultValidated;
+            Map<String, HeaderConfig> defaultHeaderConfigs =
+                Collections.unmodifiableMap(new LinkedHashMap<>(this.defaultHeaderConfigs));
+            routePolicyRegistry.register(FilterOrder.HEADER_VALIDATION, policy -> policy
+                    .headerValidated(defaultValidated)
+                    .headerConfigs(defaultHeaderConfigs),
+                requestMatcherConfigs.stream()
+                    .map(config -> config.toRouteRule(defaultHeaderConfigs))
+                    .toList());
             return new HeaderValidationFilter(messageInterpolator,
                 headerValidationExceptionHandler,
-                requestMatcherConfigs, defaultValidated, order, defaultHeaderConfigs);
+                routePolicyRegistry, order);
         }
 
         @Override
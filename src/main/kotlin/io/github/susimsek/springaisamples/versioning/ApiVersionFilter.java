@@ -4,6 +4,10 @@ package io.github.susimsek.springaisamples.versioning;
 import io.github.susimsek.springaisamples.enums.FilterOrder;
 import io.github.susimsek.springaisamples.exception.versioning.ApiVersionExceptionHandler;
 import io.github.susimsek.springaisamples.exception.versioning.UnsupportedApiVersionException;
+import io.github.susimsek.springaisamples.metrics.FilterStageRecorder;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RouteRequestMatcher;
+import io.github.susimsek.springaisamples.policy.RouteRule;
 import io.github.susimsek.springaisamples.utils.ApiVersionUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,7 +22,6 @@ import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.NonNull;
 import org.springframework.security.config.annotation.web.AbstractRequestMatcherRegistry;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,13 +30,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
 
     private final ApiVersionExceptionHandler apiVersionExceptionHandler;
-    private final List<RequestMatcherConfig> requestMatcherConfigs;
-    private final boolean defaultVersioned;
+    private final RoutePolicyRegistry routePolicyRegistry;
     private final int order;
-    private final List<String> defaultSupportedVersions;
-
-
-    private List<String> currentSupportedVersions;
 
     @Override
     public int getOrder() {
@@ -42,23 +40,7 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-        var optionalConfig = requestMatcherConfigs.stream()
-            .filter(config -> config.requestMatcher.matches(request))
-            .findFirst()
-            .map(config -> {
-                currentSupportedVersions = config.supportedVersions;
-                return !config.versioned;
-            });
-
-        if (optionalConfig.isEmpty()) {
-            currentSupportedVersions = defaultSupportedVersions;
-            return !defaultVersioned;
-        } else {
-            defaultSupportedVersions.stream()
-                .filter(version -> !currentSupportedVersions.contains(version))
-                .forEach(currentSupportedVersions::add);
-            return optionalConfig.get();
-        }
+        return !routePolicyRegistry.resolve(request).isVersioned();
     }
 
     @Override
@@ -69,7 +51,7 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
         String uri = request.getRequestURI();
         String apiVersion = ApiVersionUtil.getVersionFromUri(uri);
 
-        if (!isSupportedVersion(apiVersion)) {
+        if (!isSupportedVersion(request, apiVersion)) {
             handleUnsupportedApiVersionException(request, response, apiVersion);
             return;
         }
@@ -81,7 +63,7 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
         ApiInfoContextHolder.setApiInfo(apiInfo);
 
         try {
-            filterChain.doFilter(request, response);
+            FilterStageRecorder.proceed(FilterOrder.API_VERSION, filterChain, request, response);
         } finally {
             ApiInfoContextHolder.clear();
         }
@@ -96,8 +78,8 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
     }
 
 
-    private boolean isSupportedVersion(String apiVersion) {
-        return currentSupportedVersions.contains(apiVersion);
+    private boolean isSupportedVersion(HttpServletRequest request, String apiVersion) {
+        return routePolicyRegistry.resolve(request).getSupportedVersions().contains(apiVersion);
     }
 
     @AllArgsConstructor
@@ -105,6 +87,18 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
         private final RequestMatcher requestMatcher;
         private boolean versioned;
         private final List<String> supportedVersions;
+
+        private RouteRule toRouteRule(List<String> defaultSupportedVersions) {
+            boolean ruleVersioned = versioned;
+            List<String> ruleSupportedVersions = new ArrayList<>(supportedVersions);
+            defaultSupportedVersions.stream()
+                .filter(version -> !ruleSupportedVersions.contains(version))
+                .forEach(ruleSupportedVersions::add);
+            List<String> mergedSupportedVersions = List.copyOf(ruleSupportedVersions);
+            return new RouteRule(requestMatcher, policy -> policy
+                .versioned(ruleVersioned)
+                .supportedVersions(mergedSupportedVersions));
+        }
     }
 
     public interface InitialBuilder {
@@ -133,13 +127,15 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
         InitialBuilder versioned();
     }
 
-    public static InitialBuilder builder(ApiVersionExceptionHandler apiVersionExceptionHandler) {
-        return new Builder(apiVersionExceptionHandler);
+    public static InitialBuilder builder(ApiVersionExceptionHandler apiVersionExceptionHandler,
+                                         RoutePolicyRegistry routePolicyRegistry) {
+        return new Builder(apiVersionExceptionHandler, routePolicyRegistry);
     }
 
     private static class Builder extends AbstractRequestMatcherRegistry<Builder>
         implements InitialBuilder, AfterRequestMatchersBuilder, AfterVersioningConfigBuilder  {
         private final ApiVersionExceptionHandler apiVersionExceptionHandler;
+        private final RoutePolicyRegistry routePolicyRegistry;
         private final List<RequestMatcherConfig> requestMatcherConfigs = new ArrayList<>();
         private boolean anyRequestConfigured = false;
         private boolean defaultVersioned = true;
@@ -147,8 +143,10 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
         private int lastIndex = 0;
         private final List<String> defaultSupportedVersions = new ArrayList<>();
 
-        private Builder(ApiVersionExceptionHandler apiVersionExceptionHandler) {
+        private Builder(ApiVersionExceptionHandler apiVersionExceptionHandler,
+                        RoutePolicyRegistry routePolicyRegistry) {
             this.apiVersionExceptionHandler = apiVersionExceptionHandler;
+            this.routePolicyRegistry = routePolicyRegistry;
         }
 
         @Override
@@ -156,7 +154,7 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern, method.name()),
+                    RouteRequestMatcher.antMatcher(method, pattern),
                     true, new ArrayList<>()));
             }
             return this;
@@ -167,7 +165,7 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
             lastIndex = requestMatcherConfigs.size();
             for (String pattern : patterns) {
                 this.requestMatcherConfigs.add(new RequestMatcherConfig(
-                    new AntPathRequestMatcher(pattern), true, new ArrayList<>()));
+                    RouteRequestMatcher.antMatcher(pattern), true, new ArrayList<>()));
             }
             return this;
         }
@@ -235,8 +233,16 @@ public class ApiVersionFilter extends OncePerRequestFilter implements Ordered {
         }
 
         public ApiVersionFilter build() {
+            boolean defaultVersioned = this.defaultVersioned;
+            List<String> defaultSupportedVersions = List.copyOf(this.defaultSupportedVersions);
+            routePolicyRegistry.register(FilterOrder.API_VERSION, policy -> policy
+                    .versioned(defaultVersioned)
+                    .supportedVersions(defaultSupportedVersions),
+                requestMatcherConfigs.stream()
+                    .map(config -> config.toRouteRule(defaultSupportedVersions))
+                    .toList());
             return new ApiVersionFilter(apiVersionExceptionHandler,
-                requestMatcherConfigs, defaultVersioned, order, defaultSupportedVersions);
+                routePolicyRegistry, order);
         }
 
         @Override
@@ -0,0 +1,140 @@
+package io.github.susimsek.springaisamples.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.susimsek.springaisamples.logging.utils.JsonBodyMasker;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the streaming {@link JsonBodyMasker} with the readTree, mask and write approach it replaced.
+ * Run {@link #main} or {@code java -cp <test classpath> org.openjdk.jmh.Main JsonBodyMaskerBenchmark -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBodyMaskerBenchmark {
+
+    private static final String MASK_VALUE = "****";
+    private static final List<String> JSON_PATHS = List.of(
+        "$.password", "$.items[*].card", "$.items[*].meta.token", "$.meta.*.secret");
+
+    @Param({"1024", "102400", "5242880"})
+    private int bodySize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JsonBodyMasker jsonBodyMasker;
+    private String body;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JsonBodyMaskerBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        jsonBodyMasker = JsonBodyMasker.compile(JSON_PATHS, MASK_VALUE, objectMapper.getFactory());
+        body = body(bodySize);
+    }
+
+    @Benchmark
+    public String streaming() {
+        return jsonBodyMasker.mask(body);
+    }
+
+    @Benchmark
+    public String tree() throws JsonProcessingException {
+        JsonNode rootNode = objectMapper.readTree(body);
+        for (String jsonPath : JSON_PATHS) {
+            mask(rootNode, jsonPath.replace("$.", "").split("\\."), 0);
+        }
+        return objectMapper.writeValueAsString(rootNode);
+    }
+
+    static String body(int size) {
+        StringBuilder builder = new StringBuilder(size + 256)
+            .append("{\"user\":\"jdoe\",\"password\":\"secret\",")
+            .append("\"meta\":{\"a\":{\"secret\":1,\"k\":2},\"b\":{\"secret\":3}},\"items\":[");
+        for (int i = 0; builder.length() < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"id\":").append(i)
+                .append(",\"name\":\"city-").append(i)
+                .append("\",\"card\":\"4111111111111111\",\"tags\":[\"a\",\"b\",\"c\"]")
+                .append(",\"meta\":{\"token\":\"t-").append(i).append("\",\"note\":\"plain\"}}");
+        }
+        return builder.append("]}").toString();
+    }
+
+    private static void mask(JsonNode node, String[] pathParts, int index) {
+        if (node == null || index >= pathParts.length) {
+            return;
+        }
+        String part = pathParts[index];
+        boolean last = index + 1 == pathParts.length;
+        if (part.endsWith("[*]")) {
+            JsonNode array = node.get(part.substring(0, part.length() - 3));
+            if (array != null && array.isArray()) {
+                for (JsonNode element : array) {
+                    if (last) {
+                        maskAll(element);
+                    } else {
+                        mask(element, pathParts, index + 1);
+                    }
+                }
+            }
+        } else if ("*".equals(part)) {
+            if (last) {
+                maskAll(node);
+            } else {
+                node.elements().forEachRemaining(child -> mask(child, pathParts, index + 1));
+            }
+        } else if (node.has(part)) {
+            if (last) {
+                ((ObjectNode) node).put(part, MASK_VALUE);
+            } else {
+                mask(node.get(part), pathParts, index + 1);
+            }
+        }
+    }
+
+    private static void maskAll(JsonNode node) {
+        if (node.isObject()) {
+            ObjectNode objectNode = (ObjectNode) node;
+            objectNode.fieldNames().forEachRemaining(fieldName -> objectNode.put(fieldName, MASK_VALUE));
+        } else if (node.isArray()) {
+            ArrayNode arrayNode = (ArrayNode) node;
+            for (int i = 0; i < arrayNode.size(); i++) {
+                if (arrayNode.get(i).isObject()) {
+                    maskAll(arrayNode.get(i));
+                } else {
+                    arrayNode.set(i, JsonNodeFactory.instance.textNode(MASK_VALUE));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.susimsek.springaisamples.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.susimsek.springaisamples.logging.enums.HttpLogType;
+import io.github.susimsek.springaisamples.logging.enums.MethodLogType;
+import io.github.susimsek.springaisamples.logging.enums.Source;
+import io.github.susimsek.springaisamples.logging.formatter.CompactJsonLogFormatter;
+import io.github.susimsek.springaisamples.logging.formatter.JsonLogFormatter;
+import io.github.susimsek.springaisamples.logging.formatter.LogFormatter;
+import io.github.susimsek.springaisamples.logging.model.HttpLog;
+import io.github.susimsek.springaisamples.logging.model.MethodLog;
+import io.github.susimsek.springaisamples.trace.Trace;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Compares {@link CompactJsonLogFormatter} with the tree-based {@link JsonLogFormatter} on HTTP and method log lines.
+ * Run {@link #main} or {@code java -cp <test classpath> org.openjdk.jmh.Main LogFormatterBenchmark -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogFormatterBenchmark {
+
+    @Param({"compact", "json"})
+    private String formatterType;
+
+    @Param({"1024", "102400"})
+    private int bodySize;
+
+    private LogFormatter logFormatter;
+    private HttpLog httpLog;
+    private MethodLog methodLog;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(LogFormatterBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        logFormatter = "compact".equals(formatterType)
+            ? new CompactJsonLogFormatter(objectMapper)
+            : new JsonLogFormatter(objectMapper);
+        Trace trace = Trace.builder()
+            .traceId("6f1c2a9d4b7e8f01")
+            .spanId("4b7e8f01")
+            .requestId("req-1")
+            .correlationId("corr-1")
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
+        headers.add(HttpHeaders.ACCEPT, "application/json");
+        httpLog = HttpLog.builder()
+            .source(Source.SERVER)
+            .type(HttpLogType.RESPONSE)
+            .method(HttpMethod.POST)
+            .uri(URI.create("https://example.com/api/v1/cities"))
+            .statusCode(200)
+            .durationMs(12L)
+            .headers(headers)
+            .body(JsonBodyMaskerBenchmark.body(bodySize))
+            .trace(trace)
+            .build();
+        methodLog = MethodLog.builder()
+            .type(MethodLogType.METHOD_EXIT)
+            .className("CityService")
+            .methodName("getCity")
+            .arguments(new Object[] {1L, "Istanbul"})
+            .result("ok")
+            .durationMs(3L)
+            .trace(trace)
+            .build();
+    }
+
+    @Benchmark
+    public String httpLog() {
+        return logFormatter.format(httpLog);
+    }
+
+    @Benchmark
+    public String methodLog() {
+        return logFormatter.format(methodLog);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.susimsek.springaisamples.buffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.susimsek.springaisamples.exception.buffer.PayloadTooLargeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class BodyBufferPoolTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BodyBufferPool bodyBufferPool;
+
+    @BeforeEach
+    void setUp() {
+        BodyBufferProperties properties = new BodyBufferProperties();
+        properties.setSlabSize(DataSize.ofBytes(64));
+        properties.setMaxPooledSlabs(8);
+        properties.setSpillThreshold(DataSize.ofBytes(256));
+        meterRegistry = new SimpleMeterRegistry();
+        bodyBufferPool = new BodyBufferPool(properties, meterRegistry);
+    }
+
+    @Test
+    void read_ShouldKeepSmallBodiesInMemoryAndReuseSlabs() throws IOException {
+        byte[] content = randomBytes(200);
+
+        try (BodyBuffer first = bodyBufferPool.read(new ByteArrayInputStream(content), 1024)) {
+            assertFalse(first.isSpilled());
+            assertArrayEquals(content, first.toByteArray());
+        }
+        try (BodyBuffer second = bodyBufferPool.read(new ByteArrayInputStream(content), 1024)) {
+            assertArrayEquals(content, second.toByteArray());
+        }
+        assertTrue(meterRegistry.get("body.buffer.pool.acquire").tag("result", "hit").counter().count() > 0);
+    }
+
+    @Test
+    void read_ShouldStreamPooledSlabsWithoutCopyingUntilClosed() throws IOException {
+        byte[] content = randomBytes(200);
+
+        BodyBuffer buffer = bodyBufferPool.read(new ByteArrayInputStream(content), 1024);
+        double available = meterRegistry.get("body.buffer.pool.available").gauge().value();
+        try (InputStream inputStream = buffer.openStream()) {
+            assertEquals(200, inputStream.available());
+            assertArrayEquals(content, inputStream.readAllBytes());
+            assertEquals(0, inputStream.available());
+        }
+        assertArrayEquals(content, buffer.openStream().readAllBytes());
+        buffer.close();
+
+        assertTrue(meterRegistry.get("body.buffer.pool.available").gauge().value() > available);
+    }
+
+    @Test
+    void read_ShouldSpillLargeBodiesToDisk() throws IOException {
+        byte[] content = randomBytes(1000);
+
+        try (BodyBuffer buffer = bodyBufferPool.read(new ByteArrayInputStream(content), 4096);
+             InputStream inputStream = buffer.openStream()) {
+            assertTrue(buffer.isSpilled());
+            assertEquals(1000, buffer.size());
+            assertArrayEquals(content, inputStream.readAllBytes());
+            assertArrayEquals(content, buffer.toByteArray());
+        }
+        assertEquals(1.0, meterRegistry.get("body.buffer.spills").counter().count());
+    }
+
+    @Test
+    void read_ShouldRejectBodiesOverTheLimit() {
+        byte[] content = randomBytes(300);
+
+        assertThrows(PayloadTooLargeException.class,
+            () -> bodyBufferPool.read(new ByteArrayInputStream(content), 100));
+        assertEquals(1.0, meterRegistry.get("body.buffer.rejections").counter().count());
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+}
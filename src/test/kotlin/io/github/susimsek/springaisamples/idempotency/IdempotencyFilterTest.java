@@ -0,0 +1,87 @@
+package io.github.susimsek.springaisamples.idempotency;
+
+import static io.github.susimsek.springaisamples.idempotency.IdempotencyConstants.IDEMPOTENCY_HEADER_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import io.github.susimsek.springaisamples.exception.idempotency.IdempotencyExceptionHandler;
+import io.github.susimsek.springaisamples.policy.RoutePolicy;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.github.susimsek.springaisamples.service.IdempotencyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotencyExceptionHandler idempotencyExceptionHandler;
+
+    @Mock
+    private RoutePolicyRegistry routePolicyRegistry;
+
+    @Test
+    void doFilter_ShouldHandleConcurrentRequestsWithSameKeyOnce() throws Exception {
+        when(routePolicyRegistry.resolve(any(HttpServletRequest.class)))
+            .thenReturn(RoutePolicy.builder().idempotent(true).build());
+        IdempotencyService idempotencyService = new IdempotencyService(new IdempotencyProperties(),
+            new SimpleMeterRegistry());
+        IdempotencyFilter filter = IdempotencyFilter.builder(idempotencyService, idempotencyExceptionHandler,
+                routePolicyRegistry)
+            .anyRequest().idempotent()
+            .build();
+        AtomicInteger handled = new AtomicInteger();
+        FilterChain filterChain = (request, response) -> {
+            int count = handled.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setContentType("text/plain");
+            response.getOutputStream().write(("joke-" + count).getBytes(StandardCharsets.UTF_8));
+        };
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() -> {
+                    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/cities");
+                    request.addHeader(IDEMPOTENCY_HEADER_NAME, "key-1");
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    start.await();
+                    filter.doFilter(request, response, filterChain);
+                    return response;
+                }));
+            }
+            start.countDown();
+
+            for (Future<MockHttpServletResponse> future : futures) {
+                MockHttpServletResponse response = future.get(5, TimeUnit.SECONDS);
+                assertEquals(200, response.getStatus());
+                assertEquals("joke-1", response.getContentAsString());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, handled.get());
+    }
+}
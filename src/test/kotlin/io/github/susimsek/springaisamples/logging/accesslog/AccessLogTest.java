@@ -0,0 +1,124 @@
+package io.github.susimsek.springaisamples.logging.accesslog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AccessLogTest {
+
+    private static final long NOW = Instant.parse("2024-06-01T12:00:00Z").toEpochMilli();
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scan_ShouldReturnEntriesInWindowAcrossRolledFiles() throws IOException {
+        try (AccessLog accessLog = accessLog(4, Duration.ofDays(7))) {
+            for (int i = 0; i < 10; i++) {
+                accessLog.append(entry(NOW - i, "/api/v1/cities/{id}", 200, 1000L * i, 100));
+            }
+
+            List<AccessLogEntry> entries = accessLog.scan(NOW - 5, NOW + 1).toList();
+
+            assertEquals(6, entries.size());
+            assertEquals(3, countFiles());
+            AccessLogEntry entry = entries.stream().filter(e -> e.timestamp() == NOW).findFirst().orElseThrow();
+            assertEquals("/api/v1/cities/{id}", entry.route());
+            assertEquals("GET", entry.method());
+            assertEquals("default", entry.rateLimiter());
+            assertEquals(TRACE_ID, entry.traceId());
+            assertEquals(AccessLogEntry.subjectHash("alice"), entry.subjectHash());
+        }
+    }
+
+    @Test
+    void open_ShouldKeepDictionaryIdsAcrossRestarts() throws IOException {
+        try (AccessLog accessLog = accessLog(16, Duration.ofDays(7))) {
+            accessLog.append(entry(NOW, "/api/v1/ai/chat", 200, 10, 100));
+        }
+        try (AccessLog accessLog = accessLog(16, Duration.ofDays(7))) {
+            accessLog.append(entry(NOW + 1, "/api/v1/cities", 200, 10, 100));
+
+            assertEquals(List.of("/api/v1/ai/chat", "/api/v1/cities"),
+                accessLog.scan(0, Long.MAX_VALUE).map(AccessLogEntry::route).sorted().toList());
+        }
+    }
+
+    @Test
+    void routes_ShouldSummarizeLatencyAndBytesPerRoute() throws IOException {
+        try (AccessLog accessLog = accessLog(1024, Duration.ofDays(7))) {
+            for (int i = 1; i <= 100; i++) {
+                accessLog.append(entry(NOW - i, "/api/v1/ai/chat", i == 100 ? 500 : 200, i * 1000L, 10));
+            }
+            accessLog.append(entry(NOW - 1, "/api/v1/cities", 429, 1000L, 5000));
+            AccessLogEndpoint endpoint = new AccessLogEndpoint(accessLog, Clock.fixed(
+                Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+
+            List<AccessLogEndpoint.RouteSummary> byLatency = endpoint.routes(Duration.ofMinutes(1), null, null);
+            List<AccessLogEndpoint.RouteSummary> byBytes = endpoint.routes(Duration.ofMinutes(1), "bytes", 1);
+
+            AccessLogEndpoint.RouteSummary chat = byLatency.get(0);
+            assertEquals("/api/v1/ai/chat", chat.route());
+            assertEquals(100, chat.count());
+            assertEquals(1, chat.errors());
+            assertEquals(50.0, chat.p50Ms());
+            assertEquals(99.0, chat.p99Ms());
+            assertEquals(100.0, chat.maxMs());
+            assertEquals(1, byBytes.size());
+            assertEquals("/api/v1/cities", byBytes.get(0).route());
+            assertEquals(1, byBytes.get(0).rateLimited());
+        }
+    }
+
+    @Test
+    void append_ShouldDeleteFilesBeyondSizeCap() throws IOException {
+        try (AccessLog accessLog = new AccessLog(directory, 4, Duration.ofDays(7), 2L * 4 * AccessLog.RECORD_SIZE,
+            Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC))) {
+            for (int i = 0; i < 20; i++) {
+                accessLog.append(entry(NOW + i, "/api/v1/cities", 200, 10, 100));
+            }
+
+            assertEquals(2, countFiles());
+            assertEquals(8, accessLog.scan(0, Long.MAX_VALUE).count());
+        }
+    }
+
+    @Test
+    void traceIdHalves_ShouldIgnoreMalformedTraceIds() {
+        long[] halves = AccessLogEntry.traceIdHalves("not-a-trace-id");
+
+        assertEquals(0, halves[0]);
+        assertEquals(0, halves[1]);
+        assertNull(new AccessLogEntry(NOW, "GET", "/", 200, 0, 0, 0, null, 0, 0, 0).traceId());
+    }
+
+    private AccessLog accessLog(int recordsPerFile, Duration retention) throws IOException {
+        return new AccessLog(directory, recordsPerFile, retention, Long.MAX_VALUE,
+            Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".bin")).count();
+        }
+    }
+
+    private static AccessLogEntry entry(long timestamp, String route, int status, long durationMicros,
+                                        long responseBytes) {
+        long[] traceId = AccessLogEntry.traceIdHalves(TRACE_ID);
+        return new AccessLogEntry(timestamp, "GET", route, status, durationMicros, 0, responseBytes, "default",
+            AccessLogEntry.subjectHash("alice"), traceId[0], traceId[1]);
+    }
+}
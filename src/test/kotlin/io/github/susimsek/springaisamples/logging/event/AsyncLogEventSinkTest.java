@@ -0,0 +1,97 @@
+package io.github.susimsek.springaisamples.logging.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.susimsek.springaisamples.logging.config.LoggingProperties;
+import io.github.susimsek.springaisamples.logging.enums.OverflowPolicy;
+import io.github.susimsek.springaisamples.logging.model.MethodLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class AsyncLogEventSinkTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void accept_ShouldWriteEventsOnConsumerThreadWithCallerContext() throws InterruptedException {
+        List<String> written = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        AsyncLogEventSink sink = new AsyncLogEventSink(event -> {
+            written.add(Thread.currentThread().getName() + ":" + MDC.get("requestId"));
+            latch.countDown();
+        }, pipeline(OverflowPolicy.DROP, 16), meterRegistry);
+
+        MDC.put("requestId", "req-1");
+        try {
+            sink.accept(event());
+        } finally {
+            MDC.clear();
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        sink.close();
+        assertEquals(List.of("log-pipeline-0:req-1"), written);
+    }
+
+    @Test
+    void accept_ShouldDropAndCountWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncLogEventSink sink = new AsyncLogEventSink(event -> {
+            blocked.countDown();
+            awaitQuietly(release);
+        }, pipeline(OverflowPolicy.DROP, 4), meterRegistry);
+
+        sink.accept(event());
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            sink.accept(event());
+        }
+
+        assertEquals(4.0, meterRegistry.get("logging.pipeline.queue.depth").gauge().value());
+        assertEquals(6.0, meterRegistry.get("logging.pipeline.events.dropped")
+            .tag("reason", "overflow").counter().count());
+        release.countDown();
+        sink.close();
+        assertEquals(5.0, meterRegistry.get("logging.pipeline.events.written").counter().count());
+    }
+
+    @Test
+    void accept_ShouldWakeConsumerParkedWhileIdle() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AsyncLogEventSink sink = new AsyncLogEventSink(event -> latch.countDown(),
+            pipeline(OverflowPolicy.DROP, 16), meterRegistry);
+        Thread.sleep(100);
+
+        sink.accept(event());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        sink.close();
+    }
+
+    private static LoggingProperties.Pipeline pipeline(OverflowPolicy overflowPolicy, int bufferSize) {
+        LoggingProperties.Pipeline pipeline = new LoggingProperties.Pipeline();
+        pipeline.setOverflowPolicy(overflowPolicy);
+        pipeline.setBufferSize(bufferSize);
+        pipeline.setBatchSize(1);
+        return pipeline;
+    }
+
+    private static LogEvent event() {
+        return LogEvent.method("Method Entry: {}", MethodLog.builder().methodName("test").build());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,7 +3,9 @@ package io.github.susimsek.springaisamples.logging.filter;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -12,6 +14,7 @@ import static org.mockito.Mockito.when;
 
 import io.github.susimsek.springaisamples.logging.enums.Source;
 import io.github.susimsek.springaisamples.logging.handler.LoggingHandler;
+import io.github.susimsek.springaisamples.metrics.ResourceUsage;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -73,22 +76,21 @@ class LoggingFilterTest {
 
         // Assert
         verify(filterChain, times(1)).doFilter(any(ContentCachingRequestWrapper.class),
-            any(ContentCachingResponseWrapper.class));
-        verify(loggingHandler, times(1)).logRequest(
+            any(HttpServletResponse.class));
+        verify(loggingHandler, times(1)).logExchange(
             any(HttpMethod.class),
             any(URI.class),
             any(HttpHeaders.class),
             requestContentCaptor.capture(),
-            any(Source.class)
-        );
-        verify(loggingHandler, times(1)).logResponse(
-            any(HttpMethod.class),
-            any(URI.class),
+            anyBoolean(),
             anyInt(), // default status code for wrappedResponse
             any(HttpHeaders.class),
             responseContentCaptor.capture(),
+            anyBoolean(),
             any(Source.class),
-            any(Long.class)
+            any(Long.class),
+            any(ResourceUsage.class),
+            anyString()
         );
 
         assertArrayEquals(wrappedRequest.getContentAsByteArray(), requestContentCaptor.getValue());
@@ -106,10 +108,9 @@ class LoggingFilterTest {
 
         // Assert
         verify(filterChain, times(1)).doFilter(any(HttpServletRequest.class), any(HttpServletResponse.class));
-        verify(loggingHandler, never()).logRequest(any(HttpMethod.class), any(URI.class), any(HttpHeaders.class),
-            any(byte[].class), any(Source.class));
-        verify(loggingHandler, never()).logResponse(any(HttpMethod.class), any(URI.class), anyInt(), any(HttpHeaders.class),
-            any(byte[].class), any(Source.class), any(Long.class));
+        verify(loggingHandler, never()).logExchange(any(HttpMethod.class), any(URI.class), any(HttpHeaders.class),
+            any(byte[].class), anyBoolean(), anyInt(), any(HttpHeaders.class), any(byte[].class), anyBoolean(),
+            any(Source.class), any(Long.class), any(ResourceUsage.class), anyString());
     }
 
     @Test
@@ -127,7 +128,7 @@ class LoggingFilterTest {
 
         // Assert
         verify(filterChain, times(1)).doFilter(any(ContentCachingRequestWrapper.class),
-            any(ContentCachingResponseWrapper.class));
+            any(HttpServletResponse.class));
     }
 
     @Test
@@ -140,7 +141,7 @@ class LoggingFilterTest {
         ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
 
         doThrow(new ServletException("Test Exception")).when(filterChain)
-            .doFilter(any(ContentCachingRequestWrapper.class), any(ContentCachingResponseWrapper.class));
+            .doFilter(any(ContentCachingRequestWrapper.class), any(HttpServletResponse.class));
 
         // Act & Assert
         try {
@@ -151,11 +152,10 @@ class LoggingFilterTest {
         }
 
         verify(filterChain, times(1)).doFilter(any(ContentCachingRequestWrapper.class),
-            any(ContentCachingResponseWrapper.class));
-        verify(loggingHandler, never()).logRequest(any(HttpMethod.class), any(URI.class), any(HttpHeaders.class),
-            any(byte[].class), any(Source.class));
-        verify(loggingHandler, never()).logResponse(any(HttpMethod.class), any(URI.class), anyInt(), any(HttpHeaders.class),
-            any(byte[].class), any(Source.class), any(Long.class));
+            any(HttpServletResponse.class));
+        verify(loggingHandler, never()).logExchange(any(HttpMethod.class), any(URI.class), any(HttpHeaders.class),
+            any(byte[].class), anyBoolean(), anyInt(), any(HttpHeaders.class), any(byte[].class), anyBoolean(),
+            any(Source.class), any(Long.class), any(ResourceUsage.class), anyString());
     }
 
     @Test
@@ -176,22 +176,21 @@ class LoggingFilterTest {
 
         // Assert
         verify(filterChain, times(1)).doFilter(any(ContentCachingRequestWrapper.class),
-            any(ContentCachingResponseWrapper.class));
-        verify(loggingHandler, times(1)).logRequest(
+            any(HttpServletResponse.class));
+        verify(loggingHandler, times(1)).logExchange(
             any(HttpMethod.class),
             any(URI.class),
             any(HttpHeaders.class),
             requestContentCaptor.capture(),
-            any(Source.class)
-        );
-        verify(loggingHandler, times(1)).logResponse(
-            any(HttpMethod.class),
-            any(URI.class),
+            anyBoolean(),
             anyInt(), // explicitly set status code
             any(HttpHeaders.class),
             responseContentCaptor.capture(),
+            anyBoolean(),
             any(Source.class),
-            any(Long.class)
+            any(Long.class),
+            any(ResourceUsage.class),
+            anyString()
         );
 
         assertArrayEquals(wrappedRequest.getContentAsByteArray(), requestContentCaptor.getValue());
@@ -217,22 +216,21 @@ class LoggingFilterTest {
 
         // Assert
         verify(filterChain, times(1)).doFilter(any(ContentCachingRequestWrapper.class),
-            any(ContentCachingResponseWrapper.class));
-        verify(loggingHandler, times(1)).logRequest(
+            any(HttpServletResponse.class));
+        verify(loggingHandler, times(1)).logExchange(
             any(HttpMethod.class),
             any(URI.class),
             any(HttpHeaders.class),
             requestContentCaptor.capture(),
-            any(Source.class)
-        );
-        verify(loggingHandler, times(1)).logResponse(
-            any(HttpMethod.class),
-            any(URI.class),
+            anyBoolean(),
             anyInt(), // explicitly set status code
             any(HttpHeaders.class),
             responseContentCaptor.capture(),
+            anyBoolean(),
             any(Source.class),
-            any(Long.class)
+            any(Long.class),
+            any(ResourceUsage.class),
+            anyString()
         );
 
         assertArrayEquals(wrappedRequest.getContentAsByteArray(), requestContentCaptor.getValue());
@@ -257,22 +255,21 @@ class LoggingFilterTest {
 
         // Assert
         verify(filterChain, times(1)).doFilter(
-            any(ContentCachingRequestWrapper.class), any(ContentCachingResponseWrapper.class));
-        verify(loggingHandler, times(1)).logRequest(
+            any(ContentCachingRequestWrapper.class), any(HttpServletResponse.class));
+        verify(loggingHandler, times(1)).logExchange(
             any(HttpMethod.class),
             any(URI.class),
             any(HttpHeaders.class),
             requestContentCaptor.capture(),
-            any(Source.class)
-        );
-        verify(loggingHandler, times(1)).logResponse(
-            any(HttpMethod.class),
-            any(URI.class),
+            anyBoolean(),
             anyInt(), // explicitly set status code
             any(HttpHeaders.class),
             responseContentCaptor.capture(),
+            anyBoolean(),
             any(Source.class),
-            any(Long.class)
+            any(Long.class),
+            any(ResourceUsage.class),
+            anyString()
         );
 
         assertArrayEquals(wrappedRequest.getContentAsByteArray(), requestContentCaptor.getValue());
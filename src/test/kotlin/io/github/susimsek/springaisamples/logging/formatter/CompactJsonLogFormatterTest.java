@@ -0,0 +1,80 @@
+package io.github.susimsek.springaisamples.logging.formatter;
+
+import static io.github.susimsek.springaisamples.logging.enums.HttpLogType.RESPONSE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.susimsek.springaisamples.logging.enums.MethodLogType;
+import io.github.susimsek.springaisamples.logging.enums.Source;
+import io.github.susimsek.springaisamples.logging.model.HttpLog;
+import io.github.susimsek.springaisamples.logging.model.MethodLog;
+import io.github.susimsek.springaisamples.trace.Trace;
+import java.net.URI;
+import java.net.URISyntaxException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+class CompactJsonLogFormatterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CompactJsonLogFormatter compactFormatter = new CompactJsonLogFormatter(objectMapper);
+    private final JsonLogFormatter jsonLogFormatter = new JsonLogFormatter(objectMapper);
+    private HttpLog httpLog;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Type", "application/json");
+        httpLog = HttpLog.builder()
+            .source(Source.SERVER)
+            .type(RESPONSE)
+            .method(HttpMethod.POST)
+            .uri(new URI("https://example.com/api/v1/ai/chat"))
+            .statusCode(200)
+            .durationMs(12L)
+            .headers(headers)
+            .body("{\"message\":\"hello\",\"items\":[1,2]}")
+            .trace(Trace.builder().requestId("req-1").build())
+            .build();
+    }
+
+    @Test
+    void format_ShouldWriteSingleLineEquivalentToTreeFormatter() throws JsonProcessingException {
+        String compact = compactFormatter.format(httpLog);
+
+        assertFalse(compact.contains("\n"));
+        assertEquals(objectMapper.readTree(jsonLogFormatter.format(httpLog)), objectMapper.readTree(compact));
+    }
+
+    @Test
+    void format_ShouldWrapInvalidJsonBodyAsText() throws JsonProcessingException {
+        httpLog.setBody("{not json");
+
+        String compact = compactFormatter.format(httpLog);
+
+        assertEquals("{not json", objectMapper.readTree(compact).get("body").get("body").asText());
+        assertEquals(objectMapper.readTree(jsonLogFormatter.format(httpLog)), objectMapper.readTree(compact));
+    }
+
+    @Test
+    void format_ShouldReuseGeneratorAcrossLines() throws JsonProcessingException {
+        MethodLog methodLog = MethodLog.builder()
+            .type(MethodLogType.METHOD_EXIT)
+            .className("CityService")
+            .methodName("getCity")
+            .arguments(new Object[] {1L, "Istanbul"})
+            .result("ok")
+            .durationMs(3L)
+            .build();
+
+        String first = compactFormatter.format(methodLog);
+        String second = compactFormatter.format(methodLog);
+
+        assertEquals(first, second);
+        assertEquals(objectMapper.readTree(jsonLogFormatter.format(methodLog)), objectMapper.readTree(second));
+    }
+}
@@ -2,6 +2,8 @@ package io.github.susimsek.springaisamples.logging.interceptor;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.never;
@@ -11,7 +13,7 @@ import static org.mockito.Mockito.when;
 
 import io.github.susimsek.springaisamples.logging.enums.Source;
 import io.github.susimsek.springaisamples.logging.handler.LoggingHandler;
-import io.github.susimsek.springaisamples.logging.utils.BufferingClientHttpResponseWrapper;
+import io.github.susimsek.springaisamples.logging.utils.TeeClientHttpResponseWrapper;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
@@ -63,17 +65,17 @@ class RestClientLoggingInterceptorTest {
         when(response.getBody()).thenReturn(new ByteArrayInputStream("response body".getBytes()));
         when(response.getHeaders()).thenReturn(new HttpHeaders());
         when(response.getStatusCode()).thenReturn(org.springframework.http.HttpStatus.OK);
+        when(loggingHandler.isResponseBodyLogged(200)).thenReturn(true);
+        when(loggingHandler.getMaxBodySize()).thenReturn(1024);
 
         // Act
-        interceptor.intercept(request, requestBody, execution);
+        interceptor.intercept(request, requestBody, execution).close();
 
         // Assert
-        verify(loggingHandler, times(1)).logRequest(
-            any(HttpMethod.class), any(URI.class), any(HttpHeaders.class), any(byte[].class), any(Source.class)
-        );
-        verify(loggingHandler, times(1)).logResponse(
-            any(HttpMethod.class), any(URI.class), anyInt(),
-            any(HttpHeaders.class), any(byte[].class), any(Source.class), any(Long.class)
+        verify(loggingHandler, times(1)).logExchange(
+            any(HttpMethod.class), any(URI.class), any(HttpHeaders.class), any(byte[].class), anyBoolean(),
+            anyInt(), any(HttpHeaders.class), any(byte[].class), anyBoolean(), any(Source.class), any(Long.class),
+            isNull(), isNull()
         );
     }
 
@@ -88,9 +90,9 @@ class RestClientLoggingInterceptorTest {
         interceptor.intercept(request, requestBody, execution);
 
         // Assert
-        verify(loggingHandler, never()).logRequest(any(HttpMethod.class), any(URI.class), any(HttpHeaders.class), any(byte[].class), any(Source.class));
-        verify(loggingHandler, never()).logResponse(any(HttpMethod.class), any(URI.class),
-            anyInt(), any(HttpHeaders.class), any(byte[].class), any(Source.class), any(Long.class));
+        verify(loggingHandler, never()).logExchange(any(HttpMethod.class), any(URI.class), any(HttpHeaders.class),
+            any(byte[].class), anyBoolean(), anyInt(), any(HttpHeaders.class), any(byte[].class), anyBoolean(),
+            any(Source.class), any(Long.class), any(), any());
     }
 
     @Test
@@ -104,12 +106,9 @@ class RestClientLoggingInterceptorTest {
         // Act & Assert
         IOException exception = assertThrows(IOException.class, () -> interceptor.intercept(request, requestBody, execution));
 
-        verify(loggingHandler, times(1)).logRequest(
-            any(HttpMethod.class), any(URI.class), any(HttpHeaders.class), any(byte[].class), any(Source.class)
-        );
-        verify(loggingHandler, times(1)).logResponse(
-            any(HttpMethod.class), any(URI.class), anyInt(), any(HttpHeaders.class), isNull(),
-            any(Source.class), any(Long.class)
+        verify(loggingHandler, times(1)).logExchange(
+            any(HttpMethod.class), any(URI.class), any(HttpHeaders.class), any(byte[].class), anyBoolean(),
+            eq(0), isNull(), isNull(), eq(false), any(Source.class), any(Long.class), isNull(), isNull()
         );
         assert "Test IOException".equals(exception.getMessage());
     }
@@ -120,14 +119,13 @@ class RestClientLoggingInterceptorTest {
         when(request.getMethod()).thenReturn(HttpMethod.GET);
         when(request.getURI()).thenReturn(new URI("http://localhost/test"));
         when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(response);
-        when(response.getBody()).thenReturn(new ByteArrayInputStream("response body".getBytes()));
-        when(response.getHeaders()).thenReturn(new HttpHeaders());
         when(response.getStatusCode()).thenReturn(org.springframework.http.HttpStatus.OK);
+        when(loggingHandler.isResponseBodyLogged(200)).thenReturn(true);
 
         // Act
         ClientHttpResponse result = interceptor.intercept(request, requestBody, execution);
 
         // Assert
-        assert result instanceof BufferingClientHttpResponseWrapper;
+        assert result instanceof TeeClientHttpResponseWrapper;
     }
 }
\ No newline at end of file
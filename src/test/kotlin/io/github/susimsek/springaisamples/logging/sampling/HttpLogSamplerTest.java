@@ -0,0 +1,70 @@
+package io.github.susimsek.springaisamples.logging.sampling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.susimsek.springaisamples.logging.config.LoggingProperties;
+import io.github.susimsek.springaisamples.logging.enums.HttpLogLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+class HttpLogSamplerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private double queueUtilization;
+    private double cpuLoad;
+
+    @Test
+    void sample_ShouldCapSuccessfulBodiesPerRoute() {
+        HttpLogSampler sampler = sampler();
+
+        assertEquals(HttpLogLevel.FULL, sampler.sample(HttpMethod.GET, "/api/v1/cities", 200, 5));
+        assertEquals(HttpLogLevel.FULL, sampler.sample(HttpMethod.GET, "/api/v1/cities", 200, 5));
+        assertEquals(HttpLogLevel.HEADERS, sampler.sample(HttpMethod.GET, "/api/v1/cities", 200, 5));
+        assertEquals(HttpLogLevel.FULL, sampler.sample(HttpMethod.GET, "/api/v1/ai/chat", 200, 5));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(HttpLogLevel.FULL, sampler.sample(HttpMethod.GET, "/api/v1/cities", 200, 5));
+        assertEquals(4.0, meterRegistry.get("logging.http.sampling.decisions")
+            .tag("decision", "sampled").counter().count());
+        assertEquals(1.0, meterRegistry.get("logging.http.sampling.decisions")
+            .tag("decision", "budget_exceeded").counter().count());
+    }
+
+    @Test
+    void sample_ShouldKeepErrorAndSlowExchangesOutsideTheBudget() {
+        HttpLogSampler sampler = sampler();
+        sampler.sample(HttpMethod.GET, "/api/v1/cities", 200, 5);
+        sampler.sample(HttpMethod.GET, "/api/v1/cities", 200, 5);
+
+        assertEquals(HttpLogLevel.FULL, sampler.sample(HttpMethod.GET, "/api/v1/cities", 500, 5));
+        assertEquals(HttpLogLevel.FULL, sampler.sample(HttpMethod.GET, "/api/v1/cities", 200, 1500));
+        assertEquals(HttpLogLevel.FULL, sampler.sample(HttpMethod.GET, "/api/v1/cities", 0, 5));
+    }
+
+    @Test
+    void sample_ShouldDegradeWhenPipelineOrCpuIsSaturated() {
+        HttpLogSampler sampler = sampler();
+
+        queueUtilization = 0.9;
+        assertEquals(HttpLogLevel.BASIC, sampler.sample(HttpMethod.GET, "/api/v1/cities", 500, 5));
+        queueUtilization = 0.1;
+        cpuLoad = 0.95;
+        assertEquals(HttpLogLevel.BASIC, sampler.sample(HttpMethod.GET, "/api/v1/cities", 200, 5));
+        assertEquals(1.0, meterRegistry.get("logging.http.sampling.decisions")
+            .tag("decision", "cpu_saturated").counter().count());
+    }
+
+    private HttpLogSampler sampler() {
+        LoggingProperties.Http.Sampling sampling = new LoggingProperties.Http.Sampling();
+        sampling.setSlowThreshold(Duration.ofSeconds(1));
+        sampling.setBodiesPerSecond(2);
+        sampling.setBurst(2);
+        sampling.setDegradedLogLevel(HttpLogLevel.BASIC);
+        return new HttpLogSampler(sampling, () -> queueUtilization, () -> cpuLoad, clock::get, meterRegistry);
+    }
+}
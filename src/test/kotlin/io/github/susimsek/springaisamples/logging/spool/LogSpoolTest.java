@@ -0,0 +1,124 @@
+package io.github.susimsek.springaisamples.logging.spool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogSpoolTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_ShouldReturnRecordsUntilCommitted() throws IOException {
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_SIZE, 16 * SEGMENT_SIZE)) {
+            spool.append(1L, "app=a", "first");
+            spool.append(2L, "app=a", "second");
+            spool.append(3L, "app=b", "third");
+
+            LogSpool.SpoolBatch batch = spool.read(2, Integer.MAX_VALUE);
+
+            assertEquals(List.of("first", "second"), lines(batch));
+            assertTrue(batch.full());
+            assertEquals(List.of("first", "second"), lines(spool.read(2, Integer.MAX_VALUE)));
+
+            spool.commit(batch);
+
+            assertEquals(List.of("third"), lines(spool.read(10, Integer.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    void open_ShouldReplayUncommittedRecordsAfterRestart() throws IOException {
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_SIZE, 16 * SEGMENT_SIZE)) {
+            for (int i = 0; i < 40; i++) {
+                spool.append(i, "app=a", "line-" + i);
+            }
+            spool.commit(spool.read(25, Integer.MAX_VALUE));
+        }
+
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_SIZE, 16 * SEGMENT_SIZE)) {
+            spool.append(40, "app=a", "line-40");
+
+            List<String> lines = lines(spool.read(100, Integer.MAX_VALUE));
+
+            assertEquals(16, lines.size());
+            assertEquals("line-25", lines.get(0));
+            assertEquals("line-40", lines.get(15));
+        }
+    }
+
+    @Test
+    void commit_ShouldDeleteShippedSegments() throws IOException {
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_SIZE, 16 * SEGMENT_SIZE)) {
+            for (int i = 0; i < 100; i++) {
+                spool.append(i, "app=a", "line-" + i);
+            }
+            assertTrue(spool.getSegmentCount() > 1);
+
+            spool.commit(spool.read(100, Integer.MAX_VALUE));
+
+            assertEquals(1, spool.getSegmentCount());
+            assertFalse(spool.hasPending());
+        }
+    }
+
+    @Test
+    void append_ShouldDropOldestSegmentsBeyondSizeCap() throws IOException {
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_SIZE, 2 * SEGMENT_SIZE)) {
+            for (int i = 0; i < 200; i++) {
+                spool.append(i, "app=a", "line-" + i);
+            }
+
+            List<String> lines = lines(spool.read(200, Integer.MAX_VALUE));
+
+            assertEquals(2, spool.getSegmentCount());
+            assertTrue(spool.getDroppedSegments() > 0);
+            assertEquals("line-199", lines.get(lines.size() - 1));
+            assertTrue(lines.size() < 200);
+        }
+    }
+
+    @Test
+    void append_ShouldCompactShippedPrefixBeforeDroppingSegments() throws IOException {
+        int appended = 0;
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_SIZE, 3 * SEGMENT_SIZE + SEGMENT_SIZE / 2)) {
+            for (; appended < 72; appended++) {
+                spool.append(appended, "app=a", "line-" + appended);
+            }
+            spool.commit(spool.read(20, Integer.MAX_VALUE));
+            LogSpool.SpoolBatch inFlight = spool.read(5, Integer.MAX_VALUE);
+            while (spool.getCompactions() == 0) {
+                spool.append(appended, "app=a", "line-" + appended);
+                appended++;
+            }
+
+            spool.commit(inFlight);
+            List<String> lines = lines(spool.read(1000, Integer.MAX_VALUE));
+
+            assertEquals(0, spool.getDroppedSegments());
+            assertTrue(spool.getSize() < 4 * SEGMENT_SIZE);
+            assertEquals("line-25", lines.get(0));
+            assertEquals(appended - 25, lines.size());
+        }
+
+        try (LogSpool spool = LogSpool.open(directory, SEGMENT_SIZE, 3 * SEGMENT_SIZE + SEGMENT_SIZE / 2)) {
+            List<String> lines = lines(spool.read(1000, Integer.MAX_VALUE));
+
+            assertEquals("line-25", lines.get(0));
+            assertEquals("line-" + (appended - 1), lines.get(lines.size() - 1));
+        }
+    }
+
+    private static List<String> lines(LogSpool.SpoolBatch batch) {
+        return batch.records().stream().map(LogSpool.SpoolRecord::line).toList();
+    }
+}
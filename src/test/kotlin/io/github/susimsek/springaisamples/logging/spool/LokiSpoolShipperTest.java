@@ -0,0 +1,96 @@
+package io.github.susimsek.springaisamples.logging.spool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.github.susimsek.springaisamples.logging.config.LoggingProperties;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LokiSpoolShipperTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> pushes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(204);
+    private HttpServer loki;
+    private LogSpool spool;
+    private LokiSpoolShipper shipper;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        loki = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        loki.createContext("/loki/api/v1/push", exchange -> {
+            pushes.add(objectMapper.readTree(exchange.getRequestBody()));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        loki.start();
+
+        LoggingProperties.Loki properties = new LoggingProperties.Loki();
+        properties.setUrl("http://localhost:" + loki.getAddress().getPort() + "/loki/api/v1/push");
+        spool = LogSpool.open(directory, 64 * 1024, 1024 * 1024);
+        shipper = new LokiSpoolShipper(spool, properties, HttpClient.newHttpClient());
+    }
+
+    @AfterEach
+    void tearDown() {
+        spool.close();
+        loki.stop(0);
+    }
+
+    @Test
+    void ship_ShouldPushStreamsGroupedByLabels() throws InterruptedException {
+        spool.append(1_000L, "app=demo,level=INFO", "started");
+        spool.append(2_000L, "app=demo,level=WARN", "slow");
+        spool.append(3_000L, "app=demo,level=INFO", "ready");
+
+        assertTrue(shipper.ship(spool.read(10, Integer.MAX_VALUE)));
+
+        JsonNode streams = pushes.get(0).get("streams");
+        assertEquals(2, streams.size());
+        assertEquals("INFO", streams.get(0).get("stream").get("level").asText());
+        assertEquals("1000", streams.get(0).get("values").get(0).get(0).asText());
+        assertEquals("ready", streams.get(0).get("values").get(1).get(1).asText());
+        assertEquals("slow", streams.get(1).get("values").get(0).get(1).asText());
+    }
+
+    @Test
+    void drain_ShouldKeepRecordsSpooledWhileLokiFails() throws InterruptedException {
+        spool.append(1_000L, "app=demo", "kept");
+        status.set(503);
+
+        shipper.drain(System.nanoTime() + 1_000_000_000L);
+
+        assertTrue(spool.hasPending());
+
+        status.set(204);
+        shipper.drain(System.nanoTime() + 1_000_000_000L);
+
+        assertFalse(spool.hasPending());
+        assertEquals(2, pushes.size());
+    }
+
+    @Test
+    void ship_ShouldDropBatchesLokiRejects() throws InterruptedException {
+        spool.append(1_000L, "app=demo", "invalid");
+        status.set(400);
+
+        assertTrue(shipper.ship(spool.read(10, Integer.MAX_VALUE)));
+    }
+}
@@ -2,18 +2,17 @@ package io.github.susimsek.springaisamples.logging.strategy;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.Mockito.doThrow;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.when;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.susimsek.springaisamples.logging.config.LoggingProperties;
-import java.lang.reflect.Method;
+import io.github.susimsek.springaisamples.logging.utils.JsonBodyMasker;
+import io.github.susimsek.springaisamples.logging.utils.ObjectMasker;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -36,9 +35,6 @@ class DefaultObfuscationStrategyTest {
     @Mock
     private LoggingProperties.Obfuscate obfuscate;
 
-    @Mock
-    private ObjectMapper objectMapper;
-
     @InjectMocks
     private DefaultObfuscationStrategy defaultObfuscationStrategy;
 
@@ -60,39 +56,41 @@ class DefaultObfuscationStrategyTest {
     }
 
     @Test
-    void testMaskBody() throws Exception {
-        when(loggingProperties.getHttp()).thenReturn(http);
+    void testMaskHeadersIgnoresCase() {
         when(loggingProperties.getObfuscate()).thenReturn(obfuscate);
         when(obfuscate.getMaskValue()).thenReturn("*****");
-        when(obfuscate.getJsonBodyFields()).thenReturn(List.of("$.password", "$.nested.field"));
+        when(obfuscate.getHeaders()).thenReturn(List.of("AUTHORIZATION"));
 
-        String body = "{\"username\":\"user\",\"password\":\"secret\",\"nested\":{\"field\":\"value\"}}";
-        ObjectNode rootNode = new ObjectMapper().createObjectNode();
-        rootNode.put("username", "user");
-        rootNode.put("password", "secret");
-        ObjectNode nestedNode = new ObjectMapper().createObjectNode();
-        nestedNode.put("field", "value");
-        rootNode.set("nested", nestedNode);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("authorization", "Bearer secret");
+
+        headers.add("Content-Type", "application/json");
+
+        HttpHeaders maskedHeaders = defaultObfuscationStrategy.maskHeaders(headers);
+
+        assertEquals(List.of("*****"), maskedHeaders.get("Authorization"));
+        assertEquals("application/json", maskedHeaders.getFirst("Content-Type"));
+        assertEquals("Bearer secret", headers.getFirst("Authorization"));
+    }
 
-        when(objectMapper.readTree(body)).thenReturn(rootNode);
-        when(objectMapper.writeValueAsString(rootNode)).thenReturn("{\"username\":\"user\",\"password\":\"*****\",\"nested\":{\"field\":\"*****\"}}");
+    @Test
+    void testMaskBody() {
+        DefaultObfuscationStrategy strategy = bodyMaskingStrategy(List.of("$.password", "$.nested.field"));
+
+        String body = "{\"username\":\"user\",\"password\":\"secret\",\"nested\":{\"field\":\"value\"}}";
 
         // Call the method under test
-        String maskedBody = defaultObfuscationStrategy.maskBody(body);
+        String maskedBody = strategy.maskBody(body);
 
         // Verify the results
-        assertEquals("*****", rootNode.get("password").asText());
-        assertEquals("*****", rootNode.get("nested").get("field").asText());
         assertEquals("{\"username\":\"user\",\"password\":\"*****\",\"nested\":{\"field\":\"*****\"}}", maskedBody);
     }
 
     @Test
-    void testMaskBodyWithInvalidJson() throws Exception {
+    void testMaskBodyWithInvalidJson() {
         String invalidBody = "{invalid json}";
 
-        doThrow(new JsonProcessingException("Invalid JSON") {}).when(objectMapper).readTree(invalidBody);
-
-        String maskedBody = defaultObfuscationStrategy.maskBody(invalidBody);
+        String maskedBody = bodyMaskingStrategy(List.of("$.password")).maskBody(invalidBody);
 
         assertEquals(invalidBody, maskedBody);
     }
@@ -135,51 +133,47 @@ class DefaultObfuscationStrategyTest {
     }
 
     @Test
-    void testMaskJsonPaths() throws Exception {
-        when(loggingProperties.getHttp()).thenReturn(http);
-        when(loggingProperties.getObfuscate()).thenReturn(obfuscate);
-        when(obfuscate.getMaskValue()).thenReturn("*****");
-
-        String json = "{\"username\":\"user\",\"password\":\"secret\",\"nested\":{\"field\":\"value\"}}";
-        ObjectNode rootNode = (ObjectNode) new ObjectMapper().readTree(json);
+    void testMaskArguments() throws Exception {
+        DefaultObfuscationStrategy strategy = methodMaskingStrategy(List.of("$.nested.field"));
 
-        Method maskJsonPaths = DefaultObfuscationStrategy.class.getDeclaredMethod("maskJsonPaths", JsonNode.class, List.class);
-        maskJsonPaths.setAccessible(true);
-        maskJsonPaths.invoke(defaultObfuscationStrategy, rootNode, List.of("$.nested.field"));
+        Object[] maskedArguments = strategy.maskArguments(new Object[] {
+            Map.of("username", "user", "nested", Map.of("field", "value")), 1L});
 
-        assertEquals("*****", rootNode.get("nested").get("field").asText());
+        JsonNode maskedNode = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(maskedArguments));
+        assertEquals("*****", maskedNode.get(0).get("nested").get("field").asText());
+        assertEquals("user", maskedNode.get(0).get("username").asText());
+        assertEquals(1L, maskedArguments[1]);
     }
 
     @Test
-    void testMaskJsonPathsWithInvalidPath() throws Exception {
-        String json = "{\"username\":\"user\",\"password\":\"secret\"}";
-        ObjectNode rootNode = (ObjectNode) new ObjectMapper().readTree(json);
+    void testMaskArgumentsWithInvalidPath() throws Exception {
+        DefaultObfuscationStrategy strategy = methodMaskingStrategy(List.of("$.nested.field"));
+        Map<String, String> argument = Map.of("username", "user", "password", "secret");
 
-        Method maskJsonPaths = DefaultObfuscationStrategy.class.getDeclaredMethod("maskJsonPaths", JsonNode.class, List.class);
-        maskJsonPaths.setAccessible(true);
-        maskJsonPaths.invoke(defaultObfuscationStrategy, rootNode, List.of("$.nested.field"));
+        Object[] maskedArguments = strategy.maskArguments(new Object[] {argument});
 
-        assertFalse(rootNode.has("nested"));
+        JsonNode maskedNode = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(maskedArguments));
+        assertEquals("secret", maskedNode.get(0).get("password").asText());
+        assertFalse(maskedNode.get(0).has("nested"));
     }
 
     @Test
-    void testShouldMask() throws Exception {
-        Method shouldMask = DefaultObfuscationStrategy.class.getDeclaredMethod("shouldMask", List.class, String.class);
-        shouldMask.setAccessible(true);
+    void testMaskUriParametersIgnoresCase() {
+        when(loggingProperties.getObfuscate()).thenReturn(obfuscate);
+        when(obfuscate.getMaskValue()).thenReturn("*****");
+        when(obfuscate.getParameters()).thenReturn(List.of("TOKEN"));
 
-        boolean result1 = (boolean) shouldMask.invoke(defaultObfuscationStrategy, List.of("password"), "password");
-        boolean result2 = (boolean) shouldMask.invoke(defaultObfuscationStrategy, List.of("password"), "username");
+        URI maskedUri = defaultObfuscationStrategy.maskUriParameters(
+            URI.create("http://example.com?token=secret&name=user"));
 
-        assertTrue(result1);
-        assertFalse(result2);
+        assertEquals("token=*****&name=user", maskedUri.getQuery());
     }
 
     @Test
-    void testMaskBodyWithJsonProcessingException() throws Exception {
-        String body = "{\"username\":\"user\",\"password\":\"secret\",\"nested\":{\"field\":\"value\"}}";
-        doThrow(new JsonProcessingException("Invalid JSON") {}).when(objectMapper).readTree(body);
+    void testMaskBodyWithTruncatedJson() {
+        String body = "{\"username\":\"user\",\"password\":\"secret\",\"nested\":{\"field\":";
 
-        String maskedBody = defaultObfuscationStrategy.maskBody(body);
+        String maskedBody = bodyMaskingStrategy(List.of("$.password")).maskBody(body);
         assertEquals(body, maskedBody);
     }
 
@@ -196,41 +190,25 @@ class DefaultObfuscationStrategyTest {
     }
 
     @Test
-    void testMaskJsonPathsWithEmptyPaths() throws Exception {
-        String json = "{\"username\":\"user\",\"password\":\"secret\",\"nested\":{\"field\":\"value\"}}";
-        ObjectNode rootNode = (ObjectNode) new ObjectMapper().readTree(json);
-
-        Method maskJsonPaths = DefaultObfuscationStrategy.class.getDeclaredMethod("maskJsonPaths", JsonNode.class, List.class);
-        maskJsonPaths.setAccessible(true);
-        maskJsonPaths.invoke(defaultObfuscationStrategy, rootNode, List.of());
+    void testMaskResultWithEmptyPaths() {
+        Map<String, String> result = Map.of("password", "secret");
 
-        assertEquals("secret", rootNode.get("password").asText());
-        assertEquals("value", rootNode.get("nested").get("field").asText());
+        assertSame(result, methodMaskingStrategy(List.of()).maskResult(result));
     }
 
-    @Test
-    void testMaskJsonNodeRecursiveWithNullNode() throws Exception {
-        Method maskJsonNodeRecursive = DefaultObfuscationStrategy.class.getDeclaredMethod("maskJsonNodeRecursive", JsonNode.class, String[].class, int.class);
-        maskJsonNodeRecursive.setAccessible(true);
-
-        maskJsonNodeRecursive.invoke(defaultObfuscationStrategy, null, new String[]{"password"}, 0);
-
-        // Assertion to ensure no exception was thrown and nothing was masked
-        assertTrue(true); // If it reaches here, it means the method handled the null node correctly
+    private DefaultObfuscationStrategy bodyMaskingStrategy(List<String> jsonBodyFields) {
+        ObjectMapper realObjectMapper = new ObjectMapper();
+        return new DefaultObfuscationStrategy(loggingProperties,
+            JsonBodyMasker.compile(jsonBodyFields, "*****", realObjectMapper.getFactory()),
+            new ObjectMasker(JsonBodyMasker.compile(List.of(), "*****", realObjectMapper.getFactory()),
+                realObjectMapper));
     }
 
-    @Test
-    void testMaskJsonNodeRecursiveWithIndexOutOfBounds() throws Exception {
-        String json = "{\"username\":\"user\",\"password\":\"secret\"}";
-        ObjectNode rootNode = (ObjectNode) new ObjectMapper().readTree(json);
-
-        Method maskJsonNodeRecursive = DefaultObfuscationStrategy.class.getDeclaredMethod("maskJsonNodeRecursive", JsonNode.class, String[].class, int.class);
-        maskJsonNodeRecursive.setAccessible(true);
-
-        maskJsonNodeRecursive.invoke(defaultObfuscationStrategy, rootNode, new String[]{"password"}, 10);
-
-        // Assertion to ensure no exception was thrown and nothing was masked
-        assertEquals("secret", rootNode.get("password").asText()); // If the password is still "secret", it means the method handled the index out of bounds correctly
+    private DefaultObfuscationStrategy methodMaskingStrategy(List<String> methodFields) {
+        ObjectMapper realObjectMapper = new ObjectMapper();
+        return new DefaultObfuscationStrategy(loggingProperties,
+            JsonBodyMasker.compile(List.of(), "*****", realObjectMapper.getFactory()),
+            new ObjectMasker(JsonBodyMasker.compile(methodFields, "*****", realObjectMapper.getFactory()),
+                realObjectMapper));
     }
-
 }
\ No newline at end of file
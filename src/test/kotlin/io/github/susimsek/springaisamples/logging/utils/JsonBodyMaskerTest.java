@@ -0,0 +1,66 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class JsonBodyMaskerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void mask_ShouldMaskExactAndEscapedPaths() {
+        JsonBodyMasker masker = compile("$.password", "$.nested.field", "$.a\\.b");
+
+        String masked = masker.mask("{\"password\":\"s\",\"nested\":{\"field\":{\"x\":1},\"keep\":2},\"a.b\":3}");
+
+        assertEquals("{\"password\":\"****\",\"nested\":{\"field\":\"****\",\"keep\":2},\"a.b\":\"****\"}", masked);
+    }
+
+    @Test
+    void mask_ShouldApplyWildcardAndArraySegments() {
+        JsonBodyMasker masker = compile("$.items[*].card", "$.meta.*.secret", "$.tags[*]");
+
+        String masked = masker.mask("{\"items\":[{\"card\":\"1\",\"name\":\"a\"},{\"name\":\"b\"}],"
+            + "\"meta\":{\"x\":{\"secret\":1,\"k\":2},\"y\":{\"secret\":3}},\"tags\":[{\"t\":1},[1,{\"u\":2}],\"s\"]}");
+
+        assertEquals("{\"items\":[{\"card\":\"****\",\"name\":\"a\"},{\"name\":\"b\"}],"
+            + "\"meta\":{\"x\":{\"secret\":\"****\",\"k\":2},\"y\":{\"secret\":\"****\"}},"
+            + "\"tags\":[{\"t\":\"****\"},[\"****\",{\"u\":\"****\"}],\"s\"]}", masked);
+    }
+
+    @Test
+    void maskPrefix_ShouldMaskTruncatedBodyUpToTheCut() {
+        JsonBodyMasker masker = compile("$.password", "$.card.number");
+
+        String masked = masker.maskPrefix("{\"user\":\"u\",\"password\":\"secret\",\"card\":{\"number\":\"41");
+
+        assertEquals("{\"user\":\"u\",\"password\":\"****\",\"card\":{\"number\":\"****\"", masked);
+        assertEquals("plain text", masker.maskPrefix("plain text"));
+    }
+
+    @Test
+    void mask_ShouldMaskEveryFieldForTrailingWildcard() {
+        String masked = compile("$.*").mask("{\"a\":1,\"b\":{\"c\":2},\"d\":[1]}");
+
+        assertEquals("{\"a\":\"****\",\"b\":\"****\",\"d\":\"****\"}", masked);
+    }
+
+    @Test
+    void mask_ShouldReturnBodyWhenNotJsonOrNothingConfigured() {
+        String invalid = "{invalid json}";
+        String untouched = "{ \"password\" : \"s\" }";
+
+        assertSame(invalid, compile("$.password").mask(invalid));
+        assertSame(untouched, compile().mask(untouched));
+        assertTrue(compile().isEmpty());
+    }
+
+    private JsonBodyMasker compile(String... paths) {
+        return JsonBodyMasker.compile(List.of(paths), "****", objectMapper.getFactory());
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ObjectMaskerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMasker objectMasker = new ObjectMasker(JsonBodyMasker.compile(
+        List.of("$.password", "$.owner.token", "$.cards[*].number"), "*****", objectMapper.getFactory()),
+        objectMapper);
+
+    @Test
+    void mask_ShouldReturnLiveObjectWhenTypeHasNoSensitiveFields() {
+        City city = new City("Istanbul", 15_000_000L);
+
+        assertSame(city, objectMasker.mask(city));
+        assertSame("password", objectMasker.mask("password"));
+    }
+
+    @Test
+    void mask_ShouldMaskConfiguredPathsWhenSerialized() throws JsonProcessingException {
+        Account account = new Account("user", "secret", new Owner("Ada", "token-1"),
+            List.of(new Card("4111", "VISA")));
+
+        Object masked = objectMasker.mask(account);
+
+        assertInstanceOf(MaskedValue.class, masked);
+        JsonNode node = objectMapper.readTree(objectMapper.writeValueAsString(masked));
+        assertEquals("user", node.get("username").asText());
+        assertEquals("*****", node.get("password").asText());
+        assertEquals("Ada", node.get("owner").get("name").asText());
+        assertEquals("*****", node.get("owner").get("token").asText());
+        assertEquals("*****", node.get("cards").get(0).get("number").asText());
+        assertEquals("VISA", node.get("cards").get(0).get("brand").asText());
+        assertEquals("secret", account.password());
+    }
+
+    @Test
+    void snapshot_ShouldKeepMaskedValuesAsTheyWereWhenTaken() throws JsonProcessingException {
+        List<Card> cards = new ArrayList<>(List.of(new Card("4111", "VISA")));
+        Account account = new Account("user", "secret", new Owner("Ada", "token-1"), cards);
+
+        Object snapshot = objectMasker.snapshot(account);
+        cards.add(new Card("5500", "MASTERCARD"));
+
+        assertInstanceOf(JsonSnapshot.class, snapshot);
+        JsonNode node = objectMapper.readTree(objectMapper.writeValueAsString(snapshot));
+        assertEquals("*****", node.get("password").asText());
+        assertEquals(1, node.get("cards").size());
+        assertEquals("*****", node.get("cards").get(0).get("number").asText());
+        assertSame("password", objectMasker.snapshot("password"));
+    }
+
+    record City(String name, long population) {
+    }
+
+    record Owner(String name, String token) {
+    }
+
+    record Card(String number, String brand) {
+    }
+
+    record Account(String username, String password, Owner owner, List<Card> cards) {
+    }
+}
@@ -1,6 +1,9 @@
 package io.github.susimsek.springaisamples.logging.utils;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -9,16 +12,18 @@ import static org.mockito.Mockito.when;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpResponse;
 
-class BufferingClientHttpResponseWrapperTest {
+class TeeClientHttpResponseWrapperTest {
 
     private ClientHttpResponse response;
-    private BufferingClientHttpResponseWrapper bufferingClientHttpResponseWrapper;
+    private final AtomicReference<BoundedBodyCapture> closedCapture = new AtomicReference<>();
+    private TeeClientHttpResponseWrapper teeClientHttpResponseWrapper;
 
     @BeforeEach
     void setUp() throws IOException {
@@ -31,37 +36,59 @@ class BufferingClientHttpResponseWrapperTest {
         headers.add("Content-Type", "application/json");
         when(response.getHeaders()).thenReturn(headers);
 
-        bufferingClientHttpResponseWrapper = new BufferingClientHttpResponseWrapper(response);
+        teeClientHttpResponseWrapper = new TeeClientHttpResponseWrapper(response, 8, closedCapture::set);
     }
 
     @Test
     void testGetStatusCode() throws IOException {
-        HttpStatus statusCode = bufferingClientHttpResponseWrapper.getStatusCode();
+        HttpStatus statusCode = teeClientHttpResponseWrapper.getStatusCode();
         assertEquals(HttpStatus.OK, statusCode);
     }
 
     @Test
     void testGetStatusText() throws IOException {
-        String statusText = bufferingClientHttpResponseWrapper.getStatusText();
+        String statusText = teeClientHttpResponseWrapper.getStatusText();
         assertEquals("OK", statusText);
     }
 
     @Test
     void testGetBody() throws IOException {
-        InputStream bodyStream = bufferingClientHttpResponseWrapper.getBody();
+        InputStream bodyStream = teeClientHttpResponseWrapper.getBody();
         byte[] body = bodyStream.readAllBytes();
         assertEquals("response body", new String(body));
     }
 
     @Test
     void testGetHeaders() {
-        HttpHeaders headers = bufferingClientHttpResponseWrapper.getHeaders();
+        HttpHeaders headers = teeClientHttpResponseWrapper.getHeaders();
         assertEquals("application/json", headers.getFirst("Content-Type"));
     }
 
     @Test
     void testClose() {
-        bufferingClientHttpResponseWrapper.close();
+        teeClientHttpResponseWrapper.close();
         verify(response, times(1)).close();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testClose_ShouldHandOverOnlyTheCapturedPrefix() throws IOException {
+        teeClientHttpResponseWrapper.getBody().readAllBytes();
+
+        teeClientHttpResponseWrapper.close();
+        teeClientHttpResponseWrapper.close();
+
+        assertArrayEquals("response".getBytes(), closedCapture.get().toByteArray());
+        assertTrue(closedCapture.get().isTruncated());
+        verify(response, times(1)).close();
+    }
+
+    @Test
+    void testClose_ShouldCaptureUnreadBodyUpToLimit() {
+        TeeClientHttpResponseWrapper wrapper = new TeeClientHttpResponseWrapper(response, 64, closedCapture::set);
+
+        wrapper.close();
+
+        assertEquals("response body", new String(closedCapture.get().toByteArray()));
+        assertFalse(closedCapture.get().isTruncated());
+    }
+}
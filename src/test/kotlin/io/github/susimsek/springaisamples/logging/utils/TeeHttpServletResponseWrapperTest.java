@@ -0,0 +1,69 @@
+package io.github.susimsek.springaisamples.logging.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class TeeHttpServletResponseWrapperTest {
+
+    @Test
+    void write_ShouldStreamWholeBodyAndCaptureOnlyThePrefix() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        TeeHttpServletResponseWrapper wrapper = new TeeHttpServletResponseWrapper(response, 5, status -> true);
+
+        wrapper.getWriter().write("hello world");
+        wrapper.flushWriter();
+
+        assertEquals("hello world", response.getContentAsString());
+        assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), wrapper.getCapturedBody());
+        assertTrue(wrapper.isBodyTruncated());
+    }
+
+    @Test
+    void write_ShouldSkipCaptureWhenStatusDoesNotNeedBody() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        TeeHttpServletResponseWrapper wrapper = new TeeHttpServletResponseWrapper(response, 64,
+            status -> status >= 400);
+
+        wrapper.setStatus(200);
+        wrapper.getOutputStream().write("ok".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(0, wrapper.getCapturedBody().length);
+        assertFalse(wrapper.isBodyTruncated());
+    }
+
+    @Test
+    void getBytesRead_ShouldCountChunkedRequestBodyWithoutCapturingIt() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest() {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContent("{\"message\":\"hello\"}".getBytes(StandardCharsets.UTF_8));
+        TeeHttpServletRequestWrapper wrapper = new TeeHttpServletRequestWrapper(request, 0);
+
+        wrapper.getInputStream().readAllBytes();
+
+        assertEquals(19, wrapper.getBytesRead());
+        assertEquals(0, wrapper.getCapturedBody().length);
+    }
+
+    @Test
+    void getCapturedBody_ShouldReadUnconsumedRequestBodyUpToLimit() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("{\"message\":\"hello\"}".getBytes(StandardCharsets.UTF_8));
+        TeeHttpServletRequestWrapper wrapper = new TeeHttpServletRequestWrapper(request, 10);
+
+        assertEquals("{\"message\"", new String(wrapper.getCapturedBody(), StandardCharsets.UTF_8));
+        assertTrue(wrapper.isBodyTruncated());
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FilterStageMetricsTest {
+
+    @Test
+    void record_ShouldReuseMetersPerStageAndRoute() throws IOException, ServletException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FilterStageMetrics filterStageMetrics = new FilterStageMetrics(meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            filterStageMetrics.record(recorder(), "/api/v1/cities");
+        }
+        filterStageMetrics.record(recorder(), "/api/v1/locales");
+
+        assertEquals(3, meterRegistry.get(FilterStageMetrics.TIMER_NAME)
+            .tag(FilterStageMetrics.STAGE_TAG, "logging")
+            .tag(FilterStageMetrics.ROUTE_TAG, "/api/v1/cities")
+            .timer().count());
+        assertEquals(1, meterRegistry.get(FilterStageMetrics.TIMER_NAME)
+            .tag(FilterStageMetrics.STAGE_TAG, "logging")
+            .tag(FilterStageMetrics.ROUTE_TAG, "/api/v1/locales")
+            .timer().count());
+        assertEquals(3, meterRegistry.get(FilterStageMetrics.TIMER_NAME)
+            .tag(FilterStageMetrics.STAGE_TAG, FilterStageMetrics.DOWNSTREAM_STAGE)
+            .tag(FilterStageMetrics.ROUTE_TAG, "/api/v1/cities")
+            .timer().count());
+    }
+
+    private static FilterStageRecorder recorder() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        FilterStageRecorder recorder = new FilterStageRecorder();
+        request.setAttribute(FilterStageRecorder.ATTRIBUTE_NAME, recorder);
+        FilterStageRecorder.proceed(FilterOrder.LOGGING, (innerRequest, innerResponse) -> {
+        }, request, new MockHttpServletResponse());
+        recorder.finish();
+        return recorder;
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FilterStageRecorderTest {
+
+    @Test
+    void proceed_ShouldChargeNestedStagesAndDownstreamSeparately() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterStageRecorder recorder = new FilterStageRecorder();
+        request.setAttribute(FilterStageRecorder.ATTRIBUTE_NAME, recorder);
+
+        FilterStageRecorder.proceed(FilterOrder.LOGGING, (outerRequest, outerResponse) ->
+            FilterStageRecorder.proceed(FilterOrder.XSS, (innerRequest, innerResponse) ->
+                sleep(20), outerRequest, outerResponse), request, response);
+        recorder.finish();
+
+        assertTrue(recorder.participated(FilterOrder.LOGGING.ordinal()));
+        assertTrue(recorder.participated(FilterOrder.XSS.ordinal()));
+        assertFalse(recorder.participated(FilterOrder.TRACE.ordinal()));
+        assertTrue(recorder.participated(FilterStageRecorder.DOWNSTREAM));
+        assertTrue(recorder.nanos(FilterStageRecorder.DOWNSTREAM) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(recorder.nanos(FilterOrder.XSS.ordinal()) < TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void enter_ShouldChargeFiltersBetweenStagesToTheEnteredStage() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterStageRecorder recorder = new FilterStageRecorder();
+        request.setAttribute(FilterStageRecorder.ATTRIBUTE_NAME, recorder);
+        FilterStageEntryFilter jwtEntryFilter = new FilterStageEntryFilter(FilterOrder.JWT);
+
+        FilterStageRecorder.proceed(FilterOrder.SIGNATURE_VERIFICATION, (outerRequest, outerResponse) ->
+            jwtEntryFilter.doFilter(outerRequest, outerResponse, (jwtRequest, jwtResponse) -> {
+                sleep(20);
+                FilterStageRecorder.enter(FilterOrder.XSS, jwtRequest);
+                FilterStageRecorder.proceed(FilterOrder.XSS, (innerRequest, innerResponse) -> {
+                }, jwtRequest, jwtResponse);
+            }), request, response);
+        recorder.finish();
+
+        assertTrue(recorder.nanos(FilterOrder.JWT.ordinal()) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(recorder.nanos(FilterOrder.XSS.ordinal()) < TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void enter_ShouldChargeRejectedRequestsToTheEnteredStage() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterStageRecorder recorder = new FilterStageRecorder();
+        request.setAttribute(FilterStageRecorder.ATTRIBUTE_NAME, recorder);
+        FilterStageEntryFilter jwtEntryFilter = new FilterStageEntryFilter(FilterOrder.JWT);
+
+        FilterStageRecorder.proceed(FilterOrder.SIGNATURE_VERIFICATION, (outerRequest, outerResponse) ->
+            jwtEntryFilter.doFilter(outerRequest, outerResponse, (jwtRequest, jwtResponse) -> sleep(20)),
+            request, response);
+        recorder.finish();
+
+        assertTrue(recorder.nanos(FilterOrder.JWT.ordinal()) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(recorder.nanos(FilterStageRecorder.DOWNSTREAM) < TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void breakdown_ShouldExposeRecordedStagesPerRoute() throws IOException, ServletException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FilterStageMetrics filterStageMetrics = new FilterStageMetrics(meterRegistry);
+        FilterStageRecorder recorder = new FilterStageRecorder();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(FilterStageRecorder.ATTRIBUTE_NAME, recorder);
+
+        FilterStageRecorder.proceed(FilterOrder.TRACE, (req, res) -> sleep(5), request, new MockHttpServletResponse());
+        recorder.finish();
+        filterStageMetrics.record(recorder, "/api/v{version}/cities");
+
+        List<FilterStageEndpoint.StageBreakdown> breakdown =
+            new FilterStageEndpoint(meterRegistry).breakdown("/api/v{version}/cities");
+
+        assertEquals(2, breakdown.size());
+        assertEquals(FilterStageMetrics.DOWNSTREAM_STAGE, breakdown.get(0).stage());
+        assertEquals("trace", breakdown.get(1).stage());
+        assertEquals(1, breakdown.get(1).count());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
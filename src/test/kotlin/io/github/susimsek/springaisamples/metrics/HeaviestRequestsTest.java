@@ -0,0 +1,71 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HeaviestRequestsTest {
+
+    @Test
+    void offer_ShouldKeepOnlyTopRequestsPerDimension() {
+        HeaviestRequests heaviestRequests = new HeaviestRequests(2);
+
+        heaviestRequests.offer(request("/a", 100, 30));
+        heaviestRequests.offer(request("/b", 300, 10));
+        heaviestRequests.offer(request("/c", 200, 20));
+        heaviestRequests.offer(request("/d", 50, 40));
+
+        assertEquals(List.of("/b", "/c"),
+            heaviestRequests.byAllocation().stream().map(HeaviestRequests.HeavyRequest::path).toList());
+        assertEquals(List.of("/d", "/a"),
+            heaviestRequests.byCpu().stream().map(HeaviestRequests.HeavyRequest::path).toList());
+    }
+
+    @Test
+    void recordRequest_ShouldExportSummariesPerRoute() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HeaviestRequests heaviestRequests = new HeaviestRequests(5);
+        ResourceUsageMetrics metrics = new ResourceUsageMetrics(meterRegistry, heaviestRequests);
+
+        ThreadResourceMeter meter = ThreadResourceMeter.start();
+        byte[][] garbage = new byte[64][];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[1024];
+        }
+        ResourceUsage usage = meter.stop();
+        metrics.recordRequest("POST", "/api/v1/ai/chat", 200, "/api/v1/ai/chat", usage);
+
+        assertTrue(usage.allocatedBytes() >= garbage.length * 1024L);
+        assertNotNull(meterRegistry.find(ResourceUsageMetrics.REQUEST_ALLOCATION_NAME)
+            .tag("uri", "/api/v1/ai/chat").summary());
+        assertEquals(1, meterRegistry.find(ResourceUsageMetrics.REQUEST_CPU_NAME)
+            .tag("method", "POST").timer().count());
+        assertEquals(1, heaviestRequests.byAllocation().size());
+    }
+
+    @Test
+    void recordMethod_ShouldReuseMetersPerMethod() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResourceUsageMetrics metrics = new ResourceUsageMetrics(meterRegistry, new HeaviestRequests(5));
+
+        metrics.recordMethod("CityService", "getCities", new ResourceUsage(1_000, 512));
+        metrics.recordMethod("CityService", "getCities", new ResourceUsage(2_000, 256));
+        metrics.recordMethod("CityService", "getCity", new ResourceUsage(3_000, 128));
+
+        assertEquals(2, meterRegistry.find(ResourceUsageMetrics.METHOD_CPU_NAME)
+            .tag("method", "getCities").timer().count());
+        assertEquals(768, meterRegistry.find(ResourceUsageMetrics.METHOD_ALLOCATION_NAME)
+            .tag("method", "getCities").summary().totalAmount());
+        assertEquals(1, meterRegistry.find(ResourceUsageMetrics.METHOD_CPU_NAME)
+            .tag("method", "getCity").timer().count());
+    }
+
+    private HeaviestRequests.HeavyRequest request(String path, long allocatedBytes, long cpuTimeMs) {
+        return new HeaviestRequests.HeavyRequest("GET", path, path, 200, allocatedBytes, cpuTimeMs, Instant.now());
+    }
+}
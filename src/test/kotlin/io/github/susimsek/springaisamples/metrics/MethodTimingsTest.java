@@ -0,0 +1,58 @@
+package io.github.susimsek.springaisamples.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import io.github.susimsek.springaisamples.trace.TraceConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class MethodTimingsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MethodTimings methodTimings = new MethodTimings(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void record_ShouldRegisterOneTimerPerMethod() throws NoSuchMethodException {
+        Method method = String.class.getMethod("trim");
+
+        methodTimings.record(method, TimeUnit.MILLISECONDS.toNanos(2));
+        methodTimings.record(method, TimeUnit.MILLISECONDS.toNanos(4));
+
+        assertNotNull(meterRegistry.find(MethodTimings.TIMER_NAME)
+            .tag(MethodTimings.CLASS_TAG, "java.lang.String")
+            .tag(MethodTimings.METHOD_TAG, "trim")
+            .timer());
+        assertEquals(2, meterRegistry.find(MethodTimings.TIMER_NAME).timer().count());
+    }
+
+    @Test
+    void slowest_ShouldOrderByTailLatencyAndKeepSlowestTraceId() throws NoSuchMethodException {
+        Method fast = String.class.getMethod("trim");
+        Method slow = String.class.getMethod("strip");
+
+        methodTimings.record(fast, TimeUnit.MILLISECONDS.toNanos(1));
+        MDC.put(TraceConstants.TRACE_ID, "trace-slow");
+        methodTimings.record(slow, TimeUnit.MILLISECONDS.toNanos(50));
+        MDC.put(TraceConstants.TRACE_ID, "trace-fast");
+        methodTimings.record(slow, TimeUnit.MILLISECONDS.toNanos(5));
+
+        List<MethodTimings.MethodTiming> slowest = methodTimings.slowest(1);
+
+        assertEquals(1, slowest.size());
+        assertEquals("strip", slowest.get(0).methodName());
+        assertEquals(2, slowest.get(0).count());
+        assertEquals(50.0, slowest.get(0).slowestMs());
+        assertEquals("trace-slow", slowest.get(0).slowestTraceId());
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.susimsek.springaisamples.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import io.github.susimsek.springaisamples.policy.annotation.Encrypted;
+import io.github.susimsek.springaisamples.policy.annotation.RateLimited;
+import io.github.susimsek.springaisamples.policy.annotation.Sanitized;
+import io.github.susimsek.springaisamples.policy.annotation.SignResponse;
+import io.github.susimsek.springaisamples.policy.annotation.SupportedVersions;
+import io.github.susimsek.springaisamples.versioning.ApiVersion;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+class HandlerPolicyRegistryTest {
+
+    private RoutePolicyRegistry routePolicyRegistry;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+        ReportController reportController = new ReportController();
+        mapping.registerMapping(RequestMappingInfo.paths("/api/v1/reports/{id}").methods(RequestMethod.GET).build(),
+            reportController, ReportController.class.getMethod("getReport"));
+        mapping.registerMapping(RequestMappingInfo.paths("/api/v1/reports").methods(RequestMethod.POST).build(),
+            reportController, ReportController.class.getMethod("createReport"));
+        mapping.registerMapping(RequestMappingInfo.paths("/api/v1/reports/summary").methods(RequestMethod.GET)
+            .build(), new SummaryController(), SummaryController.class.getMethod("getSummary"));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+            Map.of("requestMappingHandlerMapping", mapping));
+
+        routePolicyRegistry = new RoutePolicyRegistry(
+            new HandlerPolicyRegistry(beanFactory.getBeanProvider(RequestMappingHandlerMapping.class)));
+        routePolicyRegistry.register(FilterOrder.XSS, policy -> policy.sanitized(true), List.of());
+        routePolicyRegistry.register(FilterOrder.RATE_LIMIT, policy -> policy
+            .rateLimited(true)
+            .rateLimiterName("default"), List.of(new RouteRule(RouteRequestMatcher.antMatcher("/api/v1/reports/**"),
+                policy -> policy.rateLimited(false))));
+    }
+
+    @Test
+    void resolve_ShouldOverrideRouteRulesWithHandlerAnnotations() {
+        RoutePolicy policy = routePolicyRegistry.resolve(new MockHttpServletRequest("GET", "/api/v1/reports/7"));
+
+        assertTrue(policy.isRateLimited());
+        assertEquals("reportRateLimiter", policy.getRateLimiterName());
+        assertFalse(policy.isSanitized());
+        assertTrue(policy.isSigned());
+    }
+
+    @Test
+    void resolve_ShouldApplyPolicyOfMappingForRequestMethod() {
+        RoutePolicy policy = routePolicyRegistry.resolve(new MockHttpServletRequest("POST", "/api/v1/reports"));
+
+        assertTrue(policy.isSanitized());
+        assertTrue(policy.isDecrypted());
+        assertTrue(policy.isEncrypted());
+        assertTrue(policy.isVersioned());
+        assertEquals(List.of("v2"), policy.getSupportedVersions());
+        assertFalse(policy.isSigned());
+
+        RoutePolicy unmapped = routePolicyRegistry.resolve(new MockHttpServletRequest("DELETE", "/api/v1/reports"));
+        assertFalse(unmapped.isEncrypted());
+        assertFalse(unmapped.isRateLimited());
+    }
+
+    @Test
+    void resolve_ShouldUseMostSpecificMapping() {
+        RoutePolicy policy = routePolicyRegistry.resolve(
+            new MockHttpServletRequest("GET", "/api/v1/reports/summary"));
+
+        assertFalse(policy.isRateLimited());
+        assertTrue(policy.isSanitized());
+        assertFalse(policy.isSigned());
+    }
+
+    @RateLimited("reportRateLimiter")
+    static class ReportController {
+
+        @Sanitized(false)
+        @SignResponse
+        public void getReport() {
+        }
+
+        @RateLimited("default")
+        @Encrypted
+        @SupportedVersions(ApiVersion.V2)
+        public void createReport() {
+        }
+    }
+
+    static class SummaryController {
+
+        public void getSummary() {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.susimsek.springaisamples.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PathPatternTrieTest {
+
+    private PathPatternTrie<String> trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new PathPatternTrie<>();
+        trie.add("/webjars/**", "webjars");
+        trie.add("/*.js", "js");
+        trie.add("/actuator/**", "actuator");
+        trie.add("/api/v{version}/cities/{id}", "city");
+        trie.add("/api/v{version}/cities/paged", "paged");
+        trie.add("/.well-known/jwks.json", "jwks");
+        trie.add("/items/{id:\\d+}", "item");
+    }
+
+    @Test
+    void match_shouldMatchLiteralSegments() {
+        assertEquals(List.of("jwks"), match("/.well-known/jwks.json"));
+    }
+
+    @Test
+    void match_shouldMatchWildcardWithinSegment() {
+        assertEquals(List.of("js"), match("/app.js"));
+        assertTrue(match("/app.css").isEmpty());
+    }
+
+    @Test
+    void match_shouldMatchDoubleWildcardAcrossSegments() {
+        assertEquals(List.of("actuator"), match("/actuator"));
+        assertEquals(List.of("actuator"), match("/actuator/health/liveness"));
+    }
+
+    @Test
+    void match_shouldMatchUriVariables() {
+        assertEquals(List.of("city"), match("/api/v1/cities/42"));
+        assertEquals(List.of("paged", "city"), match("/api/v1/cities/paged"));
+    }
+
+    @Test
+    void match_shouldHonorUriVariableRegex() {
+        assertEquals(List.of("item"), match("/items/12"));
+        assertTrue(match("/items/abc").isEmpty());
+    }
+
+    @Test
+    void match_shouldNotMatchUnknownPath() {
+        assertTrue(match("/unknown/path").isEmpty());
+    }
+
+    private List<String> match(String path) {
+        List<String> matches = new ArrayList<>();
+        trie.match(path, matches::add);
+        return matches;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.susimsek.springaisamples.policy;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class RoutePolicyIndexTest {
+
+    @Test
+    void resolve_ShouldLetFirstRegisteredRuleWinOverLaterPatterns() {
+        RoutePolicyIndex index = index(
+            logged("/api/v1/cities", false),
+            logged("/api/v1/*", true),
+            logged("/**", true));
+
+        assertFalse(resolve(index, "GET", "/api/v1/cities").isLogged());
+        assertTrue(resolve(index, "GET", "/api/v1/locales").isLogged());
+        assertTrue(resolve(index, "GET", "/actuator/health").isLogged());
+    }
+
+    @Test
+    void resolve_ShouldLetFirstRegisteredCatchAllWinOverLaterLiteral() {
+        RoutePolicyIndex index = index(
+            logged("/**", false),
+            logged("/api/v1/*", true),
+            logged("/api/v1/cities", true));
+
+        assertFalse(resolve(index, "GET", "/api/v1/cities").isLogged());
+        assertFalse(resolve(index, "GET", "/api/v1/locales").isLogged());
+    }
+
+    @Test
+    void resolve_ShouldLetFirstRegisteredPatternWinOverLaterLiteral() {
+        RoutePolicyIndex index = index(
+            logged("/api/v1/{resource}", false),
+            logged("/api/v1/cities", true));
+
+        assertFalse(resolve(index, "GET", "/api/v1/cities").isLogged());
+        assertTrue(resolve(index, "GET", "/actuator/health").isLogged());
+    }
+
+    @Test
+    void resolve_ShouldSkipRulesForOtherMethods() {
+        RoutePolicyIndex index = index(
+            new RouteRule(RouteRequestMatcher.antMatcher(HttpMethod.POST, "/api/v1/cities"),
+                policy -> policy.logged(false)),
+            logged("/**", true));
+
+        assertFalse(resolve(index, "POST", "/api/v1/cities").isLogged());
+        assertTrue(resolve(index, "GET", "/api/v1/cities").isLogged());
+        assertFalse(index.resolve(HttpMethod.POST, "/api/v1/cities").isLogged());
+        assertTrue(index.resolve(HttpMethod.GET, "/api/v1/cities").isLogged());
+    }
+
+    private static RoutePolicyIndex index(RouteRule... rules) {
+        return new RoutePolicyIndex(Map.of(FilterOrder.LOGGING, new RoutePolicyRegistry.StageRegistration(
+            policy -> policy.logged(true), List.of(rules))), List.of());
+    }
+
+    private static RouteRule logged(String pattern, boolean logged) {
+        return new RouteRule(RouteRequestMatcher.antMatcher(pattern), policy -> policy.logged(logged));
+    }
+
+    private static RoutePolicy resolve(RoutePolicyIndex index, String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return index.resolve(request);
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.susimsek.springaisamples.policy.HandlerPolicyRegistry;
+import io.github.susimsek.springaisamples.policy.RoutePolicyRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tryAcquire_ShouldShedBeyondLimitAndExportGauges() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+        AdaptiveConcurrencyLimiter.Group group = limiter.resolve(request("/api/v1/ai/chat/generate"));
+        assertNotNull(group);
+
+        assertTrue(group.tryAcquire());
+        assertTrue(group.tryAcquire());
+        assertFalse(group.tryAcquire());
+        clock.addAndGet(1000);
+
+        assertEquals(2.0, gauge("concurrency.limit"));
+        assertEquals(2.0, gauge("concurrency.in.flight"));
+        assertEquals(1.0, gauge("concurrency.shed.rate"));
+
+        limiter.exit(group);
+        assertTrue(group.tryAcquire());
+    }
+
+    @Test
+    void record_ShouldShrinkLimitWhenUpstreamSlowsDown() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        AdaptiveConcurrencyLimiter.Group group = limiter.resolve(request("/api/v1/ai/chat/generate"));
+        group.tryAcquire();
+        limiter.enter(group);
+        for (int i = 0; i < 50; i++) {
+            limiter.record(TimeUnit.MILLISECONDS.toNanos(100), false);
+        }
+        assertEquals(20, group.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            limiter.record(TimeUnit.SECONDS.toNanos(2), false);
+        }
+        limiter.exit(group);
+
+        assertTrue(group.getLimit() < 20, "limit " + group.getLimit());
+        assertTrue(group.getLimit() >= 2);
+    }
+
+    @Test
+    void record_ShouldBackOffOnFailureOnlyInsideLimitedRequests() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        AdaptiveConcurrencyLimiter.Group group = limiter.resolve(request("/api/v1/ai/chat/generate"));
+
+        limiter.record(TimeUnit.MILLISECONDS.toNanos(100), true);
+        assertEquals(20, group.getLimit());
+
+        group.tryAcquire();
+        limiter.enter(group);
+        limiter.record(TimeUnit.MILLISECONDS.toNanos(100), true);
+        limiter.exit(group);
+
+        assertEquals(18, group.getLimit());
+        assertEquals(0, group.getInFlight());
+    }
+
+    @Test
+    void resolve_ShouldIgnoreRoutesOutsideGroups() {
+        assertNull(limiter(20).resolve(request("/api/v1/cities")));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        RateLimitProperties.Adaptive properties = new RateLimitProperties.Adaptive();
+        properties.setGroups(Map.of("ai", List.of("/api/v*/ai/**")));
+        properties.setInitialLimit(initialLimit);
+        RoutePolicyRegistry routePolicyRegistry = new RoutePolicyRegistry(new HandlerPolicyRegistry(
+            new DefaultListableBeanFactory().getBeanProvider(RequestMappingHandlerMapping.class)));
+        return new AdaptiveConcurrencyLimiter(properties, meterRegistry, routePolicyRegistry, clock::get);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("group", "ai").gauge().value();
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClient;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+import org.springframework.web.client.ResourceAccessException;
+
+class ClusterRateLimitSyncTest {
+
+    private static final String SERVICE_ID = "spring-ai-samples";
+    private static final String SECRET = "cluster-secret";
+    private static final String RATE_LIMITER_NAME = "default";
+    private static final String KEY = "subject:alice";
+    private static final List<String> REPLICAS = List.of("replica-1", "replica-2", "replica-3");
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final Map<String, KeyedRateLimiter> limiters = new HashMap<>();
+    private final Map<String, ClusterRateLimitSync> syncs = new HashMap<>();
+    private final Set<String> unreachable = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        SimpleDiscoveryProperties discoveryProperties = new SimpleDiscoveryProperties();
+        List<DefaultServiceInstance> instances = new ArrayList<>();
+        for (String replica : REPLICAS) {
+            instances.add(new DefaultServiceInstance(replica, SERVICE_ID, replica, 8080, false));
+        }
+        discoveryProperties.setInstances(Map.of(SERVICE_ID, instances));
+        SimpleDiscoveryClient discoveryClient = new SimpleDiscoveryClient(discoveryProperties);
+        RateLimitPeerTransport transport = (peer, message) -> {
+            if (unreachable.contains(peer.getHost())) {
+                throw new ResourceAccessException("Connection refused");
+            }
+            syncs.get(peer.getHost()).accept(message);
+        };
+        RateLimitProperties.Cluster cluster = new RateLimitProperties.Cluster();
+        cluster.setServiceId(SERVICE_ID);
+        cluster.setSecret(SECRET);
+        RateLimiterRegistry registry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(10)
+            .limitRefreshPeriod(Duration.ofSeconds(1))
+            .build());
+        for (String replica : REPLICAS) {
+            KeyedRateLimiter limiter = new KeyedRateLimiter(registry, new RateLimitProperties.Keyed(), clock::get);
+            limiters.put(replica, limiter);
+            syncs.put(replica, new ClusterRateLimitSync(limiter, discoveryClient, transport, cluster, null));
+        }
+    }
+
+    @Test
+    void sync_ShouldShareOneBudgetPerKeyAcrossReplicas() {
+        assertEquals(6, acquire("replica-1", 6));
+        syncs.get("replica-1").sync();
+
+        assertEquals(4, acquire("replica-2", 10));
+        syncs.get("replica-2").sync();
+
+        assertEquals(0, acquire("replica-3", 10));
+        assertEquals(0, acquire("replica-1", 10));
+    }
+
+    @Test
+    void sync_ShouldFallBackToLocalLimitsWhenPeerIsUnreachable() {
+        unreachable.add("replica-2");
+
+        assertEquals(10, acquire("replica-1", 10));
+        syncs.get("replica-1").sync();
+
+        assertEquals(10, acquire("replica-2", 10));
+        assertEquals(0, acquire("replica-3", 10));
+    }
+
+    @Test
+    void sync_ShouldSendEachGrantOnlyOnce() {
+        acquire("replica-1", 3);
+        syncs.get("replica-1").sync();
+        syncs.get("replica-1").sync();
+
+        assertEquals(7, acquire("replica-2", 10));
+    }
+
+    @Test
+    void accept_ShouldRejectMessagesWithoutTheSharedSecret() {
+        boolean accepted = syncs.get("replica-1").accept(new RateLimitSyncMessage("intruder", "guess",
+            Map.of(RATE_LIMITER_NAME + "\n" + KEY, 10L)));
+
+        assertFalse(accepted);
+        assertTrue(limiters.get("replica-1").tryAcquire(RATE_LIMITER_NAME, KEY).allowed());
+    }
+
+    private int acquire(String replica, int attempts) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            allowed += limiters.get(replica).tryAcquire(RATE_LIMITER_NAME, KEY).allowed() ? 1 : 0;
+        }
+        return allowed;
+    }
+}
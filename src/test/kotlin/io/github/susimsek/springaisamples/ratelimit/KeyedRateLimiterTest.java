@@ -0,0 +1,188 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class KeyedRateLimiterTest {
+
+    private static final String RATE_LIMITER_NAME = "default";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void tryAcquire_ShouldLimitEachKeyIndependently() {
+        KeyedRateLimiter limiter = limiter(5, Duration.ofSeconds(1), new RateLimitProperties.Keyed());
+
+        for (int i = 4; i >= 0; i--) {
+            KeyedRateLimiter.Decision decision = limiter.tryAcquire(RATE_LIMITER_NAME, "subject:alice");
+            assertTrue(decision.allowed());
+            assertEquals(5, decision.limit());
+            assertEquals(i, decision.remaining());
+        }
+        KeyedRateLimiter.Decision denied = limiter.tryAcquire(RATE_LIMITER_NAME, "subject:alice");
+
+        assertFalse(denied.allowed());
+        assertEquals(0, denied.remaining());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), denied.nanosUntilNextPermit());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), denied.nanosUntilReset());
+        assertTrue(limiter.tryAcquire(RATE_LIMITER_NAME, "subject:bob").allowed());
+        assertTrue(limiter.tryAcquire("jwksRateLimiter", "subject:alice").allowed());
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOneTokenPerInterval() {
+        KeyedRateLimiter limiter = limiter(5, Duration.ofSeconds(1), new RateLimitProperties.Keyed());
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(RATE_LIMITER_NAME, "ip:10.0.0.1");
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertTrue(limiter.tryAcquire(RATE_LIMITER_NAME, "ip:10.0.0.1").allowed());
+        assertFalse(limiter.tryAcquire(RATE_LIMITER_NAME, "ip:10.0.0.1").allowed());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(4, limiter.tryAcquire(RATE_LIMITER_NAME, "ip:10.0.0.1").remaining());
+    }
+
+    @Test
+    void release_ShouldReturnPermitAndWithdrawGrant() {
+        KeyedRateLimiter limiter = limiter(5, Duration.ofSeconds(1), new RateLimitProperties.Keyed());
+        limiter.trackGrants();
+        limiter.tryAcquire(RATE_LIMITER_NAME, "subject:alice");
+        limiter.tryAcquire(RATE_LIMITER_NAME, "subject:alice");
+
+        limiter.release(RATE_LIMITER_NAME, "subject:alice");
+
+        assertEquals(4, limiter.peek(RATE_LIMITER_NAME, "subject:alice").remaining());
+        assertEquals(List.of(new KeyedRateLimiter.Grant(RATE_LIMITER_NAME, "subject:alice", 1)),
+            limiter.drainGrants());
+    }
+
+    @Test
+    void peek_ShouldReportBucketWithoutTakingPermits() {
+        KeyedRateLimiter limiter = limiter(5, Duration.ofSeconds(1), new RateLimitProperties.Keyed());
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(RATE_LIMITER_NAME, "subject:alice");
+        }
+
+        KeyedRateLimiter.Decision decision = limiter.peek(RATE_LIMITER_NAME, "subject:alice");
+
+        assertFalse(decision.allowed());
+        assertEquals(0, decision.remaining());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(600),
+            limiter.nanosUntilPermits(RATE_LIMITER_NAME, "subject:alice", 3));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(3, limiter.peek(RATE_LIMITER_NAME, "subject:alice").remaining());
+    }
+
+    @Test
+    void tryAcquire_ShouldUseConfiguredOverrideForKey() {
+        RateLimitProperties.Limit premium = new RateLimitProperties.Limit();
+        premium.setLimitForPeriod(100);
+        premium.setLimitRefreshPeriod(Duration.ofSeconds(1));
+        RateLimitProperties.Keyed properties = new RateLimitProperties.Keyed();
+        properties.setOverrides(Map.of("api-key:premium", premium));
+        KeyedRateLimiter limiter = limiter(1, Duration.ofSeconds(1), properties);
+
+        assertEquals(100, limiter.tryAcquire(RATE_LIMITER_NAME, "api-key:premium").limit());
+        assertEquals(1, limiter.tryAcquire(RATE_LIMITER_NAME, "api-key:basic").limit());
+    }
+
+    @Test
+    void tryAcquire_ShouldUseConfiguredLimitForKeysWithoutOverride() {
+        RateLimitProperties.Limit perKey = new RateLimitProperties.Limit();
+        perKey.setLimitForPeriod(3);
+        RateLimitProperties.Keyed properties = new RateLimitProperties.Keyed();
+        properties.setLimit(perKey);
+        KeyedRateLimiter limiter = limiter(50, Duration.ofSeconds(1), properties);
+
+        assertEquals(3, limiter.tryAcquire(RATE_LIMITER_NAME, "subject:alice").limit());
+    }
+
+    @Test
+    void tryAcquire_ShouldGrantExactlyTheLimitToOneContendedKey() throws Exception {
+        int limit = 10_000;
+        KeyedRateLimiter limiter = limiter(limit, Duration.ofHours(1), new RateLimitProperties.Keyed());
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    int allowed = 0;
+                    for (int i = 0; i < limit; i++) {
+                        allowed += limiter.tryAcquire(RATE_LIMITER_NAME, "subject:noisy").allowed() ? 1 : 0;
+                    }
+                    return allowed;
+                }));
+            }
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get(1, TimeUnit.MINUTES);
+            }
+
+            assertEquals(limit, allowed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void tryAcquire_ShouldStayBoundedWithMillionsOfDistinctKeys() throws Exception {
+        RateLimitProperties.Keyed properties = new RateLimitProperties.Keyed();
+        properties.setMaximumKeys(10_000L);
+        KeyedRateLimiter limiter = limiter(1, Duration.ofSeconds(1), properties);
+        int threads = 8;
+        int keysPerThread = 250_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    int allowed = 0;
+                    for (int i = 0; i < keysPerThread; i++) {
+                        String key = "ip:" + thread + "." + i;
+                        allowed += limiter.tryAcquire(RATE_LIMITER_NAME, key).allowed() ? 1 : 0;
+                    }
+                    return allowed;
+                }));
+            }
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get(2, TimeUnit.MINUTES);
+            }
+            limiter.cleanUp();
+
+            assertEquals(threads * keysPerThread, allowed);
+            assertTrue(limiter.estimatedSize() <= 10_000, "size " + limiter.estimatedSize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private KeyedRateLimiter limiter(int limitForPeriod, Duration refreshPeriod,
+                                     RateLimitProperties.Keyed properties) {
+        RateLimiterRegistry registry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(limitForPeriod)
+            .limitRefreshPeriod(refreshPeriod)
+            .build());
+        return new KeyedRateLimiter(registry, properties, clock::get);
+    }
+}
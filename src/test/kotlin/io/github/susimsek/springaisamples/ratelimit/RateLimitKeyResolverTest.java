@@ -0,0 +1,50 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class RateLimitKeyResolverTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void apiKey_ShouldIgnoreKeyThatAuthenticationDidNotAccept() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-API-Key", "rotated-1");
+
+        assertNull(RateLimitKeyResolver.apiKey("X-API-Key").resolve(request));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            "alice", "password", AuthorityUtils.createAuthorityList("ROLE_USER")));
+        assertNull(RateLimitKeyResolver.apiKey("X-API-Key").resolve(request));
+    }
+
+    @Test
+    void apiKey_ShouldKeyOnAcceptedKey() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-API-Key", "key-1");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            "key-1", null, AuthorityUtils.createAuthorityList("ROLE_CLIENT")));
+
+        assertEquals("api-key:key-1", RateLimitKeyResolver.apiKey("X-API-Key").resolve(request));
+    }
+
+    @Test
+    void of_ShouldFallBackToClientIpByDefault() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-API-Key", "key-1");
+
+        assertEquals("ip:10.0.0.1", RateLimitKeyResolver.of(new RateLimitProperties.Keyed()).resolve(request));
+    }
+}
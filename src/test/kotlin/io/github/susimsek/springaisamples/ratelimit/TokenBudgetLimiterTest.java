@@ -0,0 +1,82 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenBudgetLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private TokenBudgetLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.TokenBudget properties = new RateLimitProperties.TokenBudget();
+        properties.setTokensPerWindow(1000L);
+        properties.setWindow(Duration.ofMinutes(1));
+        properties.setCompletionReserve(100L);
+        properties.setOverrides(Map.of("subject:bob", 50L));
+        limiter = new TokenBudgetLimiter(properties, clock::get);
+    }
+
+    @Test
+    void estimateCall_ShouldCountCharactersPerTokenPlusCompletionReserve() {
+        assertEquals(3, limiter.estimateTokens("0123456789"));
+        assertEquals(0, limiter.estimateTokens(null));
+        assertEquals(103, limiter.estimateCall("0123456789"));
+    }
+
+    @Test
+    void settle_ShouldReplaceReservationWithReportedUsage() {
+        TokenBudgetLimiter.Reservation reservation = limiter.reserve("subject:alice", 300);
+        assertTrue(reservation.decision().allowed());
+        assertEquals(700, reservation.decision().remaining());
+
+        TokenBudgetLimiter.Decision decision = limiter.settle(reservation, 850);
+
+        assertEquals(150, decision.remaining());
+        assertFalse(limiter.reserve("subject:alice", 200).decision().allowed());
+        assertTrue(limiter.reserve("subject:alice", 150).decision().allowed());
+    }
+
+    @Test
+    void reserve_ShouldHoldBudgetForConcurrentCallsUntilSettled() {
+        TokenBudgetLimiter.Reservation first = limiter.reserve("subject:alice", 600);
+        TokenBudgetLimiter.Reservation second = limiter.reserve("subject:alice", 600);
+
+        assertTrue(first.decision().allowed());
+        assertFalse(second.decision().allowed());
+        assertEquals(0, second.tokens());
+
+        limiter.settle(first, 0);
+        assertTrue(limiter.reserve("subject:alice", 600).decision().allowed());
+    }
+
+    @Test
+    void reserve_ShouldRestoreBudgetWhenWindowEnds() {
+        limiter.settle(limiter.reserve("subject:alice", 1000), 1000);
+        TokenBudgetLimiter.Reservation rejected = limiter.reserve("subject:alice", 1);
+        assertFalse(rejected.decision().allowed());
+        assertEquals(TimeUnit.MINUTES.toNanos(1), rejected.decision().nanosUntilReset());
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        TokenBudgetLimiter.Reservation reservation = limiter.reserve("subject:alice", 1);
+        assertTrue(reservation.decision().allowed());
+        assertEquals(999, reservation.decision().remaining());
+    }
+
+    @Test
+    void reserve_ShouldApplyOverridesAndKeepSubjectsApart() {
+        assertFalse(limiter.reserve("subject:bob", 51).decision().allowed());
+        assertEquals(50, limiter.reserve("subject:bob", 50).decision().limit());
+        assertTrue(limiter.reserve("subject:alice", 1000).decision().allowed());
+    }
+}
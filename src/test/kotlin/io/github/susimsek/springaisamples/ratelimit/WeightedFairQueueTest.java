@@ -0,0 +1,194 @@
+package io.github.susimsek.springaisamples.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class WeightedFairQueueTest {
+
+    private static final long PERMIT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void await_ShouldRejectAtOnceWhenDeadlineCannotBeMet() {
+        WeightedFairQueue queue = queue(Duration.ofSeconds(5));
+        TestPermits permits = new TestPermits(new AtomicInteger(), TimeUnit.SECONDS.toNanos(1));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Request-Timeout", "200");
+
+        long start = System.nanoTime();
+        boolean granted = queue.await(request, "subject:alice", permits);
+
+        assertFalse(granted);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(1, waitTimer("rejected").count());
+        assertFalse(queue.hasWaiters(permits));
+    }
+
+    @Test
+    void await_ShouldAdmitOnceAPermitFreesUp() throws Exception {
+        WeightedFairQueue queue = queue(Duration.ofSeconds(5));
+        AtomicInteger available = new AtomicInteger();
+        TestPermits permits = new TestPermits(available, PERMIT_INTERVAL_NANOS);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> granted = executor.submit(() ->
+                queue.await(new MockHttpServletRequest(), "subject:alice", permits));
+            awaitLength(1);
+
+            available.incrementAndGet();
+
+            assertTrue(granted.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, available.get());
+        assertEquals(1, waitTimer("admitted").count());
+        assertEquals(0.0, meterRegistry.get(WeightedFairQueue.LENGTH_NAME).gauge().value());
+    }
+
+    @Test
+    void await_ShouldShareFreedPermitsByWeight() throws Exception {
+        WeightedFairQueue queue = queue(Duration.ofSeconds(10));
+        AtomicInteger available = new AtomicInteger();
+        TestPermits permits = new TestPermits(available, PERMIT_INTERVAL_NANOS);
+        List<String> grants = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(12);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                for (String client : List.of("subject:heavy", "subject:light")) {
+                    futures.add(executor.submit(() -> {
+                        boolean granted = queue.await(new MockHttpServletRequest(), client, permits);
+                        synchronized (grants) {
+                            grants.add(client);
+                        }
+                        return granted;
+                    }));
+                }
+            }
+            awaitLength(12);
+
+            for (int granted = 1; granted <= 12; granted++) {
+                available.incrementAndGet();
+                awaitGrants(grants, granted);
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long heavyFirst = grants.subList(0, 6).stream().filter("subject:heavy"::equals).count();
+        assertEquals(4, heavyFirst);
+    }
+
+    @Test
+    void await_ShouldKeepWaitersAndLimitsPerSource() throws Exception {
+        WeightedFairQueue queue = queue(Duration.ofSeconds(5), 2);
+        AtomicInteger noisyAvailable = new AtomicInteger();
+        TestPermits noisyPermits = new TestPermits(noisyAvailable, PERMIT_INTERVAL_NANOS);
+        TestPermits otherPermits = new TestPermits(new AtomicInteger(1), PERMIT_INTERVAL_NANOS);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() ->
+                    queue.await(new MockHttpServletRequest(), "subject:noisy", noisyPermits)));
+            }
+            awaitLength(2);
+
+            assertTrue(queue.hasWaiters(noisyPermits));
+            assertFalse(queue.hasWaiters(otherPermits));
+            assertFalse(queue.await(new MockHttpServletRequest(), "subject:noisy", noisyPermits));
+            assertTrue(queue.await(new MockHttpServletRequest(), "subject:other", otherPermits));
+
+            noisyAvailable.set(2);
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertFalse(queue.hasWaiters(noisyPermits));
+    }
+
+    private WeightedFairQueue queue(Duration maxWait) {
+        return queue(maxWait, 10);
+    }
+
+    private WeightedFairQueue queue(Duration maxWait, int maxQueueLengthPerClient) {
+        RateLimitProperties.Queue properties = new RateLimitProperties.Queue();
+        properties.setMaxWait(maxWait);
+        properties.setMaxQueueLengthPerClient(maxQueueLengthPerClient);
+        properties.setWeights(Map.of("subject:heavy", 2));
+        return new WeightedFairQueue(properties, RateLimitKeyResolver.clientIp(), meterRegistry);
+    }
+
+    private double queueLength() {
+        return meterRegistry.get(WeightedFairQueue.LENGTH_NAME).gauge().value();
+    }
+
+    private Timer waitTimer(String outcome) {
+        return meterRegistry.get(WeightedFairQueue.WAIT_NAME).tag("outcome", outcome).timer();
+    }
+
+    private void awaitLength(int length) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queueLength() != length && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(length, queueLength());
+    }
+
+    private static void awaitGrants(List<String> grants, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            synchronized (grants) {
+                if (grants.size() >= count) {
+                    return;
+                }
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("Permit " + count + " was not granted");
+    }
+
+    private record TestPermits(AtomicInteger available, long intervalNanos) implements WeightedFairQueue.Permits {
+
+        @Override
+        public boolean tryAcquire() {
+            while (true) {
+                int current = available.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public long nanosUntilAvailable(int permits) {
+            return permits * intervalNanos;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.susimsek.springaisamples.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.susimsek.springaisamples.exception.idempotency.IdempotencyKeyInProgressException;
+import io.github.susimsek.springaisamples.idempotency.CachedResponse;
+import io.github.susimsek.springaisamples.idempotency.IdempotencyProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+class IdempotencyServiceTest {
+
+    private static final String JSON_BODY = "{\"message\":\"" + "a".repeat(4096) + "\"}";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void complete_ShouldReplayCompressedBodyWithContentTypeAndEncoding() throws Exception {
+        IdempotencyService service = service(DataSize.ofMegabytes(1));
+        byte[] body = JSON_BODY.getBytes(StandardCharsets.UTF_8);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Request-ID", "request-1");
+        store(service, "key-1", CachedResponse.of(201, headers, "application/json", "UTF-8", body),
+            Duration.ofMinutes(1));
+
+        CachedResponse cachedResponse = service.getResponse("key-1");
+        assertNotNull(cachedResponse);
+        assertTrue(cachedResponse.compressed());
+        assertTrue(cachedResponse.body().length < body.length / 10);
+
+        MockHttpServletResponse plain = new MockHttpServletResponse();
+        cachedResponse.writeTo(plain, false);
+        assertEquals(201, plain.getStatus());
+        assertEquals("application/json;charset=UTF-8", plain.getContentType());
+        assertEquals("request-1", plain.getHeader("X-Request-ID"));
+        assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, plain.getContentAsByteArray());
+
+        MockHttpServletResponse gzip = new MockHttpServletResponse();
+        cachedResponse.writeTo(gzip, true);
+        assertEquals("gzip", gzip.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream inputStream = new GZIPInputStream(
+            new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+            assertArrayEquals(body, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void complete_ShouldKeepSmallBodiesUncompressed() {
+        IdempotencyService service = service(DataSize.ofMegabytes(1));
+        store(service, "key-1", CachedResponse.of(200, new HttpHeaders(), "text/plain", "UTF-8",
+            "joke".getBytes(StandardCharsets.UTF_8)), Duration.ofMinutes(1));
+
+        CachedResponse cachedResponse = service.getResponse("key-1");
+
+        assertNotNull(cachedResponse);
+        assertFalse(cachedResponse.compressed());
+        assertEquals("joke", new String(cachedResponse.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void complete_ShouldEvictByBodySizeAndExportMetrics() {
+        IdempotencyService service = service(DataSize.ofKilobytes(16));
+        Random random = new Random(42);
+        for (int i = 0; i < 32; i++) {
+            byte[] body = new byte[2048];
+            random.nextBytes(body);
+            store(service, "key-" + i, CachedResponse.of(200, new HttpHeaders(),
+                "application/octet-stream", null, body), Duration.ofMinutes(1));
+        }
+        service.cleanUp();
+
+        assertTrue(service.weightedSize() <= DataSize.ofKilobytes(16).toBytes());
+        assertTrue(meterRegistry.get("cache.evictions").tag("cache", "idempotency").functionCounter().count() > 0);
+        assertEquals(service.weightedSize(),
+            meterRegistry.get(IdempotencyService.STORE_SIZE_NAME).gauge().value());
+    }
+
+    @Test
+    void complete_ShouldExpireAfterRouteTtl() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        IdempotencyProperties.Route route = new IdempotencyProperties.Route();
+        route.setPattern("/api/v*/ai/**");
+        route.setTtl(Duration.ZERO);
+        properties.setRoutes(List.of(route));
+        IdempotencyService service = new IdempotencyService(properties, meterRegistry);
+        MockHttpServletRequest aiRequest = request("/api/v1/ai/jokes");
+        MockHttpServletRequest cityRequest = request("/api/v1/cities");
+
+        store(service, "ai", CachedResponse.of(200, new HttpHeaders(), null, null, new byte[0]),
+            service.resolveTtl(aiRequest));
+        store(service, "city", CachedResponse.of(200, new HttpHeaders(), null, null, new byte[0]),
+            service.resolveTtl(cityRequest));
+
+        assertEquals(Duration.ofHours(24), service.resolveTtl(cityRequest));
+        assertNull(service.getResponse("ai"));
+        assertNotNull(service.getResponse("city"));
+    }
+
+    @Test
+    void begin_ShouldHandleConcurrentDuplicatesOnce() throws Exception {
+        IdempotencyService service = service(DataSize.ofMegabytes(1));
+        CachedResponse produced = CachedResponse.of(200, new HttpHeaders(), "text/plain", "UTF-8",
+            "joke".getBytes(StandardCharsets.UTF_8));
+        AtomicInteger handled = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CachedResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    IdempotencyService.Execution execution = service.begin("key-1", Duration.ofMinutes(1));
+                    if (execution.getResponse() != null) {
+                        return execution.getResponse();
+                    }
+                    handled.incrementAndGet();
+                    Thread.sleep(50);
+                    execution.complete(produced);
+                    execution.release();
+                    return produced;
+                }));
+            }
+            start.countDown();
+
+            for (Future<CachedResponse> future : futures) {
+                assertSame(produced, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, handled.get());
+        assertSame(produced, service.getResponse("key-1"));
+    }
+
+    @Test
+    void begin_ShouldHandOverKeyWhenFirstRequestEndsWithoutResponse() throws Exception {
+        IdempotencyService service = service(DataSize.ofMegabytes(1));
+        IdempotencyService.Execution first = service.begin("key-1", Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyService.Execution> duplicate = executor.submit(() ->
+                service.begin("key-1", Duration.ofMinutes(1)));
+            Thread.sleep(50);
+            assertFalse(duplicate.isDone());
+
+            first.release();
+
+            assertNull(duplicate.get(5, TimeUnit.SECONDS).getResponse());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void begin_ShouldRefuseDuplicateAfterWaitTimeout() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setWaitTimeout(Duration.ofMillis(50));
+        IdempotencyService service = new IdempotencyService(properties, meterRegistry);
+        service.begin("key-1", Duration.ofMinutes(1));
+
+        assertThrows(IdempotencyKeyInProgressException.class,
+            () -> service.begin("key-1", Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void begin_ShouldKeepInFlightKeysWhenStoreIsFull() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setMaximumSize(DataSize.ofKilobytes(16));
+        properties.setWaitTimeout(Duration.ofMillis(50));
+        IdempotencyService service = new IdempotencyService(properties, meterRegistry);
+        service.begin("in-flight", Duration.ofMinutes(1));
+        Random random = new Random(42);
+        for (int i = 0; i < 32; i++) {
+            byte[] body = new byte[2048];
+            random.nextBytes(body);
+            store(service, "key-" + i, CachedResponse.of(200, new HttpHeaders(),
+                "application/octet-stream", null, body), Duration.ofMinutes(1));
+        }
+        service.cleanUp();
+
+        assertThrows(IdempotencyKeyInProgressException.class,
+            () -> service.begin("in-flight", Duration.ofMinutes(1)));
+    }
+
+    private static void store(IdempotencyService service, String key, CachedResponse response, Duration ttl) {
+        IdempotencyService.Execution execution = service.begin(key, ttl);
+        execution.complete(response);
+        execution.release();
+    }
+
+    private IdempotencyService service(DataSize maximumSize) {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setMaximumSize(maximumSize);
+        return new IdempotencyService(properties, meterRegistry);
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
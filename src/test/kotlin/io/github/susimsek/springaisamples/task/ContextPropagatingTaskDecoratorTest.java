@@ -0,0 +1,62 @@
+package io.github.susimsek.springaisamples.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.github.susimsek.springaisamples.trace.Trace;
+import io.github.susimsek.springaisamples.trace.TraceContextHolder;
+import io.github.susimsek.springaisamples.versioning.ApiInfo;
+import io.github.susimsek.springaisamples.versioning.ApiInfoContextHolder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class ContextPropagatingTaskDecoratorTest {
+
+    private final ContextPropagatingTaskDecorator decorator = new ContextPropagatingTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        TraceContextHolder.clear();
+        ApiInfoContextHolder.clear();
+        MDC.clear();
+    }
+
+    @Test
+    void decorate_ShouldPropagateContextToWorkerThread() throws Exception {
+        TraceContextHolder.setTrace(Trace.builder().requestId("req-1").build());
+        ApiInfoContextHolder.setApiInfo(ApiInfo.builder().apiVersion("v1").build());
+        MDC.put("requestId", "req-1");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        Runnable task = decorator.decorate(() -> seen.set(TraceContextHolder.getTrace().getRequestId()
+            + ":" + ApiInfoContextHolder.getApiInfo().getApiVersion() + ":" + MDC.get("requestId")));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture.runAsync(task, executor).get();
+            CompletableFuture.runAsync(() -> seen.set(seen.get() + ":" + TraceContextHolder.getTrace()),
+                executor).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals("req-1:v1:req-1:null", seen.get());
+    }
+
+    @Test
+    void decorate_ShouldRestoreCallerContextWhenRunInline() {
+        Runnable task = decorator.decorate(() -> MDC.put("requestId", "task"));
+        TraceContextHolder.setTrace(Trace.builder().requestId("caller").build());
+        MDC.put("requestId", "caller");
+
+        task.run();
+
+        assertEquals("caller", TraceContextHolder.getTrace().getRequestId());
+        assertEquals("caller", MDC.get("requestId"));
+        assertNull(ApiInfoContextHolder.getApiInfo());
+    }
+}
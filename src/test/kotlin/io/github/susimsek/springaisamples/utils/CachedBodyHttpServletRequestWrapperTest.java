@@ -0,0 +1,101 @@
+package io.github.susimsek.springaisamples.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+
+class CachedBodyHttpServletRequestWrapperTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void wrap_ShouldReuseExistingWrapperFromRequestChain() throws IOException {
+        CachedBodyHttpServletRequestWrapper wrapper = CachedBodyHttpServletRequestWrapper.wrap(request("{}"));
+        HttpServletRequestWrapper outer = new HttpServletRequestWrapper(wrapper);
+
+        CachedBodyHttpServletRequestWrapper reused = CachedBodyHttpServletRequestWrapper.wrap(outer);
+
+        assertSame(wrapper, reused);
+        assertSame(outer, reused.chainRequest(outer));
+    }
+
+    @Test
+    void getContentAsJsonNode_ShouldParseOnce() throws IOException {
+        CachedBodyHttpServletRequestWrapper wrapper = CachedBodyHttpServletRequestWrapper.wrap(
+            request("{\"name\":\"value\"}"));
+
+        JsonNode first = wrapper.getContentAsJsonNode(objectMapper);
+        JsonNode second = wrapper.getContentAsJsonNode(objectMapper);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals("value", first.get("name").asText());
+    }
+
+    @Test
+    void getContentAsJsonNode_ShouldReturnNullForInvalidJson() throws IOException {
+        CachedBodyHttpServletRequestWrapper wrapper = CachedBodyHttpServletRequestWrapper.wrap(request("not-json"));
+
+        assertNull(wrapper.getContentAsJsonNode(objectMapper));
+        assertEquals("not-json", wrapper.getContentAsString());
+    }
+
+    @Test
+    void getContentAsJsonNode_ShouldKeepDecimalPrecision() throws IOException {
+        CachedBodyHttpServletRequestWrapper wrapper = CachedBodyHttpServletRequestWrapper.wrap(
+            request("{\"amount\":12345678901234567890.10}"));
+
+        JsonNode amount = wrapper.getContentAsJsonNode(objectMapper).get("amount");
+
+        assertEquals(new BigDecimal("12345678901234567890.10"), amount.decimalValue());
+    }
+
+    @Test
+    void sanitizeJsonBody_ShouldNotMutateSharedJsonTree() throws IOException {
+        CachedBodyHttpServletRequestWrapper wrapper = CachedBodyHttpServletRequestWrapper.wrap(
+            request("{\"name\":\"<b>value</b>\",\"amount\":1.50}"));
+        JsonNode shared = wrapper.getContentAsJsonNode(objectMapper);
+
+        new SanitizationUtil(objectMapper).sanitizeJsonBody(wrapper);
+
+        assertEquals("<b>value</b>", shared.get("name").asText());
+        assertNotEquals(shared, wrapper.getCachedJsonNode());
+        assertEquals("{\"name\":\"&lt;b&gt;value&lt;/b&gt;\",\"amount\":1.50}", wrapper.getContentAsString());
+    }
+
+    @Test
+    void setBody_ShouldInvalidateJsonAndKeepOriginalBody() throws IOException {
+        CachedBodyHttpServletRequestWrapper wrapper = CachedBodyHttpServletRequestWrapper.wrap(
+            request("{\"name\":\"value\"}"));
+        wrapper.getContentAsJsonNode(objectMapper);
+
+        wrapper.setBody("{\"name\":\"other\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(wrapper.getCachedJsonNode());
+        assertEquals("other", wrapper.getContentAsJsonNode(objectMapper).get("name").asText());
+        assertArrayEquals("{\"name\":\"value\"}".getBytes(StandardCharsets.UTF_8),
+            wrapper.getOriginalContentAsByteArray());
+        assertEquals("{\"name\":\"other\"}",
+            StreamUtils.copyToString(wrapper.getInputStream(), StandardCharsets.UTF_8));
+        assertEquals(16, wrapper.getContentLength());
+    }
+
+    private MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/cities");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.susimsek.springaisamples.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class HttpHeadersUtilTest {
+
+    @Test
+    void requestHeaders_ShouldReadThroughToRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept", "application/json");
+
+        HttpHeaders headers = HttpHeadersUtil.requestHeaders(request);
+        request.addHeader("X-Request-Id", "42");
+
+        assertEquals("42", headers.getFirst("x-request-id"));
+        assertEquals(List.of("application/json"), headers.get("ACCEPT"));
+        assertEquals(Set.of("Accept", "X-Request-Id"), headers.keySet());
+        assertNull(headers.get("Authorization"));
+        assertThrows(UnsupportedOperationException.class, () -> headers.add("Accept", "text/plain"));
+    }
+
+    @Test
+    void maskedHeaders_ShouldMaskCaseInsensitivelyOnRead() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("Set-Cookie", "session=secret");
+        response.addHeader("Content-Type", "application/json");
+        Set<String> maskedNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        maskedNames.add("set-cookie");
+
+        HttpHeaders masked = HttpHeadersUtil.maskedHeaders(
+            HttpHeadersUtil.responseHeaders(response), maskedNames, "****");
+
+        assertEquals(List.of("****"), masked.get("Set-Cookie"));
+        assertEquals("application/json", masked.getFirst("Content-Type"));
+        assertEquals("session=secret", response.getHeader("Set-Cookie"));
+    }
+
+    @Test
+    void snapshot_ShouldNotDependOnSource() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("Cache-Control", "no-store");
+        response.addHeader("Vary", "Origin");
+        response.addHeader("Vary", "Accept");
+
+        HttpHeaders snapshot = HttpHeadersUtil.snapshot(HttpHeadersUtil.responseHeaders(response));
+        response.reset();
+
+        assertEquals("no-store", snapshot.getCacheControl());
+        assertEquals(List.of("Origin", "Accept"), snapshot.get("vary"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add("Vary", "Cookie"));
+    }
+}
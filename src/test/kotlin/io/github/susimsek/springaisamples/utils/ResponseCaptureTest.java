@@ -0,0 +1,67 @@
+package io.github.susimsek.springaisamples.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.susimsek.springaisamples.enums.FilterOrder;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ResponseCaptureTest {
+
+    @Test
+    void complete_ShouldRunProcessorsInnermostFirstOverSingleBuffer() throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseCapture outer = ResponseCapture.begin(request, response)
+            .addProcessor(FilterOrder.LOGGING, (req, res) -> res.setHeader("X-Seen",
+                new String(res.getContentAsByteArray(), StandardCharsets.UTF_8)));
+        ResponseCapture inner = ResponseCapture.begin(request, outer.chainResponse(response))
+            .addProcessor(FilterOrder.ENCRYPTION, (req, res) -> {
+                res.resetBuffer();
+                res.getOutputStream().write("encrypted".getBytes(StandardCharsets.UTF_8));
+            });
+        assertSame(outer, inner);
+
+        inner.getResponse().getOutputStream().write("plain".getBytes(StandardCharsets.UTF_8));
+        inner.complete(request);
+        assertEquals("", response.getContentAsString());
+
+        outer.complete(request);
+
+        assertEquals("encrypted", response.getContentAsString());
+        assertEquals("encrypted", response.getHeader("X-Seen"));
+        assertNull(request.getAttribute(ResponseCapture.class.getName()));
+    }
+
+    @Test
+    void proceed_ShouldReleaseCaptureWithoutProcessingWhenChainFails() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean processed = new AtomicBoolean();
+        ResponseCapture outer = ResponseCapture.begin(request, response)
+            .addProcessor(FilterOrder.IDEMPOTENCY, (req, res) -> processed.set(true));
+
+        assertThrows(IllegalStateException.class, () -> outer.proceed(FilterOrder.IDEMPOTENCY,
+            (req, res) -> ResponseCapture.begin(request, response)
+                .addProcessor(FilterOrder.ENCRYPTION, (innerReq, innerRes) -> processed.set(true))
+                .proceed(FilterOrder.ENCRYPTION, (innerReq, innerRes) -> {
+                    innerRes.getOutputStream().write("partial".getBytes(StandardCharsets.UTF_8));
+                    throw new IllegalStateException("boom");
+                }, request, response),
+            request, response));
+
+        assertFalse(processed.get());
+        assertEquals("", response.getContentAsString());
+        assertNull(request.getAttribute(ResponseCapture.class.getName()));
+    }
+}